@@ -218,6 +218,11 @@ public abstract class AbstractArithmeticsUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.example.arithmetics.ui.contentassist.antlr.PartialArithmeticsContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.example.arithmetics.ui.contentassist.antlr.PartialArithmeticsContentAssistParser.class);
+	}
+
 	// contributed by org.eclipse.xtext.ui.generator.compare.CompareFragment
 	public Class<? extends org.eclipse.compare.IViewerCreator> bindIViewerCreator() {
 		return org.eclipse.xtext.ui.compare.DefaultViewerCreator.class;
@@ -351,5 +351,10 @@ public abstract class AbstractDomainmodelUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.example.domainmodel.ui.contentassist.antlr.PartialDomainmodelContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.example.domainmodel.ui.contentassist.antlr.PartialDomainmodelContentAssistParser.class);
+	}
+
 
 }
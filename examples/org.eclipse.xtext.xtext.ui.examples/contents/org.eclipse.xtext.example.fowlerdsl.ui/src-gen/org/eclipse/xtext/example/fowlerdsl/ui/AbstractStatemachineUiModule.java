@@ -208,6 +208,11 @@ public abstract class AbstractStatemachineUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.example.fowlerdsl.ui.contentassist.antlr.PartialStatemachineContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.example.fowlerdsl.ui.contentassist.antlr.PartialStatemachineContentAssistParser.class);
+	}
+
 	// contributed by org.eclipse.xtext.ui.generator.refactoring.RefactorElementNameFragment
 	public Class<? extends org.eclipse.xtext.ui.refactoring.IRenameStrategy> bindIRenameStrategy() {
 		return org.eclipse.xtext.ui.refactoring.impl.DefaultRenameStrategy.class;
@@ -346,6 +346,11 @@ public abstract class AbstractTutorialUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.example.tutorial.ui.contentassist.antlr.PartialTutorialContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.example.tutorial.ui.contentassist.antlr.PartialTutorialContentAssistParser.class);
+	}
+
 	// contributed by org.eclipse.xtext.ui.generator.compare.CompareFragment
 	public Class<? extends org.eclipse.compare.IViewerCreator> bindIViewerCreator() {
 		return org.eclipse.xtext.ui.compare.DefaultViewerCreator.class;
@@ -15,6 +15,8 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
@@ -29,6 +31,8 @@ import org.eclipse.xtend.core.macro.ProcessorInstanceForJvmTypeProvider;
 import org.eclipse.xtend.core.xtend.XtendFile;
 import org.eclipse.xtext.common.types.JvmDeclaredType;
 import org.eclipse.xtext.common.types.TypesPackage;
+import org.eclipse.xtext.common.types.access.binary.BinaryClassFinder;
+import org.eclipse.xtext.common.types.access.binary.BinaryClassTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
 import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
 import org.eclipse.xtext.common.types.descriptions.IStubGenerator;
@@ -48,13 +52,20 @@ import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.impl.ResourceSetBasedResourceDescriptions;
+import org.eclipse.xtext.resource.persistence.AffectedResourcesCalculator;
+import org.eclipse.xtext.resource.persistence.BuildState;
+import org.eclipse.xtext.resource.persistence.BuildStatePersister;
+import org.eclipse.xtext.resource.persistence.DetachedResourceDescription;
+import org.eclipse.xtext.resource.persistence.FingerprintCalculator;
 import org.eclipse.xtext.util.Strings;
 import org.eclipse.xtext.validation.CheckMode;
 import org.eclipse.xtext.validation.IResourceValidator;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.compiler.IGeneratorConfigProvider;
 import org.eclipse.xtext.xbase.compiler.JvmModelGenerator;
+import org.eclipse.xtext.xbase.compiler.ParallelJvmModelGenerator;
 import org.eclipse.xtext.xbase.file.ProjectConfig;
 import org.eclipse.xtext.xbase.file.RuntimeWorkspaceConfigProvider;
 import org.eclipse.xtext.xbase.file.WorkspaceConfig;
@@ -63,6 +74,8 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
@@ -120,6 +133,14 @@ public class XtendBatchCompiler {
 	private CompilerPhases compilerPhases;
 	@Inject
 	private IStubGenerator stubGenerator;
+	@Inject
+	private FingerprintCalculator fingerprintCalculator;
+	@Inject
+	private BuildStatePersister buildStatePersister;
+	@Inject
+	private AffectedResourcesCalculator affectedResourcesCalculator;
+	@Inject
+	private ParallelJvmModelGenerator parallelGenerator;
 
 	protected Writer outputWriter;
 	protected Writer errorWriter;
@@ -135,7 +156,62 @@ public class XtendBatchCompiler {
 	protected List<File> tempFolders = Lists.newArrayList();
 	protected boolean writeTraceFiles = true;
 	protected ClassLoader currentClassLoader = getClass().getClassLoader();
+	protected String buildStateFile;
+	protected boolean useBinaryTypeProvider = false;
+	protected int numberOfThreads = 1;
 	
+	/**
+	 * @since 2.5
+	 */
+	public String getBuildStateFile() {
+		return buildStateFile;
+	}
+
+	/**
+	 * Enables incremental compilation. Only the Xtend files that changed since the last successful compilation and
+	 * the files that are affected by these changes are compiled. The index of the last compilation is kept in the
+	 * given file. Changes to Java sources are not tracked.
+	 * 
+	 * @since 2.5
+	 */
+	public void setBuildStateFile(String buildStateFile) {
+		this.buildStateFile = buildStateFile;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public boolean isUseBinaryTypeProvider() {
+		return useBinaryTypeProvider;
+	}
+
+	/**
+	 * Reads the referenced Java types from their class files instead of loading them with reflection. This avoids
+	 * defining all classes of the class path in the compiler's class loader.
+	 * 
+	 * @since 2.5
+	 */
+	public void setUseBinaryTypeProvider(boolean useBinaryTypeProvider) {
+		this.useBinaryTypeProvider = useBinaryTypeProvider;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Generates the Java files with the given number of threads. The generated files are the same as with a single
+	 * thread.
+	 * 
+	 * @since 2.5
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	public void setCurrentClassLoader(ClassLoader currentClassLoader) {
 		this.currentClassLoader = currentClassLoader;
 	}
@@ -373,6 +449,9 @@ public class XtendBatchCompiler {
 			}
 			ResourceSet resourceSet = resourceSetProvider.get();
 			File classDirectory = createTempDir("classes");
+			if (buildStateFile != null) {
+				return compileIncrementally(resourceSet, classDirectory);
+			}
 			try {
 				compilerPhases.setIndexing(resourceSet, true);
 				// install a type provider without index lookup for the first phase
@@ -404,8 +483,155 @@ public class XtendBatchCompiler {
 		return true;
 	}
 
-	protected ResourceSet loadXtendFiles(final ResourceSet resourceSet) {
+	/**
+	 * Compiles the Xtend files that changed since the last successful compilation and the files that are affected by
+	 * these changes. Falls back to a full compilation if there is no usable build state.
+	 * 
+	 * @since 2.5
+	 */
+	protected boolean compileIncrementally(final ResourceSet resourceSet, File classDirectory) {
+		File stateFile = new File(buildStateFile);
 		encodingProvider.setDefaultEncoding(getFileEncoding());
+		List<URI> sourceURIs = collectXtendFiles();
+		Map<URI, String> fingerprints;
+		try {
+			fingerprints = fingerprintCalculator.getFingerprints(sourceURIs, resourceSet.getURIConverter());
+		} catch (IOException e) {
+			throw new WrappedException(e);
+		}
+		String environment = fingerprintCalculator.getEnvironmentFingerprint(
+				concat(getClassPathEntries(), getSourcePathDirectories()), getComplianceLevel(), getFileEncoding(),
+				outputPath, String.valueOf(writeTraceFiles));
+		BuildState previousState = buildStatePersister.load(stateFile, resourceSet);
+		if (previousState != null && !environment.equals(previousState.getEnvironmentFingerprint())) {
+			log.info("The class path or the compiler settings changed since the last compilation.");
+			previousState = null;
+		}
+		ResourceDescriptionsData index;
+		Set<URI> toBuild;
+		try {
+			compilerPhases.setIndexing(resourceSet, true);
+			// install a type provider without index lookup for the first phase
+			installJvmTypeProvider(resourceSet, classDirectory, true);
+			if (previousState == null) {
+				List<IResourceDescription> descriptions = Lists.newArrayListWithCapacity(sourceURIs.size());
+				for (URI uri : sourceURIs) {
+					Resource resource = resourceSet.getResource(uri, true);
+					descriptions.add(DetachedResourceDescription.copyExportedObjects(resourceDescriptionManager
+							.getResourceDescription(resource)));
+				}
+				index = new ResourceDescriptionsData(descriptions);
+				ResourceDescriptionsData.ResourceSetAdapter.installResourceDescriptionsData(resourceSet, index);
+				toBuild = Sets.newLinkedHashSet(sourceURIs);
+			} else {
+				Set<URI> changed = previousState.getChangedURIs(fingerprints);
+				Set<URI> deleted = previousState.getDeletedURIs(fingerprints);
+				if (changed.isEmpty() && deleted.isEmpty()) {
+					log.info("All Xtend files in '" + sourcePath + "' are up to date.");
+					return true;
+				}
+				index = previousState.getIndex().copy();
+				ResourceDescriptionsData.ResourceSetAdapter.installResourceDescriptionsData(resourceSet, index);
+				toBuild = affectedResourcesCalculator.computeResourcesToBuild(index, changed, deleted,
+						getResourceDescriptions(resourceSet), new AffectedResourcesCalculator.DescriptionProvider() {
+							public IResourceDescription getNewDescription(URI uri) {
+								Resource resource = resourceSet.getResource(uri, true);
+								return DetachedResourceDescription.copyExportedObjects(resourceDescriptionManager
+										.getResourceDescription(resource));
+							}
+						});
+				for (URI uri : deleted) {
+					deleteJavaFiles(previousState.getIndex().getResourceDescription(uri), null);
+				}
+			}
+			File sourceDirectory = createStubs(index.getAllResourceDescriptions());
+			if (!preCompileStubs(sourceDirectory, classDirectory)) {
+				log.debug("Compilation of stubs and existing Java code had errors. This is expected and usually is not a probblem.");
+			}
+		} finally {
+			compilerPhases.setIndexing(resourceSet, false);
+		}
+		// install a fresh type provider for the second phase, so we clear all previously cached classes and misses.
+		installJvmTypeProvider(resourceSet, classDirectory, false);
+		List<Resource> resources = Lists.newArrayListWithCapacity(toBuild.size());
+		for (URI uri : sourceURIs) {
+			if (toBuild.contains(uri)) {
+				resources.add(resourceSet.getResource(uri, true));
+			}
+		}
+		for (Resource resource : resources) {
+			EcoreUtil.resolveAll(resource);
+		}
+		List<Issue> issues = validate(resources);
+		Iterable<Issue> errors = Iterables.filter(issues, SeverityFilter.ERROR);
+		Iterable<Issue> warnings = Iterables.filter(issues, SeverityFilter.WARNING);
+		reportIssues(Iterables.concat(errors, warnings));
+		if (!Iterables.isEmpty(errors)) {
+			return false;
+		}
+		Map<URI, IResourceDescription> newDescriptions = Maps.newHashMap();
+		List<IEObjectDescription> exportedTypes = Lists.newArrayList();
+		for (Resource resource : resources) {
+			IResourceDescription description = resourceDescriptionManager.getResourceDescription(resource);
+			newDescriptions.put(resource.getURI(), description);
+			addAll(exportedTypes, description.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE));
+			if (previousState != null) {
+				deleteJavaFiles(previousState.getIndex().getResourceDescription(resource.getURI()), description);
+			}
+		}
+		generateJavaFiles(exportedTypes);
+		saveBuildState(stateFile, index, newDescriptions, fingerprints, environment);
+		return true;
+	}
+
+	/**
+	 * Deletes the Java files of the types that were exported by the old description but are no longer exported by the
+	 * new one.
+	 */
+	protected void deleteJavaFiles(@Nullable IResourceDescription oldDescription,
+			@Nullable IResourceDescription newDescription) {
+		if (oldDescription == null) {
+			return;
+		}
+		Set<QualifiedName> newTypeNames = Sets.newHashSet();
+		if (newDescription != null) {
+			for (IEObjectDescription type : newDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE)) {
+				newTypeNames.add(type.getQualifiedName());
+			}
+		}
+		JavaIoFileSystemAccess javaIoFileSystemAccess = javaIoFileSystemAccessProvider.get();
+		javaIoFileSystemAccess.setOutputPath(outputPath);
+		for (IEObjectDescription type : oldDescription.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE)) {
+			if (type.getUserData(JvmTypesResourceDescriptionStrategy.IS_NESTED_TYPE) == null
+					&& !newTypeNames.contains(type.getQualifiedName())) {
+				if (log.isDebugEnabled()) {
+					log.debug("delete '" + outputPath + File.separator + getJavaFileName(type.getQualifiedName()) + "'");
+				}
+				javaIoFileSystemAccess.deleteFile(getJavaFileName(type.getQualifiedName()));
+			}
+		}
+	}
+
+	protected void saveBuildState(File stateFile, ResourceDescriptionsData index,
+			Map<URI, IResourceDescription> newDescriptions, Map<URI, String> fingerprints, String environment) {
+		List<IResourceDescription> descriptions = Lists.newArrayList();
+		for (IResourceDescription description : index.getAllResourceDescriptions()) {
+			IResourceDescription newDescription = newDescriptions.get(description.getURI());
+			descriptions.add(newDescription != null ? DetachedResourceDescription.copyAll(newDescription) : description);
+		}
+		BuildState state = new BuildState(new ResourceDescriptionsData(descriptions), fingerprints, environment);
+		try {
+			buildStatePersister.save(state, stateFile);
+		} catch (IOException e) {
+			log.warn("Could not save the build state to '" + stateFile + "'.", e);
+		}
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected List<URI> collectXtendFiles() {
+		final List<URI> result = Lists.newArrayList();
 		final NameBasedFilter nameBasedFilter = new NameBasedFilter();
 		nameBasedFilter.setExtension(fileExtensionProvider.getPrimaryFileExtension());
 		PathTraverser pathTraverser = new PathTraverser();
@@ -413,14 +639,22 @@ public class XtendBatchCompiler {
 			public boolean apply(URI input) {
 				boolean matches = nameBasedFilter.matches(input);
 				if (matches) {
-					if (log.isDebugEnabled()) {
-						log.debug("load xtend file '" + input + "'");
-					}
-					resourceSet.getResource(input, true);
+					result.add(input);
 				}
 				return matches;
 			}
 		});
+		return result;
+	}
+
+	protected ResourceSet loadXtendFiles(final ResourceSet resourceSet) {
+		encodingProvider.setDefaultEncoding(getFileEncoding());
+		for (URI uri : collectXtendFiles()) {
+			if (log.isDebugEnabled()) {
+				log.debug("load xtend file '" + uri + "'");
+			}
+			resourceSet.getResource(uri, true);
+		}
 		return resourceSet;
 	}
 	
@@ -431,12 +665,21 @@ public class XtendBatchCompiler {
 	}
 
 	protected File createStubs(ResourceSet resourceSet) {
+		List<IResourceDescription> descriptions = Lists.newArrayList();
+		for (Resource resource : Lists.newArrayList(resourceSet.getResources())) {
+			descriptions.add(resourceDescriptionManager.getResourceDescription(resource));
+		}
+		return createStubs(descriptions);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected File createStubs(Iterable<IResourceDescription> descriptions) {
 		File outputDirectory = createTempDir("stubs");
 		JavaIoFileSystemAccess fileSystemAccess = javaIoFileSystemAccessProvider.get();
 		fileSystemAccess.setOutputPath(outputDirectory.toString());
-		List<Resource> resources = Lists.newArrayList(resourceSet.getResources());
-		for (Resource resource : resources) {
-			IResourceDescription description = resourceDescriptionManager.getResourceDescription(resource);
+		for (IResourceDescription description : descriptions) {
 			stubGenerator.doGenerateStubs(fileSystemAccess, description);
 		}
 		return outputDirectory;
@@ -470,8 +713,14 @@ public class XtendBatchCompiler {
 	}
 
 	protected List<Issue> validate(ResourceSet resourceSet) {
+		return validate(Lists.newArrayList(resourceSet.getResources()));
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected List<Issue> validate(List<Resource> resources) {
 		List<Issue> issues = Lists.newArrayList();
-		List<Resource> resources = Lists.newArrayList(resourceSet.getResources());
 		for (Resource resource : resources) {
 			IResourceServiceProvider resourceServiceProvider = IResourceServiceProvider.Registry.INSTANCE
 					.getResourceServiceProvider(resource.getURI());
@@ -531,7 +780,11 @@ public class XtendBatchCompiler {
 			log.debug("classpath used for Xtend compilation : " + classPathUrls);
 		}
 		URLClassLoader urlClassLoader = new URLClassLoader(toArray(classPathUrls, URL.class), useCurrentClassLoaderAsParent ? currentClassLoader : null);
-		new ClasspathTypeProvider(urlClassLoader, resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess);
+		if (useBinaryTypeProvider) {
+			new BinaryClassTypeProvider(new BinaryClassFinder(urlClassLoader), resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess);
+		} else {
+			new ClasspathTypeProvider(urlClassLoader, resourceSet, skipIndexLookup ? null : indexedJvmTypeAccess);
+		}
 		((XtextResourceSet) resourceSet).setClasspathURIContext(urlClassLoader);
 		
 		// for annotation processing we need to have the compiler's classpath as a parent.
@@ -566,12 +819,17 @@ public class XtendBatchCompiler {
 	}
 
 	protected void generateJavaFiles(ResourceSet resourceSet) {
+		ResourceSetBasedResourceDescriptions resourceDescriptions = getResourceDescriptions(resourceSet);
+		generateJavaFiles(resourceDescriptions.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE));
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected void generateJavaFiles(Iterable<IEObjectDescription> exportedObjectsByType) {
 		JavaIoFileSystemAccess javaIoFileSystemAccess = javaIoFileSystemAccessProvider.get();
 		javaIoFileSystemAccess.setOutputPath(outputPath);
 		javaIoFileSystemAccess.setWriteTrace(writeTraceFiles);
-		ResourceSetBasedResourceDescriptions resourceDescriptions = getResourceDescriptions(resourceSet);
-		Iterable<IEObjectDescription> exportedObjectsByType = resourceDescriptions
-				.getExportedObjectsByType(TypesPackage.Literals.JVM_DECLARED_TYPE);
 		if (log.isInfoEnabled()) {
 			int size = Iterables.size(exportedObjectsByType);
 			if (size == 0) {
@@ -580,6 +838,10 @@ public class XtendBatchCompiler {
 				log.info("Compiling " + size + " source " + (size == 1 ? "file" : "files") + " to " + outputPath);
 			}
 		}
+		if (numberOfThreads > 1) {
+			generateJavaFilesInParallel(exportedObjectsByType, javaIoFileSystemAccess);
+			return;
+		}
 		for (IEObjectDescription eObjectDescription : exportedObjectsByType) {
 			if (eObjectDescription.getUserData(JvmTypesResourceDescriptionStrategy.IS_NESTED_TYPE) != null) {
 				continue;
@@ -595,6 +857,37 @@ public class XtendBatchCompiler {
 		}
 	}
 
+	/**
+	 * Freezes the resources of the exported types and generates the types with {@link #getNumberOfThreads()}
+	 * threads.
+	 * 
+	 * @since 2.5
+	 */
+	protected void generateJavaFilesInParallel(Iterable<IEObjectDescription> exportedObjectsByType,
+			JavaIoFileSystemAccess javaIoFileSystemAccess) {
+		Map<JvmDeclaredType, String> fileNames = Maps.newLinkedHashMap();
+		Set<Resource> resources = Sets.newLinkedHashSet();
+		for (IEObjectDescription eObjectDescription : exportedObjectsByType) {
+			if (eObjectDescription.getUserData(JvmTypesResourceDescriptionStrategy.IS_NESTED_TYPE) != null) {
+				continue;
+			}
+			JvmDeclaredType jvmGenericType = (JvmDeclaredType) eObjectDescription.getEObjectOrProxy();
+			QualifiedName qualifiedName = qualifiedNameProvider.getFullyQualifiedName(jvmGenericType);
+			if (log.isDebugEnabled()) {
+				log.debug("write '" + outputPath + File.separator + getJavaFileName(qualifiedName) + "'");
+			}
+			fileNames.put(jvmGenericType, getJavaFileName(qualifiedName));
+			resources.add(jvmGenericType.eResource());
+		}
+		parallelGenerator.freeze(resources);
+		try {
+			parallelGenerator.generateTypes(fileNames, javaIoFileSystemAccess, numberOfThreads);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
 	protected ResourceSetBasedResourceDescriptions getResourceDescriptions(ResourceSet resourceSet) {
 		ResourceSetBasedResourceDescriptions resourceDescriptions = resourceSetDescriptionsProvider.get();
 		resourceDescriptions.setContext(resourceSet);
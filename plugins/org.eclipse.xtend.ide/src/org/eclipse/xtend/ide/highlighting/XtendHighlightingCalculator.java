@@ -137,6 +137,22 @@ public class XtendHighlightingCalculator extends XbaseHighlightingCalculator {
 		super.doProvideHighlightingFor(resource, acceptor);
 	}
 
+	/**
+	 * Rich strings are highlighted incrementally, too.
+	 * 
+	 * @since 2.5
+	 */
+	@Override
+	protected boolean isIncrementalHighlightingSupported() {
+		return !isResourceHighlightingOverriddenBelow(XtendHighlightingCalculator.class);
+	}
+
+	@Override
+	protected void doProvideHighlightingFor(XExpression expression, IHighlightedPositionAcceptor acceptor) {
+		highlightRichStrings(expression, acceptor);
+		super.doProvideHighlightingFor(expression, acceptor);
+	}
+
 	protected void highlightRichStringsInAnnotations(IHighlightedPositionAcceptor acceptor, XtendAnnotationTarget target) {
 		if (target != null) {
 			for(XAnnotation annotation: target.getAnnotations()) {
@@ -25,6 +25,7 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.eclipse.xtend.core.compiler.batch.XtendBatchCompiler;
 import org.eclipse.xtend.lib.macro.file.Path;
+import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.xbase.file.ProjectConfig;
 import org.eclipse.xtext.xbase.file.RuntimeWorkspaceConfigProvider;
 import org.eclipse.xtext.xbase.file.WorkspaceConfig;
@@ -64,6 +65,28 @@ public abstract class AbstractXtendCompilerMojo extends AbstractXtendMojo {
 	 */
 	protected boolean writeTraceFiles;
 
+	/**
+	 * Set this to true to compile only the Xtend files that changed since the last successful compilation, and the
+	 * files affected by these changes. The build state is kept in the temp directory.
+	 * 
+	 * @parameter default-value="false" expression="${xtend.incremental}"
+	 */
+	protected boolean incremental;
+
+	/**
+	 * The number of threads that generate the Java files.
+	 * 
+	 * @parameter default-value="1" expression="${xtend.numberOfThreads}"
+	 */
+	protected int numberOfThreads;
+
+	/**
+	 * Set this to true to record the stopwatches of the compilation and log the timings afterwards.
+	 * 
+	 * @parameter default-value="false" expression="${xtend.printStopwatches}"
+	 */
+	protected boolean printStopwatches;
+
 	/**
 	 * Location of the Xtend settings file.
 	 * 
@@ -106,9 +129,27 @@ public abstract class AbstractXtendCompilerMojo extends AbstractXtendMojo {
 		xtend2BatchCompiler.setFileEncoding(encoding);
 		getLog().debug("Set writeTraceFiles: " + writeTraceFiles);
 		xtend2BatchCompiler.setWriteTraceFiles(writeTraceFiles);
-		if (!xtend2BatchCompiler.compile()) {
-			throw new MojoExecutionException("Error compiling xtend sources in '"
-					+ concat(File.pathSeparator, newArrayList(filtered)) + "'.");
+		getLog().debug("Set numberOfThreads: " + numberOfThreads);
+		xtend2BatchCompiler.setNumberOfThreads(numberOfThreads);
+		if (incremental) {
+			String buildStateFile = new File(getTempDirectory(), "build.state").getAbsolutePath();
+			getLog().debug("Set build state file: " + buildStateFile);
+			xtend2BatchCompiler.setBuildStateFile(buildStateFile);
+		}
+		if (printStopwatches) {
+			Stopwatches.resetAll();
+			Stopwatches.setEnabled(true);
+		}
+		try {
+			if (!xtend2BatchCompiler.compile()) {
+				throw new MojoExecutionException("Error compiling xtend sources in '"
+						+ concat(File.pathSeparator, newArrayList(filtered)) + "'.");
+			}
+		} finally {
+			if (printStopwatches) {
+				getLog().info(Stopwatches.getPrintableStopwatchData());
+				Stopwatches.setEnabled(false);
+			}
 		}
 	}
 
@@ -2,7 +2,7 @@ package org.eclipse.xtend.maven;
 
 import org.apache.maven.project.MavenProject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
 
 import com.google.inject.Provider;
 
@@ -19,7 +19,7 @@ public class MavenProjectResourceSetProvider implements Provider<ResourceSet> {
 	}
 
 	public ResourceSet get() {
-		ResourceSet rs = new XtextResourceSet();
+		ResourceSet rs = new SynchronizedXtextResourceSet();
 		MavenProjectAdapter.install(rs, project);
 		return rs;
 	}
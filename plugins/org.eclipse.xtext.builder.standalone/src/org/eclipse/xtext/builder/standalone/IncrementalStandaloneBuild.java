@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ResourceSetBasedResourceDescriptions;
+import org.eclipse.xtext.resource.persistence.AffectedResourcesCalculator;
+import org.eclipse.xtext.resource.persistence.BuildState;
+import org.eclipse.xtext.resource.persistence.BuildStatePersister;
+import org.eclipse.xtext.resource.persistence.DetachedResourceDescription;
+import org.eclipse.xtext.resource.persistence.FingerprintCalculator;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Strings;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Builds only the resources of a {@link StandaloneBuilder} that changed since the last successful build, and the
+ * resources that are affected by these changes. The index and the fingerprints of the sources are persisted in the
+ * {@link StandaloneBuilder#getBuildStateFile() build state file}. A full build is performed if there is no usable
+ * build state or if the class path, the encoding or the configured languages changed.
+ * <p>
+ * Changes to Java sources are not tracked. Generated files of deleted sources are not removed.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class IncrementalStandaloneBuild {
+
+	private static final Logger LOG = Logger.getLogger(IncrementalStandaloneBuild.class);
+
+	@Inject
+	private IndexedJvmTypeAccess jvmTypeAccess;
+
+	@Inject
+	private BuildStatePersister persister;
+
+	@Inject
+	private FingerprintCalculator fingerprintCalculator;
+
+	@Inject
+	private AffectedResourcesCalculator affectedResourcesCalculator;
+
+	@Inject
+	private Provider<ResourceSetBasedResourceDescriptions> resourceDescriptionsProvider;
+
+	/**
+	 * @return <code>true</code> if the build did not detect any severe validation problem.
+	 */
+	public boolean launch(final StandaloneBuilder builder) {
+		boolean needsJava = isJavaRequired(builder);
+		Iterable<String> allClassPathEntries = Iterables.concat(builder.getSourceDirs(), builder.getClassPathEntries());
+		File stateFile = new File(builder.getBuildStateFile());
+		final XtextResourceSet resourceSet = builder.createResourceSet();
+
+		List<URI> sourceURIs = builder.collectResourceURIs(builder.getSourceDirs());
+		Map<URI, String> fingerprints;
+		try {
+			fingerprints = fingerprintCalculator.getFingerprints(sourceURIs, resourceSet.getURIConverter());
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		String environment = fingerprintCalculator.getEnvironmentFingerprint(allClassPathEntries, builder.getEncoding(),
+				Strings.concat(",", Lists.newArrayList(Sets.newTreeSet(builder.getLanguages().keySet()))));
+		BuildState previousState = persister.load(stateFile, resourceSet);
+		if (previousState != null && !environment.equals(previousState.getEnvironmentFingerprint())) {
+			LOG.info("The build environment changed since the last build.");
+			previousState = null;
+		}
+
+		if (needsJava) {
+			builder.installTypeProvider(allClassPathEntries, resourceSet, null);
+		}
+		ResourceDescriptionsData index;
+		Set<URI> toBuild;
+		if (previousState == null) {
+			LOG.info("Performing a full build.");
+			builder.collectResources(allClassPathEntries, resourceSet);
+			index = builder.fillIndex(resourceSet);
+			toBuild = Sets.newHashSet(sourceURIs);
+		} else {
+			Set<URI> changed = previousState.getChangedURIs(fingerprints);
+			Set<URI> deleted = previousState.getDeletedURIs(fingerprints);
+			if (changed.isEmpty() && deleted.isEmpty()) {
+				LOG.info("All sources are up to date.");
+				return true;
+			}
+			index = previousState.getIndex().copy();
+			ResourceDescriptionsData.ResourceSetAdapter.installResourceDescriptionsData(resourceSet, index);
+			ResourceSetBasedResourceDescriptions context = resourceDescriptionsProvider.get();
+			context.setContext(resourceSet);
+			toBuild = affectedResourcesCalculator.computeResourcesToBuild(index, changed, deleted, context,
+					new AffectedResourcesCalculator.DescriptionProvider() {
+						public IResourceDescription getNewDescription(URI uri) {
+							Resource resource = resourceSet.getResource(uri, true);
+							IResourceDescription description = builder.languageAccess(resource)
+									.getResourceDescriptionManager().getResourceDescription(resource);
+							return DetachedResourceDescription.copyExportedObjects(description);
+						}
+					});
+			LOG.info("Building " + toBuild.size() + " of " + sourceURIs.size() + " source files.");
+		}
+
+		List<Resource> resources = Lists.newArrayListWithCapacity(toBuild.size());
+		for (URI uri : sourceURIs) {
+			if (toBuild.contains(uri)) {
+				resources.add(resourceSet.getResource(uri, true));
+			}
+		}
+		if (needsJava) {
+			String stubsClasses = builder.compileStubs(builder.generateStubs(index, sourceURIs));
+			builder.installTypeProvider(Iterables.concat(allClassPathEntries, Collections.singletonList(stubsClasses)),
+					resourceSet, jvmTypeAccess);
+		}
+		for (Resource resource : resources) {
+			resource.getContents(); // full initialize
+		}
+		for (Resource resource : resources) {
+			EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+		}
+		boolean isErrorFree = builder.validate(resources);
+		if (builder.isFailOnValidationError() && !isErrorFree) {
+			return isErrorFree;
+		}
+		builder.generate(resources);
+		if (isErrorFree) {
+			saveState(builder, stateFile, index, resources, fingerprints, environment);
+		}
+		return isErrorFree;
+	}
+
+	protected void saveState(StandaloneBuilder builder, File stateFile, ResourceDescriptionsData index,
+			List<Resource> builtResources, Map<URI, String> fingerprints, String environment) {
+		Map<URI, Resource> built = Maps.newHashMap();
+		for (Resource resource : builtResources) {
+			built.put(resource.getURI(), resource);
+		}
+		List<IResourceDescription> descriptions = Lists.newArrayList();
+		for (IResourceDescription description : index.getAllResourceDescriptions()) {
+			Resource resource = built.get(description.getURI());
+			if (resource != null) {
+				IResourceDescription linked = builder.languageAccess(resource).getResourceDescriptionManager()
+						.getResourceDescription(resource);
+				descriptions.add(DetachedResourceDescription.copyAll(linked));
+			} else if (description instanceof DetachedResourceDescription) {
+				descriptions.add(description);
+			} else {
+				descriptions.add(DetachedResourceDescription.copyExportedObjects(description));
+			}
+		}
+		BuildState state = new BuildState(new ResourceDescriptionsData(descriptions), fingerprints, environment);
+		try {
+			persister.save(state, stateFile);
+		} catch (IOException e) {
+			LOG.warn("Could not save the build state to '" + stateFile + "'.", e);
+		}
+	}
+
+	protected boolean isJavaRequired(StandaloneBuilder builder) {
+		for (LanguageAccess language : builder.getLanguages().values()) {
+			if (language.isLinksAgainstJava()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
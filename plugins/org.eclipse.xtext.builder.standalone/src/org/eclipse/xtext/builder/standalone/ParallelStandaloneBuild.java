@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.DetachedResourceDescription;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+
+/**
+ * Runs the phases of a {@link StandaloneBuilder} on a pool of worker threads. The resources are split into contiguous
+ * shards, one per worker. Each worker uses its own resource set and all workers share a single read-only
+ * {@link ResourceDescriptionsData index}. Issues are reported and files are generated in the same order as in a
+ * serial build.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class ParallelStandaloneBuild {
+
+	private static final Logger LOG = Logger.getLogger(ParallelStandaloneBuild.class);
+
+	@Inject
+	private IndexedJvmTypeAccess jvmTypeAccess;
+
+	@Inject
+	private IIssueHandler issueHandler;
+
+	private final Map<String, Long> phaseTimings = Maps.newLinkedHashMap();
+
+	private long phaseStart;
+
+	/**
+	 * A worker owns a resource set and the resources of one shard. It is only ever accessed by one thread at a time.
+	 */
+	protected static class Worker {
+
+		private final List<URI> shard;
+
+		private final XtextResourceSet resourceSet;
+
+		private final List<Resource> resources;
+
+		protected Worker(List<URI> shard, XtextResourceSet resourceSet) {
+			this.shard = shard;
+			this.resourceSet = resourceSet;
+			this.resources = Lists.newArrayListWithCapacity(shard.size());
+		}
+
+		protected void load() {
+			for (URI uri : shard) {
+				resources.add(resourceSet.getResource(uri, true));
+			}
+		}
+
+		public List<Resource> getResources() {
+			return resources;
+		}
+
+		public XtextResourceSet getResourceSet() {
+			return resourceSet;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the build did not detect any severe validation problem.
+	 */
+	public boolean launch(final StandaloneBuilder builder) {
+		phaseTimings.clear();
+		int numberOfThreads = builder.getNumberOfThreads();
+		LOG.info("Building with " + numberOfThreads + " worker threads.");
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads, new ThreadFactoryBuilder()
+				.setNameFormat("StandaloneBuilder-%d").setDaemon(true).build());
+		try {
+			return doLaunch(builder, executor);
+		} finally {
+			executor.shutdownNow();
+			logPhaseTimings();
+		}
+	}
+
+	protected boolean doLaunch(final StandaloneBuilder builder, ExecutorService executor) {
+		final boolean needsJava = isJavaRequired(builder);
+		Iterable<String> allClassPathEntries = Iterables.concat(builder.getSourceDirs(), builder.getClassPathEntries());
+
+		startPhase();
+		List<URI> allURIs = builder.collectResourceURIs(allClassPathEntries);
+		List<URI> sourceURIs = builder.collectResourceURIs(builder.getSourceDirs());
+		endPhase("collect");
+
+		startPhase();
+		final ClassLoader indexingClassLoader = needsJava ? builder.createURLClassLoader(allClassPathEntries) : null;
+		List<Worker> indexingWorkers = createWorkers(builder, allURIs, numberOfShards(builder));
+		List<List<IResourceDescription>> shardedDescriptions = runAll(executor, indexingWorkers,
+				new WorkerTask<List<IResourceDescription>>() {
+					public List<IResourceDescription> run(Worker worker) {
+						if (needsJava) {
+							builder.installTypeProvider(indexingClassLoader, worker.getResourceSet(), null);
+						}
+						worker.load();
+						List<IResourceDescription> result = Lists.newArrayListWithCapacity(worker.getResources().size());
+						for (Resource resource : worker.getResources()) {
+							IResourceDescription description = builder.languageAccess(resource)
+									.getResourceDescriptionManager().getResourceDescription(resource);
+							result.add(DetachedResourceDescription.copyExportedObjects(description));
+						}
+						return result;
+					}
+				});
+		// release the resource sets that were used for indexing
+		indexingWorkers = null;
+		final ResourceDescriptionsData index = new ResourceDescriptionsData(Lists.newArrayList(Iterables
+				.concat(shardedDescriptions)));
+		endPhase("index");
+
+		final ClassLoader linkingClassLoader;
+		if (needsJava) {
+			startPhase();
+			File stubsDir = builder.generateStubs(index, sourceURIs);
+			String stubsClasses = builder.compileStubs(stubsDir);
+			linkingClassLoader = builder.createURLClassLoader(Iterables.concat(allClassPathEntries,
+					Collections.singletonList(stubsClasses)));
+			endPhase("stubs");
+		} else {
+			linkingClassLoader = null;
+		}
+
+		startPhase();
+		List<Worker> workers = createWorkers(builder, sourceURIs, numberOfShards(builder));
+		runAll(executor, workers, new WorkerTask<Void>() {
+			public Void run(Worker worker) {
+				XtextResourceSet resourceSet = worker.getResourceSet();
+				ResourceDescriptionsData.ResourceSetAdapter.installResourceDescriptionsData(resourceSet, index);
+				if (needsJava) {
+					builder.installTypeProvider(linkingClassLoader, resourceSet, jvmTypeAccess);
+				}
+				worker.load();
+				for (Resource resource : worker.getResources()) {
+					resource.getContents(); // full initialize
+				}
+				for (Resource resource : worker.getResources()) {
+					EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+				}
+				return null;
+			}
+		});
+		endPhase("link");
+
+		startPhase();
+		List<List<Issue>> shardedIssues = runAll(executor, workers, new WorkerTask<List<Issue>>() {
+			public List<Issue> run(Worker worker) {
+				List<Issue> result = Lists.newArrayList();
+				for (Resource resource : worker.getResources()) {
+					result.addAll(builder.validate(resource));
+				}
+				return result;
+			}
+		});
+		boolean isErrorFree = issueHandler.handleIssue(Iterables.concat(shardedIssues));
+		endPhase("validate");
+		if (builder.isFailOnValidationError() && !isErrorFree) {
+			return isErrorFree;
+		}
+
+		startPhase();
+		// file system accesses are initialized lazily and the encoding is shared by all workers,
+		// so both are configured on a single thread. JavaIoFileSystemAccess may write different files concurrently.
+		builder.configureEncoding();
+		for (LanguageAccess language : builder.getLanguages().values()) {
+			language.getFileSystemAccess();
+		}
+		runAll(executor, workers, new WorkerTask<Void>() {
+			public Void run(Worker worker) {
+				builder.generateFiles(worker.getResources());
+				return null;
+			}
+		});
+		endPhase("generate");
+		return isErrorFree;
+	}
+
+	/**
+	 * @return the wall clock time in milliseconds that each phase of the last build took, in execution order.
+	 */
+	public Map<String, Long> getPhaseTimings() {
+		return Collections.unmodifiableMap(phaseTimings);
+	}
+
+	protected interface WorkerTask<T> {
+		T run(Worker worker);
+	}
+
+	protected <T> List<T> runAll(ExecutorService executor, List<Worker> workers, final WorkerTask<T> task) {
+		List<Future<T>> futures = Lists.newArrayListWithCapacity(workers.size());
+		for (final Worker worker : workers) {
+			futures.add(executor.submit(new Callable<T>() {
+				public T call() throws Exception {
+					return task.run(worker);
+				}
+			}));
+		}
+		List<T> result = Lists.newArrayListWithCapacity(futures.size());
+		try {
+			for (Future<T> future : futures) {
+				result.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw Throwables.propagate(e.getCause());
+		}
+		return result;
+	}
+
+	protected List<Worker> createWorkers(StandaloneBuilder builder, List<URI> uris, int numberOfShards) {
+		List<Worker> result = Lists.newArrayListWithCapacity(numberOfShards);
+		if (uris.isEmpty()) {
+			return result;
+		}
+		int shardSize = (uris.size() + numberOfShards - 1) / numberOfShards;
+		for (List<URI> shard : Lists.partition(uris, shardSize)) {
+			result.add(new Worker(shard, builder.createResourceSet()));
+		}
+		return result;
+	}
+
+	protected int numberOfShards(StandaloneBuilder builder) {
+		return Math.max(1, builder.getNumberOfThreads());
+	}
+
+	protected boolean isJavaRequired(StandaloneBuilder builder) {
+		for (LanguageAccess language : builder.getLanguages().values()) {
+			if (language.isLinksAgainstJava()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void startPhase() {
+		phaseStart = System.nanoTime();
+	}
+
+	private void endPhase(String phase) {
+		phaseTimings.put(phase, (System.nanoTime() - phaseStart) / 1000000);
+	}
+
+	protected void logPhaseTimings() {
+		for (Map.Entry<String, Long> timing : phaseTimings.entrySet()) {
+			LOG.info("Phase '" + timing.getKey() + "' took " + timing.getValue() + "ms.");
+		}
+	}
+}
@@ -9,6 +9,7 @@ import java.util.ArrayList
 import java.util.List
 import java.util.Map
 import org.apache.log4j.Logger
+import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.xtext.EcoreUtil2
@@ -21,10 +22,14 @@ import org.eclipse.xtext.generator.IFileSystemAccess
 import org.eclipse.xtext.mwe.NameBasedFilter
 import org.eclipse.xtext.mwe.PathTraverser
 import org.eclipse.xtext.parser.IEncodingProvider
+import org.eclipse.xtext.resource.XtextResource
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.persistence.ParseResultCache
 import org.eclipse.xtext.util.CancelIndicator
+import org.eclipse.xtext.util.internal.Stopwatches
 import org.eclipse.xtext.validation.CheckMode
+import org.eclipse.xtext.validation.Issue
 import com.google.common.io.Files
 
 class StandaloneBuilder {
@@ -36,6 +41,14 @@ class StandaloneBuilder {
 	@Property File tempDir = Files.createTempDir
 	@Property String encoding
 	@Property boolean failOnValidationError = true
+	@Property int numberOfThreads = 1
+	@Property String buildStateFile
+	@Property String parseResultCacheDir
+	/**
+	 * Records the {@link Stopwatches stopwatches} during the build and logs them afterwards.
+	 */
+	@Property boolean printStopwatches = false
+	ParseResultCache parseResultCache
 
 	@Inject IndexedJvmTypeAccess jvmTypeAccess
 	@Inject Provider<XtextResourceSet> resourceSetProvider
@@ -43,6 +56,8 @@ class StandaloneBuilder {
 	@Inject IIssueHandler issueHandler
 	@Inject IEncodingProvider.Runtime encodingProvider
 	@Inject IJavaCompiler compiler
+	@Inject Provider<ParallelStandaloneBuild> parallelBuildProvider
+	@Inject Provider<IncrementalStandaloneBuild> incrementalBuildProvider
 
 	def void setTempDir(String pathAsString) {
 		if (pathAsString != null) {
@@ -51,12 +66,36 @@ class StandaloneBuilder {
 	}
 
 	def launch() {
+		if (printStopwatches) {
+			Stopwatches.resetAll
+			Stopwatches.enabled = true
+		}
+		try {
+			return doLaunch
+		} finally {
+			if (printStopwatches) {
+				LOG.info(Stopwatches.printableStopwatchData)
+				Stopwatches.enabled = false
+			}
+		}
+	}
+
+	def protected boolean doLaunch() {
+		if (parseResultCacheDir != null) {
+			parseResultCache = new ParseResultCache(new File(parseResultCacheDir))
+		}
+		if (buildStateFile != null) {
+			return launchIncremental
+		}
+		if (numberOfThreads > 1) {
+			return launchParallel
+		}
 		val needsJava = languages.values.exists[linksAgainstJava]
 		if (needsJava) {
 			LOG.info("Using common types.")
 		}
 
-		val resourceSet = resourceSetProvider.get
+		val resourceSet = createResourceSet
 		val allClassPathEntries = (sourceDirs + classPathEntries)
 
 		collectResources(allClassPathEntries, resourceSet)
@@ -66,7 +105,7 @@ class StandaloneBuilder {
 		val index = fillIndex(resourceSet)
 		val sourceResources = collectResources(sourceDirs, resourceSet)
 		if (needsJava) {
-			val stubsClasses = compileStubs(generateStubs(index, sourceResources))
+			val stubsClasses = compileStubs(generateStubs(index, sourceResources.map[URI]))
 			installTypeProvider(allClassPathEntries + newArrayList(stubsClasses), resourceSet, jvmTypeAccess)
 		}
 		sourceResources.forEach[contents] // full initialize
@@ -80,6 +119,21 @@ class StandaloneBuilder {
 		return isErrorFree
 	}
 
+	/**
+	 * Shards parsing, indexing, linking, validation and generation across {@link #getNumberOfThreads() worker threads}.
+	 */
+	def protected boolean launchParallel() {
+		return parallelBuildProvider.get.launch(this)
+	}
+
+	/**
+	 * Rebuilds only changed and affected resources, based on the state persisted in the {@link #getBuildStateFile() build state file}.
+	 * Incremental builds are always performed on a single thread.
+	 */
+	def protected boolean launchIncremental() {
+		return incrementalBuildProvider.get.launch(this)
+	}
+
 	def protected fillIndex(XtextResourceSet set) {
 		val descriptions = new ArrayList<Resource>(set.resources).map [
 			languageAccess(it).resourceDescriptionManager.getResourceDescription(it)
@@ -103,15 +157,15 @@ class StandaloneBuilder {
 		return stubsClasses.absolutePath
 	}
 
-	def protected generateStubs(ResourceDescriptionsData data, List<? extends Resource> resources) {
+	def protected generateStubs(ResourceDescriptionsData data, List<URI> sourceURIs) {
 		val stubsDir = createTempDir("stubs")
 		LOG.info("Generating stubs into " + stubsDir.absolutePath)
 		if (encoding != null)
 			encodingProvider.setDefaultEncoding(encoding)
 		commonFileAccess.setOutputPath(IFileSystemAccess.DEFAULT_OUTPUT, stubsDir.absolutePath)
-		val generateStubs = resources.filter[languageAccess.linksAgainstJava]
+		val generateStubs = sourceURIs.filter[languageAccess.linksAgainstJava]
 		generateStubs.forEach [
-			languageAccess.stubGenerator.doGenerateStubs(commonFileAccess, data.getResourceDescription(URI))
+			languageAccess.stubGenerator.doGenerateStubs(commonFileAccess, data.getResourceDescription(it))
 		]
 		return stubsDir
 	}
@@ -119,34 +173,58 @@ class StandaloneBuilder {
 	def protected validate(List<Resource> sourceResources) {
 		val allIssues = newArrayList()
 		for (Resource resource : sourceResources) {
-			val resourceValidator = languageAccess(resource).getResourceValidator();
-			val validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-			allIssues.addAll(validationResult)
+			allIssues.addAll(validate(resource))
 		}
 		return issueHandler.handleIssue(allIssues)
 	}
 
+	def protected List<Issue> validate(Resource resource) {
+		val resourceValidator = languageAccess(resource).getResourceValidator();
+		return resourceValidator.validate(resource, CheckMode.ALL, null);
+	}
+
 	def protected generate(List<Resource> sourceResources) {
-		for (Resource it : sourceResources) {
-			LOG.info("Starting generator for input: '" + getURI().lastSegment() + "'");
-			if (encoding != null) {
-				switch provider : languageAccess.encodingProvider {
+		configureEncoding
+		generateFiles(sourceResources)
+	}
+
+	/**
+	 * Sets the {@link #getEncoding() encoding} as the default encoding of all languages.
+	 */
+	def protected configureEncoding() {
+		if (encoding != null) {
+			for (language : languages.entrySet) {
+				switch provider : language.value.encodingProvider {
 					IEncodingProvider.Runtime: {
 						provider.setDefaultEncoding(encoding)
 					}
 					default: {
 						LOG.debug(
-							"Couldn't set encoding '" + encoding + "' for file '" + URI +
+							"Couldn't set encoding '" + encoding + "' for language '" + language.key +
 								"'. Only subclasses of IEncodingProvider.Runtime are supported.")
 					}
 				}
 			}
+		}
+	}
+
+	/**
+	 * Runs the generators for the given resources. The encoding has to be {@link #configureEncoding() configured} before.
+	 * Does not modify any shared state of the builder, so different resources may be generated concurrently.
+	 */
+	def protected generateFiles(List<Resource> sourceResources) {
+		for (Resource it : sourceResources) {
+			LOG.info("Starting generator for input: '" + getURI().lastSegment() + "'");
 			languageAccess.generator.doGenerate(it, languageAccess.fileSystemAccess);
 		}
 	}
 
-	def private languageAccess(Resource resource) {
-		languages.get(resource.URI.fileExtension)
+	def protected languageAccess(Resource resource) {
+		languageAccess(resource.URI)
+	}
+
+	def protected languageAccess(URI uri) {
+		languages.get(uri.fileExtension)
 	}
 
 	def protected createTempDir(String subDir) {
@@ -157,24 +235,32 @@ class StandaloneBuilder {
 
 	def protected void installTypeProvider(Iterable<String> classPathRoots, XtextResourceSet resSet,
 		IndexedJvmTypeAccess typeAccess) {
-		val classLoader = createURLClassLoader(classPathRoots)
+		installTypeProvider(createURLClassLoader(classPathRoots), resSet, typeAccess)
+	}
+
+	def protected void installTypeProvider(ClassLoader classLoader, XtextResourceSet resSet,
+		IndexedJvmTypeAccess typeAccess) {
 		new ClasspathTypeProvider(classLoader, resSet, typeAccess)
 		resSet.setClasspathURIContext(classLoader);
 	}
 
-	def private URLClassLoader createURLClassLoader(Iterable<String> classPathEntries) {
+	def protected URLClassLoader createURLClassLoader(Iterable<String> classPathEntries) {
 		val classPathUrls = classPathEntries.map[str|new File(str).toURI().toURL()]
 		return new URLClassLoader(classPathUrls)
 	}
 
 	def protected List<Resource> collectResources(Iterable<String> roots, ResourceSet resourceSet) {
+		return collectResourceURIs(roots).map[resourceSet.getResource(it, true)].toList
+	}
+
+	def protected List<URI> collectResourceURIs(Iterable<String> roots) {
 		val extensions = languages.keySet.join("|")
 		val nameBasedFilter = new NameBasedFilter();
 
 		//TODO test with whitespaced file extensions
 		nameBasedFilter.setRegularExpression(".*\\.(?:(" + extensions + "))$");
 		val PathTraverser pathTraverser = new PathTraverser();
-		val List<Resource> resources = newArrayList();
+		val List<URI> uris = newArrayList();
 		pathTraverser.resolvePathes(
 			roots.toList,
 			[ input |
@@ -182,15 +268,26 @@ class StandaloneBuilder {
 				if (matches) {
 					if (LOG.debugEnabled)
 						LOG.debug("Adding file '" + input + "'");
-					resources.add(resourceSet.getResource(input, true));
+					uris.add(input);
 				}
 				return matches
 			]
 		)
-		return resources;
+		return uris;
 	}
 
 	def getCompiler() {
 		compiler
 	}
+
+	/**
+	 * Creates a resource set that reads and writes the {@link #getParseResultCacheDir() parse result cache} if one is configured.
+	 */
+	def protected XtextResourceSet createResourceSet() {
+		val result = resourceSetProvider.get
+		if (parseResultCache != null) {
+			result.loadOptions.put(XtextResource.OPTION_PARSE_RESULT_CACHE, parseResultCache)
+		}
+		return result
+	}
 }
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
@@ -23,6 +24,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.builder.standalone.IIssueHandler;
 import org.eclipse.xtext.builder.standalone.LanguageAccess;
+import org.eclipse.xtext.builder.standalone.ParallelStandaloneBuild;
 import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler;
 import org.eclipse.xtext.builder.standalone.compiler.IJavaCompiler.CompilationResult;
 import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
@@ -37,10 +39,13 @@ import org.eclipse.xtext.mwe.PathTraverser;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Manager;
+import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData.ResourceSetAdapter;
+import org.eclipse.xtext.resource.persistence.ParseResultCache;
 import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.validation.CheckMode;
 import org.eclipse.xtext.validation.IResourceValidator;
 import org.eclipse.xtext.validation.Issue;
@@ -127,6 +132,57 @@ public class StandaloneBuilder {
     this._failOnValidationError = failOnValidationError;
   }
   
+  private int _numberOfThreads = 1;
+  
+  public int getNumberOfThreads() {
+    return this._numberOfThreads;
+  }
+  
+  public void setNumberOfThreads(final int numberOfThreads) {
+    this._numberOfThreads = numberOfThreads;
+  }
+  
+  private String _buildStateFile;
+  
+  public String getBuildStateFile() {
+    return this._buildStateFile;
+  }
+  
+  public void setBuildStateFile(final String buildStateFile) {
+    this._buildStateFile = buildStateFile;
+  }
+  
+  private String _parseResultCacheDir;
+  
+  public String getParseResultCacheDir() {
+    return this._parseResultCacheDir;
+  }
+  
+  public void setParseResultCacheDir(final String parseResultCacheDir) {
+    this._parseResultCacheDir = parseResultCacheDir;
+  }
+  
+  /**
+   * Records the {@link Stopwatches stopwatches} during the build and logs them afterwards.
+   */
+  private boolean _printStopwatches = false;
+  
+  /**
+   * Records the {@link Stopwatches stopwatches} during the build and logs them afterwards.
+   */
+  public boolean isPrintStopwatches() {
+    return this._printStopwatches;
+  }
+  
+  /**
+   * Records the {@link Stopwatches stopwatches} during the build and logs them afterwards.
+   */
+  public void setPrintStopwatches(final boolean printStopwatches) {
+    this._printStopwatches = printStopwatches;
+  }
+  
+  private ParseResultCache parseResultCache;
+  
   @Inject
   private IndexedJvmTypeAccess jvmTypeAccess;
   
@@ -145,6 +201,12 @@ public class StandaloneBuilder {
   @Inject
   private IJavaCompiler compiler;
   
+  @Inject
+  private Provider<ParallelStandaloneBuild> parallelBuildProvider;
+  
+  @Inject
+  private Provider<IncrementalStandaloneBuild> incrementalBuildProvider;
+  
   public void setTempDir(final String pathAsString) {
     boolean _notEquals = (!Objects.equal(pathAsString, null));
     if (_notEquals) {
@@ -154,6 +216,42 @@ public class StandaloneBuilder {
   }
   
   public boolean launch() {
+    boolean _isPrintStopwatches = this.isPrintStopwatches();
+    if (_isPrintStopwatches) {
+      Stopwatches.resetAll();
+      Stopwatches.setEnabled(true);
+    }
+    try {
+      return this.doLaunch();
+    } finally {
+      boolean _isPrintStopwatches_1 = this.isPrintStopwatches();
+      if (_isPrintStopwatches_1) {
+        String _printableStopwatchData = Stopwatches.getPrintableStopwatchData();
+        StandaloneBuilder.LOG.info(_printableStopwatchData);
+        Stopwatches.setEnabled(false);
+      }
+    }
+  }
+  
+  protected boolean doLaunch() {
+    String _parseResultCacheDir = this.getParseResultCacheDir();
+    boolean _notEquals = (!Objects.equal(_parseResultCacheDir, null));
+    if (_notEquals) {
+      String _parseResultCacheDir_1 = this.getParseResultCacheDir();
+      File _file = new File(_parseResultCacheDir_1);
+      ParseResultCache _parseResultCache = new ParseResultCache(_file);
+      this.parseResultCache = _parseResultCache;
+    }
+    String _buildStateFile = this.getBuildStateFile();
+    boolean _notEquals_1 = (!Objects.equal(_buildStateFile, null));
+    if (_notEquals_1) {
+      return this.launchIncremental();
+    }
+    int _numberOfThreads = this.getNumberOfThreads();
+    boolean _greaterThan = (_numberOfThreads > 1);
+    if (_greaterThan) {
+      return this.launchParallel();
+    }
     Map<String,LanguageAccess> _languages = this.getLanguages();
     Collection<LanguageAccess> _values = _languages.values();
     final Function1<LanguageAccess,Boolean> _function = new Function1<LanguageAccess,Boolean>() {
@@ -166,7 +264,7 @@ public class StandaloneBuilder {
     if (needsJava) {
       StandaloneBuilder.LOG.info("Using common types.");
     }
-    final XtextResourceSet resourceSet = this.resourceSetProvider.get();
+    final XtextResourceSet resourceSet = this.createResourceSet();
     Iterable<String> _sourceDirs = this.getSourceDirs();
     Iterable<String> _classPathEntries = this.getClassPathEntries();
     final Iterable<String> allClassPathEntries = Iterables.<String>concat(_sourceDirs, _classPathEntries);
@@ -178,24 +276,31 @@ public class StandaloneBuilder {
     Iterable<String> _sourceDirs_1 = this.getSourceDirs();
     final List<Resource> sourceResources = this.collectResources(_sourceDirs_1, resourceSet);
     if (needsJava) {
-      File _generateStubs = this.generateStubs(index, sourceResources);
+      final Function1<Resource,URI> _function_1 = new Function1<Resource,URI>() {
+        public URI apply(final Resource it) {
+          URI _uRI = it.getURI();
+          return _uRI;
+        }
+      };
+      List<URI> _map = ListExtensions.<Resource, URI>map(sourceResources, _function_1);
+      File _generateStubs = this.generateStubs(index, _map);
       final String stubsClasses = this.compileStubs(_generateStubs);
       ArrayList<String> _newArrayList = CollectionLiterals.<String>newArrayList(stubsClasses);
       Iterable<String> _plus = Iterables.<String>concat(allClassPathEntries, _newArrayList);
       this.installTypeProvider(_plus, resourceSet, this.jvmTypeAccess);
     }
-    final Procedure1<Resource> _function_1 = new Procedure1<Resource>() {
+    final Procedure1<Resource> _function_2 = new Procedure1<Resource>() {
       public void apply(final Resource it) {
         it.getContents();
       }
     };
-    IterableExtensions.<Resource>forEach(sourceResources, _function_1);
-    final Procedure1<Resource> _function_2 = new Procedure1<Resource>() {
+    IterableExtensions.<Resource>forEach(sourceResources, _function_2);
+    final Procedure1<Resource> _function_3 = new Procedure1<Resource>() {
       public void apply(final Resource it) {
         EcoreUtil2.resolveLazyCrossReferences(it, CancelIndicator.NullImpl);
       }
     };
-    IterableExtensions.<Resource>forEach(sourceResources, _function_2);
+    IterableExtensions.<Resource>forEach(sourceResources, _function_3);
     final boolean isErrorFree = this.validate(sourceResources);
     boolean _and = false;
     boolean _isFailOnValidationError = this.isFailOnValidationError();
@@ -212,6 +317,23 @@ public class StandaloneBuilder {
     return isErrorFree;
   }
   
+  /**
+   * Shards parsing, indexing, linking, validation and generation across {@link #getNumberOfThreads() worker threads}.
+   */
+  protected boolean launchParallel() {
+    ParallelStandaloneBuild _get = this.parallelBuildProvider.get();
+    return _get.launch(this);
+  }
+  
+  /**
+   * Rebuilds only changed and affected resources, based on the state persisted in the {@link #getBuildStateFile() build state file}.
+   * Incremental builds are always performed on a single thread.
+   */
+  protected boolean launchIncremental() {
+    IncrementalStandaloneBuild _get = this.incrementalBuildProvider.get();
+    return _get.launch(this);
+  }
+  
   protected ResourceDescriptionsData fillIndex(final XtextResourceSet set) {
     EList<Resource> _resources = set.getResources();
     ArrayList<Resource> _arrayList = new ArrayList<Resource>(_resources);
@@ -258,7 +380,7 @@ public class StandaloneBuilder {
     return stubsClasses.getAbsolutePath();
   }
   
-  protected File generateStubs(final ResourceDescriptionsData data, final List<? extends Resource> resources) {
+  protected File generateStubs(final ResourceDescriptionsData data, final List<URI> sourceURIs) {
     final File stubsDir = this.createTempDir("stubs");
     String _absolutePath = stubsDir.getAbsolutePath();
     String _plus = ("Generating stubs into " + _absolutePath);
@@ -271,41 +393,87 @@ public class StandaloneBuilder {
     }
     String _absolutePath_1 = stubsDir.getAbsolutePath();
     this.commonFileAccess.setOutputPath(IFileSystemAccess.DEFAULT_OUTPUT, _absolutePath_1);
-    final Function1<Resource,Boolean> _function = new Function1<Resource,Boolean>() {
-      public Boolean apply(final Resource it) {
+    final Function1<URI,Boolean> _function = new Function1<URI,Boolean>() {
+      public Boolean apply(final URI it) {
         LanguageAccess _languageAccess = StandaloneBuilder.this.languageAccess(it);
         boolean _isLinksAgainstJava = _languageAccess.isLinksAgainstJava();
         return Boolean.valueOf(_isLinksAgainstJava);
       }
     };
-    final Iterable<? extends Resource> generateStubs = IterableExtensions.filter(resources, _function);
-    final Procedure1<Resource> _function_1 = new Procedure1<Resource>() {
-      public void apply(final Resource it) {
+    final Iterable<URI> generateStubs = IterableExtensions.<URI>filter(sourceURIs, _function);
+    final Procedure1<URI> _function_1 = new Procedure1<URI>() {
+      public void apply(final URI it) {
         LanguageAccess _languageAccess = StandaloneBuilder.this.languageAccess(it);
         IStubGenerator _stubGenerator = _languageAccess.getStubGenerator();
-        URI _uRI = it.getURI();
-        IResourceDescription _resourceDescription = data.getResourceDescription(_uRI);
+        IResourceDescription _resourceDescription = data.getResourceDescription(it);
         _stubGenerator.doGenerateStubs(StandaloneBuilder.this.commonFileAccess, _resourceDescription);
       }
     };
-    IterableExtensions.forEach(generateStubs, _function_1);
+    IterableExtensions.<URI>forEach(generateStubs, _function_1);
     return stubsDir;
   }
   
   protected boolean validate(final List<Resource> sourceResources) {
     final ArrayList<Issue> allIssues = CollectionLiterals.<Issue>newArrayList();
     for (final Resource resource : sourceResources) {
-      {
-        LanguageAccess _languageAccess = this.languageAccess(resource);
-        final IResourceValidator resourceValidator = _languageAccess.getResourceValidator();
-        final List<Issue> validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-        allIssues.addAll(validationResult);
-      }
+      List<Issue> _validate = this.validate(resource);
+      allIssues.addAll(_validate);
     }
     return this.issueHandler.handleIssue(allIssues);
   }
   
+  protected List<Issue> validate(final Resource resource) {
+    LanguageAccess _languageAccess = this.languageAccess(resource);
+    final IResourceValidator resourceValidator = _languageAccess.getResourceValidator();
+    return resourceValidator.validate(resource, CheckMode.ALL, null);
+  }
+  
   protected void generate(final List<Resource> sourceResources) {
+    this.configureEncoding();
+    this.generateFiles(sourceResources);
+  }
+  
+  /**
+   * Sets the {@link #getEncoding() encoding} as the default encoding of all languages.
+   */
+  protected void configureEncoding() {
+    String _encoding = this.getEncoding();
+    boolean _notEquals = (!Objects.equal(_encoding, null));
+    if (_notEquals) {
+      Map<String,LanguageAccess> _languages = this.getLanguages();
+      Set<Entry<String,LanguageAccess>> _entrySet = _languages.entrySet();
+      for (final Entry<String,LanguageAccess> language : _entrySet) {
+        LanguageAccess _value = language.getValue();
+        IEncodingProvider _encodingProvider = _value.getEncodingProvider();
+        final IEncodingProvider provider = _encodingProvider;
+        boolean _matched = false;
+        if (!_matched) {
+          if (provider instanceof org.eclipse.xtext.parser.IEncodingProvider.Runtime) {
+            final org.eclipse.xtext.parser.IEncodingProvider.Runtime _runtime = (org.eclipse.xtext.parser.IEncodingProvider.Runtime)provider;
+            _matched=true;
+            String _encoding_1 = this.getEncoding();
+            _runtime.setDefaultEncoding(_encoding_1);
+          }
+        }
+        if (!_matched) {
+          String _encoding_1 = this.getEncoding();
+          String _plus = ("Couldn\'t set encoding \'" + _encoding_1);
+          String _plus_1 = (_plus + "\' for language \'");
+          String _key = language.getKey();
+          String _plus_2 = (_plus_1 + _key);
+          String _plus_3 = (_plus_2 + 
+            "\'. Only subclasses of IEncodingProvider.Runtime are supported.");
+          StandaloneBuilder.LOG.debug(_plus_3);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Runs the generators for the given resources. The encoding has to be {@link #configureEncoding() configured} before.
+   * Does not modify any shared state of the builder, so different resources may be generated concurrently.
+   */
+  protected void generateFiles(final List<Resource> sourceResources) {
     for (final Resource it : sourceResources) {
       {
         URI _uRI = it.getURI();
@@ -313,45 +481,24 @@ public class StandaloneBuilder {
         String _plus = ("Starting generator for input: \'" + _lastSegment);
         String _plus_1 = (_plus + "\'");
         StandaloneBuilder.LOG.info(_plus_1);
-        String _encoding = this.getEncoding();
-        boolean _notEquals = (!Objects.equal(_encoding, null));
-        if (_notEquals) {
-          LanguageAccess _languageAccess = this.languageAccess(it);
-          IEncodingProvider _encodingProvider = _languageAccess.getEncodingProvider();
-          final IEncodingProvider provider = _encodingProvider;
-          boolean _matched = false;
-          if (!_matched) {
-            if (provider instanceof org.eclipse.xtext.parser.IEncodingProvider.Runtime) {
-              final org.eclipse.xtext.parser.IEncodingProvider.Runtime _runtime = (org.eclipse.xtext.parser.IEncodingProvider.Runtime)provider;
-              _matched=true;
-              String _encoding_1 = this.getEncoding();
-              _runtime.setDefaultEncoding(_encoding_1);
-            }
-          }
-          if (!_matched) {
-            String _encoding_1 = this.getEncoding();
-            String _plus_2 = ("Couldn\'t set encoding \'" + _encoding_1);
-            String _plus_3 = (_plus_2 + "\' for file \'");
-            URI _uRI_1 = it.getURI();
-            String _plus_4 = (_plus_3 + _uRI_1);
-            String _plus_5 = (_plus_4 + 
-              "\'. Only subclasses of IEncodingProvider.Runtime are supported.");
-            StandaloneBuilder.LOG.debug(_plus_5);
-          }
-        }
+        LanguageAccess _languageAccess = this.languageAccess(it);
+        IGenerator _generator = _languageAccess.getGenerator();
         LanguageAccess _languageAccess_1 = this.languageAccess(it);
-        IGenerator _generator = _languageAccess_1.getGenerator();
-        LanguageAccess _languageAccess_2 = this.languageAccess(it);
-        JavaIoFileSystemAccess _fileSystemAccess = _languageAccess_2.getFileSystemAccess();
+        JavaIoFileSystemAccess _fileSystemAccess = _languageAccess_1.getFileSystemAccess();
         _generator.doGenerate(it, _fileSystemAccess);
       }
     }
   }
   
-  private LanguageAccess languageAccess(final Resource resource) {
-    Map<String,LanguageAccess> _languages = this.getLanguages();
+  protected LanguageAccess languageAccess(final Resource resource) {
     URI _uRI = resource.getURI();
-    String _fileExtension = _uRI.fileExtension();
+    LanguageAccess _languageAccess = this.languageAccess(_uRI);
+    return _languageAccess;
+  }
+  
+  protected LanguageAccess languageAccess(final URI uri) {
+    Map<String,LanguageAccess> _languages = this.getLanguages();
+    String _fileExtension = uri.fileExtension();
     LanguageAccess _get = _languages.get(_fileExtension);
     return _get;
   }
@@ -385,12 +532,16 @@ public class StandaloneBuilder {
   }
   
   protected void installTypeProvider(final Iterable<String> classPathRoots, final XtextResourceSet resSet, final IndexedJvmTypeAccess typeAccess) {
-    final URLClassLoader classLoader = this.createURLClassLoader(classPathRoots);
+    URLClassLoader _createURLClassLoader = this.createURLClassLoader(classPathRoots);
+    this.installTypeProvider(_createURLClassLoader, resSet, typeAccess);
+  }
+  
+  protected void installTypeProvider(final ClassLoader classLoader, final XtextResourceSet resSet, final IndexedJvmTypeAccess typeAccess) {
     new ClasspathTypeProvider(classLoader, resSet, typeAccess);
     resSet.setClasspathURIContext(classLoader);
   }
   
-  private URLClassLoader createURLClassLoader(final Iterable<String> classPathEntries) {
+  protected URLClassLoader createURLClassLoader(final Iterable<String> classPathEntries) {
     final Function1<String,URL> _function = new Function1<String,URL>() {
       public URL apply(final String str) {
         try {
@@ -409,6 +560,18 @@ public class StandaloneBuilder {
   }
   
   protected List<Resource> collectResources(final Iterable<String> roots, final ResourceSet resourceSet) {
+    List<URI> _collectResourceURIs = this.collectResourceURIs(roots);
+    final Function1<URI,Resource> _function = new Function1<URI,Resource>() {
+      public Resource apply(final URI it) {
+        Resource _resource = resourceSet.getResource(it, true);
+        return _resource;
+      }
+    };
+    List<Resource> _map = ListExtensions.<URI, Resource>map(_collectResourceURIs, _function);
+    return IterableExtensions.<Resource>toList(_map);
+  }
+  
+  protected List<URI> collectResourceURIs(final Iterable<String> roots) {
     Map<String,LanguageAccess> _languages = this.getLanguages();
     Set<String> _keySet = _languages.keySet();
     final String extensions = IterableExtensions.join(_keySet, "|");
@@ -419,7 +582,7 @@ public class StandaloneBuilder {
     nameBasedFilter.setRegularExpression(_plus_1);
     PathTraverser _pathTraverser = new PathTraverser();
     final PathTraverser pathTraverser = _pathTraverser;
-    final List<Resource> resources = CollectionLiterals.<Resource>newArrayList();
+    final List<URI> uris = CollectionLiterals.<URI>newArrayList();
     List<String> _list = IterableExtensions.<String>toList(roots);
     final Predicate<URI> _function = new Predicate<URI>() {
       public boolean apply(final URI input) {
@@ -431,17 +594,29 @@ public class StandaloneBuilder {
             String _plus_1 = (_plus + "\'");
             StandaloneBuilder.LOG.debug(_plus_1);
           }
-          Resource _resource = resourceSet.getResource(input, true);
-          resources.add(_resource);
+          uris.add(input);
         }
         return matches;
       }
     };
     pathTraverser.resolvePathes(_list, _function);
-    return resources;
+    return uris;
   }
   
   public IJavaCompiler getCompiler() {
     return this.compiler;
   }
+  
+  /**
+   * Creates a resource set that reads and writes the {@link #getParseResultCacheDir() parse result cache} if one is configured.
+   */
+  protected XtextResourceSet createResourceSet() {
+    final XtextResourceSet result = this.resourceSetProvider.get();
+    boolean _notEquals = (!Objects.equal(this.parseResultCache, null));
+    if (_notEquals) {
+      Map<Object,Object> _loadOptions = result.getLoadOptions();
+      _loadOptions.put(XtextResource.OPTION_PARSE_RESULT_CACHE, this.parseResultCache);
+    }
+    return result;
+  }
 }
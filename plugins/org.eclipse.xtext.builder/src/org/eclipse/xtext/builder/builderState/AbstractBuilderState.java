@@ -23,6 +23,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.builder.impl.BuildData;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.impl.AbstractResourceDescriptionChangeEventSource;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
@@ -39,7 +40,7 @@ import com.google.inject.Inject;
  * @author Knut Wannheden
  */
 public abstract class AbstractBuilderState extends AbstractResourceDescriptionChangeEventSource implements
-		IBuilderState {
+		IBuilderState, IReferenceIndex {
 
 	private volatile ResourceDescriptionsData resourceDescriptionData = new ResourceDescriptionsData(
 			Collections.<IResourceDescription> emptyList());
@@ -194,4 +195,36 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 		return resourceDescriptionData.isEmpty();
 	}
 
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingObject(URI targetObjectURI) {
+		ensureLoaded();
+		return resourceDescriptionData.getResourcesReferencingObject(targetObjectURI);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingObjects(Set<URI> targetObjectURIs) {
+		ensureLoaded();
+		return resourceDescriptionData.getResourcesReferencingObjects(targetObjectURIs);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingResource(URI targetResourceURI) {
+		ensureLoaded();
+		return resourceDescriptionData.getResourcesReferencingResource(targetResourceURI);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesImportingName(QualifiedName importedName) {
+		ensureLoaded();
+		return resourceDescriptionData.getResourcesImportingName(importedName);
+	}
+
 }
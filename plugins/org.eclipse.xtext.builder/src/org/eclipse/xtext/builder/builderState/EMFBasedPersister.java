@@ -62,19 +62,9 @@ public class EMFBasedPersister implements PersistedStateProvider {
 		try {
 			if (location != null && location.exists()) {
 				try {
-					Resource resource = createResource();
-					if (resource != null) {
-						try {
-							resource.load(null);
-						} catch (IOException exception) {
-							if (exception.getMessage().contains("Invalid signature")) {
-								resource.unload();
-								resource.load(Collections.singletonMap(XMLResource.OPTION_BINARY, Boolean.FALSE));
-							} else {
-								throw exception;
-							}
-						}
-						return loadFromResource(resource);
+					Iterable<IResourceDescription> result = doLoad(location);
+					if (result != null) {
+						return result;
 					}
 					if (workspace != null && workspace.isAutoBuilding()) {
 						scheduleRecoveryBuild();
@@ -118,6 +108,30 @@ public class EMFBasedPersister implements PersistedStateProvider {
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Reads the resource descriptions from the given location. The location is deleted afterwards.
+	 * 
+	 * @return the resource descriptions or <code>null</code> if the builder state cannot be read.
+	 * @since 2.5
+	 */
+	protected Iterable<IResourceDescription> doLoad(File location) throws Exception {
+		Resource resource = createResource();
+		if (resource != null) {
+			try {
+				resource.load(null);
+			} catch (IOException exception) {
+				if (exception.getMessage().contains("Invalid signature")) {
+					resource.unload();
+					resource.load(Collections.singletonMap(XMLResource.OPTION_BINARY, Boolean.FALSE));
+				} else {
+					throw exception;
+				}
+			}
+			return loadFromResource(resource);
+		}
+		return null;
+	}
+
 	public Iterable<IResourceDescription> loadFromResource(Resource resource) {
 		List<IResourceDescription> result = Lists.newArrayList(
 				Iterables.filter(resource.getContents(), IResourceDescription.class));
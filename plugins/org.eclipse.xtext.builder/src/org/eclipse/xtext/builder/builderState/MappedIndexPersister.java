@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.MappedIndex;
+import org.eclipse.xtext.resource.persistence.MappedIndexWriter;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Persists the builder state as a {@link MappedIndex memory-mapped index}. Loading the state only maps the file and
+ * reads the URIs of the resources, everything else is read on demand. The index is used instead of the EMF based
+ * format if the system property <code>org.eclipse.xtext.builder.mappedIndex</code> is set to <code>true</code>.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class MappedIndexPersister extends EMFBasedPersister {
+
+	public static final String USE_MAPPED_INDEX = "org.eclipse.xtext.builder.mappedIndex";
+
+	private static final String IN_USE_SUFFIX = ".inuse";
+
+	@Override
+	protected Iterable<IResourceDescription> doLoad(File location) throws Exception {
+		// the loaded descriptions read from the file until the workbench is closed, so the file is moved away
+		// to make room for the next save and to trigger a recovery build if the workbench crashes
+		File inUse = new File(location.getPath() + IN_USE_SUFFIX);
+		inUse.delete();
+		if (!location.renameTo(inUse)) {
+			throw new IOException("Cannot rename '" + location + "' to '" + inUse + "'.");
+		}
+		MappedIndex index = MappedIndex.open(inUse);
+		// the mapping stays valid on platforms that allow to delete a mapped file, otherwise
+		// the file is deleted when the next workbench session loads the builder state
+		inUse.delete();
+		return index.getResourceDescriptions();
+	}
+
+	@Override
+	public void save(Iterable<IResourceDescription> descriptions) {
+		File location = getBuilderStateLocation();
+		if (location != null) {
+			try {
+				new MappedIndexWriter().write(descriptions, location);
+			} catch (IOException e) {
+				throw new WrappedException(e);
+			}
+		}
+	}
+
+	@Override
+	protected File getBuilderStateLocation() {
+		File location = super.getBuilderStateLocation();
+		if (location == null)
+			return null;
+		return new File(location.getParentFile(), "builder.index");
+	}
+
+}
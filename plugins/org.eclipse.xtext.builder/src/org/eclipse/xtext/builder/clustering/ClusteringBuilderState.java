@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
@@ -36,17 +37,21 @@ import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadOperation;
 import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadOperationException;
 import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadResult;
 import org.eclipse.xtext.resource.CompilerPhases;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Delta;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.IndexingOrderer;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Strings;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
@@ -88,6 +93,9 @@ public class ClusteringBuilderState extends AbstractBuilderState {
     @Inject
 	private CompilerPhases compilerPhases;
 
+    /** Caches whether the affected resources of a manager's language may be preselected by the reference index. */
+    private final Map<Class<?>, Boolean> referenceIndexCompatibility = Maps.newConcurrentMap();
+
     /**
      * Actually do the build.
      *
@@ -426,6 +434,11 @@ public class ClusteringBuilderState extends AbstractBuilderState {
     /**
      * Put all resources that depend on some changes onto the queue of resources to be processed.
      * Updates notInDelta by removing all URIs put into the queue.
+     * <p>
+     * If the old state is an {@link IReferenceIndex}, the resources that refer to a changed resource
+     * or import one of its names are looked up in the index. Resources whose manager
+     * {@link #canUseReferenceIndex(IResourceDescription.Manager) agrees with the index} are only asked
+     * whether they are affected if they are such a candidate.
      *
      * @param allRemainingURIs
      *            URIs that were not considered by prior operations.
@@ -451,6 +464,10 @@ public class ClusteringBuilderState extends AbstractBuilderState {
             return;
         }
         final SubMonitor progress = SubMonitor.convert(monitor, allRemainingURIs.size());
+        Set<URI> candidates = null;
+        if (oldState instanceof IReferenceIndex) {
+            candidates = getAffectedCandidates((IReferenceIndex) oldState, deltas);
+        }
         Iterator<URI> iter = allRemainingURIs.iterator();
         while (iter.hasNext()) {
             if (progress.isCanceled()) {
@@ -462,7 +479,7 @@ public class ClusteringBuilderState extends AbstractBuilderState {
             if (candidateDescription == null || manager == null) {
                 // If there is no description in the old state, there's no need to re-check this over and over.
                 iter.remove();
-            } else {
+            } else if (candidates == null || candidates.contains(candidateURI) || !canUseReferenceIndex(manager)) {
                 if (manager.isAffected(deltas, candidateDescription, newState)) {
                     buildData.queueURI(candidateURI);
                     iter.remove();
@@ -472,6 +489,64 @@ public class ClusteringBuilderState extends AbstractBuilderState {
         }
     }
 
+    /**
+     * Collects the resources that have a reference into a changed resource or import a name that is exported by the
+     * old or new version of a changed resource.
+     *
+     * @since 2.5
+     */
+    protected Set<URI> getAffectedCandidates(IReferenceIndex index, Collection<Delta> deltas) {
+        Set<URI> result = Sets.newHashSet();
+        for (Delta delta : deltas) {
+            if (delta.haveEObjectDescriptionsChanged()) {
+                result.addAll(index.getResourcesReferencingResource(delta.getUri()));
+                addImportingResources(index, delta.getOld(), result);
+                addImportingResources(index, delta.getNew(), result);
+            }
+        }
+        return result;
+    }
+
+    private void addImportingResources(IReferenceIndex index, IResourceDescription description, Set<URI> result) {
+        if (description != null) {
+            for (IEObjectDescription exported : description.getExportedObjects()) {
+                result.addAll(index.getResourcesImportingName(exported.getName().toLowerCase()));
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the given manager considers a resource only to be affected if it refers to a changed
+     * resource or imports one of its exported names. This holds for the {@link DefaultResourceDescriptionManager}
+     * and for subclasses that do not override the methods that decide about affected resources.
+     *
+     * @since 2.5
+     */
+    protected boolean canUseReferenceIndex(IResourceDescription.Manager manager) {
+        Class<?> managerClass = manager.getClass();
+        Boolean result = referenceIndexCompatibility.get(managerClass);
+        if (result == null) {
+            result = manager instanceof DefaultResourceDescriptionManager
+                    && !overridesDefault(managerClass, "isAffected", Collection.class, IResourceDescription.class, IResourceDescriptions.class)
+                    && !overridesDefault(managerClass, "isAffected", Collection.class, IResourceDescription.class)
+                    && !overridesDefault(managerClass, "getImportedNames", IResourceDescription.class);
+            referenceIndexCompatibility.put(managerClass, result);
+        }
+        return result;
+    }
+
+    private boolean overridesDefault(Class<?> managerClass, String methodName, Class<?>... parameterTypes) {
+        for (Class<?> c = managerClass; c != DefaultResourceDescriptionManager.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // check the super class
+            }
+        }
+        return false;
+    }
+
     protected IResourceDescription.Manager getResourceDescriptionManager(URI uri) {
         IResourceServiceProvider resourceServiceProvider = managerRegistry.getResourceServiceProvider(uri);
         if (resourceServiceProvider == null) {
@@ -8,6 +8,7 @@
 package org.eclipse.xtext.builder.impl;
 
 import java.util.Collections;
+import java.util.Set;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
@@ -16,6 +17,8 @@ import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.builder.builderState.IBuilderState;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IReferenceIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.ISelectable;
@@ -30,12 +33,13 @@ import org.eclipse.xtext.ui.notification.IStateChangeEventBroker;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
  */
-public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescriptionChangeEventSource implements IResourceDescriptions, IShadowedResourceDescriptions {
+public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescriptionChangeEventSource implements IResourceDescriptions, IShadowedResourceDescriptions, IReferenceIndex {
 
 	private final IDirtyStateManager dirtyStateManager;
 	private final IBuilderState globalDescriptions;
@@ -180,4 +184,88 @@ public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescrip
 		}
 		return false;
 	}
+
+	/**
+	 * Delegates to the index of the persisted descriptions as long as there are no dirty resources. Otherwise the
+	 * result is computed from the dirty aware descriptions.
+	 * 
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingObject(URI targetObjectURI) {
+		IReferenceIndex index = getPersistedReferenceIndex();
+		if (index != null)
+			return index.getResourcesReferencingObject(targetObjectURI);
+		return getResourcesReferencingObjects(Collections.singleton(targetObjectURI));
+	}
+
+	/**
+	 * Delegates to the index of the persisted descriptions as long as there are no dirty resources. Otherwise all
+	 * dirty aware descriptions are scanned once for all the given objects.
+	 * 
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingObjects(Set<URI> targetObjectURIs) {
+		IReferenceIndex index = getPersistedReferenceIndex();
+		if (index != null)
+			return index.getResourcesReferencingObjects(targetObjectURIs);
+		Set<URI> result = Sets.newHashSet();
+		for (IResourceDescription description : getAllResourceDescriptions()) {
+			for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+				URI targetObjectURI = reference.getTargetEObjectUri();
+				if (targetObjectURI != null && targetObjectURIs.contains(targetObjectURI)) {
+					result.add(description.getURI());
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesReferencingResource(URI targetResourceURI) {
+		IReferenceIndex index = getPersistedReferenceIndex();
+		if (index != null)
+			return index.getResourcesReferencingResource(targetResourceURI);
+		Set<URI> result = Sets.newHashSet();
+		for (IResourceDescription description : getAllResourceDescriptions()) {
+			if (!targetResourceURI.equals(description.getURI())) {
+				for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+					URI targetObjectURI = reference.getTargetEObjectUri();
+					if (targetObjectURI != null && targetResourceURI.equals(targetObjectURI.trimFragment())) {
+						result.add(description.getURI());
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public Set<URI> getResourcesImportingName(QualifiedName importedName) {
+		IReferenceIndex index = getPersistedReferenceIndex();
+		if (index != null)
+			return index.getResourcesImportingName(importedName);
+		Set<URI> result = Sets.newHashSet();
+		for (IResourceDescription description : getAllResourceDescriptions()) {
+			if (Iterables.contains(description.getImportedNames(), importedName)) {
+				result.add(description.getURI());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the index of the persisted descriptions if it reflects the dirty state, <code>null</code> otherwise.
+	 * @since 2.5
+	 */
+	protected IReferenceIndex getPersistedReferenceIndex() {
+		if (globalDescriptions instanceof IReferenceIndex && dirtyStateManager.isEmpty())
+			return (IReferenceIndex) globalDescriptions;
+		return null;
+	}
 }
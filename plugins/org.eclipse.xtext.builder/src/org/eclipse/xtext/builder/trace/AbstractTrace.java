@@ -241,7 +241,8 @@ public abstract class AbstractTrace implements ITrace, ITrace.Internal {
 			if (children.isEmpty()) {
 				return candidate;
 			}
-			for(AbstractTraceRegion child: children) {
+			for(int i = findFirstCandidate(children, offset); i < children.size(); i++) {
+				AbstractTraceRegion child = children.get(i);
 				if (encloses(child, offset, includeRegionEnd)) {
 					candidate = child;
 					continue outer;
@@ -256,6 +257,25 @@ public abstract class AbstractTrace implements ITrace, ITrace.Internal {
 		return null;
 	}
 
+	/**
+	 * Returns the index of the first region that does not end before the given offset. Nested regions
+	 * are sorted and do not overlap, so none of the preceding regions can enclose the offset.
+	 */
+	private int findFirstCandidate(List<? extends AbstractTraceRegion> regions, int offset) {
+		int low = 0;
+		int high = regions.size();
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			AbstractTraceRegion region = regions.get(mid);
+			if (region.getMyOffset() + region.getMyLength() < offset) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
 	@Nullable
 	public AbstractTraceRegion findTraceRegionAtLeftOffset(int offset) {
 		return findTraceRegionAt(offset, false);
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.common.types.access.impl.CachingClasspathTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.ClassURIHelper;
+import org.eclipse.xtext.common.types.access.impl.ClasspathTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.SharedDeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.SharedJvmTypeCache;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Creates type providers that obtain the types of the JDK and of library jars from the process-wide
+ * {@link SharedJvmTypeCache}. Useful for long running processes that create many resource sets.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Singleton
+public class SharedClasspathTypeProviderFactory extends ClasspathTypeProviderFactory {
+
+	private SharedJvmTypeCache cache = SharedJvmTypeCache.getDefault();
+
+	@Inject
+	public SharedClasspathTypeProviderFactory(ClassLoader classLoader) {
+		super(classLoader);
+	}
+
+	public void setCache(SharedJvmTypeCache cache) {
+		this.cache = cache;
+	}
+
+	public SharedJvmTypeCache getCache() {
+		return cache;
+	}
+
+	@Override
+	protected ClasspathTypeProvider createClasspathTypeProvider(ResourceSet resourceSet) {
+		// the factory itself is not thread-safe, thus each provider uses its own one
+		SharedDeclaredTypeFactory typeFactory = new SharedDeclaredTypeFactory(new ClassURIHelper(), cache);
+		return new CachingClasspathTypeProvider(getClassLoader(resourceSet), resourceSet, getIndexedJvmTypeAccess(),
+				typeFactory);
+	}
+
+}
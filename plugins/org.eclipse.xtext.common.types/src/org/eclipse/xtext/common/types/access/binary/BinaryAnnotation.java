@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.Map;
+
+/**
+ * An annotation as it is stored in a class file. Only the explicitly given values are available. Values are boxed
+ * primitives, {@link String strings}, {@link EnumConstant enum constants}, {@link ClassLiteral class literals},
+ * nested {@link BinaryAnnotation annotations} or {@link java.util.List lists} of these.
+ * 
+ * Instances are immutable and may be shared between threads.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryAnnotation {
+
+	/**
+	 * A reference to an enum constant in an annotation value.
+	 */
+	public static class EnumConstant {
+		private final String typeName;
+		private final String constantName;
+
+		public EnumConstant(String typeName, String constantName) {
+			this.typeName = typeName;
+			this.constantName = constantName;
+		}
+
+		/**
+		 * @return the binary name of the enum type, e.g. <code>java.lang.annotation.ElementType</code>.
+		 */
+		public String getTypeName() {
+			return typeName;
+		}
+
+		public String getConstantName() {
+			return constantName;
+		}
+	}
+
+	/**
+	 * A class literal in an annotation value.
+	 */
+	public static class ClassLiteral {
+		private final String descriptor;
+
+		public ClassLiteral(String descriptor) {
+			this.descriptor = descriptor;
+		}
+
+		/**
+		 * @return the field descriptor of the referenced type, e.g. <code>Ljava/lang/String;</code> or <code>[I</code>.
+		 */
+		public String getDescriptor() {
+			return descriptor;
+		}
+	}
+
+	private final String typeName;
+
+	private final Map<String, Object> values;
+
+	public BinaryAnnotation(String typeName, Map<String, Object> values) {
+		this.typeName = typeName;
+		this.values = values;
+	}
+
+	/**
+	 * @return the binary name of the annotation type.
+	 */
+	public String getTypeName() {
+		return typeName;
+	}
+
+	/**
+	 * @return the explicitly given values by name, in declaration order.
+	 */
+	public Map<String, Object> getValues() {
+		return values;
+	}
+
+}
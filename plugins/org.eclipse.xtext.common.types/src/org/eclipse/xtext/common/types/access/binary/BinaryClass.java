@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The information about a class that is stored in its class file. Names are binary names with dots as package
+ * separators, e.g. <code>java.util.Map$Entry</code>.
+ *
+ * Instances are immutable and may be shared between threads and resource sets.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryClass {
+
+	/**
+	 * An entry of the <code>InnerClasses</code> attribute.
+	 */
+	public static class InnerClass {
+		private final String name;
+		private final String outerName;
+		private final String simpleName;
+		private final int access;
+
+		public InnerClass(String name, @Nullable String outerName, @Nullable String simpleName, int access) {
+			this.name = name;
+			this.outerName = outerName;
+			this.simpleName = simpleName;
+			this.access = access;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the declaring class or <code>null</code> for local and anonymous classes.
+		 */
+		@Nullable
+		public String getOuterName() {
+			return outerName;
+		}
+
+		/**
+		 * @return the simple name or <code>null</code> for anonymous classes.
+		 */
+		@Nullable
+		public String getSimpleName() {
+			return simpleName;
+		}
+
+		public int getAccess() {
+			return access;
+		}
+
+		public boolean isMemberClass() {
+			return outerName != null && simpleName != null;
+		}
+	}
+
+	private final int access;
+
+	private final String name;
+
+	private final String superName;
+
+	private final List<String> interfaces;
+
+	private final String signature;
+
+	private final List<BinaryAnnotation> annotations;
+
+	private final List<BinaryField> fields;
+
+	private final List<BinaryMethod> methods;
+
+	private final List<InnerClass> innerClasses;
+
+	private final InnerClass self;
+
+	public BinaryClass(int access, String name, @Nullable String superName, List<String> interfaces,
+			@Nullable String signature, List<BinaryAnnotation> annotations, List<BinaryField> fields,
+			List<BinaryMethod> methods, List<InnerClass> innerClasses) {
+		this.access = access;
+		this.name = name;
+		this.superName = superName;
+		this.interfaces = interfaces;
+		this.signature = signature;
+		this.annotations = annotations;
+		this.fields = fields;
+		this.methods = methods;
+		this.innerClasses = innerClasses;
+		InnerClass self = null;
+		for (InnerClass innerClass : innerClasses) {
+			if (name.equals(innerClass.getName())) {
+				self = innerClass;
+				break;
+			}
+		}
+		this.self = self;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the modifiers like {@link Class#getModifiers()} does, i.e. the flags of the
+	 *         <code>InnerClasses</code> entry for nested classes.
+	 */
+	public int getModifiers() {
+		if (self != null) {
+			return self.getAccess();
+		}
+		return access & ~ClassFileConstants.ACC_SUPER;
+	}
+
+	@Nullable
+	public String getSuperName() {
+		return superName;
+	}
+
+	public List<String> getInterfaces() {
+		return interfaces;
+	}
+
+	@Nullable
+	public String getSignature() {
+		return signature;
+	}
+
+	public List<BinaryAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	public List<BinaryField> getFields() {
+		return fields;
+	}
+
+	public List<BinaryMethod> getMethods() {
+		return methods;
+	}
+
+	public List<InnerClass> getInnerClasses() {
+		return innerClasses;
+	}
+
+	public boolean isInterface() {
+		return (access & ClassFileConstants.ACC_INTERFACE) != 0;
+	}
+
+	public boolean isAnnotation() {
+		return (access & ClassFileConstants.ACC_ANNOTATION) != 0;
+	}
+
+	public boolean isEnum() {
+		return (access & ClassFileConstants.ACC_ENUM) != 0 && "java.lang.Enum".equals(superName);
+	}
+
+	public boolean isSynthetic() {
+		return (access & ClassFileConstants.ACC_SYNTHETIC) != 0;
+	}
+
+	public boolean isAnonymous() {
+		return self != null && self.getSimpleName() == null;
+	}
+
+	public boolean isLocal() {
+		return self != null && self.getOuterName() == null && self.getSimpleName() != null;
+	}
+
+	public boolean isMemberClass() {
+		return self != null && self.isMemberClass();
+	}
+
+	/**
+	 * @return the declaring class of a member class, <code>null</code> otherwise.
+	 */
+	@Nullable
+	public String getDeclaringClassName() {
+		return isMemberClass() ? self.getOuterName() : null;
+	}
+
+	public String getSimpleName() {
+		if (self != null) {
+			String result = self.getSimpleName();
+			return result != null ? result : "";
+		}
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	/**
+	 * @return the package name of a top level class or <code>null</code> if it is nested or in the default package.
+	 */
+	@Nullable
+	public String getPackageName() {
+		if (self != null) {
+			return null;
+		}
+		int idx = name.lastIndexOf('.');
+		return idx < 0 ? null : name.substring(0, idx);
+	}
+
+	/**
+	 * @return the binary names of the member classes that are declared by this class, in declaration order.
+	 */
+	public List<String> getMemberClassNames() {
+		List<String> result = Lists.newArrayList();
+		for (InnerClass innerClass : innerClasses) {
+			if (name.equals(innerClass.getOuterName()) && innerClass.getSimpleName() != null
+					&& (innerClass.getAccess() & ClassFileConstants.ACC_SYNTHETIC) == 0) {
+				result.add(innerClass.getName());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the declaring class of the given class if this class file knows it, <code>null</code> otherwise.
+	 */
+	@Nullable
+	public String getKnownDeclaringClassName(String className) {
+		for (InnerClass innerClass : innerClasses) {
+			if (className.equals(innerClass.getName())) {
+				return innerClass.isMemberClass() ? innerClass.getOuterName() : null;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + name + "]";
+	}
+
+}
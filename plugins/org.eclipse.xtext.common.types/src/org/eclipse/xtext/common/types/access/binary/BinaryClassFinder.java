@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Locates class files through the resources of a {@link ClassLoader} and keeps the parsed {@link BinaryClass}es.
+ * Classes are never defined or initialized, so types can be read even if their dependencies are not available.
+ * <p>
+ * A finder is thread-safe and may be shared between any number of resource sets that use the same class path.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryClassFinder {
+
+	private static final Logger log = Logger.getLogger(BinaryClassFinder.class);
+
+	private static final Object MISSING = new Object();
+
+	private final ClassLoader classLoader;
+
+	private final ClassFileReader reader;
+
+	private final ConcurrentMap<String, Object> cache = Maps.newConcurrentMap();
+
+	public BinaryClassFinder(ClassLoader classLoader) {
+		this(classLoader, new ClassFileReader());
+	}
+
+	public BinaryClassFinder(ClassLoader classLoader, ClassFileReader reader) {
+		this.classLoader = classLoader;
+		this.reader = reader;
+	}
+
+	public ClassLoader getClassLoader() {
+		return classLoader;
+	}
+
+	/**
+	 * @param binaryName the binary name of the class, e.g. <code>java.util.Map$Entry</code>.
+	 * @return the parsed class file or <code>null</code> if there is no such class file.
+	 */
+	@Nullable
+	public BinaryClass find(String binaryName) {
+		Object result = cache.get(binaryName);
+		if (result == null) {
+			result = load(binaryName);
+			Object existing = cache.putIfAbsent(binaryName, result);
+			if (existing != null) {
+				result = existing;
+			}
+		}
+		return result == MISSING ? null : (BinaryClass) result;
+	}
+
+	protected Object load(String binaryName) {
+		String resourceName = binaryName.replace('.', '/') + ".class";
+		InputStream stream = getResourceAsStream(resourceName);
+		if (stream == null) {
+			return MISSING;
+		}
+		try {
+			try {
+				return reader.read(stream);
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			log.error("Cannot read class file " + resourceName + ": " + e.getMessage());
+			if (log.isDebugEnabled()) {
+				log.debug(e.getMessage(), e);
+			}
+			return MISSING;
+		}
+	}
+
+	@Nullable
+	protected InputStream getResourceAsStream(String resourceName) {
+		if (classLoader == null) {
+			return ClassLoader.getSystemResourceAsStream(resourceName);
+		}
+		return classLoader.getResourceAsStream(resourceName);
+	}
+
+	/**
+	 * @return the binary name of the top level class that contains the given class.
+	 */
+	public String getTopLevelName(String binaryName) {
+		String result = binaryName;
+		while (result.indexOf('$') >= 0) {
+			BinaryClass binaryClass = find(result);
+			if (binaryClass == null) {
+				return result;
+			}
+			String declaringClassName = binaryClass.getDeclaringClassName();
+			if (declaringClassName == null) {
+				return result;
+			}
+			result = declaringClassName;
+		}
+		return result;
+	}
+
+}
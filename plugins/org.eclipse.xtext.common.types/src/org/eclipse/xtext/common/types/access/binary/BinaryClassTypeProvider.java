@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.access.IMirror;
+import org.eclipse.xtext.common.types.access.TypeResource;
+import org.eclipse.xtext.common.types.access.impl.AbstractJvmTypeProvider;
+import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
+import org.eclipse.xtext.common.types.access.impl.Primitives;
+import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.util.Strings;
+
+/**
+ * A type provider that reads the class files from the class path instead of loading the classes with reflection.
+ * Neither the classes nor the types that they refer to have to be loadable by the class loader, and the parsed
+ * class files are shared by all providers that use the same {@link BinaryClassFinder finder}.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryClassTypeProvider extends AbstractJvmTypeProvider {
+
+	private final BinaryClassFinder finder;
+
+	private final BinaryTypeFactory typeFactory;
+
+	public BinaryClassTypeProvider(BinaryClassFinder finder, ResourceSet resourceSet,
+			@Nullable IndexedJvmTypeAccess indexedJvmTypeAccess) {
+		super(resourceSet, indexedJvmTypeAccess);
+		this.finder = finder;
+		this.typeFactory = createTypeFactory(finder);
+	}
+
+	protected BinaryTypeFactory createTypeFactory(BinaryClassFinder finder) {
+		return new BinaryTypeFactory(finder);
+	}
+
+	public BinaryClassFinder getFinder() {
+		return finder;
+	}
+
+	public BinaryTypeFactory getTypeFactory() {
+		return typeFactory;
+	}
+
+	@Override
+	public JvmType findTypeByName(String name) {
+		synchronized (getLock()) {
+			JvmType result = doFindTypeByName(name);
+			if (result == null)
+				return tryFindTypeInIndex(name, true);
+			return result;
+		}
+	}
+
+	@Override
+	public JvmType findTypeByName(String name, boolean binaryNestedTypeDelimiter) {
+		if (isBinaryNestedTypeDelimiter(name, binaryNestedTypeDelimiter)) {
+			return findTypeByName(name);
+		}
+		synchronized (getLock()) {
+			JvmType result = doFindTypeByName(name);
+			ClassNameVariants variants = new ClassNameVariants(name);
+			while (result == null && variants.hasNext()) {
+				result = doFindTypeByName(variants.next());
+			}
+			if (result == null)
+				return tryFindTypeInIndex(name, false);
+			return result;
+		}
+	}
+
+	/**
+	 * @param name a binary name, optionally followed by array dimensions, e.g. <code>java.util.Map$Entry[]</code>.
+	 */
+	@Nullable
+	protected JvmType doFindTypeByName(String name) {
+		int idx = name.indexOf('[');
+		String componentName = idx < 0 ? name : name.substring(0, idx);
+		if (componentName.length() == 0)
+			return null;
+		URI resourceURI;
+		if (Primitives.forName(componentName) != null) {
+			resourceURI = URIHelperConstants.PRIMITIVES_URI;
+		} else {
+			BinaryClass binaryClass = finder.find(componentName);
+			if (binaryClass == null || binaryClass.isAnonymous() || binaryClass.isLocal())
+				return null;
+			resourceURI = URIHelperConstants.OBJECTS_URI.appendSegment(finder.getTopLevelName(componentName));
+			IndexedJvmTypeAccess indexedJvmTypeAccess = getIndexedJvmTypeAccess();
+			if (indexedJvmTypeAccess != null) {
+				EObject candidate = indexedJvmTypeAccess.getIndexedJvmType(resourceURI.appendFragment(name), getResourceSet());
+				if (candidate instanceof JvmType)
+					return (JvmType) candidate;
+			}
+		}
+		TypeResource resource = (TypeResource) getResourceSet().getResource(resourceURI, true);
+		JvmType result = (JvmType) resource.getEObject(name);
+		if (result == null) {
+			throw new IllegalStateException("Resource has not been loaded");
+		}
+		return result;
+	}
+
+	@Nullable
+	protected JvmType tryFindTypeInIndex(String name, boolean binaryNestedTypeDelimiter) {
+		IndexedJvmTypeAccess indexAccess = getIndexedJvmTypeAccess();
+		if (indexAccess != null) {
+			JvmType result = doTryFindInIndex(name, indexAccess);
+			if (result == null && !isBinaryNestedTypeDelimiter(name, binaryNestedTypeDelimiter)) {
+				ClassNameVariants variants = new ClassNameVariants(name);
+				while(result == null && variants.hasNext()) {
+					result = doTryFindInIndex(variants.next(), indexAccess);
+				}
+			}
+			return result;
+		}
+		return null;
+	}
+
+	@Nullable
+	private JvmType doTryFindInIndex(String name, IndexedJvmTypeAccess indexAccess) {
+		int index = name.indexOf('$');
+		if (index < 0)
+			index = name.indexOf('[');
+		String qualifiedNameString = index < 0 ? name : name.substring(0, index);
+		List<String> nameSegments = Strings.split(qualifiedNameString, '.');
+		QualifiedName qualifiedName = QualifiedName.create(nameSegments);
+		EObject candidate = indexAccess.getIndexedJvmType(qualifiedName, name, getResourceSet());
+		if (candidate instanceof JvmType)
+			return (JvmType) candidate;
+		return null;
+	}
+
+	@Override
+	@Nullable
+	protected IMirror createMirrorForFQN(String name) {
+		BinaryClass binaryClass = finder.find(name);
+		if (binaryClass == null || binaryClass.isMemberClass() || binaryClass.isAnonymous() || binaryClass.isLocal())
+			return null;
+		return BinaryClassMirror.createClassMirror(binaryClass, typeFactory);
+	}
+
+}
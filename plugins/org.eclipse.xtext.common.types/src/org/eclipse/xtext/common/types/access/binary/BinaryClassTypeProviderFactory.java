@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.common.types.access.AbstractTypeProviderFactory;
+import org.eclipse.xtext.resource.XtextResourceSet;
+
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Creates {@link BinaryClassTypeProvider type providers} that share the parsed class files of a class loader.
+ * Resource sets that use the same class path therefore read each class file only once. The finders are softly
+ * referenced since they refer to their class loader.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Singleton
+public class BinaryClassTypeProviderFactory extends AbstractTypeProviderFactory {
+
+	private final ClassLoader classLoader;
+
+	private final ConcurrentMap<ClassLoader, BinaryClassFinder> finders = new MapMaker().weakKeys().softValues().makeMap();
+
+	private final BinaryClassFinder systemFinder = new BinaryClassFinder(null);
+
+	@Inject
+	public BinaryClassTypeProviderFactory(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	public BinaryClassTypeProvider createTypeProvider(ResourceSet resourceSet) {
+		if (resourceSet == null)
+			throw new IllegalArgumentException("resourceSet may not be null.");
+		return new BinaryClassTypeProvider(getFinder(getClassLoader(resourceSet)), resourceSet,
+				getIndexedJvmTypeAccess());
+	}
+
+	public BinaryClassFinder getFinder(ClassLoader classLoader) {
+		if (classLoader == null)
+			return systemFinder;
+		BinaryClassFinder result = finders.get(classLoader);
+		if (result == null) {
+			result = new BinaryClassFinder(classLoader);
+			BinaryClassFinder existing = finders.putIfAbsent(classLoader, result);
+			if (existing != null)
+				result = existing;
+		}
+		return result;
+	}
+
+	public ClassLoader getClassLoader(ResourceSet resourceSet) {
+		if (resourceSet instanceof XtextResourceSet) {
+			XtextResourceSet xtextResourceSet = (XtextResourceSet) resourceSet;
+			Object ctx = xtextResourceSet.getClasspathURIContext();
+			if (ctx != null) {
+				if (ctx instanceof Class<?>) {
+					return ((Class<?>)ctx).getClassLoader();
+				}
+				if (!(ctx instanceof ClassLoader)) {
+					return ctx.getClass().getClassLoader();
+				}
+				return (ClassLoader) ctx;
+			}
+		}
+		return classLoader;
+	}
+
+	@Override
+	public BinaryClassTypeProvider createTypeProvider() {
+		return (BinaryClassTypeProvider) super.createTypeProvider();
+	}
+
+}
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.List;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryField extends BinaryMember {
+
+	public BinaryField(int access, String name, String descriptor, String signature,
+			List<BinaryAnnotation> annotations) {
+		super(access, name, descriptor, signature, annotations);
+	}
+
+	public boolean isEnumConstant() {
+		return (getAccess() & ClassFileConstants.ACC_ENUM) != 0;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.List;
+
+/**
+ * A field or method as it is stored in a class file.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public abstract class BinaryMember {
+
+	private final int access;
+
+	private final String name;
+
+	private final String descriptor;
+
+	private final String signature;
+
+	private final List<BinaryAnnotation> annotations;
+
+	protected BinaryMember(int access, String name, String descriptor, String signature,
+			List<BinaryAnnotation> annotations) {
+		this.access = access;
+		this.name = name;
+		this.descriptor = descriptor;
+		this.signature = signature;
+		this.annotations = annotations;
+	}
+
+	public int getAccess() {
+		return access;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescriptor() {
+		return descriptor;
+	}
+
+	/**
+	 * @return the generic signature or <code>null</code> if the member does not use generic types.
+	 */
+	public String getSignature() {
+		return signature;
+	}
+
+	/**
+	 * @return the runtime visible annotations.
+	 */
+	public List<BinaryAnnotation> getAnnotations() {
+		return annotations;
+	}
+
+	public boolean isSynthetic() {
+		return (access & ClassFileConstants.ACC_SYNTHETIC) != 0;
+	}
+
+}
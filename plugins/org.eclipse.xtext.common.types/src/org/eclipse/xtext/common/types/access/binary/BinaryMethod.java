@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.List;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class BinaryMethod extends BinaryMember {
+
+	private final List<String> exceptions;
+
+	private final List<List<BinaryAnnotation>> parameterAnnotations;
+
+	private final Object annotationDefault;
+
+	public BinaryMethod(int access, String name, String descriptor, String signature,
+			List<BinaryAnnotation> annotations, List<String> exceptions,
+			List<List<BinaryAnnotation>> parameterAnnotations, Object annotationDefault) {
+		super(access, name, descriptor, signature, annotations);
+		this.exceptions = exceptions;
+		this.parameterAnnotations = parameterAnnotations;
+		this.annotationDefault = annotationDefault;
+	}
+
+	/**
+	 * @return the binary names of the declared exceptions as given by the <code>Exceptions</code> attribute.
+	 */
+	public List<String> getExceptions() {
+		return exceptions;
+	}
+
+	/**
+	 * @return the runtime visible parameter annotations. The list may have less entries than the method has
+	 *         parameters since compilers omit the annotations of synthetic parameters.
+	 */
+	public List<List<BinaryAnnotation>> getParameterAnnotations() {
+		return parameterAnnotations;
+	}
+
+	/**
+	 * @return the default value of an annotation type element or <code>null</code>.
+	 */
+	public Object getAnnotationDefault() {
+		return annotationDefault;
+	}
+
+	public boolean isConstructor() {
+		return "<init>".equals(getName());
+	}
+
+	public boolean isStaticInitializer() {
+		return "<clinit>".equals(getName());
+	}
+
+	public boolean isVarArgs() {
+		return (getAccess() & ClassFileConstants.ACC_VARARGS) != 0;
+	}
+
+}
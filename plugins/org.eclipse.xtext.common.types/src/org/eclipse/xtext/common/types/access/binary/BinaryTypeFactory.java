@@ -0,0 +1,890 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.xtext.common.types.JvmAnnotationReference;
+import org.eclipse.xtext.common.types.JvmAnnotationTarget;
+import org.eclipse.xtext.common.types.JvmAnnotationType;
+import org.eclipse.xtext.common.types.JvmAnnotationValue;
+import org.eclipse.xtext.common.types.JvmConstructor;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmEnumerationLiteral;
+import org.eclipse.xtext.common.types.JvmEnumerationType;
+import org.eclipse.xtext.common.types.JvmExecutable;
+import org.eclipse.xtext.common.types.JvmField;
+import org.eclipse.xtext.common.types.JvmFormalParameter;
+import org.eclipse.xtext.common.types.JvmGenericArrayTypeReference;
+import org.eclipse.xtext.common.types.JvmGenericType;
+import org.eclipse.xtext.common.types.JvmLowerBound;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.JvmOperation;
+import org.eclipse.xtext.common.types.JvmParameterizedTypeReference;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.JvmTypeConstraint;
+import org.eclipse.xtext.common.types.JvmTypeParameter;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.common.types.JvmUpperBound;
+import org.eclipse.xtext.common.types.JvmVisibility;
+import org.eclipse.xtext.common.types.JvmWildcardTypeReference;
+import org.eclipse.xtext.common.types.TypesFactory;
+import org.eclipse.xtext.common.types.access.binary.BinaryAnnotation.ClassLiteral;
+import org.eclipse.xtext.common.types.access.binary.BinaryAnnotation.EnumConstant;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.ArrayType;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.BaseType;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.ClassSignature;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.ClassType;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.MethodSignature;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.SignatureFormatException;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.TypeArgument;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.TypeParameter;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.TypeSignature;
+import org.eclipse.xtext.common.types.access.binary.SignatureParser.TypeVariable;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.ITypeFactory;
+import org.eclipse.xtext.common.types.access.impl.URIHelperConstants;
+import org.eclipse.xtext.common.types.impl.JvmTypeConstraintImplCustom;
+import org.eclipse.xtext.util.internal.Stopwatches;
+import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Converts {@link BinaryClass parsed class files} to {@link JvmType types}. The produced types are structurally
+ * equal to the ones that the {@link DeclaredTypeFactory} creates for the respective {@link Class classes}, but
+ * neither the classes nor their dependencies have to be loaded by the JVM.
+ *
+ * Instances are not thread-safe since they cache the created proxies.
+ *
+ * @noextend This class is not intended to be subclassed by clients.
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@SuppressWarnings("restriction")
+public class BinaryTypeFactory implements ITypeFactory<BinaryClass> {
+
+	private final static Logger log = Logger.getLogger(BinaryTypeFactory.class);
+
+	private static final String JAVA_LANG_OBJECT = "java.lang.Object";
+
+	/**
+	 * The type parameters that are visible in a class or executable. Scopes of declaring classes are
+	 * demand populated.
+	 */
+	protected class Scope {
+		private final BinaryClass clazz;
+		private final String fragment;
+		private final List<String> typeParameters;
+		private Scope parent;
+		private boolean parentComputed;
+
+		protected Scope(BinaryClass clazz, String fragment, List<String> typeParameters, @Nullable Scope parent) {
+			this.clazz = clazz;
+			this.fragment = fragment;
+			this.typeParameters = typeParameters;
+			this.parent = parent;
+			this.parentComputed = parent != null;
+		}
+
+		public BinaryClass getBinaryClass() {
+			return clazz;
+		}
+
+		@Nullable
+		public Scope getParent() {
+			if (!parentComputed) {
+				parentComputed = true;
+				String declaringClassName = clazz.getDeclaringClassName();
+				if (declaringClassName != null) {
+					BinaryClass declaringClass = finder.find(declaringClassName);
+					if (declaringClass != null) {
+						parent = createClassScope(declaringClass, getClassSignature(declaringClass));
+					}
+				}
+			}
+			return parent;
+		}
+	}
+
+	private final BinaryClassFinder finder;
+
+	private final SignatureParser signatureParser;
+
+	private final StoppedTask createTypeTask = Stopwatches.forTask("BinaryTypeFactory.createType");
+
+	/**
+	 * A cache mapping each proxy URI to its corresponding type proxy.
+	 */
+	private final Map<String, JvmType> typeProxies = Maps.newHashMap();
+
+	/**
+	 * A cache mapping each proxy URI to its corresponding operation proxy.
+	 */
+	private final Map<String, JvmOperation> operationProxies = Maps.newHashMap();
+
+	/**
+	 * A cache mapping each proxy URI to its corresponding annotation type proxy.
+	 */
+	private final Map<String, JvmAnnotationType> annotationProxies = Maps.newHashMap();
+
+	public BinaryTypeFactory(BinaryClassFinder finder) {
+		this(finder, new SignatureParser());
+	}
+
+	public BinaryTypeFactory(BinaryClassFinder finder, SignatureParser signatureParser) {
+		this.finder = finder;
+		this.signatureParser = signatureParser;
+	}
+
+	public BinaryClassFinder getFinder() {
+		return finder;
+	}
+
+	/**
+	 * Creates a new {@link JvmDeclaredType type} from the given class file.
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public JvmDeclaredType createType(BinaryClass clazz) {
+		try {
+			createTypeTask.start();
+			if (clazz.isAnonymous() || clazz.isSynthetic())
+				throw new IllegalStateException("Cannot create type for anonymous or synthetic classes");
+			ClassSignature signature = getClassSignature(clazz);
+			Scope scope = createClassScope(clazz, signature);
+			if (clazz.isAnnotation())
+				return createAnnotationType(clazz, signature, scope);
+			if (clazz.isEnum())
+				return createEnumerationType(clazz, signature, scope);
+
+			JvmGenericType result = TypesFactory.eINSTANCE.createJvmGenericType();
+			result.setInterface(clazz.isInterface());
+			result.setStrictFloatingPoint(Modifier.isStrict(clazz.getModifiers()));
+			setTypeModifiers(clazz, result);
+			setVisibility(clazz, result);
+			setNames(clazz, result);
+
+			createNestedTypes(clazz, result);
+			createMethods(clazz, result, scope);
+			createConstructors(clazz, result, scope);
+			createFields(clazz, result, scope);
+
+			setSuperTypes(clazz, signature, result, scope);
+			if (signature != null && !signature.getTypeParameters().isEmpty()) {
+				InternalEList<JvmTypeParameter> jvmTypeParameters = (InternalEList<JvmTypeParameter>) result.getTypeParameters();
+				for (TypeParameter typeParameter : signature.getTypeParameters()) {
+					jvmTypeParameters.addUnique(createTypeParameter(typeParameter, scope));
+				}
+			}
+			createAnnotationValues(clazz.getAnnotations(), result, scope);
+			return result;
+		} finally {
+			createTypeTask.stop();
+		}
+	}
+
+	protected void logSignatureFormatError(BinaryClass clazz) {
+		if (log.isDebugEnabled())
+			log.debug("Invalid class file for: " + clazz.getName());
+	}
+
+	protected void logIncompleteType(BinaryClass clazz, String missingClass, String description) {
+		log.error("Incomplete " + description + " for " + clazz.getName() + ": " + missingClass);
+	}
+
+	@Nullable
+	protected ClassSignature getClassSignature(BinaryClass clazz) {
+		String signature = clazz.getSignature();
+		if (signature == null)
+			return null;
+		try {
+			return signatureParser.parseClassSignature(signature);
+		} catch (SignatureFormatException e) {
+			logSignatureFormatError(clazz);
+			return null;
+		}
+	}
+
+	protected Scope createClassScope(BinaryClass clazz, @Nullable ClassSignature signature) {
+		List<String> typeParameters = Collections.emptyList();
+		if (signature != null && !signature.getTypeParameters().isEmpty()) {
+			typeParameters = Lists.newArrayListWithCapacity(signature.getTypeParameters().size());
+			for (TypeParameter typeParameter : signature.getTypeParameters()) {
+				typeParameters.add(typeParameter.getName());
+			}
+		}
+		return new Scope(clazz, clazz.getName(), typeParameters, null);
+	}
+
+	protected void setNames(BinaryClass clazz, JvmDeclaredType result) {
+		result.internalSetIdentifier(clazz.getName());
+		result.setSimpleName(clazz.getSimpleName());
+		if (!clazz.isMemberClass())
+			result.setPackageName(clazz.getPackageName());
+	}
+
+	protected void setTypeModifiers(BinaryClass clazz, JvmDeclaredType result) {
+		int modifiers = clazz.getModifiers();
+		result.setAbstract(Modifier.isAbstract(modifiers));
+		result.setStatic(Modifier.isStatic(modifiers));
+		if (!(result instanceof JvmEnumerationType))
+			result.setFinal(Modifier.isFinal(modifiers));
+	}
+
+	protected void setVisibility(BinaryClass clazz, JvmMember result) {
+		int modifiers = clazz.getModifiers();
+		if (Modifier.isPrivate(modifiers))
+			result.setVisibility(JvmVisibility.PRIVATE);
+		else if (Modifier.isProtected(modifiers))
+			result.setVisibility(JvmVisibility.PROTECTED);
+		else if (Modifier.isPublic(modifiers))
+			result.setVisibility(JvmVisibility.PUBLIC);
+	}
+
+	protected void setVisibility(JvmMember result, int modifiers) {
+		if (Modifier.isPrivate(modifiers))
+			result.setVisibility(JvmVisibility.PRIVATE);
+		else if (Modifier.isProtected(modifiers))
+			result.setVisibility(JvmVisibility.PROTECTED);
+		else if (Modifier.isPublic(modifiers))
+			result.setVisibility(JvmVisibility.PUBLIC);
+		else
+			result.setVisibility(JvmVisibility.DEFAULT);
+	}
+
+	protected JvmAnnotationType createAnnotationType(BinaryClass clazz, @Nullable ClassSignature signature, Scope scope) {
+		JvmAnnotationType result = TypesFactory.eINSTANCE.createJvmAnnotationType();
+		setNames(clazz, result);
+		setVisibility(clazz, result);
+		setTypeModifiers(clazz, result);
+		createNestedTypes(clazz, result);
+		createMethods(clazz, result, scope);
+		setSuperTypes(clazz, signature, result, scope);
+		createAnnotationValues(clazz.getAnnotations(), result, scope);
+		return result;
+	}
+
+	protected JvmEnumerationType createEnumerationType(BinaryClass clazz, @Nullable ClassSignature signature, Scope scope) {
+		JvmEnumerationType result = TypesFactory.eINSTANCE.createJvmEnumerationType();
+		setNames(clazz, result);
+		setVisibility(clazz, result);
+		setTypeModifiers(clazz, result);
+		createNestedTypes(clazz, result);
+		createMethods(clazz, result, scope);
+		createFields(clazz, result, scope);
+		createConstructors(clazz, result, scope);
+		setSuperTypes(clazz, signature, result, scope);
+		createAnnotationValues(clazz.getAnnotations(), result, scope);
+		return result;
+	}
+
+	protected void createNestedTypes(BinaryClass clazz, JvmDeclaredType result) {
+		List<String> memberClassNames = clazz.getMemberClassNames();
+		if (!memberClassNames.isEmpty()) {
+			InternalEList<JvmMember> members = (InternalEList<JvmMember>) result.getMembers();
+			for (String memberClassName : memberClassNames) {
+				BinaryClass memberClass = finder.find(memberClassName);
+				if (memberClass == null) {
+					logIncompleteType(clazz, memberClassName, "nested types");
+				} else if (!memberClass.isAnonymous() && !memberClass.isSynthetic()) {
+					members.addUnique(createType(memberClass));
+				}
+			}
+		}
+	}
+
+	protected void setSuperTypes(BinaryClass clazz, @Nullable ClassSignature signature, JvmDeclaredType result,
+			Scope scope) {
+		InternalEList<JvmTypeReference> superTypes = (InternalEList<JvmTypeReference>) result.getSuperTypes();
+		if (!clazz.isInterface()) {
+			if (signature != null && signature.getSuperClass() != null) {
+				superTypes.addUnique(createTypeReference(signature.getSuperClass(), scope));
+			} else if (clazz.getSuperName() != null) {
+				superTypes.addUnique(createTypeReference(clazz.getSuperName(), scope));
+			}
+		}
+		if (signature != null) {
+			for (TypeSignature type : signature.getInterfaces()) {
+				superTypes.addUnique(createTypeReference(type, scope));
+			}
+		} else {
+			for (String interfaceName : clazz.getInterfaces()) {
+				superTypes.addUnique(createTypeReference(interfaceName, scope));
+			}
+		}
+		if (superTypes.isEmpty() && !JAVA_LANG_OBJECT.equals(clazz.getName())) {
+			superTypes.addUnique(createTypeReference(JAVA_LANG_OBJECT, scope));
+		}
+	}
+
+	protected void createFields(BinaryClass clazz, JvmDeclaredType result, Scope scope) {
+		List<BinaryField> fields = clazz.getFields();
+		if (!fields.isEmpty()) {
+			InternalEList<JvmMember> members = (InternalEList<JvmMember>) result.getMembers();
+			for (BinaryField field : fields) {
+				if (!field.isSynthetic()) {
+					members.addUnique(createField(clazz, field, scope));
+				}
+			}
+		}
+	}
+
+	protected void createConstructors(BinaryClass clazz, JvmDeclaredType result, Scope scope) {
+		InternalEList<JvmMember> members = (InternalEList<JvmMember>) result.getMembers();
+		for (BinaryMethod method : clazz.getMethods()) {
+			if (method.isConstructor() && !method.isSynthetic()) {
+				members.addUnique(createConstructor(clazz, method, scope));
+			}
+		}
+	}
+
+	protected void createMethods(BinaryClass clazz, JvmDeclaredType result, Scope scope) {
+		InternalEList<JvmMember> members = (InternalEList<JvmMember>) result.getMembers();
+		for (BinaryMethod method : clazz.getMethods()) {
+			if (!method.isConstructor() && !method.isStaticInitializer() && !method.isSynthetic()) {
+				JvmOperation operation = createOperation(clazz, method, scope);
+				if (clazz.isAnnotation()) {
+					setDefaultValue(operation, method, scope);
+				}
+				members.addUnique(operation);
+			}
+		}
+	}
+
+	protected void setDefaultValue(JvmOperation operation, BinaryMethod method, Scope scope) {
+		Object defaultValue = method.getAnnotationDefault();
+		if (defaultValue != null) {
+			JvmAnnotationValue annotationValue = createAnnotationValue(getReturnDescriptor(method), defaultValue, scope);
+			if (annotationValue != null) {
+				operation.setDefaultValue(annotationValue);
+				annotationValue.setOperation(operation);
+			}
+		}
+	}
+
+	protected JvmField createField(BinaryClass clazz, BinaryField field, Scope scope) {
+		JvmField result;
+		if (!field.isEnumConstant())
+			result = TypesFactory.eINSTANCE.createJvmField();
+		else
+			result = TypesFactory.eINSTANCE.createJvmEnumerationLiteral();
+		String fieldName = field.getName();
+		result.internalSetIdentifier(clazz.getName() + "." + fieldName);
+		result.setSimpleName(fieldName);
+		int modifiers = field.getAccess();
+		result.setFinal(Modifier.isFinal(modifiers));
+		result.setStatic(Modifier.isStatic(modifiers));
+		result.setTransient(Modifier.isTransient(modifiers));
+		result.setVolatile(Modifier.isVolatile(modifiers));
+		setVisibility(result, modifiers);
+		TypeSignature fieldType = null;
+		if (field.getSignature() != null) {
+			try {
+				fieldType = signatureParser.parseFieldType(field.getSignature());
+			} catch (SignatureFormatException e) {
+				logSignatureFormatError(clazz);
+			}
+		}
+		if (fieldType == null) {
+			fieldType = signatureParser.parseFieldType(field.getDescriptor());
+		}
+		result.setType(createTypeReference(fieldType, scope));
+		createAnnotationValues(field.getAnnotations(), result, scope);
+		return result;
+	}
+
+	@Nullable
+	protected MethodSignature getGenericSignature(BinaryClass clazz, BinaryMethod method) {
+		if (method.getSignature() == null)
+			return null;
+		try {
+			return signatureParser.parseMethodSignature(method.getSignature());
+		} catch (SignatureFormatException e) {
+			logSignatureFormatError(clazz);
+			return null;
+		}
+	}
+
+	protected JvmConstructor createConstructor(BinaryClass clazz, BinaryMethod constructor, Scope scope) {
+		JvmConstructor result = TypesFactory.eINSTANCE.createJvmConstructor();
+		MethodSignature erasure = signatureParser.parseMethodSignature(constructor.getDescriptor());
+		MethodSignature signature = getGenericSignature(clazz, constructor);
+		int offset = 0;
+		if (clazz.isEnum()) {
+			offset = 2;
+		} else if (clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers())) {
+			offset = 1;
+		}
+		if (signature == null) {
+			signature = erasure;
+		} else if (offset != 0 && signature.getParameterTypes().size() != erasure.getParameterTypes().size()) {
+			/*
+			 * The generic signature of a constructor does not contain the synthetic
+			 * parameters, e.g. the outer instance of inner classes.
+			 */
+			offset = 0;
+		}
+		enhanceExecutable(result, clazz, constructor, clazz.getSimpleName(), signature, offset, scope);
+		result.setVarArgs(constructor.isVarArgs());
+		createAnnotationValues(constructor.getAnnotations(), result, scope);
+		return result;
+	}
+
+	protected JvmOperation createOperation(BinaryClass clazz, BinaryMethod method, Scope scope) {
+		JvmOperation result = TypesFactory.eINSTANCE.createJvmOperation();
+		MethodSignature signature = getGenericSignature(clazz, method);
+		if (signature == null) {
+			signature = signatureParser.parseMethodSignature(method.getDescriptor());
+		}
+		Scope executableScope = enhanceExecutable(result, clazz, method, method.getName(), signature, 0, scope);
+		result.setVarArgs(method.isVarArgs());
+		int modifiers = method.getAccess();
+		result.setAbstract(Modifier.isAbstract(modifiers));
+		result.setFinal(Modifier.isFinal(modifiers));
+		result.setStatic(Modifier.isStatic(modifiers));
+		result.setSynchronized(Modifier.isSynchronized(modifiers));
+		result.setStrictFloatingPoint(Modifier.isStrict(modifiers));
+		result.setNative(Modifier.isNative(modifiers));
+		result.setReturnType(createTypeReference(signature.getReturnType(), executableScope));
+		createAnnotationValues(method.getAnnotations(), result, scope);
+		return result;
+	}
+
+	/**
+	 * Initializes the identifier, type parameters, parameters and exceptions of the given executable.
+	 *
+	 * @return the scope of the executable.
+	 */
+	protected Scope enhanceExecutable(JvmExecutable result, BinaryClass clazz, BinaryMethod method,
+			String simpleName, MethodSignature signature, int offset, Scope scope) {
+		List<TypeSignature> parameterTypes = signature.getParameterTypes();
+		StringBuilder fqName = new StringBuilder(48);
+		fqName.append(clazz.getName());
+		fqName.append('.');
+		fqName.append(simpleName);
+		fqName.append('(');
+		for (int i = offset; i < parameterTypes.size(); i++) {
+			if (i != offset)
+				fqName.append(',');
+			parameterTypes.get(i).appendIdentifier(fqName);
+		}
+		fqName.append(')');
+		String identifier = fqName.toString();
+		result.internalSetIdentifier(identifier);
+		result.setSimpleName(simpleName);
+		setVisibility(result, method.getAccess());
+
+		List<TypeParameter> typeParameters = signature.getTypeParameters();
+		List<String> typeParameterNames = Collections.emptyList();
+		if (!typeParameters.isEmpty()) {
+			typeParameterNames = Lists.newArrayListWithCapacity(typeParameters.size());
+			for (TypeParameter typeParameter : typeParameters) {
+				typeParameterNames.add(typeParameter.getName());
+			}
+		}
+		Scope executableScope = new Scope(clazz, identifier, typeParameterNames, scope);
+		if (!typeParameters.isEmpty()) {
+			InternalEList<JvmTypeParameter> jvmTypeParameters = (InternalEList<JvmTypeParameter>) result.getTypeParameters();
+			for (TypeParameter typeParameter : typeParameters) {
+				jvmTypeParameters.addUnique(createTypeParameter(typeParameter, executableScope));
+			}
+		}
+
+		List<List<BinaryAnnotation>> parameterAnnotations = method.getParameterAnnotations();
+		InternalEList<JvmFormalParameter> parameters = (InternalEList<JvmFormalParameter>) result.getParameters();
+		for (int typeIdx = offset, annotationIdx = parameterAnnotations.size() - parameterTypes.size() + offset; typeIdx < parameterTypes.size(); typeIdx++, annotationIdx++) {
+			List<BinaryAnnotation> annotations = Collections.emptyList();
+			if (annotationIdx >= 0 && annotationIdx < parameterAnnotations.size()) {
+				annotations = parameterAnnotations.get(annotationIdx);
+			}
+			parameters.addUnique(createFormalParameter(parameterTypes.get(typeIdx), "arg" + (typeIdx - offset), result,
+					annotations, executableScope));
+		}
+
+		List<TypeSignature> exceptionTypes = signature.getExceptionTypes();
+		if (!exceptionTypes.isEmpty()) {
+			InternalEList<JvmTypeReference> exceptions = (InternalEList<JvmTypeReference>) result.getExceptions();
+			for (TypeSignature exceptionType : exceptionTypes) {
+				exceptions.addUnique(createTypeReference(exceptionType, executableScope));
+			}
+		} else if (!method.getExceptions().isEmpty()) {
+			InternalEList<JvmTypeReference> exceptions = (InternalEList<JvmTypeReference>) result.getExceptions();
+			for (String exceptionName : method.getExceptions()) {
+				exceptions.addUnique(createTypeReference(exceptionName, executableScope));
+			}
+		}
+		return executableScope;
+	}
+
+	protected JvmFormalParameter createFormalParameter(TypeSignature parameterType, String paramName,
+			JvmExecutable container, List<BinaryAnnotation> annotations, Scope executableScope) {
+		JvmFormalParameter result = TypesFactory.eINSTANCE.createJvmFormalParameter();
+		result.setName(paramName);
+		if (isLocal(parameterType, executableScope)) {
+			result.setParameterType(createLocalTypeReference(parameterType, container, executableScope));
+		} else {
+			result.setParameterType(createTypeReference(parameterType, executableScope));
+		}
+		createAnnotationValues(annotations, result, executableScope);
+		return result;
+	}
+
+	protected boolean isLocal(TypeSignature parameterType, Scope executableScope) {
+		if (parameterType instanceof TypeVariable) {
+			return executableScope.typeParameters.contains(((TypeVariable) parameterType).getName());
+		} else if (parameterType instanceof ArrayType) {
+			return isLocal(((ArrayType) parameterType).getComponentType(), executableScope);
+		}
+		return false;
+	}
+
+	protected JvmTypeReference createLocalTypeReference(TypeSignature type, JvmExecutable container,
+			Scope executableScope) {
+		if (type instanceof ArrayType) {
+			JvmTypeReference componentTypeReference = createLocalTypeReference(
+					((ArrayType) type).getComponentType(), container, executableScope);
+			JvmGenericArrayTypeReference result = TypesFactory.eINSTANCE.createJvmGenericArrayTypeReference();
+			result.setComponentType(componentTypeReference);
+			return result;
+		} else if (type instanceof TypeVariable) {
+			JvmParameterizedTypeReference result = TypesFactory.eINSTANCE.createJvmParameterizedTypeReference();
+			int idx = executableScope.typeParameters.indexOf(((TypeVariable) type).getName());
+			result.setType(container.getTypeParameters().get(idx));
+			return result;
+		}
+		throw new IllegalArgumentException(type.toString());
+	}
+
+	protected JvmTypeParameter createTypeParameter(TypeParameter typeParameter, Scope scope) {
+		JvmTypeParameter result = TypesFactory.eINSTANCE.createJvmTypeParameter();
+		result.setName(typeParameter.getName());
+		InternalEList<JvmTypeConstraint> constraints = (InternalEList<JvmTypeConstraint>) result.getConstraints();
+		if (typeParameter.getClassBound() != null) {
+			constraints.addUnique(createUpperBound(createTypeReference(typeParameter.getClassBound(), scope)));
+		}
+		for (TypeSignature bound : typeParameter.getInterfaceBounds()) {
+			constraints.addUnique(createUpperBound(createTypeReference(bound, scope)));
+		}
+		if (constraints.isEmpty()) {
+			constraints.addUnique(createUpperBound(createTypeReference(JAVA_LANG_OBJECT, scope)));
+		}
+		return result;
+	}
+
+	protected JvmUpperBound createUpperBound(JvmTypeReference typeReference) {
+		JvmUpperBound result = TypesFactory.eINSTANCE.createJvmUpperBound();
+		((JvmTypeConstraintImplCustom) result).internalSetTypeReference(typeReference);
+		return result;
+	}
+
+	protected JvmLowerBound createLowerBound(JvmTypeReference typeReference) {
+		JvmLowerBound result = TypesFactory.eINSTANCE.createJvmLowerBound();
+		((JvmTypeConstraintImplCustom) result).internalSetTypeReference(typeReference);
+		return result;
+	}
+
+	protected JvmTypeReference createTypeReference(String binaryName, Scope scope) {
+		JvmParameterizedTypeReference result = TypesFactory.eINSTANCE.createJvmParameterizedTypeReference();
+		result.setType(createProxy(getTypeURI(binaryName, scope)));
+		return result;
+	}
+
+	protected JvmTypeReference createTypeReference(TypeSignature type, Scope scope) {
+		if (type instanceof ArrayType) {
+			JvmTypeReference componentTypeReference = createTypeReference(((ArrayType) type).getComponentType(), scope);
+			JvmGenericArrayTypeReference result = TypesFactory.eINSTANCE.createJvmGenericArrayTypeReference();
+			result.setComponentType(componentTypeReference);
+			return result;
+		} else if (type instanceof ClassType) {
+			ClassType classType = (ClassType) type;
+			JvmParameterizedTypeReference result = TypesFactory.eINSTANCE.createJvmParameterizedTypeReference();
+			result.setType(createProxy(getTypeURI(classType.getBinaryName(), scope)));
+			List<TypeArgument> typeArguments = classType.getArguments();
+			if (!typeArguments.isEmpty()) {
+				InternalEList<JvmTypeReference> arguments = (InternalEList<JvmTypeReference>) result.getArguments();
+				for (TypeArgument typeArgument : typeArguments) {
+					arguments.addUnique(createTypeArgument(typeArgument, scope));
+				}
+			}
+			return result;
+		} else if (type instanceof TypeVariable) {
+			JvmParameterizedTypeReference result = TypesFactory.eINSTANCE.createJvmParameterizedTypeReference();
+			result.setType(createProxy(getTypeVariableURI(((TypeVariable) type).getName(), scope)));
+			return result;
+		} else {
+			JvmParameterizedTypeReference result = TypesFactory.eINSTANCE.createJvmParameterizedTypeReference();
+			result.setType(createProxy(URIHelperConstants.PROTOCOL + ":" + URIHelperConstants.PRIMITIVES + "#"
+					+ ((BaseType) type).getName()));
+			return result;
+		}
+	}
+
+	protected JvmTypeReference createTypeArgument(TypeArgument typeArgument, Scope scope) {
+		switch (typeArgument.getKind()) {
+			case TypeArgument.UNBOUNDED: {
+				JvmWildcardTypeReference result = TypesFactory.eINSTANCE.createJvmWildcardTypeReference();
+				result.getConstraints().add(createUpperBound(createTypeReference(JAVA_LANG_OBJECT, scope)));
+				return result;
+			}
+			case TypeArgument.EXTENDS: {
+				JvmWildcardTypeReference result = TypesFactory.eINSTANCE.createJvmWildcardTypeReference();
+				result.getConstraints().add(createUpperBound(createTypeReference(typeArgument.getType(), scope)));
+				return result;
+			}
+			case TypeArgument.SUPER: {
+				JvmWildcardTypeReference result = TypesFactory.eINSTANCE.createJvmWildcardTypeReference();
+				InternalEList<JvmTypeConstraint> constraints = (InternalEList<JvmTypeConstraint>) result.getConstraints();
+				constraints.addUnique(createUpperBound(createTypeReference(JAVA_LANG_OBJECT, scope)));
+				constraints.addUnique(createLowerBound(createTypeReference(typeArgument.getType(), scope)));
+				return result;
+			}
+			default:
+				return createTypeReference(typeArgument.getType(), scope);
+		}
+	}
+
+	protected String getTypeURI(String binaryName, Scope scope) {
+		StringBuilder result = createResourceURI(binaryName, scope);
+		result.append('#').append(binaryName);
+		return result.toString();
+	}
+
+	/**
+	 * Type variables are addressed by the fragment of their declarator, e.g.
+	 * <code>java.util.Map$Entry/K</code> or <code>java.util.Collections.sort(java.util.List)/T</code>.
+	 */
+	protected String getTypeVariableURI(String name, Scope scope) {
+		Scope current = scope;
+		while (current != null) {
+			if (current.typeParameters.contains(name)) {
+				StringBuilder result = createResourceURI(current.clazz.getName(), scope);
+				result.append('#').append(current.fragment).append('/').append(name);
+				return result.toString();
+			}
+			current = current.getParent();
+		}
+		if (log.isDebugEnabled())
+			log.debug("Unknown type variable " + name + " in " + scope.fragment);
+		StringBuilder result = createResourceURI(scope.clazz.getName(), scope);
+		result.append('#').append(scope.fragment).append('/').append(name);
+		return result.toString();
+	}
+
+	protected StringBuilder createResourceURI(String binaryName, Scope scope) {
+		StringBuilder result = new StringBuilder(48);
+		result.append(URIHelperConstants.PROTOCOL).append(':').append(URIHelperConstants.OBJECTS);
+		result.append(getTopLevelName(binaryName, scope.clazz));
+		return result;
+	}
+
+	/**
+	 * The <code>InnerClasses</code> attribute of a class file lists all nested classes that it refers to
+	 * together with their declaring classes. Only if that information is missing, the class files of the
+	 * nested classes have to be read.
+	 */
+	protected String getTopLevelName(String binaryName, BinaryClass context) {
+		String result = binaryName;
+		while (result.indexOf('$') >= 0) {
+			String declaringClassName = context.getKnownDeclaringClassName(result);
+			if (declaringClassName == null) {
+				return finder.getTopLevelName(result);
+			}
+			result = declaringClassName;
+		}
+		return result;
+	}
+
+	protected JvmType createProxy(String uri) {
+		JvmType proxy = typeProxies.get(uri);
+		if (proxy == null) {
+			proxy = TypesFactory.eINSTANCE.createJvmVoid();
+			((InternalEObject) proxy).eSetProxyURI(URI.createURI(uri));
+			typeProxies.put(uri, proxy);
+		}
+		return proxy;
+	}
+
+	protected JvmAnnotationType createAnnotationProxy(String binaryName, Scope scope) {
+		String uri = getTypeURI(binaryName, scope);
+		JvmAnnotationType proxy = annotationProxies.get(uri);
+		if (proxy == null) {
+			proxy = TypesFactory.eINSTANCE.createJvmAnnotationType();
+			((InternalEObject) proxy).eSetProxyURI(URI.createURI(uri));
+			annotationProxies.put(uri, proxy);
+		}
+		return proxy;
+	}
+
+	protected JvmOperation createMethodProxy(String annotationTypeName, String methodName, Scope scope) {
+		StringBuilder uriBuilder = createResourceURI(annotationTypeName, scope);
+		uriBuilder.append('#').append(annotationTypeName).append('.').append(methodName).append("()");
+		String uri = uriBuilder.toString();
+		JvmOperation proxy = operationProxies.get(uri);
+		if (proxy == null) {
+			proxy = TypesFactory.eINSTANCE.createJvmOperation();
+			((InternalEObject) proxy).eSetProxyURI(URI.createURI(uri));
+			operationProxies.put(uri, proxy);
+		}
+		return proxy;
+	}
+
+	protected JvmEnumerationLiteral createEnumLiteralProxy(EnumConstant constant, Scope scope) {
+		JvmEnumerationLiteral enumLiteralProxy = TypesFactory.eINSTANCE.createJvmEnumerationLiteral();
+		StringBuilder uriBuilder = createResourceURI(constant.getTypeName(), scope);
+		uriBuilder.append('#').append(constant.getTypeName()).append('.').append(constant.getConstantName());
+		((InternalEObject) enumLiteralProxy).eSetProxyURI(URI.createURI(uriBuilder.toString()));
+		return enumLiteralProxy;
+	}
+
+	protected void createAnnotationValues(List<BinaryAnnotation> annotations, JvmAnnotationTarget result, Scope scope) {
+		if (!annotations.isEmpty()) {
+			InternalEList<JvmAnnotationReference> references = (InternalEList<JvmAnnotationReference>) result.getAnnotations();
+			for (BinaryAnnotation annotation : annotations) {
+				references.addUnique(createAnnotationReference(annotation, scope));
+			}
+		}
+	}
+
+	/**
+	 * Creates the reference with all values of the annotation including the defaults of the elements that are
+	 * not explicitly given, just like {@link DeclaredTypeFactory reflection} does.
+	 */
+	protected JvmAnnotationReference createAnnotationReference(BinaryAnnotation annotation, Scope scope) {
+		JvmAnnotationReference annotationReference = TypesFactory.eINSTANCE.createJvmAnnotationReference();
+		String typeName = annotation.getTypeName();
+		annotationReference.setAnnotation(createAnnotationProxy(typeName, scope));
+		BinaryClass annotationType = finder.find(typeName);
+		if (annotationType == null) {
+			logIncompleteType(scope.clazz, typeName, "annotation values");
+			return annotationReference;
+		}
+		InternalEList<JvmAnnotationValue> values = (InternalEList<JvmAnnotationValue>) annotationReference.getValues();
+		for (BinaryMethod method : annotationType.getMethods()) {
+			if (method.isConstructor() || method.isStaticInitializer() || method.isSynthetic())
+				continue;
+			Object value = annotation.getValues().get(method.getName());
+			if (value == null)
+				value = method.getAnnotationDefault();
+			if (value != null) {
+				try {
+					JvmAnnotationValue annotationValue = createAnnotationValue(getReturnDescriptor(method), value, scope);
+					if (annotationValue != null) {
+						values.addUnique(annotationValue);
+						annotationValue.setOperation(createMethodProxy(typeName, method.getName(), scope));
+					}
+				} catch (Exception e) {
+					log.error(e.getMessage(), e);
+				}
+			}
+		}
+		return annotationReference;
+	}
+
+	protected String getReturnDescriptor(BinaryMethod method) {
+		String descriptor = method.getDescriptor();
+		return descriptor.substring(descriptor.indexOf(')') + 1);
+	}
+
+	@Nullable
+	protected JvmAnnotationValue createAnnotationValue(String descriptor, Object value, Scope scope) {
+		boolean isArray = descriptor.charAt(0) == '[';
+		String componentDescriptor = isArray ? descriptor.substring(1) : descriptor;
+		EStructuralFeature.Setting result = createAnnotationValue(componentDescriptor, value);
+		if (result == null)
+			return null;
+		@SuppressWarnings("unchecked")
+		InternalEList<Object> values = (InternalEList<Object>) result;
+		if (value instanceof List<?>) {
+			for (Object element : (List<?>) value) {
+				addAnnotationValue(values, element, scope);
+			}
+		} else {
+			addAnnotationValue(values, value, scope);
+		}
+		return (JvmAnnotationValue) result.getEObject();
+	}
+
+	protected void addAnnotationValue(InternalEList<Object> values, Object value, Scope scope) {
+		if (value instanceof ClassLiteral) {
+			TypeSignature type = signatureParser.parseFieldType(((ClassLiteral) value).getDescriptor());
+			values.addUnique(createTypeReference(type, scope));
+		} else if (value instanceof EnumConstant) {
+			values.addUnique(createEnumLiteralProxy((EnumConstant) value, scope));
+		} else if (value instanceof BinaryAnnotation) {
+			values.addUnique(createAnnotationReference((BinaryAnnotation) value, scope));
+		} else {
+			values.addUnique(value);
+		}
+	}
+
+	/**
+	 * @param descriptor the descriptor of a single value, i.e. the component type of array typed elements.
+	 */
+	@Nullable
+	protected EStructuralFeature.Setting createAnnotationValue(String descriptor, Object value) {
+		switch (descriptor.charAt(0)) {
+			case 'Z':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmBooleanAnnotationValue().getValues();
+			case 'I':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmIntAnnotationValue().getValues();
+			case 'J':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmLongAnnotationValue().getValues();
+			case 'S':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmShortAnnotationValue().getValues();
+			case 'F':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmFloatAnnotationValue().getValues();
+			case 'D':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmDoubleAnnotationValue().getValues();
+			case 'C':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmCharAnnotationValue().getValues();
+			case 'B':
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmByteAnnotationValue().getValues();
+			case 'L':
+				if ("Ljava/lang/String;".equals(descriptor))
+					return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmStringAnnotationValue().getValues();
+				if ("Ljava/lang/Class;".equals(descriptor))
+					return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmTypeAnnotationValue().getValues();
+				if (isAnnotation(descriptor, value))
+					return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmAnnotationAnnotationValue().getValues();
+				return (EStructuralFeature.Setting)TypesFactory.eINSTANCE.createJvmEnumAnnotationValue().getValues();
+			default:
+				throw new IllegalArgumentException("Unexpected type: " + descriptor);
+		}
+	}
+
+	/**
+	 * The element type is either an enum or an annotation type. Empty arrays do not tell which one it is, so the
+	 * class file of the element type has to be consulted in that case.
+	 */
+	protected boolean isAnnotation(String descriptor, Object value) {
+		Object sample = value;
+		if (value instanceof List<?>) {
+			List<?> list = (List<?>) value;
+			sample = list.isEmpty() ? null : list.get(0);
+		}
+		if (sample instanceof BinaryAnnotation)
+			return true;
+		if (sample instanceof EnumConstant)
+			return false;
+		BinaryClass type = finder.find(ClassFileReader.descriptorToBinaryName(descriptor));
+		return type != null && type.isAnnotation();
+	}
+
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+/**
+ * Access flags as defined by the Java Virtual Machine Specification. The flags that are shared with
+ * {@link java.lang.reflect.Modifier} have the same values.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public interface ClassFileConstants {
+
+	int ACC_PUBLIC = 0x0001;
+	int ACC_PRIVATE = 0x0002;
+	int ACC_PROTECTED = 0x0004;
+	int ACC_STATIC = 0x0008;
+	int ACC_FINAL = 0x0010;
+	int ACC_SUPER = 0x0020;
+	int ACC_SYNCHRONIZED = 0x0020;
+	int ACC_VOLATILE = 0x0040;
+	int ACC_BRIDGE = 0x0040;
+	int ACC_TRANSIENT = 0x0080;
+	int ACC_VARARGS = 0x0080;
+	int ACC_NATIVE = 0x0100;
+	int ACC_INTERFACE = 0x0200;
+	int ACC_ABSTRACT = 0x0400;
+	int ACC_STRICT = 0x0800;
+	int ACC_SYNTHETIC = 0x1000;
+	int ACC_ANNOTATION = 0x2000;
+	int ACC_ENUM = 0x4000;
+
+}
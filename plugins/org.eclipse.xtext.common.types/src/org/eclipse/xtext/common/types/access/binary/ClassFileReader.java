@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Reads the parts of a class file that are relevant for the Java type model. Method bodies, debug information and
+ * invisible annotations are skipped.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class ClassFileReader {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	/**
+	 * The constant pool of the class file that is currently read.
+	 */
+	protected static class ConstantPool {
+		private final Object[] values;
+		private final int[] classNameIndexes;
+
+		protected ConstantPool(int size) {
+			values = new Object[size];
+			classNameIndexes = new int[size];
+		}
+
+		public String getUtf8(int index) {
+			return (String) values[index];
+		}
+
+		public Object getConstant(int index) {
+			return values[index];
+		}
+
+		/**
+		 * @return the binary name of the class with dots as package separators.
+		 */
+		public String getClassName(int index) {
+			return toBinaryName(getUtf8(classNameIndexes[index]));
+		}
+	}
+
+	public BinaryClass read(InputStream stream) throws IOException {
+		return read(toByteArray(stream));
+	}
+
+	public BinaryClass read(byte[] bytes) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a class file.");
+		}
+		in.readUnsignedShort(); // minor version
+		in.readUnsignedShort(); // major version
+		ConstantPool pool = readConstantPool(in);
+		int access = in.readUnsignedShort();
+		String name = pool.getClassName(in.readUnsignedShort());
+		int superIndex = in.readUnsignedShort();
+		String superName = superIndex == 0 ? null : pool.getClassName(superIndex);
+		int interfaceCount = in.readUnsignedShort();
+		List<String> interfaces = Lists.newArrayListWithCapacity(interfaceCount);
+		for (int i = 0; i < interfaceCount; i++) {
+			interfaces.add(pool.getClassName(in.readUnsignedShort()));
+		}
+		int fieldCount = in.readUnsignedShort();
+		List<BinaryField> fields = Lists.newArrayListWithCapacity(fieldCount);
+		for (int i = 0; i < fieldCount; i++) {
+			fields.add(readField(in, pool));
+		}
+		int methodCount = in.readUnsignedShort();
+		List<BinaryMethod> methods = Lists.newArrayListWithCapacity(methodCount);
+		for (int i = 0; i < methodCount; i++) {
+			methods.add(readMethod(in, pool));
+		}
+		String signature = null;
+		List<BinaryAnnotation> annotations = Collections.emptyList();
+		List<BinaryClass.InnerClass> innerClasses = Collections.emptyList();
+		int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = pool.getUtf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if ("Signature".equals(attributeName)) {
+				signature = pool.getUtf8(in.readUnsignedShort());
+			} else if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+				annotations = readAnnotations(in, pool);
+			} else if ("InnerClasses".equals(attributeName)) {
+				innerClasses = readInnerClasses(in, pool);
+			} else {
+				skip(in, length);
+			}
+		}
+		return new BinaryClass(access, name, superName, Collections.unmodifiableList(interfaces), signature,
+				annotations, Collections.unmodifiableList(fields), Collections.unmodifiableList(methods), innerClasses);
+	}
+
+	protected ConstantPool readConstantPool(DataInputStream in) throws IOException {
+		int size = in.readUnsignedShort();
+		ConstantPool result = new ConstantPool(size);
+		for (int i = 1; i < size; i++) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+				case CONSTANT_UTF8:
+					result.values[i] = in.readUTF();
+					break;
+				case CONSTANT_INTEGER:
+					result.values[i] = in.readInt();
+					break;
+				case CONSTANT_FLOAT:
+					result.values[i] = in.readFloat();
+					break;
+				case CONSTANT_LONG:
+					result.values[i] = in.readLong();
+					i++;
+					break;
+				case CONSTANT_DOUBLE:
+					result.values[i] = in.readDouble();
+					i++;
+					break;
+				case CONSTANT_CLASS:
+					result.classNameIndexes[i] = in.readUnsignedShort();
+					break;
+				case CONSTANT_STRING:
+				case CONSTANT_METHOD_TYPE:
+				case CONSTANT_MODULE:
+				case CONSTANT_PACKAGE:
+					in.readUnsignedShort();
+					break;
+				case CONSTANT_FIELDREF:
+				case CONSTANT_METHODREF:
+				case CONSTANT_INTERFACE_METHODREF:
+				case CONSTANT_NAME_AND_TYPE:
+				case CONSTANT_DYNAMIC:
+				case CONSTANT_INVOKE_DYNAMIC:
+					in.readInt();
+					break;
+				case CONSTANT_METHOD_HANDLE:
+					in.readUnsignedByte();
+					in.readUnsignedShort();
+					break;
+				default:
+					throw new IOException("Unknown constant pool tag " + tag + " at index " + i + ".");
+			}
+		}
+		return result;
+	}
+
+	protected BinaryField readField(DataInputStream in, ConstantPool pool) throws IOException {
+		int access = in.readUnsignedShort();
+		String name = pool.getUtf8(in.readUnsignedShort());
+		String descriptor = pool.getUtf8(in.readUnsignedShort());
+		String signature = null;
+		List<BinaryAnnotation> annotations = Collections.emptyList();
+		int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = pool.getUtf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if ("Signature".equals(attributeName)) {
+				signature = pool.getUtf8(in.readUnsignedShort());
+			} else if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+				annotations = readAnnotations(in, pool);
+			} else {
+				skip(in, length);
+			}
+		}
+		return new BinaryField(access, name, descriptor, signature, annotations);
+	}
+
+	protected BinaryMethod readMethod(DataInputStream in, ConstantPool pool) throws IOException {
+		int access = in.readUnsignedShort();
+		String name = pool.getUtf8(in.readUnsignedShort());
+		String descriptor = pool.getUtf8(in.readUnsignedShort());
+		String signature = null;
+		List<BinaryAnnotation> annotations = Collections.emptyList();
+		List<String> exceptions = Collections.emptyList();
+		List<List<BinaryAnnotation>> parameterAnnotations = Collections.emptyList();
+		Object annotationDefault = null;
+		int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++) {
+			String attributeName = pool.getUtf8(in.readUnsignedShort());
+			int length = in.readInt();
+			if ("Signature".equals(attributeName)) {
+				signature = pool.getUtf8(in.readUnsignedShort());
+			} else if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+				annotations = readAnnotations(in, pool);
+			} else if ("RuntimeVisibleParameterAnnotations".equals(attributeName)) {
+				int parameterCount = in.readUnsignedByte();
+				parameterAnnotations = Lists.newArrayListWithCapacity(parameterCount);
+				for (int j = 0; j < parameterCount; j++) {
+					parameterAnnotations.add(readAnnotations(in, pool));
+				}
+				parameterAnnotations = Collections.unmodifiableList(parameterAnnotations);
+			} else if ("AnnotationDefault".equals(attributeName)) {
+				annotationDefault = readElementValue(in, pool);
+			} else if ("Exceptions".equals(attributeName)) {
+				int exceptionCount = in.readUnsignedShort();
+				exceptions = Lists.newArrayListWithCapacity(exceptionCount);
+				for (int j = 0; j < exceptionCount; j++) {
+					exceptions.add(pool.getClassName(in.readUnsignedShort()));
+				}
+				exceptions = Collections.unmodifiableList(exceptions);
+			} else {
+				skip(in, length);
+			}
+		}
+		return new BinaryMethod(access, name, descriptor, signature, annotations, exceptions, parameterAnnotations,
+				annotationDefault);
+	}
+
+	protected List<BinaryClass.InnerClass> readInnerClasses(DataInputStream in, ConstantPool pool) throws IOException {
+		int count = in.readUnsignedShort();
+		List<BinaryClass.InnerClass> result = Lists.newArrayListWithCapacity(count);
+		for (int i = 0; i < count; i++) {
+			String innerName = pool.getClassName(in.readUnsignedShort());
+			int outerIndex = in.readUnsignedShort();
+			int simpleNameIndex = in.readUnsignedShort();
+			int access = in.readUnsignedShort();
+			result.add(new BinaryClass.InnerClass(innerName, outerIndex == 0 ? null : pool.getClassName(outerIndex),
+					simpleNameIndex == 0 ? null : pool.getUtf8(simpleNameIndex), access));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	protected List<BinaryAnnotation> readAnnotations(DataInputStream in, ConstantPool pool) throws IOException {
+		int count = in.readUnsignedShort();
+		if (count == 0) {
+			return Collections.emptyList();
+		}
+		List<BinaryAnnotation> result = Lists.newArrayListWithCapacity(count);
+		for (int i = 0; i < count; i++) {
+			result.add(readAnnotation(in, pool));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	protected BinaryAnnotation readAnnotation(DataInputStream in, ConstantPool pool) throws IOException {
+		String typeName = descriptorToBinaryName(pool.getUtf8(in.readUnsignedShort()));
+		int count = in.readUnsignedShort();
+		Map<String, Object> values = Maps.newLinkedHashMap();
+		for (int i = 0; i < count; i++) {
+			String elementName = pool.getUtf8(in.readUnsignedShort());
+			values.put(elementName, readElementValue(in, pool));
+		}
+		return new BinaryAnnotation(typeName, Collections.unmodifiableMap(values));
+	}
+
+	protected Object readElementValue(DataInputStream in, ConstantPool pool) throws IOException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+			case 'B':
+				return Byte.valueOf((byte) ((Integer) pool.getConstant(in.readUnsignedShort())).intValue());
+			case 'C':
+				return Character.valueOf((char) ((Integer) pool.getConstant(in.readUnsignedShort())).intValue());
+			case 'S':
+				return Short.valueOf((short) ((Integer) pool.getConstant(in.readUnsignedShort())).intValue());
+			case 'Z':
+				return Boolean.valueOf(((Integer) pool.getConstant(in.readUnsignedShort())).intValue() != 0);
+			case 'I':
+			case 'J':
+			case 'F':
+			case 'D':
+				return pool.getConstant(in.readUnsignedShort());
+			case 's':
+				return pool.getUtf8(in.readUnsignedShort());
+			case 'e': {
+				String typeName = descriptorToBinaryName(pool.getUtf8(in.readUnsignedShort()));
+				String constantName = pool.getUtf8(in.readUnsignedShort());
+				return new BinaryAnnotation.EnumConstant(typeName, constantName);
+			}
+			case 'c':
+				return new BinaryAnnotation.ClassLiteral(pool.getUtf8(in.readUnsignedShort()));
+			case '@':
+				return readAnnotation(in, pool);
+			case '[': {
+				int count = in.readUnsignedShort();
+				List<Object> result = Lists.newArrayListWithCapacity(count);
+				for (int i = 0; i < count; i++) {
+					result.add(readElementValue(in, pool));
+				}
+				return Collections.unmodifiableList(result);
+			}
+			default:
+				throw new IOException("Unknown element value tag '" + (char) tag + "'.");
+		}
+	}
+
+	protected void skip(DataInputStream in, int length) throws IOException {
+		int remaining = length;
+		while (remaining > 0) {
+			int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				throw new IOException("Unexpected end of class file.");
+			}
+			remaining -= skipped;
+		}
+	}
+
+	protected byte[] toByteArray(InputStream stream) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream(4096);
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = stream.read(buffer)) != -1) {
+			result.write(buffer, 0, read);
+		}
+		return result.toByteArray();
+	}
+
+	/**
+	 * Converts an internal name like <code>java/util/Map$Entry</code> to a binary name like
+	 * <code>java.util.Map$Entry</code>.
+	 */
+	public static String toBinaryName(String internalName) {
+		return internalName.replace('/', '.');
+	}
+
+	/**
+	 * Converts a descriptor of a class type like <code>Ljava/lang/Deprecated;</code> to its binary name.
+	 */
+	public static String descriptorToBinaryName(String descriptor) {
+		if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.charAt(descriptor.length() - 1) == ';') {
+			return toBinaryName(descriptor.substring(1, descriptor.length() - 1));
+		}
+		return toBinaryName(descriptor);
+	}
+
+}
@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Parses descriptors and generic signatures as defined by the Java Virtual Machine Specification into a small
+ * tree of {@link TypeSignature type signatures}. Class names are converted to binary names with dots as package
+ * separators. For parameterized inner types like <code>Outer&lt;T&gt;.Inner&lt;U&gt;</code> only the arguments of the
+ * innermost type are kept, just like {@link java.lang.reflect.ParameterizedType#getActualTypeArguments()} does.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class SignatureParser {
+
+	public static class SignatureFormatException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public SignatureFormatException(String signature, int position) {
+			super("Invalid signature '" + signature + "' at position " + position);
+		}
+	}
+
+	public static abstract class TypeSignature {
+		/**
+		 * Appends the erased name as used in identifiers of executables, e.g. <code>java.util.List</code>,
+		 * <code>int[]</code> or <code>T</code>.
+		 */
+		public abstract void appendIdentifier(StringBuilder builder);
+	}
+
+	public static class BaseType extends TypeSignature {
+		private final char descriptor;
+
+		public BaseType(char descriptor) {
+			this.descriptor = descriptor;
+		}
+
+		public char getDescriptor() {
+			return descriptor;
+		}
+
+		public String getName() {
+			switch (descriptor) {
+				case 'Z': return "boolean";
+				case 'B': return "byte";
+				case 'C': return "char";
+				case 'S': return "short";
+				case 'I': return "int";
+				case 'J': return "long";
+				case 'F': return "float";
+				case 'D': return "double";
+				default: return "void";
+			}
+		}
+
+		@Override
+		public void appendIdentifier(StringBuilder builder) {
+			builder.append(getName());
+		}
+	}
+
+	public static class ClassType extends TypeSignature {
+		private final String binaryName;
+		private final List<TypeArgument> arguments;
+
+		public ClassType(String binaryName, List<TypeArgument> arguments) {
+			this.binaryName = binaryName;
+			this.arguments = arguments;
+		}
+
+		public String getBinaryName() {
+			return binaryName;
+		}
+
+		public List<TypeArgument> getArguments() {
+			return arguments;
+		}
+
+		@Override
+		public void appendIdentifier(StringBuilder builder) {
+			builder.append(binaryName);
+		}
+	}
+
+	public static class TypeVariable extends TypeSignature {
+		private final String name;
+
+		public TypeVariable(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public void appendIdentifier(StringBuilder builder) {
+			builder.append(name);
+		}
+	}
+
+	public static class ArrayType extends TypeSignature {
+		private final TypeSignature componentType;
+
+		public ArrayType(TypeSignature componentType) {
+			this.componentType = componentType;
+		}
+
+		public TypeSignature getComponentType() {
+			return componentType;
+		}
+
+		@Override
+		public void appendIdentifier(StringBuilder builder) {
+			componentType.appendIdentifier(builder);
+			builder.append("[]");
+		}
+	}
+
+	public static class TypeArgument {
+		public static final char UNBOUNDED = '*';
+		public static final char EXTENDS = '+';
+		public static final char SUPER = '-';
+		public static final char EXACT = '=';
+
+		private final char kind;
+		private final TypeSignature type;
+
+		public TypeArgument(char kind, @Nullable TypeSignature type) {
+			this.kind = kind;
+			this.type = type;
+		}
+
+		public char getKind() {
+			return kind;
+		}
+
+		@Nullable
+		public TypeSignature getType() {
+			return type;
+		}
+	}
+
+	public static class TypeParameter {
+		private final String name;
+		private final TypeSignature classBound;
+		private final List<TypeSignature> interfaceBounds;
+
+		public TypeParameter(String name, @Nullable TypeSignature classBound, List<TypeSignature> interfaceBounds) {
+			this.name = name;
+			this.classBound = classBound;
+			this.interfaceBounds = interfaceBounds;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		@Nullable
+		public TypeSignature getClassBound() {
+			return classBound;
+		}
+
+		public List<TypeSignature> getInterfaceBounds() {
+			return interfaceBounds;
+		}
+	}
+
+	public static class ClassSignature {
+		private final List<TypeParameter> typeParameters;
+		private final TypeSignature superClass;
+		private final List<TypeSignature> interfaces;
+
+		public ClassSignature(List<TypeParameter> typeParameters, @Nullable TypeSignature superClass,
+				List<TypeSignature> interfaces) {
+			this.typeParameters = typeParameters;
+			this.superClass = superClass;
+			this.interfaces = interfaces;
+		}
+
+		public List<TypeParameter> getTypeParameters() {
+			return typeParameters;
+		}
+
+		@Nullable
+		public TypeSignature getSuperClass() {
+			return superClass;
+		}
+
+		public List<TypeSignature> getInterfaces() {
+			return interfaces;
+		}
+	}
+
+	public static class MethodSignature {
+		private final List<TypeParameter> typeParameters;
+		private final List<TypeSignature> parameterTypes;
+		private final TypeSignature returnType;
+		private final List<TypeSignature> exceptionTypes;
+
+		public MethodSignature(List<TypeParameter> typeParameters, List<TypeSignature> parameterTypes,
+				TypeSignature returnType, List<TypeSignature> exceptionTypes) {
+			this.typeParameters = typeParameters;
+			this.parameterTypes = parameterTypes;
+			this.returnType = returnType;
+			this.exceptionTypes = exceptionTypes;
+		}
+
+		public List<TypeParameter> getTypeParameters() {
+			return typeParameters;
+		}
+
+		public List<TypeSignature> getParameterTypes() {
+			return parameterTypes;
+		}
+
+		public TypeSignature getReturnType() {
+			return returnType;
+		}
+
+		public List<TypeSignature> getExceptionTypes() {
+			return exceptionTypes;
+		}
+	}
+
+	protected static class Cursor {
+		private final String signature;
+		private int position;
+
+		private Cursor(String signature) {
+			this.signature = signature;
+		}
+
+		private char peek() {
+			if (position >= signature.length()) {
+				throw new SignatureFormatException(signature, position);
+			}
+			return signature.charAt(position);
+		}
+
+		private char next() {
+			char result = peek();
+			position++;
+			return result;
+		}
+
+		private void expect(char c) {
+			if (next() != c) {
+				throw new SignatureFormatException(signature, position - 1);
+			}
+		}
+
+		private boolean atEnd() {
+			return position >= signature.length();
+		}
+
+		private String identifier(char terminator1, char terminator2, char terminator3) {
+			int start = position;
+			while (true) {
+				char c = peek();
+				if (c == terminator1 || c == terminator2 || c == terminator3) {
+					break;
+				}
+				position++;
+			}
+			if (start == position) {
+				throw new SignatureFormatException(signature, position);
+			}
+			return signature.substring(start, position);
+		}
+	}
+
+	/**
+	 * Parses a field type descriptor or a field signature.
+	 */
+	public TypeSignature parseFieldType(String signature) {
+		Cursor cursor = new Cursor(signature);
+		TypeSignature result = parseType(cursor);
+		if (!cursor.atEnd()) {
+			throw new SignatureFormatException(signature, cursor.position);
+		}
+		return result;
+	}
+
+	public ClassSignature parseClassSignature(String signature) {
+		Cursor cursor = new Cursor(signature);
+		List<TypeParameter> typeParameters = parseTypeParameters(cursor);
+		TypeSignature superClass = parseType(cursor);
+		List<TypeSignature> interfaces = Lists.newArrayListWithCapacity(2);
+		while (!cursor.atEnd()) {
+			interfaces.add(parseType(cursor));
+		}
+		return new ClassSignature(typeParameters, superClass, interfaces);
+	}
+
+	/**
+	 * Parses a method descriptor or a method signature.
+	 */
+	public MethodSignature parseMethodSignature(String signature) {
+		Cursor cursor = new Cursor(signature);
+		List<TypeParameter> typeParameters = parseTypeParameters(cursor);
+		cursor.expect('(');
+		List<TypeSignature> parameterTypes = Lists.newArrayListWithCapacity(4);
+		while (cursor.peek() != ')') {
+			parameterTypes.add(parseType(cursor));
+		}
+		cursor.expect(')');
+		TypeSignature returnType = parseType(cursor);
+		List<TypeSignature> exceptionTypes = Collections.emptyList();
+		while (!cursor.atEnd()) {
+			cursor.expect('^');
+			if (exceptionTypes.isEmpty()) {
+				exceptionTypes = Lists.newArrayListWithCapacity(2);
+			}
+			exceptionTypes.add(parseType(cursor));
+		}
+		return new MethodSignature(typeParameters, parameterTypes, returnType, exceptionTypes);
+	}
+
+	protected List<TypeParameter> parseTypeParameters(Cursor cursor) {
+		if (cursor.atEnd() || cursor.peek() != '<') {
+			return Collections.emptyList();
+		}
+		cursor.expect('<');
+		List<TypeParameter> result = Lists.newArrayListWithCapacity(2);
+		while (cursor.peek() != '>') {
+			String name = cursor.identifier(':', ':', ':');
+			cursor.expect(':');
+			TypeSignature classBound = null;
+			char next = cursor.peek();
+			if (next == 'L' || next == 'T' || next == '[') {
+				classBound = parseType(cursor);
+			}
+			List<TypeSignature> interfaceBounds = Collections.emptyList();
+			while (cursor.peek() == ':') {
+				cursor.expect(':');
+				if (interfaceBounds.isEmpty()) {
+					interfaceBounds = Lists.newArrayListWithCapacity(2);
+				}
+				interfaceBounds.add(parseType(cursor));
+			}
+			result.add(new TypeParameter(name, classBound, interfaceBounds));
+		}
+		cursor.expect('>');
+		return result;
+	}
+
+	protected TypeSignature parseType(Cursor cursor) {
+		char c = cursor.next();
+		switch (c) {
+			case 'Z':
+			case 'B':
+			case 'C':
+			case 'S':
+			case 'I':
+			case 'J':
+			case 'F':
+			case 'D':
+			case 'V':
+				return new BaseType(c);
+			case '[':
+				return new ArrayType(parseType(cursor));
+			case 'T': {
+				String name = cursor.identifier(';', ';', ';');
+				cursor.expect(';');
+				return new TypeVariable(name);
+			}
+			case 'L':
+				return parseClassType(cursor);
+			default:
+				throw new SignatureFormatException(cursor.signature, cursor.position - 1);
+		}
+	}
+
+	protected ClassType parseClassType(Cursor cursor) {
+		StringBuilder binaryName = new StringBuilder(cursor.identifier(';', '<', '.').replace('/', '.'));
+		List<TypeArgument> arguments = parseTypeArguments(cursor);
+		while (cursor.peek() == '.') {
+			cursor.expect('.');
+			binaryName.append('$').append(cursor.identifier(';', '<', '.'));
+			arguments = parseTypeArguments(cursor);
+		}
+		cursor.expect(';');
+		return new ClassType(binaryName.toString(), arguments);
+	}
+
+	protected List<TypeArgument> parseTypeArguments(Cursor cursor) {
+		if (cursor.peek() != '<') {
+			return Collections.emptyList();
+		}
+		cursor.expect('<');
+		List<TypeArgument> result = Lists.newArrayListWithCapacity(2);
+		while (cursor.peek() != '>') {
+			char c = cursor.peek();
+			if (c == TypeArgument.UNBOUNDED) {
+				cursor.next();
+				result.add(new TypeArgument(TypeArgument.UNBOUNDED, null));
+			} else if (c == TypeArgument.EXTENDS || c == TypeArgument.SUPER) {
+				cursor.next();
+				result.add(new TypeArgument(c, parseType(cursor)));
+			} else {
+				result.add(new TypeArgument(TypeArgument.EXACT, parseType(cursor)));
+			}
+		}
+		cursor.expect('>');
+		return result;
+	}
+
+}
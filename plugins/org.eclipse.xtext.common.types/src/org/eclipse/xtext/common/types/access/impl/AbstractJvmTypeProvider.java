@@ -14,6 +14,7 @@ import org.eclipse.xtext.common.types.JvmType;
 import org.eclipse.xtext.common.types.access.IJvmTypeProvider;
 import org.eclipse.xtext.common.types.access.IMirror;
 import org.eclipse.xtext.common.types.access.TypeResource;
+import org.eclipse.xtext.resource.ISynchronizable;
 
 import com.google.common.collect.AbstractIterator;
 
@@ -121,4 +122,16 @@ public abstract class AbstractJvmTypeProvider implements IJvmTypeProvider, Resou
 	protected IndexedJvmTypeAccess getIndexedJvmTypeAccess() {
 		return indexedJvmTypeAccess;
 	}
+
+	/**
+	 * Returns the lock that guards the lookup of types. If the resource set is {@link ISynchronizable synchronizable},
+	 * its lock is used, so types may be looked up while other threads load resources into the same resource set.
+	 * 
+	 * @since 2.5
+	 */
+	protected Object getLock() {
+		if (resourceSet instanceof ISynchronizable<?>)
+			return ((ISynchronizable<?>) resourceSet).getLock();
+		return this;
+	}
 }
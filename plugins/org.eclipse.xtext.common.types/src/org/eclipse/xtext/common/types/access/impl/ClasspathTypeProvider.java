@@ -103,19 +103,21 @@ public class ClasspathTypeProvider extends AbstractJvmTypeProvider {
 	
 	@Override
 	public JvmType findTypeByName(String name) {
-		try {
-			// seems to be the only reliable way to locate nested types
-			// since dollar signs are a quite good indicator but not necessarily the best
-			Class<?> clazz = classFinder.forName(name);
-			return findTypeByClass(clazz);
-		} catch (ClassNotFoundException e) {
-			return tryFindTypeInIndex(name, true);
-		} catch (NoClassDefFoundError e) { 
-			/* 
-			 * Error will be thrown if the contents of the binary class file does not match the expectation (transitively).
-			 * See java.lang.ClassLoader.defineClass(String, byte[], int, int, ProtectionDomain)
-			 */
-			return tryFindTypeInIndex(name, true);
+		synchronized (getLock()) {
+			try {
+				// seems to be the only reliable way to locate nested types
+				// since dollar signs are a quite good indicator but not necessarily the best
+				Class<?> clazz = classFinder.forName(name);
+				return findTypeByClass(clazz);
+			} catch (ClassNotFoundException e) {
+				return tryFindTypeInIndex(name, true);
+			} catch (NoClassDefFoundError e) { 
+				/* 
+				 * Error will be thrown if the contents of the binary class file does not match the expectation (transitively).
+				 * See java.lang.ClassLoader.defineClass(String, byte[], int, int, ProtectionDomain)
+				 */
+				return tryFindTypeInIndex(name, true);
+			}
 		}
 	}
 
@@ -127,7 +129,9 @@ public class ClasspathTypeProvider extends AbstractJvmTypeProvider {
 		if (isBinaryNestedTypeDelimiter(name, binaryNestedTypeDelimiter)) {
 			return findTypeByName(name);
 		}
-		return doFindTypeByName(name);
+		synchronized (getLock()) {
+			return doFindTypeByName(name);
+		}
 	}
 
 	private JvmType doFindTypeByName(String name) {
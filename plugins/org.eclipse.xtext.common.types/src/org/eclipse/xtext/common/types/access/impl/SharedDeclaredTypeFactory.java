@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+
+/**
+ * A type factory that obtains the types of archived classes from a {@link SharedJvmTypeCache}. Other types,
+ * e.g. the ones from class folders, are created as usual.
+ * 
+ * In contrast to the {@link CachingDeclaredTypeFactory} the cached types are shared with all other factories that
+ * use the same cache.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class SharedDeclaredTypeFactory extends DeclaredTypeFactory {
+
+	private final SharedJvmTypeCache cache;
+
+	public SharedDeclaredTypeFactory(ClassURIHelper uriHelper, SharedJvmTypeCache cache) {
+		super(uriHelper);
+		this.cache = cache;
+	}
+
+	@Override
+	public JvmDeclaredType createType(Class<?> clazz) {
+		String key = cache.getKey(clazz);
+		if (key == null)
+			return super.createType(clazz);
+		return cache.getType(key, clazz);
+	}
+
+	public SharedJvmTypeCache getCache() {
+		return cache;
+	}
+
+}
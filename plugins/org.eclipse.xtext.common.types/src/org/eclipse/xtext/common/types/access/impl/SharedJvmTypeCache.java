@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * A process-wide cache of {@link JvmDeclaredType types} that are read from archives, e.g. the types of the JDK and
+ * of library jars. Types are cached by the identity of their archive, i.e. its path, time stamp and size, and their
+ * name. Therefore the same template is used for all class loaders and resource sets that refer to the same jar,
+ * while a modified jar yields a different key.
+ * 
+ * The cached templates are never handed out. They are not contained in a resource and contain proxies only, and
+ * clients always obtain a {@link EcoreUtil2#cloneWithProxies(org.eclipse.emf.ecore.EObject) copy}. Templates are
+ * softly referenced and will be dropped if memory gets low. Types from class folders are not cached since their
+ * content may change at any time.
+ * 
+ * Instances are thread-safe.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+public class SharedJvmTypeCache {
+
+	private static final Logger log = Logger.getLogger(SharedJvmTypeCache.class);
+
+	private static final SharedJvmTypeCache DEFAULT = new SharedJvmTypeCache();
+
+	/**
+	 * @return the cache that is shared by all clients in this process.
+	 */
+	public static SharedJvmTypeCache getDefault() {
+		return DEFAULT;
+	}
+
+	private final ConcurrentMap<String, JvmDeclaredType> templates = new MapMaker().softValues().makeMap();
+
+	/**
+	 * @return the key of the given class or <code>null</code> if the type of the class may not be cached.
+	 */
+	@Nullable
+	public String getKey(Class<?> clazz) {
+		String resourceName = clazz.getName().replace('.', '/') + ".class";
+		ClassLoader classLoader = clazz.getClassLoader();
+		URL classFile = classLoader == null ? ClassLoader.getSystemResource(resourceName) : classLoader.getResource(resourceName);
+		if (classFile == null)
+			return null;
+		return getKey(classFile, clazz.getName());
+	}
+
+	/**
+	 * @param classFile the location of the class file, e.g. <code>jar:file:/lib/foo.jar!/foo/Bar.class</code>.
+	 * @param className the binary name of the class.
+	 * @return the key of the given class or <code>null</code> if the type of the class may not be cached.
+	 */
+	@Nullable
+	public String getKey(URL classFile, String className) {
+		String protocol = classFile.getProtocol();
+		if ("jar".equals(protocol)) {
+			String path = classFile.getPath();
+			int idx = path.indexOf("!/");
+			if (idx < 0)
+				return null;
+			String archiveIdentity = getArchiveIdentity(path.substring(0, idx));
+			if (archiveIdentity == null)
+				return null;
+			return archiveIdentity + '!' + className;
+		}
+		return null;
+	}
+
+	@Nullable
+	protected String getArchiveIdentity(String archive) {
+		try {
+			URI uri = new URI(archive);
+			if (!"file".equals(uri.getScheme()))
+				return null;
+			File file = new File(uri);
+			if (!file.isFile())
+				return null;
+			return file.getAbsolutePath() + '@' + file.lastModified() + '/' + file.length();
+		} catch (URISyntaxException e) {
+			return null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return a copy of the cached type with the given key. The type is created with a new
+	 *         {@link DeclaredTypeFactory} if it is not yet known.
+	 */
+	public JvmDeclaredType getType(String key, Class<?> clazz) {
+		JvmDeclaredType template = templates.get(key);
+		if (template == null) {
+			if (log.isDebugEnabled())
+				log.debug("Miss: " + key);
+			// the factory caches the proxies of all types it created, thus a new one is used each time
+			template = createTemplateFactory().createType(clazz);
+			JvmDeclaredType existing = templates.putIfAbsent(key, template);
+			if (existing != null)
+				template = existing;
+		}
+		// reading a template may initialize its lists lazily, thus copies of the same template are not made concurrently
+		synchronized (template) {
+			return EcoreUtil2.cloneWithProxies(template);
+		}
+	}
+
+	protected DeclaredTypeFactory createTemplateFactory() {
+		return new DeclaredTypeFactory(new ClassURIHelper());
+	}
+
+	public void clear() {
+		templates.clear();
+	}
+
+}
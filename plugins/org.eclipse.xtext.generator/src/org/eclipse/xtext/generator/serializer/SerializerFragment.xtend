@@ -9,6 +9,9 @@
 package org.eclipse.xtext.generator.serializer
 
 import com.google.inject.Inject
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileOutputStream
 import java.util.Set
 import org.eclipse.xtext.Grammar
 import org.eclipse.xtext.generator.BindFactory
@@ -17,6 +20,9 @@ import org.eclipse.xtext.generator.Generator
 import org.eclipse.xtext.generator.Xtend2ExecutionContext
 import org.eclipse.xtext.generator.Xtend2GeneratorFragment
 import org.eclipse.xtext.serializer.ISerializer
+import org.eclipse.xtext.serializer.analysis.IContextProvider
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider
+import org.eclipse.xtext.serializer.analysis.PrecomputedContextTypePDAs
 import org.eclipse.xtext.serializer.impl.Serializer
 import org.eclipse.xtext.serializer.sequencer.ISemanticSequencer
 import org.eclipse.xtext.serializer.sequencer.ISyntacticSequencer
@@ -41,8 +47,18 @@ class SerializerFragment extends Xtend2GeneratorFragment implements IStubGenerat
 	
 	@Inject SerializerGenFileNames names
 	
+	@Inject Grammar grammar
+	
+	@Inject IContextProvider contextProvider
+	
+	@Inject IContextTypePDAProvider contextTypePDAProvider
+	
+	@Inject PrecomputedContextTypePDAs precomputedPDAs
+	
 	boolean generateDebugData = false;
 	
+	boolean generatePrecomputedPDAs = false;
+	
 	boolean srcGenOnly = false;
 	
 	@Property boolean generateXtendStub
@@ -56,6 +72,16 @@ class SerializerFragment extends Xtend2GeneratorFragment implements IStubGenerat
 		generateDebugData = doGenerate
 	}
 	
+	/**
+	 * Stores the context type PDAs next to the persisted grammar, so that the serializer of the language loads them
+	 * instead of analyzing the grammar at runtime.
+	 * 
+	 * @since 2.5
+	 */
+	def setGeneratePrecomputedPDAs(boolean doGenerate) {
+		generatePrecomputedPDAs = doGenerate
+	}
+	
 	def setSrcGenOnly(boolean srcGen) {
 		srcGenOnly = srcGen;
 	}
@@ -91,6 +117,20 @@ class SerializerFragment extends Xtend2GeneratorFragment implements IStubGenerat
 			for(obj:debugGraphGenerator.generateDebugGraphs) 
 				ctx.writeFile(Generator.SRC_GEN, obj.key, obj.value);
 		}
+		if(generatePrecomputedPDAs)
+			writePrecomputedPDAs(ctx)
+	}
+	
+	def protected writePrecomputedPDAs(Xtend2ExecutionContext ctx) {
+		val path = ctx.xpandExecutionContext.output.getOutlet(Generator.SRC_GEN).path
+		val file = new File(path, PrecomputedContextTypePDAs.getClasspathRelativePath(grammar))
+		file.parentFile.mkdirs
+		val out = new BufferedOutputStream(new FileOutputStream(file))
+		try {
+			precomputedPDAs.write(grammar, contextProvider, contextTypePDAProvider, out)
+		} finally {
+			out.close
+		}
 	}
 	
 	override getExportedPackagesRtList(Grammar grammar) {
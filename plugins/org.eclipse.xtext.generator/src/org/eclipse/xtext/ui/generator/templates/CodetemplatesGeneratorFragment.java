@@ -37,6 +37,9 @@ public class CodetemplatesGeneratorFragment extends AbstractGeneratorFragment {
 				"org.eclipse.xtext.ui.codetemplates.ui.preferences.AdvancedTemplatesPreferencePage")
 			.addTypeToType("org.eclipse.xtext.ui.codetemplates.ui.partialEditing.IPartialContentAssistParser",
 				getPartialContentAssistParser(grammar, getNaming()))
+			.addConfiguredBinding("ContentAssistPartialParser",
+				"binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to("
+					+ getPartialContentAssistParser(grammar, getNaming()) + ".class)")
 			.getBindings();
 	}
 	
@@ -13,9 +13,15 @@ import com.google.inject.binder.AnnotatedBindingBuilder;
 import com.google.inject.binder.LinkedBindingBuilder;
 import com.google.inject.name.Named;
 import com.google.inject.name.Names;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import org.eclipse.xpand2.XpandExecutionContext;
+import org.eclipse.xpand2.output.Outlet;
+import org.eclipse.xpand2.output.Output;
 import org.eclipse.xtext.Grammar;
 import org.eclipse.xtext.generator.BindFactory;
 import org.eclipse.xtext.generator.Binding;
@@ -33,11 +39,15 @@ import org.eclipse.xtext.generator.serializer.SerializerGenFileNames;
 import org.eclipse.xtext.generator.serializer.SerializerGenFileNames.GenFileName;
 import org.eclipse.xtext.generator.serializer.SyntacticSequencer;
 import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.serializer.analysis.IContextProvider;
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider;
+import org.eclipse.xtext.serializer.analysis.PrecomputedContextTypePDAs;
 import org.eclipse.xtext.serializer.impl.Serializer;
 import org.eclipse.xtext.serializer.sequencer.ISemanticSequencer;
 import org.eclipse.xtext.serializer.sequencer.ISyntacticSequencer;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Conversions;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Pair;
 
 @SuppressWarnings("all")
@@ -63,8 +73,22 @@ public class SerializerFragment extends Xtend2GeneratorFragment implements IStub
   @Inject
   private SerializerGenFileNames names;
   
+  @Inject
+  private Grammar grammar;
+  
+  @Inject
+  private IContextProvider contextProvider;
+  
+  @Inject
+  private IContextTypePDAProvider contextTypePDAProvider;
+  
+  @Inject
+  private PrecomputedContextTypePDAs precomputedPDAs;
+  
   private boolean generateDebugData = false;
   
+  private boolean generatePrecomputedPDAs = false;
+  
   private boolean srcGenOnly = false;
   
   private boolean _generateXtendStub;
@@ -97,6 +121,17 @@ public class SerializerFragment extends Xtend2GeneratorFragment implements IStub
     return _generateDebugData;
   }
   
+  /**
+   * Stores the context type PDAs next to the persisted grammar, so that the serializer of the language loads them
+   * instead of analyzing the grammar at runtime.
+   * 
+   * @since 2.5
+   */
+  public boolean setGeneratePrecomputedPDAs(final boolean doGenerate) {
+    boolean _generatePrecomputedPDAs = this.generatePrecomputedPDAs = doGenerate;
+    return _generatePrecomputedPDAs;
+  }
+  
   public boolean setSrcGenOnly(final boolean srcGen) {
     boolean _srcGenOnly = this.srcGenOnly = srcGen;
     return _srcGenOnly;
@@ -176,6 +211,33 @@ public class SerializerFragment extends Xtend2GeneratorFragment implements IStub
         ctx.writeFile(Generator.SRC_GEN, _key, _value);
       }
     }
+    if (this.generatePrecomputedPDAs) {
+      this.writePrecomputedPDAs(ctx);
+    }
+  }
+  
+  protected void writePrecomputedPDAs(final Xtend2ExecutionContext ctx) {
+    try {
+      XpandExecutionContext _xpandExecutionContext = ctx.getXpandExecutionContext();
+      Output _output = _xpandExecutionContext.getOutput();
+      Outlet _outlet = _output.getOutlet(Generator.SRC_GEN);
+      final String path = _outlet.getPath();
+      String _classpathRelativePath = PrecomputedContextTypePDAs.getClasspathRelativePath(this.grammar);
+      File _file = new File(path, _classpathRelativePath);
+      final File file = _file;
+      File _parentFile = file.getParentFile();
+      _parentFile.mkdirs();
+      FileOutputStream _fileOutputStream = new FileOutputStream(file);
+      BufferedOutputStream _bufferedOutputStream = new BufferedOutputStream(_fileOutputStream);
+      final BufferedOutputStream out = _bufferedOutputStream;
+      try {
+        this.precomputedPDAs.write(this.grammar, this.contextProvider, this.contextTypePDAProvider, out);
+      } finally {
+        out.close();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
   }
   
   public List<String> getExportedPackagesRtList(final Grammar grammar) {
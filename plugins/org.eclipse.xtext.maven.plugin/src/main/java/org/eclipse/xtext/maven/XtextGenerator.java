@@ -90,6 +90,36 @@ public class XtextGenerator extends AbstractMojo {
 	 */
 	private Boolean failOnValidationError;
 
+	/**
+	 * Number of threads used by the generator. Values greater than one build the sources in parallel.
+	 * 
+	 * @parameter expression="${xtext.generator.numberOfThreads}" default-value="1"
+	 */
+	private Integer numberOfThreads;
+
+	/**
+	 * Rebuild only sources that changed since the last successful build, and the sources affected by these changes.
+	 * The build state is kept in the temporary class directory.
+	 * 
+	 * @parameter expression="${xtext.generator.incremental}" default-value="false"
+	 */
+	private Boolean incremental;
+
+	/**
+	 * Cache the parse results of the sources in the temporary class directory, so that unchanged sources are not
+	 * parsed again by subsequent builds.
+	 * 
+	 * @parameter expression="${xtext.generator.cacheParseResults}" default-value="false"
+	 */
+	private Boolean cacheParseResults;
+
+	/**
+	 * Record the stopwatches of the build and log the timings after the build.
+	 * 
+	 * @parameter expression="${xtext.generator.printStopwatches}" default-value="false"
+	 */
+	private Boolean printStopwatches;
+
 	/**
 	 * @parameter expression="${maven.compiler.source}" default-value="1.5"
 	 */
@@ -132,7 +162,16 @@ public class XtextGenerator extends AbstractMojo {
 		builder.setClassPathEntries(classPathEntries);
 		builder.setSourceDirs(sourceRoots);
 		builder.setFailOnValidationError(failOnValidationError);
-		builder.setTempDir(createTempDir().getAbsolutePath());
+		builder.setNumberOfThreads(numberOfThreads);
+		File tempDir = createTempDir();
+		builder.setTempDir(tempDir.getAbsolutePath());
+		if (incremental) {
+			builder.setBuildStateFile(new File(tempDir, "build.state").getAbsolutePath());
+		}
+		if (cacheParseResults) {
+			builder.setParseResultCacheDir(new File(tempDir, "parse-cache").getAbsolutePath());
+		}
+		builder.setPrintStopwatches(printStopwatches);
 		configureCompiler(builder.getCompiler());
 		logState();
 		boolean errorDetected = !builder.launch();
@@ -152,6 +191,10 @@ public class XtextGenerator extends AbstractMojo {
 		getLog().info("Encoding: " + encoding);
 		getLog().info("Compiler source level: " + compilerSourceLevel);
 		getLog().info("Compiler target level: " + compilerTargetLevel);
+		getLog().info("Number of threads: " + numberOfThreads);
+		getLog().info("Incremental: " + incremental);
+		getLog().info("Cache parse results: " + cacheParseResults);
+		getLog().info("Print stopwatches: " + printStopwatches);
 		if (getLog().isDebugEnabled()) {
 			getLog().debug("Source dirs: " + IterableExtensions.join(sourceRoots, ", "));
 			getLog().debug("Classpath entries: " + IterableExtensions.join(classpathElements, ", "));
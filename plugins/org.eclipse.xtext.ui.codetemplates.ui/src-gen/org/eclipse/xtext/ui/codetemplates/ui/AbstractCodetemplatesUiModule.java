@@ -143,5 +143,10 @@ public abstract class AbstractCodetemplatesUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.ui.codetemplates.ui.contentassist.antlr.PartialCodetemplatesContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.ui.codetemplates.ui.contentassist.antlr.PartialCodetemplatesContentAssistParser.class);
+	}
+
 
 }
@@ -7,16 +7,12 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.codetemplates.ui.partialEditing;
 
-import org.eclipse.xtext.AbstractRule;
-import org.eclipse.xtext.ui.editor.contentassist.antlr.IContentAssistParser;
-
 /**
  * The partial content assist parser allows to set the entry rule.
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  */
-public interface IPartialContentAssistParser extends IContentAssistParser {
+public interface IPartialContentAssistParser extends
+		org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser {
 
-	void initializeFor(AbstractRule rule);
-	
 }
@@ -16,6 +16,8 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.xtext.builder.builderState.IBuilderState;
+import org.eclipse.xtext.builder.builderState.MappedIndexPersister;
+import org.eclipse.xtext.builder.builderState.PersistedStateProvider;
 import org.eclipse.xtext.builder.clustering.ClusteringBuilderState;
 import org.eclipse.xtext.builder.impl.DirtyStateAwareResourceDescriptions;
 import org.eclipse.xtext.builder.impl.ProjectOpenedOrClosedListener;
@@ -51,6 +53,9 @@ public class SharedModule extends AbstractModule {
 	@Override
 	protected void configure() {
 		bind(IBuilderState.class).to(ClusteringBuilderState.class).in(Scopes.SINGLETON);
+		if (Boolean.getBoolean(MappedIndexPersister.USE_MAPPED_INDEX)) {
+			bind(PersistedStateProvider.class).to(MappedIndexPersister.class);
+		}
 		bind(IResourceDescriptions.class).to(DirtyStateAwareResourceDescriptions.class).in(Scopes.SINGLETON);
 		bind(IResourceServiceProvider.Registry.class).toInstance(IResourceServiceProvider.Registry.INSTANCE);
 		bind(IResourceSetProvider.class).to(SimpleResourceSetProvider.class);
@@ -18,10 +18,11 @@ import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.presentation.IPresentationDamager;
 import org.eclipse.xtext.ui.editor.model.ILexerTokenRegion;
 import org.eclipse.xtext.ui.editor.model.IXtextDocument;
+import org.eclipse.xtext.ui.editor.model.LexerTokenSnapshot;
 import org.eclipse.xtext.ui.editor.model.Regions;
 import org.eclipse.xtext.ui.editor.model.XtextDocument;
 
-import com.google.common.collect.Iterables;
+import com.google.common.base.Predicate;
 
 /**
  * 
@@ -63,14 +64,26 @@ public class PresentationDamager implements IPresentationDamager {
 	 * @return the common region of the given partition and the changed region in the DocumentEvent based on the underlying tokens.
 	 */
 	protected IRegion computeInterSection(ITypedRegion partition, DocumentEvent e, XtextDocument document) {
-		Iterable<ILexerTokenRegion> tokensInPartition = Iterables.filter(document.getTokens(),Regions.overlaps(partition.getOffset(), partition.getLength()));
-		Iterator<ILexerTokenRegion> tokens = Iterables.filter(tokensInPartition, Regions.overlaps(e.getOffset(), e.getLength())).iterator();
-		if (tokens.hasNext()) {
-			ILexerTokenRegion first = tokens.next();
-			ILexerTokenRegion last = first;
-			while(tokens.hasNext())
-				last = tokens.next();
-			return new Region(first.getOffset(), last.getOffset()+last.getLength() -first.getOffset());
+		Predicate<? super IRegion> inPartition = Regions.overlaps(partition.getOffset(), partition.getLength());
+		Predicate<? super IRegion> inEvent = Regions.overlaps(e.getOffset(), e.getLength());
+		// the tokens are sorted, so only the tokens between the start and the end of the intersection are inspected
+		int end = Math.min(partition.getOffset() + partition.getLength(), e.getOffset() + e.getLength());
+		Iterator<ILexerTokenRegion> tokens = LexerTokenSnapshot.iterator(document.getTokens(),
+				Math.max(partition.getOffset(), e.getOffset()));
+		ILexerTokenRegion first = null;
+		ILexerTokenRegion last = null;
+		while (tokens.hasNext()) {
+			ILexerTokenRegion token = tokens.next();
+			if (token.getOffset() > end)
+				break;
+			if (inPartition.apply(token) && inEvent.apply(token)) {
+				if (first == null)
+					first = token;
+				last = token;
+			}
+		}
+		if (first != null) {
+			return new Region(first.getOffset(), last.getOffset() + last.getLength() - first.getOffset());
 		}
 		// this shouldn't happen, but just in case return the whole partition
 		return partition;
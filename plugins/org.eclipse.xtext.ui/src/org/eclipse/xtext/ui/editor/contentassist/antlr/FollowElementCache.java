@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.contentassist.antlr;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.AbstractRule;
+import org.eclipse.xtext.GrammarUtil;
+import org.eclipse.xtext.Group;
+import org.eclipse.xtext.Keyword;
+import org.eclipse.xtext.ParserRule;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.util.Tuples;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+
+/**
+ * Memoizes the results of the {@link IContentAssistParser} per document. Repeated completion requests on an unchanged
+ * document reuse the follow elements of the document prefix instead of parsing it again, and the follow elements with
+ * a lookahead greater than one are expanded only once per grammar state, i.e. per {@link FollowElement#equals(Object)
+ * equal} follow element.
+ *
+ * The cached values of a document are discarded as soon as its {@link IDocumentExtension4#getModificationStamp()
+ * modification stamp} changes. Documents without a modification stamp are not cached at all. To keep the first request
+ * after a modification cheap, an {@link IPartialContentAssistParser} can parse the text of the innermost enclosing
+ * rule only, see {@link #getEntryNode(ICompositeNode, int)}.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+@Singleton
+public class FollowElementCache {
+
+	/**
+	 * The number of document prefixes whose follow elements are kept per document.
+	 */
+	private static final int MAX_PREFIXES = 16;
+
+	protected static class DocumentState {
+
+		private final long modificationStamp;
+
+		private final Map<Object, Collection<FollowElement>> prefixes = new LinkedHashMap<Object, Collection<FollowElement>>(
+				MAX_PREFIXES, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Collection<FollowElement>> eldest) {
+				return size() > MAX_PREFIXES;
+			}
+		};
+
+		private final Map<Object, Collection<FollowElement>> expansions = Maps.newHashMap();
+
+		protected DocumentState(long modificationStamp) {
+			this.modificationStamp = modificationStamp;
+		}
+
+		public long getModificationStamp() {
+			return modificationStamp;
+		}
+
+	}
+
+	private final Map<IDocument, DocumentState> states = new MapMaker().weakKeys().makeMap();
+
+	/**
+	 * Returns the follow elements of the document content up to the given offset.
+	 */
+	public Collection<FollowElement> getFollowElements(IContentAssistParser parser, IDocument document, int offset,
+			boolean strict) throws BadLocationException {
+		return getFollowElements(parser, null, document, 0, offset, strict);
+	}
+
+	/**
+	 * Returns the follow elements of the document content from the start of the given entry node up to the given
+	 * offset. The partial parser starts with the rule of the entry node.
+	 * 
+	 * @param entryNode
+	 *            a node that was returned by {@link #getEntryNode(ICompositeNode, int)} for the given offset.
+	 */
+	public Collection<FollowElement> getFollowElements(IPartialContentAssistParser parser, ICompositeNode entryNode,
+			IDocument document, int offset, boolean strict) throws BadLocationException {
+		AbstractRule rule = ((RuleCall) entryNode.getGrammarElement()).getRule();
+		return getFollowElements(parser, rule, document, entryNode.getOffset(), offset, strict);
+	}
+
+	private Collection<FollowElement> getFollowElements(IContentAssistParser parser, AbstractRule rule,
+			IDocument document, int entryOffset, int offset, boolean strict) throws BadLocationException {
+		DocumentState state = getState(document);
+		if (state == null)
+			return parse(parser, rule, document, entryOffset, offset, strict);
+		// the results of different parsers for the same language may differ
+		Object key = Tuples.create(parser.getClass(), Tuples.create(rule, entryOffset), Tuples.create(offset, strict));
+		Collection<FollowElement> result;
+		synchronized (state) {
+			result = state.prefixes.get(key);
+		}
+		if (result == null) {
+			result = parse(parser, rule, document, entryOffset, offset, strict);
+			synchronized (state) {
+				state.prefixes.put(key, result);
+			}
+		}
+		return Lists.newArrayList(result);
+	}
+
+	private Collection<FollowElement> parse(IContentAssistParser parser, AbstractRule rule, IDocument document,
+			int entryOffset, int offset, boolean strict) throws BadLocationException {
+		if (rule != null)
+			((IPartialContentAssistParser) parser).initializeFor(rule);
+		return parser.getFollowElements(document.get(entryOffset, offset - entryOffset), strict);
+	}
+
+	/**
+	 * Returns the innermost node that encloses the given offset and where a partial parser may start instead of the
+	 * entry rule of the grammar. The rule of the node has to end with a mandatory keyword that follows the offset, so
+	 * the follow elements at the offset are all part of that rule and do not depend on the enclosing rules. Rules that
+	 * inherit hidden tokens from an enclosing rule are not considered.
+	 * 
+	 * @return the entry node or <code>null</code> if the whole document prefix has to be parsed.
+	 */
+	public ICompositeNode getEntryNode(ICompositeNode rootNode, int offset) {
+		ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(rootNode, offset);
+		if (leaf == null)
+			return null;
+		for (ICompositeNode node = leaf.getParent(); node != null && node != rootNode; node = node.getParent()) {
+			if (node.getOffset() < offset && isEntryNode(node, offset))
+				return inheritsHiddenTokens(node) ? null : node;
+		}
+		return null;
+	}
+
+	protected boolean isEntryNode(ICompositeNode node, int offset) {
+		EObject grammarElement = node.getGrammarElement();
+		if (!(grammarElement instanceof RuleCall))
+			return false;
+		AbstractRule rule = ((RuleCall) grammarElement).getRule();
+		if (!(rule instanceof ParserRule) || GrammarUtil.isDatatypeRule(rule))
+			return false;
+		Keyword closingKeyword = getClosingKeyword((ParserRule) rule);
+		if (closingKeyword == null)
+			return false;
+		for (INode child : node.getAsTreeIterable().reverse()) {
+			if (child instanceof ILeafNode && !((ILeafNode) child).isHidden())
+				return child.getGrammarElement() == closingKeyword && child.getOffset() >= offset;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the mandatory keyword that ends the given rule or <code>null</code>.
+	 */
+	protected Keyword getClosingKeyword(ParserRule rule) {
+		AbstractElement alternatives = rule.getAlternatives();
+		if (!(alternatives instanceof Group) || alternatives.getCardinality() != null)
+			return null;
+		List<AbstractElement> elements = ((Group) alternatives).getElements();
+		AbstractElement last = elements.get(elements.size() - 1);
+		if (last instanceof Keyword && last.getCardinality() == null)
+			return (Keyword) last;
+		return null;
+	}
+
+	protected boolean inheritsHiddenTokens(ICompositeNode node) {
+		if (getParserRule(node).isDefinesHiddenTokens())
+			return false;
+		for (ICompositeNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+			ParserRule rule = getParserRule(parent);
+			if (rule != null && rule.isDefinesHiddenTokens())
+				return true;
+		}
+		return false;
+	}
+
+	private ParserRule getParserRule(ICompositeNode node) {
+		EObject grammarElement = node.getGrammarElement();
+		if (grammarElement instanceof RuleCall)
+			grammarElement = ((RuleCall) grammarElement).getRule();
+		return grammarElement instanceof ParserRule ? (ParserRule) grammarElement : null;
+	}
+
+	/**
+	 * Returns the follow elements that the parser computes for the given element with a lookahead greater than one.
+	 */
+	public Collection<FollowElement> getFollowElements(IContentAssistParser parser, IDocument document,
+			FollowElement element) {
+		DocumentState state = getState(document);
+		if (state == null)
+			return parser.getFollowElements(element);
+		Object key = Tuples.create(parser.getClass(), element);
+		Collection<FollowElement> result;
+		synchronized (state) {
+			result = state.expansions.get(key);
+		}
+		if (result == null) {
+			result = parser.getFollowElements(element);
+			synchronized (state) {
+				state.expansions.put(key, result);
+			}
+		}
+		return Lists.newArrayList(result);
+	}
+
+	/**
+	 * Discards the cached follow elements of the given document.
+	 */
+	public void invalidate(IDocument document) {
+		states.remove(document);
+	}
+
+	/**
+	 * @return the cached state for the current content of the document or <code>null</code> if the document cannot be
+	 *         cached.
+	 */
+	protected DocumentState getState(IDocument document) {
+		if (!(document instanceof IDocumentExtension4))
+			return null;
+		long modificationStamp = ((IDocumentExtension4) document).getModificationStamp();
+		if (modificationStamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+			return null;
+		synchronized (states) {
+			DocumentState result = states.get(document);
+			if (result == null || result.getModificationStamp() != modificationStamp) {
+				result = new DocumentState(modificationStamp);
+				states.put(document, result);
+			}
+			return result;
+		}
+	}
+
+}
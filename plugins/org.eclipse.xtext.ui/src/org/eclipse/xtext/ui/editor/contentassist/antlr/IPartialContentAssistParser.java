@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.contentassist.antlr;
+
+import org.eclipse.xtext.AbstractRule;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A content assist parser that starts parsing with the given rule instead of the entry rule of the grammar. The
+ * {@link FollowElementCache} uses it to parse the text of the innermost enclosing rule only.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public interface IPartialContentAssistParser extends IContentAssistParser {
+
+	void initializeFor(AbstractRule rule);
+
+}
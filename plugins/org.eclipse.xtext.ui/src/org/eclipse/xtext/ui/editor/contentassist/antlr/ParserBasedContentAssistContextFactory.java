@@ -107,6 +107,12 @@ public class ParserBasedContentAssistContextFactory extends AbstractContentAssis
 		@Inject
 		private ITokenDefProvider tokenDefProvider;
 		
+		@Inject
+		private FollowElementCache followElementCache;
+		
+		@Inject(optional = true)
+		private IPartialContentAssistParser partialParser;
+		
 		private ITextViewer viewer;
 
 		private XtextResource resource;
@@ -204,11 +210,10 @@ public class ParserBasedContentAssistContextFactory extends AbstractContentAssis
 
 		protected void handleLastCompleteNodeIsAtEndOfDatatypeNode() throws BadLocationException {
 			String prefix = getPrefix(lastCompleteNode);
-			String completeInput = viewer.getDocument().get(0, lastCompleteNode.getOffset());
 			INode previousNode = getLastCompleteNodeByOffset(rootNode, lastCompleteNode.getOffset());
 			EObject previousModel = previousNode.getSemanticElement();
 			INode currentDatatypeNode = getContainingDatatypeRuleNode(currentNode);
-			Collection<FollowElement> followElements = parser.getFollowElements(completeInput, false);
+			Collection<FollowElement> followElements = getFollowElements(lastCompleteNode.getOffset(), false);
 			int prevSize = contextBuilders.size();
 			doCreateContexts(previousNode, currentDatatypeNode, prefix, previousModel, followElements);
 			
@@ -227,8 +232,7 @@ public class ParserBasedContentAssistContextFactory extends AbstractContentAssis
 
 		protected void handleLastCompleteNodeAsPartOfDatatypeNode() throws BadLocationException {
 			String prefix = getPrefix(datatypeNode);
-			String completeInput = viewer.getDocument().get(0, datatypeNode.getOffset());
-			Collection<FollowElement> followElements = parser.getFollowElements(completeInput, false);
+			Collection<FollowElement> followElements = getFollowElements(datatypeNode.getOffset(), false);
 			INode lastCompleteNodeBeforeDatatype = getLastCompleteNodeByOffset(rootNode, datatypeNode.getTotalOffset());
 			doCreateContexts(lastCompleteNodeBeforeDatatype, datatypeNode, prefix, currentModel, followElements);
 		}
@@ -262,11 +266,37 @@ public class ParserBasedContentAssistContextFactory extends AbstractContentAssis
 				}
 			}
 			String prefix = "";
-			String completeInput = viewer.getDocument().get(0, completionOffset);
-			Collection<FollowElement> followElements = parser.getFollowElements(completeInput, strict);
+			Collection<FollowElement> followElements = getFollowElements(completionOffset, strict);
 			doCreateContexts(lastCompleteNode, currentNode, prefix, previousModel, followElements);
 		}
 		
+		/**
+		 * Returns the follow elements of the document content up to the given offset. If a partial parser is bound,
+		 * only the text of the innermost enclosing rule that ends after the offset is parsed. The result is reused by
+		 * subsequent requests as long as the document is not modified.
+		 * 
+		 * @since 2.5
+		 */
+		protected Collection<FollowElement> getFollowElements(int offset, boolean strict) throws BadLocationException {
+			if (partialParser != null && !(parser instanceof IPartialContentAssistParser)) {
+				ICompositeNode entryNode = followElementCache.getEntryNode(rootNode, offset);
+				if (entryNode != null)
+					return followElementCache.getFollowElements(partialParser, entryNode, viewer.getDocument(), offset,
+							strict);
+			}
+			return followElementCache.getFollowElements(parser, viewer.getDocument(), offset, strict);
+		}
+
+		/**
+		 * Returns the follow elements of the given element with a lookahead greater than one. The result is shared by
+		 * all equal elements as long as the document is not modified.
+		 * 
+		 * @since 2.5
+		 */
+		protected Collection<FollowElement> getFollowElements(FollowElement element) {
+			return followElementCache.getFollowElements(parser, viewer != null ? viewer.getDocument() : null, element);
+		}
+
 		/**
 		 * Return <code>true</code> if the token should be considered to be an error token.
 		 * If the token that is created from the prefix before the cursor position is an error
@@ -402,7 +432,7 @@ public class ParserBasedContentAssistContextFactory extends AbstractContentAssis
 				}
 				return;
 			}
-			Collection<FollowElement> followElements = parser.getFollowElements(element);
+			Collection<FollowElement> followElements = getFollowElements(element);
 			for(FollowElement newElement: followElements) {
 				if (newElement.getLookAhead() != element.getLookAhead() || newElement.getGrammarElement() != element.getGrammarElement())
 					computeFollowElements(calculator, newElement, visited);
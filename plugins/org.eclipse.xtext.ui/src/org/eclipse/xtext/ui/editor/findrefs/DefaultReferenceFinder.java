@@ -14,6 +14,7 @@ import static com.google.common.collect.Sets.*;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
@@ -28,6 +29,7 @@ import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IReferenceIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
@@ -50,6 +52,8 @@ public class DefaultReferenceFinder implements IReferenceFinder, IReferenceFinde
 	private IResourceDescriptions indexData;
 
 	private IResourceServiceProvider.Registry serviceProviderRegistry;
+	
+	private final ConcurrentMap<Class<?>, Boolean> referenceDescriptionBasedFinders = newConcurrentMap();
 
 	@Inject
 	public DefaultReferenceFinder(IResourceDescriptions indexData,
@@ -109,24 +113,121 @@ public class DefaultReferenceFinder implements IReferenceFinder, IReferenceFinde
 	}
 	
 	/**
+	 * If the index data is an {@link IReferenceIndex}, only the resources that refer to any of the targets are
+	 * searched. The other resources are only searched if their language uses a reference finder that does not only
+	 * consider the reference descriptions.
+	 * 
 	 * @since 2.4
 	 */
 	protected void findAllIndexedReferences(IAcceptor<IReferenceDescription> referenceAcceptor, SubMonitor subMonitor,
 			Set<URI> targetURIsAsSet, ILocalResourceAccess localResourceAccess) {
-		subMonitor.setWorkRemaining(size(indexData.getAllResourceDescriptions()));
+		if (!(indexData instanceof IReferenceIndex)) {
+			subMonitor.setWorkRemaining(size(indexData.getAllResourceDescriptions()));
+			for (IResourceDescription resourceDescription : indexData.getAllResourceDescriptions()) {
+				IReferenceFinderExtension1 referenceFinder = getReferenceFinder(resourceDescription.getURI());
+				if (referenceFinder != null) {
+					referenceFinder.findReferences(targetURIsAsSet, resourceDescription, referenceAcceptor,
+							subMonitor.newChild(1), localResourceAccess);
+				}
+			}
+			return;
+		}
+		Set<URI> referencingResources = ((IReferenceIndex) indexData).getResourcesReferencingObjects(targetURIsAsSet);
+		subMonitor.setWorkRemaining(referencingResources.size() + 1);
+		for (URI referencingResource : referencingResources) {
+			IResourceDescription resourceDescription = indexData.getResourceDescription(referencingResource);
+			IReferenceFinderExtension1 referenceFinder = getReferenceFinder(referencingResource);
+			if (resourceDescription != null && referenceFinder != null) {
+				referenceFinder.findReferences(targetURIsAsSet, resourceDescription, referenceAcceptor,
+						subMonitor.newChild(1), localResourceAccess);
+			} else {
+				subMonitor.worked(1);
+			}
+		}
+		findReferencesWithoutReferenceDescriptions(referenceAcceptor, subMonitor.newChild(1), targetURIsAsSet,
+				referencingResources, localResourceAccess);
+	}
+
+	/**
+	 * Searches the resources that do not have a reference description for any of the targets, but whose language uses
+	 * a reference finder that is not {@link #isReferenceDescriptionBased(IReferenceFinderExtension1) reference
+	 * description based}. Only these resources are passed to their reference finder.
+	 * 
+	 * @since 2.5
+	 */
+	protected void findReferencesWithoutReferenceDescriptions(IAcceptor<IReferenceDescription> referenceAcceptor,
+			SubMonitor subMonitor, Set<URI> targetURIsAsSet, Set<URI> referencingResources,
+			ILocalResourceAccess localResourceAccess) {
+		Map<IResourceServiceProvider, IReferenceFinderExtension1> customFinders = newHashMap();
 		for (IResourceDescription resourceDescription : indexData.getAllResourceDescriptions()) {
-			IResourceServiceProvider serviceProvider = serviceProviderRegistry.getResourceServiceProvider(resourceDescription.getURI());
-			if (serviceProvider != null) {
-				IReferenceFinder referenceFinder = serviceProvider.get(IReferenceFinder.class);
-				if (referenceFinder instanceof IReferenceFinderExtension1) {
-					IReferenceFinderExtension1 extension1 = (IReferenceFinderExtension1) referenceFinder;
-					extension1.findReferences(targetURIsAsSet, resourceDescription, referenceAcceptor, subMonitor.newChild(1), localResourceAccess);
-				} else {
-					// don't use the language specific reference finder here for backwards compatibility reasons
-					findReferences(targetURIsAsSet, resourceDescription, referenceAcceptor, subMonitor.newChild(1), localResourceAccess);
+			URI uri = resourceDescription.getURI();
+			if (referencingResources.contains(uri))
+				continue;
+			IResourceServiceProvider serviceProvider = serviceProviderRegistry.getResourceServiceProvider(uri);
+			if (serviceProvider == null)
+				continue;
+			IReferenceFinderExtension1 referenceFinder;
+			if (customFinders.containsKey(serviceProvider)) {
+				referenceFinder = customFinders.get(serviceProvider);
+			} else {
+				referenceFinder = getReferenceFinder(serviceProvider);
+				if (isReferenceDescriptionBased(referenceFinder))
+					referenceFinder = null;
+				customFinders.put(serviceProvider, referenceFinder);
+			}
+			if (referenceFinder != null) {
+				referenceFinder.findReferences(targetURIsAsSet, resourceDescription, referenceAcceptor,
+						subMonitor.newChild(0), localResourceAccess);
+			}
+		}
+	}
+
+	/**
+	 * @return the reference finder of the language of the given resource or <code>null</code> if it is not an Xtext
+	 *         resource.
+	 * @since 2.5
+	 */
+	protected IReferenceFinderExtension1 getReferenceFinder(URI resourceURI) {
+		IResourceServiceProvider serviceProvider = serviceProviderRegistry.getResourceServiceProvider(resourceURI);
+		if (serviceProvider == null)
+			return null;
+		return getReferenceFinder(serviceProvider);
+	}
+
+	private IReferenceFinderExtension1 getReferenceFinder(IResourceServiceProvider serviceProvider) {
+		IReferenceFinder referenceFinder = serviceProvider.get(IReferenceFinder.class);
+		// don't use the language specific reference finder if it doesn't implement the extension for backwards compatibility reasons
+		if (referenceFinder instanceof IReferenceFinderExtension1)
+			return (IReferenceFinderExtension1) referenceFinder;
+		return this;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the given reference finder reports exactly the matching
+	 * {@link IResourceDescription#getReferenceDescriptions() reference descriptions}, that is, if it does not
+	 * override {@link #findReferences(Set, IResourceDescription, IAcceptor, IProgressMonitor, ILocalResourceAccess)}.
+	 * 
+	 * @since 2.5
+	 */
+	protected boolean isReferenceDescriptionBased(IReferenceFinderExtension1 referenceFinder) {
+		if (!(referenceFinder instanceof DefaultReferenceFinder))
+			return false;
+		Class<?> finderClass = referenceFinder.getClass();
+		Boolean result = referenceDescriptionBasedFinders.get(finderClass);
+		if (result == null) {
+			result = Boolean.TRUE;
+			for (Class<?> c = finderClass; c != DefaultReferenceFinder.class; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("findReferences", Set.class, IResourceDescription.class, IAcceptor.class, IProgressMonitor.class, ILocalResourceAccess.class);
+					result = Boolean.FALSE;
+					break;
+				} catch (NoSuchMethodException e) {
+					// check the super class
 				}
 			}
+			referenceDescriptionBasedFinders.put(finderClass, result);
 		}
+		return result;
 	}
 
 	protected void findLocalReferences(Iterable<URI> localTargets, ILocalResourceAccess localResourceAccess,
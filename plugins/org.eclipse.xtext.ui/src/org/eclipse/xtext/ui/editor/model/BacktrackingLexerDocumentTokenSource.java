@@ -26,6 +26,7 @@ public class BacktrackingLexerDocumentTokenSource extends DocumentTokenSource {
 	 */
 	@Override
 	protected RepairEntryData getRepairEntryData(DocumentEvent e) throws Exception {
+		LexerTokenSnapshot tokens = getTokenSnapshot();
 		int tokenStartsAt = 0;
 		int tokenInfoIdx = 0;
 		TokenSource source = createTokenSource(e.fDocument.get());
@@ -35,15 +36,15 @@ public class BacktrackingLexerDocumentTokenSource extends DocumentTokenSource {
 			if (token == Token.EOF_TOKEN) {
 				break;
 			}
-			if (tokenInfoIdx >= getInternalModifyableTokenInfos().size())
+			if (tokenInfoIdx >= tokens.size())
 				break;
-			TokenInfo tokenInfo = getInternalModifyableTokenInfos().get(tokenInfoIdx);
-			if (tokenInfo.getAntlrTokenType() != token.getType()
-					|| token.getStopIndex() - token.getStartIndex() + 1 != tokenInfo.getLength())
+			int length = tokens.getTokenLength(tokenInfoIdx);
+			if (tokens.getTokenType(tokenInfoIdx) != token.getType()
+					|| token.getStopIndex() - token.getStartIndex() + 1 != length)
 				break;
-			if (tokenStartsAt + tokenInfo.getLength() > e.fOffset)
+			if (tokenStartsAt + length > e.fOffset)
 				break;
-			tokenStartsAt += tokenInfo.getLength();
+			tokenStartsAt += length;
 			tokenInfoIdx++;
 			token = (CommonToken) source.nextToken();
 		}
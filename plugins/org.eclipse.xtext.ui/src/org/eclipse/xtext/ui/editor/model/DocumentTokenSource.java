@@ -7,7 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor.model;
 
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -54,6 +54,14 @@ public class DocumentTokenSource {
 			type = token.getType();
 		}
 
+		/**
+		 * @since 2.5
+		 */
+		protected TokenInfo(int length, int type) {
+			this.length = length;
+			this.type = type;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -184,11 +192,116 @@ public class DocumentTokenSource {
 		}
 	}
 	
+	/**
+	 * Collects the types and lengths of new tokens.
+	 */
+	private static class TokenBuffer {
+		private int[] types;
+		private int[] lengths;
+		private int size;
+
+		private TokenBuffer(int capacity) {
+			types = new int[Math.max(capacity, 16)];
+			lengths = new int[types.length];
+		}
+
+		private void add(CommonToken token) {
+			add(token.getType(), token.getStopIndex() - token.getStartIndex() + 1);
+		}
+
+		private void add(TokenInfo info) {
+			add(info.getAntlrTokenType(), info.getLength());
+		}
+
+		private void add(int type, int length) {
+			if (size == types.length) {
+				int[] newTypes = new int[size * 2];
+				int[] newLengths = new int[size * 2];
+				System.arraycopy(types, 0, newTypes, 0, size);
+				System.arraycopy(lengths, 0, newLengths, 0, size);
+				types = newTypes;
+				lengths = newLengths;
+			}
+			types[size] = type;
+			lengths[size] = length;
+			size++;
+		}
+	}
+
+	/**
+	 * A read-only view on a snapshot.
+	 */
+	private static class TokenInfoList extends AbstractList<TokenInfo> {
+		private final LexerTokenSnapshot tokens;
+
+		private TokenInfoList(LexerTokenSnapshot tokens) {
+			this.tokens = tokens;
+		}
+
+		@Override
+		public TokenInfo get(int index) {
+			return new TokenInfo(tokens.getTokenLength(index), tokens.getTokenType(index));
+		}
+
+		@Override
+		public int size() {
+			return tokens.size();
+		}
+	}
+
+	/**
+	 * A modifiable view on the current snapshot. Modifications replace the snapshot of the token source.
+	 */
+	private class ModifiableTokenInfoList extends AbstractList<TokenInfo> {
+
+		@Override
+		public TokenInfo get(int index) {
+			return new TokenInfo(tokens.getTokenLength(index), tokens.getTokenType(index));
+		}
+
+		@Override
+		public int size() {
+			return tokens.size();
+		}
+
+		@Override
+		public TokenInfo set(int index, TokenInfo element) {
+			TokenInfo result = get(index);
+			replace(index, index + 1, element);
+			return result;
+		}
+
+		@Override
+		public void add(int index, TokenInfo element) {
+			if (index < 0 || index > size())
+				throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+			replace(index, index, element);
+			modCount++;
+		}
+
+		@Override
+		public TokenInfo remove(int index) {
+			TokenInfo result = get(index);
+			setTokens(tokens.replace(index, index + 1, new int[0], new int[0], 0));
+			modCount++;
+			return result;
+		}
+
+		private void replace(int fromIndex, int toIndex, TokenInfo element) {
+			setTokens(tokens.replace(fromIndex, toIndex, new int[] { element.getAntlrTokenType() },
+					new int[] { element.getLength() }, 1));
+		}
+	}
+
 	private static final Logger logger = Logger.getLogger(DocumentTokenSource.class);
 	
+	/**
+	 * Subclasses that customize the {@link TokenInfo} objects are served by the {@link TokenInfo} based code path.
+	 */
+	private final boolean tokenInfoCreationOverridden = isTokenInfoCreationOverridden();
+
 	private boolean checkInvariant = false;
-	private List<TokenInfo> internalModifyableTokenInfos = Collections.emptyList();
-	private List<TokenInfo> tokenInfos = Collections.emptyList();
+	private LexerTokenSnapshot tokens = LexerTokenSnapshot.EMPTY;
 	private IRegion previousRegion;
 	private DocumentEvent previousEvent;
 
@@ -196,8 +309,19 @@ public class DocumentTokenSource {
 	@Named(LexerUIBindings.HIGHLIGHTING)
 	private Provider<Lexer> lexer;
 
+	/**
+	 * @return the current {@link LexerTokenSnapshot snapshot} of the tokens. It is not affected by later modifications
+	 *         of the document.
+	 */
 	public Iterable<ILexerTokenRegion> getTokenInfos() {
-		return new IRegionIterable(tokenInfos);
+		return tokens;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public LexerTokenSnapshot getTokenSnapshot() {
+		return tokens;
 	}
 
 	public IRegion getLastDamagedRegion() {
@@ -209,17 +333,41 @@ public class DocumentTokenSource {
 	}
 
 	protected void setTokens(List<TokenInfo> infos) {
-		this.internalModifyableTokenInfos = infos;
-		this.tokenInfos = Collections.unmodifiableList(Lists.newArrayList(infos));
+		int[] types = new int[infos.size()];
+		int[] lengths = new int[infos.size()];
+		for (int i = 0; i < types.length; i++) {
+			TokenInfo info = infos.get(i);
+			types[i] = info.getAntlrTokenType();
+			lengths[i] = info.getLength();
+		}
+		setTokens(LexerTokenSnapshot.create(types, lengths, types.length));
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected void setTokens(LexerTokenSnapshot tokens) {
+		this.tokens = tokens;
 	}
 	
 	/**
 	 * @since 2.4
+	 * @deprecated the tokens are no longer stored as {@link TokenInfo} objects. Use {@link #getTokenSnapshot()}
+	 *             and {@link #setTokens(LexerTokenSnapshot)} instead. The returned list is a view on the current
+	 *             snapshot and each modification of the list copies the affected part of the snapshot.
 	 */
+	@Deprecated
 	protected List<TokenInfo> getInternalModifyableTokenInfos() {
-		return internalModifyableTokenInfos;
+		return new ModifiableTokenInfoList();
 	}
 
+	/**
+	 * Only called if a subclass overrides this method or {@link #createTokenInfo(CommonToken)}. Otherwise the tokens
+	 * are created by {@link #createTokens(String)} without intermediate {@link TokenInfo} objects.
+	 * 
+	 * @deprecated override {@link #createTokens(String)} or {@link #createTokenSource(String)} instead.
+	 */
+	@Deprecated
 	protected List<TokenInfo> createTokenInfos(String string) {
 		List<TokenInfo> result = Lists.newArrayListWithExpectedSize(string.length() / 3);
 		TokenSource source = createTokenSource(string);
@@ -232,11 +380,63 @@ public class DocumentTokenSource {
 		return result;
 	}
 
+	/**
+	 * Only called if a subclass overrides this method or {@link #createTokenInfos(String)}. Otherwise the tokens are
+	 * created without intermediate {@link TokenInfo} objects.
+	 * 
+	 * @deprecated override {@link #createTokens(String)} or {@link #createTokenSource(String)} instead.
+	 */
+	@Deprecated
 	protected TokenInfo createTokenInfo(CommonToken token) {
 		TokenInfo info = new TokenInfo(token);
 		return info;
 	}
 
+	/**
+	 * @since 2.5
+	 */
+	protected LexerTokenSnapshot createTokens(String string) {
+		TokenBuffer result = new TokenBuffer(string.length() / 3);
+		if (tokenInfoCreationOverridden) {
+			for (TokenInfo info : createTokenInfos(string)) {
+				result.add(info);
+			}
+		} else {
+			TokenSource source = createTokenSource(string);
+			CommonToken token = (CommonToken) source.nextToken();
+			while (token != Token.EOF_TOKEN) {
+				result.add(token);
+				token = (CommonToken) source.nextToken();
+			}
+		}
+		return LexerTokenSnapshot.create(result.types, result.lengths, result.size);
+	}
+
+	private void addToken(TokenBuffer buffer, CommonToken token) {
+		if (tokenInfoCreationOverridden)
+			buffer.add(createTokenInfo(token));
+		else
+			buffer.add(token);
+	}
+
+	private boolean isTokenInfoCreationOverridden() {
+		for (Class<?> clazz = getClass(); clazz != DocumentTokenSource.class; clazz = clazz.getSuperclass()) {
+			try {
+				clazz.getDeclaredMethod("createTokenInfos", String.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// continue
+			}
+			try {
+				clazz.getDeclaredMethod("createTokenInfo", CommonToken.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// continue
+			}
+		}
+		return false;
+	}
+
 	public void updateStructure(final DocumentEvent e) {
 		try {
 			if (previousEvent == e && previousRegion != null) {
@@ -252,75 +452,82 @@ public class DocumentTokenSource {
 	}
 
 	protected void doCheckInvariant(final DocumentEvent e) {
-		List<TokenInfo> parsedTokenInfos = createTokenInfos(e.fDocument.get());
-		if (!parsedTokenInfos.equals(internalModifyableTokenInfos)) {
-			throw new IllegalStateException("Expected: '" + parsedTokenInfos + "' but was: '"
-					+ internalModifyableTokenInfos + "'.");
+		LexerTokenSnapshot parsedTokens = createTokens(e.fDocument.get());
+		if (!new TokenInfoList(parsedTokens).equals(new TokenInfoList(tokens))) {
+			throw new IllegalStateException("Expected: '" + new TokenInfoList(parsedTokens) + "' but was: '"
+					+ new TokenInfoList(tokens) + "'.");
 		}
 	}
 
 	protected IRegion computeDamageRegion(final DocumentEvent e) {
 		// empty document -> no dirty region
 		if (e.getDocument().getLength() == 0) {
-			setTokens(createTokenInfos(e.fDocument.get()));
+			setTokens(createTokens(e.fDocument.get()));
 			return new Region(0, 0);
 		}
 
 		// previously empty -> full document dirty
-		if (internalModifyableTokenInfos.isEmpty()) {
-			setTokens(createTokenInfos(e.fDocument.get()));
+		if (tokens.size() == 0) {
+			setTokens(createTokens(e.fDocument.get()));
 			return new Region(0, e.getDocument().getLength());
 		}
+		// the tokens from replaceFrom (inclusive) to replaceTo (exclusive) are replaced by the new tokens
+		LexerTokenSnapshot oldTokens = tokens;
+		TokenBuffer newTokens = new TokenBuffer(16);
+		int replaceFrom = 0;
+		int replaceTo = 0;
 		try {
 			RepairEntryData repairEntryData = getRepairEntryData(e);
 			int tokenStartsAt = repairEntryData.offset;
-			int tokenInfoIdx = repairEntryData.index;
+			replaceFrom = repairEntryData.index;
+			replaceTo = replaceFrom;
 			CommonToken token = repairEntryData.newToken;
 			if (token == Token.EOF_TOKEN) 
-				internalModifyableTokenInfos.subList(tokenInfoIdx, internalModifyableTokenInfos.size()).clear();
+				replaceTo = oldTokens.size();
 			int regionOffset = tokenStartsAt;
 			int regionLength = e.fDocument.getLength()- tokenStartsAt;
 
 			int lengthDiff = e.fText.length() - e.fLength;
 			// compute region length
 			while (true) {
-				if (token == Token.EOF_TOKEN || tokenInfoIdx >= internalModifyableTokenInfos.size())
+				if (token == Token.EOF_TOKEN || replaceTo >= oldTokens.size())
 					break;
 				while (true) {
-					if (tokenInfoIdx >= internalModifyableTokenInfos.size())
+					if (replaceTo >= oldTokens.size())
 						break;
-					TokenInfo tokenInfo = internalModifyableTokenInfos.get(tokenInfoIdx);
+					int oldLength = oldTokens.getTokenLength(replaceTo);
 					if (token.getStartIndex() >= e.fOffset + e.fText.length()) {
-						if (tokenStartsAt + lengthDiff == token.getStartIndex() && tokenInfo.type == token.getType()
-								&& token.getStopIndex() - token.getStartIndex() + 1 == tokenInfo.length) {
+						if (tokenStartsAt + lengthDiff == token.getStartIndex()
+								&& oldTokens.getTokenType(replaceTo) == token.getType()
+								&& token.getStopIndex() - token.getStartIndex() + 1 == oldLength) {
 							return new Region(regionOffset, token.getStartIndex() - regionOffset);
 						}
 					}
-					if (tokenStartsAt + lengthDiff + tokenInfo.length > token.getStopIndex() + 1)
+					if (tokenStartsAt + lengthDiff + oldLength > token.getStopIndex() + 1)
 						break;
-					internalModifyableTokenInfos.remove(tokenInfoIdx);
-					tokenStartsAt += tokenInfo.length;
+					replaceTo++;
+					tokenStartsAt += oldLength;
 					if (tokenStartsAt + lengthDiff > token.getStartIndex())
 						break;
 				}
-				internalModifyableTokenInfos.add(tokenInfoIdx++, createTokenInfo(token));
+				addToken(newTokens, token);
 				token = (CommonToken) repairEntryData.tokenSource.nextToken();
 			}
-			internalModifyableTokenInfos.subList(tokenInfoIdx, internalModifyableTokenInfos.size()).clear();
+			replaceTo = oldTokens.size();
 			// add subsequent tokens
-			if (tokenInfoIdx >= internalModifyableTokenInfos.size()) {
-				while (token != Token.EOF_TOKEN) {
-					internalModifyableTokenInfos.add(createTokenInfo(token));
-					token = (CommonToken) repairEntryData.tokenSource.nextToken();
-				}
+			while (token != Token.EOF_TOKEN) {
+				addToken(newTokens, token);
+				token = (CommonToken) repairEntryData.tokenSource.nextToken();
 			}
 			return new Region(regionOffset, regionLength);
 		} catch(Exception exc) {
 			logger.error("Error computing damaged region", exc);
-			internalModifyableTokenInfos = createTokenInfos(e.fDocument.get());
+			newTokens = null;
+			setTokens(createTokens(e.fDocument.get()));
 			return new Region(0, e.fDocument.getLength());
 		} finally {
-			setTokens(internalModifyableTokenInfos);
+			if (newTokens != null)
+				setTokens(oldTokens.replace(replaceFrom, replaceTo, newTokens.types, newTokens.lengths, newTokens.size));
 		}
 	}
 
@@ -328,14 +535,13 @@ public class DocumentTokenSource {
 	 * @since 2.4
 	 */
 	protected RepairEntryData getRepairEntryData(DocumentEvent e) throws Exception {
-		int tokenStartsAt = 0;
-		int tokenInfoIdx = 0;
-		for(tokenInfoIdx = 0; tokenInfoIdx< getInternalModifyableTokenInfos().size(); ++tokenInfoIdx) {
-			TokenInfo oldToken = getInternalModifyableTokenInfos().get(tokenInfoIdx);
-			if(tokenStartsAt <= e.getOffset() && tokenStartsAt + oldToken.getLength() >= e.getOffset())
-				break;
-			tokenStartsAt += oldToken.getLength();
-		}
+		LexerTokenSnapshot tokens = getTokenSnapshot();
+		// the first token that contains the offset or ends at the offset
+		int tokenInfoIdx = tokens.findTokenIndex(e.getOffset());
+		if (tokenInfoIdx > 0
+				&& tokens.getTokenOffset(tokenInfoIdx - 1) + tokens.getTokenLength(tokenInfoIdx - 1) >= e.getOffset())
+			tokenInfoIdx--;
+		int tokenStartsAt = tokenInfoIdx < tokens.size() ? tokens.getTokenOffset(tokenInfoIdx) : tokens.getLength();
 		final TokenSource delegate = createTokenSource(e.fDocument.get(tokenStartsAt, e.fDocument.getLength() - tokenStartsAt));
 		final int offset = tokenStartsAt;
 		TokenSource source = new TokenSource() {
@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.model;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * An immutable sequence of the lexer tokens of a document. The types and lengths of the tokens are packed into chunks
+ * of <code>int</code> arrays together with the offsets of the tokens, so the token at a given offset is found with a
+ * binary search.
+ *
+ * {@link #replace(int, int, int[], int[], int) Replacing} a range of tokens creates a new snapshot that shares all
+ * chunks outside of the replaced range with this one. Therefore a modification copies only a few chunks, and readers
+ * may keep using a snapshot while the document is modified.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class LexerTokenSnapshot implements Iterable<ILexerTokenRegion> {
+
+	/**
+	 * The maximum number of tokens per chunk.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	public static final LexerTokenSnapshot EMPTY = new LexerTokenSnapshot(new Chunk[0]);
+
+	private static class Chunk {
+
+		private final int[] types;
+
+		private final int[] lengths;
+
+		/**
+		 * The offsets of the tokens relative to the start of the chunk.
+		 */
+		private final int[] offsets;
+
+		private final int length;
+
+		private Chunk(int[] types, int[] lengths, int from, int to) {
+			int size = to - from;
+			this.types = new int[size];
+			this.lengths = new int[size];
+			this.offsets = new int[size];
+			System.arraycopy(types, from, this.types, 0, size);
+			System.arraycopy(lengths, from, this.lengths, 0, size);
+			int offset = 0;
+			for (int i = 0; i < size; i++) {
+				this.offsets[i] = offset;
+				offset += this.lengths[i];
+			}
+			this.length = offset;
+		}
+
+		private int size() {
+			return types.length;
+		}
+
+	}
+
+	private static class TokenRegion implements ILexerTokenRegion {
+
+		private final int offset;
+
+		private final int length;
+
+		private final int type;
+
+		private TokenRegion(int offset, int length, int type) {
+			this.offset = offset;
+			this.length = length;
+			this.type = type;
+		}
+
+		public int getOffset() {
+			return offset;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public int getLexerTokenType() {
+			return type;
+		}
+
+		@Override
+		public String toString() {
+			return "TokenRegion [offset=" + offset + ", length=" + length + ", type=" + type + "]";
+		}
+
+	}
+
+	/**
+	 * Returns an iterator over the given tokens that skips the tokens before the given offset cheaply if the tokens are
+	 * a {@link LexerTokenSnapshot snapshot}. It may still return some tokens that end before the offset, so clients
+	 * have to filter the tokens anyway.
+	 */
+	public static Iterator<ILexerTokenRegion> iterator(Iterable<ILexerTokenRegion> tokens, int offset) {
+		if (tokens instanceof LexerTokenSnapshot) {
+			LexerTokenSnapshot snapshot = (LexerTokenSnapshot) tokens;
+			int index = snapshot.findTokenIndex(Math.max(0, offset));
+			// the previous token may end at the offset
+			return snapshot.iterator(Math.max(0, index - 1));
+		}
+		return tokens.iterator();
+	}
+
+	/**
+	 * @param types
+	 *            the token types.
+	 * @param lengths
+	 *            the token lengths.
+	 * @param size
+	 *            the number of tokens in the given arrays.
+	 */
+	public static LexerTokenSnapshot create(int[] types, int[] lengths, int size) {
+		return EMPTY.replace(0, 0, types, lengths, size);
+	}
+
+	private final Chunk[] chunks;
+
+	/**
+	 * The index of the first token of each chunk.
+	 */
+	private final int[] chunkIndices;
+
+	/**
+	 * The document offset of the first token of each chunk.
+	 */
+	private final int[] chunkOffsets;
+
+	private final int size;
+
+	private final int length;
+
+	private LexerTokenSnapshot(Chunk[] chunks) {
+		this.chunks = chunks;
+		this.chunkIndices = new int[chunks.length];
+		this.chunkOffsets = new int[chunks.length];
+		int index = 0;
+		int offset = 0;
+		for (int i = 0; i < chunks.length; i++) {
+			chunkIndices[i] = index;
+			chunkOffsets[i] = offset;
+			index += chunks[i].size();
+			offset += chunks[i].length;
+		}
+		this.size = index;
+		this.length = offset;
+	}
+
+	/**
+	 * @return the number of tokens.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the sum of the lengths of all tokens.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	public int getTokenType(int index) {
+		int chunk = getChunk(index);
+		return chunks[chunk].types[index - chunkIndices[chunk]];
+	}
+
+	public int getTokenLength(int index) {
+		int chunk = getChunk(index);
+		return chunks[chunk].lengths[index - chunkIndices[chunk]];
+	}
+
+	public int getTokenOffset(int index) {
+		int chunk = getChunk(index);
+		return chunkOffsets[chunk] + chunks[chunk].offsets[index - chunkIndices[chunk]];
+	}
+
+	public ILexerTokenRegion getToken(int index) {
+		int chunk = getChunk(index);
+		Chunk c = chunks[chunk];
+		int i = index - chunkIndices[chunk];
+		return new TokenRegion(chunkOffsets[chunk] + c.offsets[i], c.lengths[i], c.types[i]);
+	}
+
+	/**
+	 * @return the index of the token that contains the given offset or {@link #size()} if the offset is not smaller
+	 *         than the {@link #getLength() length} of all tokens.
+	 */
+	public int findTokenIndex(int offset) {
+		if (offset < 0)
+			throw new IndexOutOfBoundsException("offset: " + offset);
+		if (offset >= length)
+			return size;
+		int chunk = findLast(chunkOffsets, chunkOffsets.length, offset);
+		return chunkIndices[chunk] + findLast(chunks[chunk].offsets, chunks[chunk].size(), offset - chunkOffsets[chunk]);
+	}
+
+	public Iterator<ILexerTokenRegion> iterator() {
+		return iterator(0);
+	}
+
+	/**
+	 * @return an iterator over the tokens that starts with the token at the given index.
+	 */
+	public Iterator<ILexerTokenRegion> iterator(final int fromIndex) {
+		if (fromIndex < 0 || fromIndex > size)
+			throw new IndexOutOfBoundsException("index: " + fromIndex + ", size: " + size);
+		return new UnmodifiableIterator<ILexerTokenRegion>() {
+
+			private int chunk = fromIndex == size ? chunks.length : getChunk(fromIndex);
+
+			private int index = chunk == chunks.length ? 0 : fromIndex - chunkIndices[chunk];
+
+			public boolean hasNext() {
+				return chunk < chunks.length;
+			}
+
+			public ILexerTokenRegion next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Chunk c = chunks[chunk];
+				ILexerTokenRegion result = new TokenRegion(chunkOffsets[chunk] + c.offsets[index], c.lengths[index],
+						c.types[index]);
+				if (++index == c.size()) {
+					chunk++;
+					index = 0;
+				}
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Replaces the tokens from <code>fromIndex</code> (inclusive) to <code>toIndex</code> (exclusive) with the given
+	 * tokens. This snapshot is not modified.
+	 *
+	 * @return the new snapshot.
+	 */
+	public LexerTokenSnapshot replace(int fromIndex, int toIndex, int[] types, int[] lengths, int count) {
+		if (fromIndex < 0 || toIndex < fromIndex || toIndex > size)
+			throw new IndexOutOfBoundsException("from: " + fromIndex + ", to: " + toIndex + ", size: " + size);
+		if (chunks.length == 0)
+			return new LexerTokenSnapshot(createChunks(types, lengths, count));
+		// the chunks that contain the replaced range are rebuilt together with the new tokens
+		int firstChunk = fromIndex == size ? chunks.length - 1 : getChunk(fromIndex);
+		int endChunk = toIndex == fromIndex ? firstChunk + 1 : getChunk(toIndex - 1) + 1;
+		int newCount = getEndIndex(endChunk) - chunkIndices[firstChunk] - (toIndex - fromIndex) + count;
+		// merge small chunks with their neighbors
+		if (newCount < CHUNK_SIZE / 2) {
+			if (endChunk < chunks.length) {
+				newCount += chunks[endChunk].size();
+				endChunk++;
+			} else if (firstChunk > 0) {
+				firstChunk--;
+				newCount += chunks[firstChunk].size();
+			}
+		}
+		int[] newTypes = new int[newCount];
+		int[] newLengths = new int[newCount];
+		int p = 0;
+		boolean inserted = false;
+		for (int chunk = firstChunk; chunk < endChunk; chunk++) {
+			Chunk c = chunks[chunk];
+			for (int i = 0; i < c.size(); i++) {
+				int index = chunkIndices[chunk] + i;
+				if (index == fromIndex) {
+					System.arraycopy(types, 0, newTypes, p, count);
+					System.arraycopy(lengths, 0, newLengths, p, count);
+					p += count;
+					inserted = true;
+				}
+				if (index < fromIndex || index >= toIndex) {
+					newTypes[p] = c.types[i];
+					newLengths[p] = c.lengths[i];
+					p++;
+				}
+			}
+		}
+		if (!inserted) {
+			System.arraycopy(types, 0, newTypes, p, count);
+			System.arraycopy(lengths, 0, newLengths, p, count);
+		}
+		Chunk[] rebuilt = createChunks(newTypes, newLengths, newCount);
+		Chunk[] result = new Chunk[firstChunk + rebuilt.length + chunks.length - endChunk];
+		System.arraycopy(chunks, 0, result, 0, firstChunk);
+		System.arraycopy(rebuilt, 0, result, firstChunk, rebuilt.length);
+		System.arraycopy(chunks, endChunk, result, firstChunk + rebuilt.length, chunks.length - endChunk);
+		return new LexerTokenSnapshot(result);
+	}
+
+	@Override
+	public String toString() {
+		return "LexerTokenSnapshot [size=" + size + ", length=" + length + ", chunks=" + chunks.length + "]";
+	}
+
+	private Chunk[] createChunks(int[] types, int[] lengths, int count) {
+		int chunkCount = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		Chunk[] result = new Chunk[chunkCount];
+		for (int i = 0; i < chunkCount; i++) {
+			// distribute the tokens evenly
+			int from = (int) ((long) count * i / chunkCount);
+			int to = (int) ((long) count * (i + 1) / chunkCount);
+			result[i] = new Chunk(types, lengths, from, to);
+		}
+		return result;
+	}
+
+	private int getEndIndex(int endChunk) {
+		return endChunk == chunks.length ? size : chunkIndices[endChunk];
+	}
+
+	private int getChunk(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		return findLast(chunkIndices, chunkIndices.length, index);
+	}
+
+	/**
+	 * @return the index of the last element in the sorted array that is not greater than the key. The first element
+	 *         must not be greater than the key.
+	 */
+	private static int findLast(int[] array, int size, int key) {
+		int low = 0;
+		int high = size - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (array[mid] <= key)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
+
+}
@@ -40,7 +40,7 @@ public class PartitionTokenScanner implements IPartitionTokenScanner {
 
 		protected RangedIterator(Iterable<ILexerTokenRegion> base, IRegion overlapRegion) {
 			this.overlapRegion = overlapRegion;
-			this.delegate = base.iterator();
+			this.delegate = LexerTokenSnapshot.iterator(base, overlapRegion.getOffset());
 		}
 		
 		@Override
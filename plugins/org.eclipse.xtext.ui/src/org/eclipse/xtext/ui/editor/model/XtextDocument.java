@@ -36,6 +36,7 @@ import org.eclipse.xtext.ui.editor.DirtyStateEditorSupport;
 import org.eclipse.xtext.ui.editor.model.IXtextDocumentContentObserver.Processor;
 import org.eclipse.xtext.ui.editor.model.edit.ITextEditComposer;
 import org.eclipse.xtext.ui.editor.model.edit.ReconcilingUnitOfWork;
+import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.concurrent.AbstractReadWriteAcces;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 
@@ -62,6 +63,7 @@ public class XtextDocument extends Document implements IXtextDocument {
 	}
 
 	private XtextResource resource = null;
+	private ReplaceRegion reconciledRegion = null;
 	private final List<IXtextModelListener> modelListeners = new ArrayList<IXtextModelListener>();
 	private final ListenerList xtextDocumentObservers = new ListenerList(ListenerList.IDENTITY);
 
@@ -115,6 +117,29 @@ public class XtextDocument extends Document implements IXtextDocument {
 		// }
 	}
 
+	/**
+	 * Returns the region of the resource that was updated by the reconciler while the {@link IXtextModelListener model
+	 * listeners} are notified about the reconciliation. Listeners may use it to update their state incrementally.
+	 * 
+	 * @return the replaced region in the previous content of the resource or <code>null</code> if the resource was
+	 *         modified in another way.
+	 * @since 2.5
+	 */
+	public ReplaceRegion getReconciledRegion() {
+		return reconciledRegion;
+	}
+
+	/**
+	 * Called by the reconciler within its modification of the resource. The region is reset after the model listeners
+	 * have been notified.
+	 * 
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 2.5
+	 */
+	public void setReconciledRegion(ReplaceRegion reconciledRegion) {
+		this.reconciledRegion = reconciledRegion;
+	}
+
 	public void addModelListener(IXtextModelListener listener) {
 		Assert.isNotNull(listener);
 		synchronized (modelListeners) {
@@ -227,6 +252,7 @@ public class XtextDocument extends Document implements IXtextDocument {
 				}
 				throw e;
 			} finally {
+				reconciledRegion = null;
 				if(!(work instanceof ReconcilingUnitOfWork))
 					checkAndUpdateAnnotations();
 			}
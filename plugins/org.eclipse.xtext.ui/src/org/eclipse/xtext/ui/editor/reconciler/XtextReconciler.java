@@ -288,10 +288,11 @@ public class XtextReconciler extends Job implements IReconciler {
 		long start = System.currentTimeMillis();
 		final IXtextDocument document = XtextDocumentUtil.get(textViewer);
 		if (document instanceof XtextDocument) {
-			((XtextDocument) document).internalModify(new IUnitOfWork.Void<XtextResource>() {
+			final XtextDocument xtextDocument = (XtextDocument) document;
+			xtextDocument.internalModify(new IUnitOfWork.Void<XtextResource>() {
 				@Override
 				public void process(XtextResource state) throws Exception {
-					doRun(state, monitor);
+					doRun(xtextDocument, state, monitor);
 				}
 			});
 		}
@@ -347,7 +348,7 @@ public class XtextReconciler extends Job implements IReconciler {
 	 * 
 	 * @since 2.4
 	 */
-	private void doRun(XtextResource state, @Nullable final IProgressMonitor monitor) {
+	private void doRun(XtextDocument document, XtextResource state, @Nullable final IProgressMonitor monitor) {
 		if (log.isDebugEnabled()) {
 			log.debug("Preparing reconciliation."); //$NON-NLS-1$
 		}
@@ -361,6 +362,9 @@ public class XtextReconciler extends Job implements IReconciler {
 				((XtextDocumentReconcileStrategy) strategy).setResource(state);
 			}
 			strategy.reconcile(replaceRegionToBeProcessed);
+			// the model listeners are notified when the modification of the document is finished
+			document.setReconciledRegion(new org.eclipse.xtext.util.ReplaceRegion(replaceRegionToBeProcessed.getOffset(),
+					replaceRegionToBeProcessed.getLength(), replaceRegionToBeProcessed.getText()));
 			if (log.isDebugEnabled()) { 
 				debugger.assertModelInSyncWithDocument(replaceRegionToBeProcessed.getDocumentEvents().get(0).getDocument(), 
 						state, replaceRegionToBeProcessed);
@@ -285,6 +285,39 @@ public class HighlightingPresenter implements ITextPresentationListener, ITextIn
 		}
 	}
 
+	/**
+	 * Adds all current positions that overlap with the given range to the given list.
+	 * <p>
+	 * NOTE: Called from background thread.
+	 * </p>
+	 *
+	 * @param list
+	 *            The list
+	 * @param offset
+	 *            The range offset
+	 * @param length
+	 *            The range length
+	 * @since 2.5
+	 */
+	public void addAllPositions(List<AttributedPosition> list, int offset, int length) {
+		synchronized (fPositionLock) {
+			int endOffset = offset + length;
+			int index = computeIndexAtOffset(fPositions, offset);
+			// the preceding position may enclose the offset
+			if (index > 0) {
+				AttributedPosition previous = fPositions.get(index - 1);
+				if (previous.getOffset() + previous.getLength() > offset)
+					index--;
+			}
+			for (int i = index, n = fPositions.size(); i < n; i++) {
+				AttributedPosition position = fPositions.get(i);
+				if (position.getOffset() >= endOffset)
+					break;
+				list.add(position);
+			}
+		}
+	}
+
 	/**
 	 * Create a text presentation in the background.
 	 * <p>
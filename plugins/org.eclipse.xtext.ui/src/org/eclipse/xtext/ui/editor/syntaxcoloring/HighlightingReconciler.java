@@ -8,12 +8,15 @@
 package org.eclipse.xtext.ui.editor.syntaxcoloring;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.ITextInputListener;
 import org.eclipse.jface.text.TextAttribute;
@@ -21,6 +24,10 @@ import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.IWorkbenchPartSite;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.ui.editor.XtextEditor;
 import org.eclipse.xtext.ui.editor.XtextSourceViewer;
@@ -28,6 +35,8 @@ import org.eclipse.xtext.ui.editor.model.IXtextDocument;
 import org.eclipse.xtext.ui.editor.model.IXtextModelListener;
 import org.eclipse.xtext.ui.editor.model.XtextDocument;
 import org.eclipse.xtext.ui.editor.reconciler.XtextReconcilerDebugger;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 
 import com.google.inject.Inject;
@@ -71,6 +80,11 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	 * @since 3.2
 	 */
 	private boolean reconciling = false;
+	/**
+	 * <code>true</code> if the next reconcile has to compute the highlighting of the whole resource, e.g. because a
+	 * change was skipped. Guarded by the reconcile lock.
+	 */
+	private boolean requiresFullReconcile = true;
 
 	/**
 	 * Start reconciling positions.
@@ -92,6 +106,81 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 		MergingHighlightedPositionAcceptor acceptor = new MergingHighlightedPositionAcceptor(calculator);
 		acceptor.provideHighlightingFor(resource, this);
 //		calculator.provideHighlightingFor(resource, this);
+		compactRemovedPositions();
+	}
+	
+	/**
+	 * Reconcile the positions of the region that the {@link IIncrementalSemanticHighlightingCalculator calculator}
+	 * covers after the reconciler replaced a region of the resource.
+	 * 
+	 * @return <code>true</code> if the positions were reconciled, <code>false</code> if the highlighting of the whole
+	 *         resource has to be computed.
+	 */
+	private boolean reconcilePositionsIncrementally(XtextResource resource, HighlightingPresenter highlightingPresenter) {
+		XtextSourceViewer viewer = sourceViewer;
+		if (!(calculator instanceof IIncrementalSemanticHighlightingCalculator) || viewer == null
+				|| !(viewer.getDocument() instanceof XtextDocument))
+			return false;
+		ReplaceRegion region = ((XtextDocument) viewer.getDocument()).getReconciledRegion();
+		if (region == null)
+			return false;
+		Collection<EObject> reparsedElements = getReparsedElements(resource, region);
+		if (reparsedElements == null)
+			return false;
+		MergingHighlightedPositionAcceptor acceptor = new MergingHighlightedPositionAcceptor(calculator);
+		final List<LightweightPosition> positions = new ArrayList<LightweightPosition>();
+		ITextRegion highlightedRegion = acceptor.provideHighlightingFor(resource, region, reparsedElements,
+				new IHighlightedPositionAcceptor() {
+					public void addPosition(int offset, int length, String... id) {
+						positions.add(new LightweightPosition(offset, length, 0, id));
+					}
+				});
+		if (highlightedRegion == null)
+			return false;
+		highlightingPresenter.addAllPositions(removedPositions, highlightedRegion.getOffset(),
+				highlightedRegion.getLength());
+		removedPositionCount = removedPositions.size();
+		for (LightweightPosition position : positions) {
+			addPosition(position.getOffset(), position.getLength(), position.getIds());
+		}
+		compactRemovedPositions();
+		return true;
+	}
+
+	/**
+	 * Returns the semantic elements that have to be highlighted again after the reconciler replaced the given region.
+	 * These are the innermost elements whose nodes enclose the new text and the adjacent characters, since the
+	 * adjacent tokens may have been merged with the new text.
+	 * 
+	 * @return the elements or <code>null</code> if the whole resource has to be highlighted.
+	 * @since 2.5
+	 */
+	protected Collection<EObject> getReparsedElements(XtextResource resource, ReplaceRegion region) {
+		IParseResult parseResult = resource.getParseResult();
+		// syntax errors may change the structure of the whole resource
+		if (parseResult == null || parseResult.hasSyntaxErrors())
+			return null;
+		ICompositeNode rootNode = parseResult.getRootNode();
+		int offset = Math.max(0, region.getOffset() - 1);
+		int endOffset = Math.min(rootNode.getTotalEndOffset(), region.getOffset() + region.getText().length() + 1);
+		ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(rootNode, offset);
+		if (leaf == null)
+			return null;
+		ICompositeNode node = leaf.getParent();
+		while (node != null && node != rootNode) {
+			if (node.getTotalOffset() <= offset && node.getTotalEndOffset() >= endOffset
+					&& node.hasDirectSemanticElement()) {
+				EObject element = node.getSemanticElement();
+				if (element == null || element == parseResult.getRootASTElement())
+					return null;
+				return Collections.singletonList(element);
+			}
+			node = node.getParent();
+		}
+		return null;
+	}
+
+	private void compactRemovedPositions() {
 		List<AttributedPosition> oldPositions = removedPositions;
 		List<AttributedPosition> newPositions = new ArrayList<AttributedPosition>(removedPositionCount);
 		for (int i = 0, n = oldPositions.size(); i < n; i++) {
@@ -251,6 +340,9 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	 */
 	public void refresh() {
 		if (calculator != null) {
+			synchronized (fReconcileLock) {
+				requiresFullReconcile = true;
+			}
 			new Job("calculating highlighting") {
 				@Override
 				protected IStatus run(IProgressMonitor monitor) {
@@ -271,12 +363,19 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	}
 
 	public void modelChanged(XtextResource resource) {
+		boolean fullReconcile;
 		// ensure at most one thread can be reconciling at any time
 		synchronized (fReconcileLock) {
-			if (reconciling)
+			if (reconciling) {
+				// the skipped change cannot be highlighted incrementally later on
+				requiresFullReconcile = true;
 				return;
+			}
 			reconciling = true;
+			fullReconcile = requiresFullReconcile;
+			requiresFullReconcile = false;
 		}
+		boolean completed = false;
 		final HighlightingPresenter highlightingPresenter = presenter;
 		try {
 			if (highlightingPresenter == null)
@@ -287,10 +386,12 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 			if (highlightingPresenter.isCanceled())
 				return;
 
-			startReconcilingPositions();
+			if (fullReconcile || !reconcilePositionsIncrementally(resource, highlightingPresenter)) {
+				startReconcilingPositions();
 
-			if (!highlightingPresenter.isCanceled()) {
-				reconcilePositions(resource);
+				if (!highlightingPresenter.isCanceled()) {
+					reconcilePositions(resource);
+				}
 			}
 
 			final TextPresentation[] textPresentation = new TextPresentation[1];
@@ -298,14 +399,18 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 				textPresentation[0] = highlightingPresenter.createPresentation(addedPositions, removedPositions);
 			}
 
-			if (!highlightingPresenter.isCanceled())
+			if (!highlightingPresenter.isCanceled()) {
 				updatePresentation(textPresentation[0], addedPositions, removedPositions);
+				completed = true;
+			}
 
 			stopReconcilingPositions();
 		}
 		finally {
 			synchronized (fReconcileLock) {
 				reconciling = false;
+				if (!completed)
+					requiresFullReconcile = true;
 			}
 		}
 	}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.syntaxcoloring;
+
+import java.util.Collection;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A semantic highlighting calculator that can update the highlighting after the reconciler replaced a region of the
+ * resource without computing the highlighting of the whole resource.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public interface IIncrementalSemanticHighlightingCalculator extends ISemanticHighlightingCalculator {
+
+	/**
+	 * Announces the highlighted positions of the changed part of the resource. The calculator decides which region it
+	 * covers. All positions within the returned region that are not announced again are removed, all positions outside
+	 * of it are kept. Announced positions that are not contained in the region are ignored.
+	 *
+	 * @param resource
+	 *            the resource that will be highlighted. Is never <code>null</code>.
+	 * @param region
+	 *            the region of the previous content that was replaced by the reconciler. The new text starts at the
+	 *            same offset.
+	 * @param reparsedElements
+	 *            the innermost semantic elements whose nodes enclose the new text.
+	 * @param acceptor
+	 *            used to announce the mapping from text-range to the style's id.
+	 * @return the region of the current content whose highlighting was announced completely or <code>null</code> if
+	 *         the highlighting of the whole resource has to be computed.
+	 */
+	ITextRegion provideHighlightingFor(XtextResource resource, ReplaceRegion region,
+			Collection<EObject> reparsedElements, IHighlightedPositionAcceptor acceptor);
+
+}
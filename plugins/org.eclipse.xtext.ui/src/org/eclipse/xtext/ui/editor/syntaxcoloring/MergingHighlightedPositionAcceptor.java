@@ -8,11 +8,15 @@
 package org.eclipse.xtext.ui.editor.syntaxcoloring;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.ui.editor.syntaxcoloring.LightweightPosition.IntToStringArray;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
 
 import com.google.common.collect.Lists;
 
@@ -22,7 +26,7 @@ import com.google.common.collect.Lists;
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  */
-public class MergingHighlightedPositionAcceptor implements IHighlightedPositionAcceptor, ISemanticHighlightingCalculator {
+public class MergingHighlightedPositionAcceptor implements IHighlightedPositionAcceptor, IIncrementalSemanticHighlightingCalculator {
 
 	private final ISemanticHighlightingCalculator delegate;
 	private final List<LightweightPosition> positions;
@@ -54,6 +58,33 @@ public class MergingHighlightedPositionAcceptor implements IHighlightedPositionA
 			acceptor.addPosition(pos.getOffset(), pos.getLength(), pos.getIds());
 	}
 
+	/**
+	 * Announces the merged positions of the region that the delegate highlights incrementally. Nothing is announced if
+	 * the delegate is not an {@link IIncrementalSemanticHighlightingCalculator} or cannot highlight the change
+	 * incrementally.
+	 * 
+	 * @since 2.5
+	 */
+	public ITextRegion provideHighlightingFor(XtextResource resource, ReplaceRegion region,
+			Collection<EObject> reparsedElements, IHighlightedPositionAcceptor acceptor) {
+		if (!(delegate instanceof IIncrementalSemanticHighlightingCalculator))
+			return null;
+		initialize();
+		ITextRegion result = ((IIncrementalSemanticHighlightingCalculator) delegate).provideHighlightingFor(resource,
+				region, reparsedElements, this);
+		if (result == null) {
+			initialize();
+			return null;
+		}
+		mergePositions();
+		int endOffset = result.getOffset() + result.getLength();
+		for (LightweightPosition pos : getPositions()) {
+			if (pos.getOffset() >= result.getOffset() && pos.getOffset() + pos.getLength() <= endOffset)
+				acceptor.addPosition(pos.getOffset(), pos.getLength(), pos.getIds());
+		}
+		return result;
+	}
+
 	private void initialize() {
 		if (!positions.isEmpty())
 			positions.clear();
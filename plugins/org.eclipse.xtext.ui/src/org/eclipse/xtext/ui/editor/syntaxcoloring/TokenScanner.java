@@ -15,6 +15,7 @@ import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
 import org.eclipse.xtext.ui.editor.model.ILexerTokenRegion;
+import org.eclipse.xtext.ui.editor.model.LexerTokenSnapshot;
 import org.eclipse.xtext.ui.editor.model.Regions;
 import org.eclipse.xtext.ui.editor.model.XtextDocument;
 
@@ -98,7 +99,7 @@ public class TokenScanner extends AbstractTokenScanner {
 				}
 			}
 			if (current == null) {
-				delegate = newIterable.iterator();
+				delegate = LexerTokenSnapshot.iterator(newIterable, offset);
 				delegateIterable = newIterable;
 				computedHasNext = false;
 				hasNext = false;
@@ -111,7 +112,7 @@ public class TokenScanner extends AbstractTokenScanner {
 					// restart - use a new delegate
 					computedHasNext = false;
 					hasNext = false;
-					delegate = newIterable.iterator();
+					delegate = LexerTokenSnapshot.iterator(newIterable, offset);
 					delegateIterable = newIterable;
 				}
 			}
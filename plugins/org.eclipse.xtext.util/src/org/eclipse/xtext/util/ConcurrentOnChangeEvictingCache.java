@@ -0,0 +1,457 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * A variant of the {@link OnChangeEvictingCache} that can be used by multiple threads at once. It guarantees that a
+ * value is computed only once per key: threads that ask for a value that is being computed wait for the result instead
+ * of computing it again, also if they are computing other values themselves. Only if waiting would close a cycle, e.g.
+ * because a computation needs its own value, the value is computed again without caching it, just like the
+ * {@link OnChangeEvictingCache} would do. Values that were computed while the resource changed are not stored, threads
+ * that wait for them compute them again.
+ * <p>
+ * Optionally, the number of values per resource is bounded. If the bound is exceeded, the least recently used values
+ * are evicted. Keys that implement {@link SelectivelyEvicted} are only evicted by the semantic changes they depend on.
+ * Per-key statistics about hits, misses and evictions can be recorded and queried with
+ * {@link #getStatistics(Resource)}.
+ * <p>
+ * Use it by binding {@link OnChangeEvictingCache} and {@link IResourceScopeCache} to this class or to an instance of
+ * it.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+@Singleton
+public class ConcurrentOnChangeEvictingCache extends OnChangeEvictingCache {
+
+	/**
+	 * A cache key that is not evicted by every semantic change of the resource.
+	 */
+	public interface SelectivelyEvicted {
+		/**
+		 * @return <code>true</code> if the cached value depends on the state that was changed.
+		 */
+		boolean isEvictedBy(Notification notification);
+	}
+
+	/**
+	 * The computations that threads are waiting for, over all instances. Used to detect cycles.
+	 */
+	private static final ConcurrentMap<Thread, Computation> WAITING_THREADS = new ConcurrentHashMap<Thread, Computation>();
+
+	private final int maximumSizePerResource;
+
+	private final boolean recordStatistics;
+
+	public ConcurrentOnChangeEvictingCache() {
+		this(0, false);
+	}
+
+	/**
+	 * @param maximumSizePerResource
+	 *            the maximum number of values per resource. Zero or a negative value leaves the size unbounded.
+	 * @param recordStatistics
+	 *            whether statistics are recorded per key. The statistics keep the keys alive even after their values
+	 *            were evicted.
+	 */
+	public ConcurrentOnChangeEvictingCache(int maximumSizePerResource, boolean recordStatistics) {
+		this.maximumSizePerResource = maximumSizePerResource;
+		this.recordStatistics = recordStatistics;
+	}
+
+	@Override
+	protected CacheAdapter createCacheAdapter() {
+		return new ConcurrentCacheAdapter(maximumSizePerResource, recordStatistics);
+	}
+
+	@Override
+	public <T> T get(Object key, Resource resource, Provider<T> provider) {
+		if (resource == null) {
+			return provider.get();
+		}
+		CacheAdapter adapter = getOrCreate(resource);
+		if (!(adapter instanceof ConcurrentCacheAdapter)) {
+			// the resource got its adapter from a different cache
+			return super.get(key, resource, provider);
+		}
+		ConcurrentCacheAdapter concurrentAdapter = (ConcurrentCacheAdapter) adapter;
+		while (true) {
+			Object value = concurrentAdapter.internalGet(key);
+			if (value != null) {
+				concurrentAdapter.recordAccess(key);
+				return hit(key, concurrentAdapter, value);
+			}
+			Computation computation = new Computation();
+			Computation running = concurrentAdapter.computations.putIfAbsent(key, computation);
+			if (running == null) {
+				value = concurrentAdapter.internalGet(key);
+				if (value == null) {
+					return compute(key, concurrentAdapter, computation, provider);
+				}
+				// another thread stored the value in the meantime
+				concurrentAdapter.computations.remove(key, computation);
+				computation.done(value);
+				return hit(key, concurrentAdapter, value);
+			}
+			value = running.await();
+			if (value == Computation.CYCLE) {
+				cacheMiss(concurrentAdapter);
+				concurrentAdapter.recordMiss(key);
+				return provider.get();
+			}
+			if (value != null) {
+				return hit(key, concurrentAdapter, value);
+			}
+			// the computation failed or its value was outdated, try again
+		}
+	}
+
+	private <T> T hit(Object key, ConcurrentCacheAdapter adapter, Object value) {
+		cacheHit(adapter);
+		adapter.recordHit(key);
+		return unmask(value);
+	}
+
+	protected <T> T compute(Object key, ConcurrentCacheAdapter adapter, Computation computation, Provider<T> provider) {
+		try {
+			int generation = adapter.generation.get();
+			cacheMiss(adapter);
+			adapter.recordMiss(key);
+			T result = provider.get();
+			// values that were computed while the resource changed are neither stored nor passed to waiting threads
+			if (adapter.setIfCurrent(key, result, generation)) {
+				computation.done(result != null ? result : CacheAdapter.NULL);
+			}
+			return result;
+		} finally {
+			adapter.computations.remove(key, computation);
+			computation.done(null);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T unmask(Object value) {
+		if (value == CacheAdapter.NULL) {
+			return null;
+		}
+		return (T) value;
+	}
+
+	/**
+	 * @return the statistics of the keys of the given resource. Empty if statistics are not recorded.
+	 */
+	public Map<Object, KeyStatistics> getStatistics(Resource resource) {
+		CacheAdapter adapter = getOrCreate(resource);
+		if (adapter instanceof ConcurrentCacheAdapter) {
+			return ((ConcurrentCacheAdapter) adapter).getStatistics();
+		}
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * A value that is being computed by a thread.
+	 */
+	protected static class Computation {
+
+		/**
+		 * The result of {@link #await()} if waiting would close a cycle.
+		 */
+		protected static final Object CYCLE = new Object();
+
+		private final Thread owner = Thread.currentThread();
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private volatile Object result;
+
+		/**
+		 * Publishes the result. Only the first invocation has an effect, <code>null</code> indicates a failure.
+		 */
+		protected void done(Object result) {
+			if (latch.getCount() != 0) {
+				this.result = result;
+				latch.countDown();
+			}
+		}
+
+		/**
+		 * @return the result, <code>null</code> if the computation failed or its result is outdated, or {@link #CYCLE}
+		 *         if the owner of this computation waits for the current thread.
+		 */
+		protected Object await() {
+			if (latch.getCount() == 0)
+				return result;
+			Thread current = Thread.currentThread();
+			// the waiting thread is registered before the cycle check, so at least one thread of a cycle detects it
+			WAITING_THREADS.put(current, this);
+			boolean interrupted = false;
+			try {
+				if (isWaitingFor(current))
+					return CYCLE;
+				while (true) {
+					try {
+						latch.await();
+						return result;
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				WAITING_THREADS.remove(current);
+				if (interrupted)
+					current.interrupt();
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if the owner of this computation waits for the given thread, directly or
+		 *         through other threads.
+		 */
+		private boolean isWaitingFor(Thread thread) {
+			Set<Thread> visited = Sets.newHashSet();
+			Computation computation = this;
+			while (computation != null && computation.latch.getCount() != 0) {
+				if (computation.owner == thread)
+					return true;
+				// cycles of other threads are detected by their members
+				if (!visited.add(computation.owner))
+					return false;
+				computation = WAITING_THREADS.get(computation.owner);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Counts the hits, misses and evictions of a single key.
+	 */
+	public static class KeyStatistics {
+
+		private final AtomicInteger hits = new AtomicInteger();
+
+		private final AtomicInteger misses = new AtomicInteger();
+
+		private final AtomicInteger evictions = new AtomicInteger();
+
+		public int getHitCount() {
+			return hits.get();
+		}
+
+		public int getMissCount() {
+			return misses.get();
+		}
+
+		public int getEvictionCount() {
+			return evictions.get();
+		}
+
+		@Override
+		public String toString() {
+			return "hits: " + hits + ", misses: " + misses + ", evictions: " + evictions;
+		}
+	}
+
+	/**
+	 * The cache adapter that keeps track of running computations, the recency of the values and the statistics.
+	 */
+	public static class ConcurrentCacheAdapter extends CacheAdapter {
+
+		private final ConcurrentMap<Object, Computation> computations = new ConcurrentHashMap<Object, Computation>();
+
+		/**
+		 * Changed whenever values are evicted due to a semantic change. Guarded by {@link #generationLock} for writing.
+		 */
+		private final AtomicInteger generation = new AtomicInteger();
+
+		private final Object generationLock = new Object();
+
+		private final int maximumSize;
+
+		private final ConcurrentMap<Object, Long> accessTimes;
+
+		private final AtomicLong clock = new AtomicLong();
+
+		private final ReentrantLock evictionLock = new ReentrantLock();
+
+		private final ConcurrentMap<Object, KeyStatistics> statistics;
+
+		public ConcurrentCacheAdapter(int maximumSize, boolean recordStatistics) {
+			this.maximumSize = maximumSize;
+			this.accessTimes = maximumSize > 0 ? new ConcurrentHashMap<Object, Long>() : null;
+			this.statistics = recordStatistics ? new ConcurrentHashMap<Object, KeyStatistics>() : null;
+		}
+
+		@Override
+		public void set(Object name, Object value) {
+			super.set(name, value);
+			if (accessTimes != null) {
+				recordAccess(name);
+				if (getKeys().size() > maximumSize) {
+					evictLeastRecentlyUsed();
+				}
+			}
+		}
+
+		@Override
+		public void evict(Object name) {
+			boolean present = internalGet(name) != null;
+			super.evict(name);
+			if (accessTimes != null) {
+				accessTimes.remove(name);
+			}
+			if (present) {
+				KeyStatistics keyStatistics = getKeyStatistics(name);
+				if (keyStatistics != null) {
+					keyStatistics.evictions.incrementAndGet();
+				}
+			}
+		}
+
+		/**
+		 * Stores the value unless values were evicted since the given generation. The check and the store are atomic
+		 * with respect to evictions.
+		 * 
+		 * @return <code>true</code> if the value was stored.
+		 */
+		protected boolean setIfCurrent(Object name, Object value, int expectedGeneration) {
+			synchronized (generationLock) {
+				if (generation.get() != expectedGeneration)
+					return false;
+				set(name, value);
+				return true;
+			}
+		}
+
+		@Override
+		protected void evictValues(Notification notification) {
+			synchronized (generationLock) {
+				generation.incrementAndGet();
+				for (Object key : Lists.newArrayList(getKeys())) {
+					if (!(key instanceof SelectivelyEvicted) || ((SelectivelyEvicted) key).isEvictedBy(notification)) {
+						evict(key);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void clearValues() {
+			synchronized (generationLock) {
+				generation.incrementAndGet();
+				if (statistics != null) {
+					for (Object key : getKeys()) {
+						getKeyStatistics(key).evictions.incrementAndGet();
+					}
+				}
+				super.clearValues();
+				if (accessTimes != null) {
+					accessTimes.clear();
+				}
+			}
+		}
+
+		/**
+		 * Evicts the least recently used values until the size is a tenth below the maximum, so that the cost of
+		 * finding them is shared by several insertions.
+		 */
+		protected void evictLeastRecentlyUsed() {
+			if (!evictionLock.tryLock()) {
+				return;
+			}
+			try {
+				int excess = getKeys().size() - maximumSize + maximumSize / 10;
+				if (excess <= 0) {
+					return;
+				}
+				List<Map.Entry<Object, Long>> entries = Lists.newArrayList(accessTimes.entrySet());
+				Collections.sort(entries, new Comparator<Map.Entry<Object, Long>>() {
+					public int compare(Map.Entry<Object, Long> left, Map.Entry<Object, Long> right) {
+						return left.getValue().compareTo(right.getValue());
+					}
+				});
+				for (int i = 0; i < excess && i < entries.size(); i++) {
+					evict(entries.get(i).getKey());
+				}
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+
+		protected void recordAccess(Object name) {
+			if (accessTimes != null) {
+				accessTimes.put(name, clock.incrementAndGet());
+			}
+		}
+
+		protected void recordHit(Object name) {
+			KeyStatistics keyStatistics = getKeyStatistics(name);
+			if (keyStatistics != null) {
+				keyStatistics.hits.incrementAndGet();
+			}
+		}
+
+		protected void recordMiss(Object name) {
+			KeyStatistics keyStatistics = getKeyStatistics(name);
+			if (keyStatistics != null) {
+				keyStatistics.misses.incrementAndGet();
+			}
+		}
+
+		private KeyStatistics getKeyStatistics(Object name) {
+			if (statistics == null) {
+				return null;
+			}
+			KeyStatistics result = statistics.get(name);
+			if (result == null) {
+				KeyStatistics newStatistics = new KeyStatistics();
+				result = statistics.putIfAbsent(name, newStatistics);
+				if (result == null) {
+					result = newStatistics;
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * @return an unmodifiable live view on the statistics per key. Empty if statistics are not recorded.
+		 */
+		public Map<Object, KeyStatistics> getStatistics() {
+			if (statistics == null) {
+				return Collections.emptyMap();
+			}
+			return Collections.unmodifiableMap(statistics);
+		}
+
+		public int getMaximumSize() {
+			return maximumSize;
+		}
+	}
+
+}
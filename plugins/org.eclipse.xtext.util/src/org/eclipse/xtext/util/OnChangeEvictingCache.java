@@ -8,9 +8,11 @@
 package org.eclipse.xtext.util;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -109,13 +111,21 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 	public CacheAdapter getOrCreate(Resource resource) {
 		CacheAdapter adapter = (CacheAdapter) EcoreUtil.getAdapter(resource.eAdapters(), CacheAdapter.class);
 		if (adapter == null) {
-			adapter = new CacheAdapter();
+			adapter = createCacheAdapter();
 			resource.eAdapters().add(adapter);
 			adapter.setResource(resource);
 		}
 		return adapter;
 	}
 	
+	/**
+	 * Creates the cache adapter for a resource that does not have one yet.
+	 * @since 2.5
+	 */
+	protected CacheAdapter createCacheAdapter() {
+		return new CacheAdapter();
+	}
+	
 	/**
 	 * The transaction will be executed. While it is running, any semantic state change
 	 * in the given resource will be ignored and the cache will not be cleared.
@@ -175,7 +185,11 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 
 	public static class CacheAdapter extends EContentAdapter {
 		
-		private static final Object NULL = new Object();
+		/**
+		 * The value that is stored for keys that are associated with <code>null</code>.
+		 * @since 2.5
+		 */
+		protected static final Object NULL = new Object();
 		
 		private final Map<Object, Object> values = new ConcurrentHashMap<Object, Object>(500);
 
@@ -237,8 +251,13 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 			hits++;
 		}
 		
+		/**
+		 * @return the cached value, {@link #NULL} if <code>null</code> was cached, or <code>null</code> if 
+		 * 	there is no value for the given name.
+		 * @since 2.5
+		 */
 		@SuppressWarnings("unchecked")
-		private <T> T internalGet(Object name) {
+		protected <T> T internalGet(Object name) {
 			if (empty)
 				return null;
 			return (T) this.values.get(name);
@@ -252,6 +271,22 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 			return null;
 		}
 		
+		/**
+		 * Discards the value that is cached for the given name.
+		 * @since 2.5
+		 */
+		public void evict(Object name) {
+			values.remove(name);
+		}
+		
+		/**
+		 * @return a live view on the names that have a cached value.
+		 * @since 2.5
+		 */
+		protected Set<Object> getKeys() {
+			return Collections.unmodifiableSet(values.keySet());
+		}
+		
 		public void addCacheListener(Listener listener) {
 			this.listeners.add(listener);
 		}
@@ -264,7 +299,7 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 		public void notifyChanged(Notification notification) {
 			super.notifyChanged(notification);
 			if (ignoreNotificationCounter.get() == 0 && !ignoreNotifications && isSemanticStateChange(notification)) {
-				clearValues();
+				evictValues(notification);
 				Iterator<Listener> iter = listeners.iterator();
 				while(iter.hasNext()) {
 					Listener next = iter.next();
@@ -274,6 +309,14 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 			}
 		}
 
+		/**
+		 * Discards the values that are affected by the given semantic change. Clears all values by default.
+		 * @since 2.5
+		 */
+		protected void evictValues(Notification notification) {
+			clearValues();
+		}
+
 		public void clearValues() {
 			if (!empty) {
 				if (log.isDebugEnabled()) {
@@ -294,7 +337,7 @@ public class OnChangeEvictingCache implements IResourceScopeCache {
 
 		@Override
 		public boolean isAdapterForType(Object type) {
-			return type == getClass();
+			return type == getClass() || type == CacheAdapter.class;
 		}
 		
 		/**
@@ -166,6 +166,7 @@ public class PolymorphicDispatcher<RT> {
 	protected class MethodDesc {
 		private final Object target;
 		private final Method method;
+		private boolean accessible;
 
 		protected MethodDesc(Object target, Method method) {
 			super();
@@ -200,12 +201,62 @@ public class PolymorphicDispatcher<RT> {
 			return true;
 		}
 
+		/**
+		 * Makes the method accessible on the first invocation.
+		 */
+		private Object invoke(Object[] params) throws IllegalAccessException, InvocationTargetException {
+			if (!accessible) {
+				method.setAccessible(true);
+				accessible = true;
+			}
+			return method.invoke(target, params);
+		}
+
 		@Override
 		public String toString() {
 			return this.method.toString();
 		}
 	}
 
+	/**
+	 * The methods that are applicable for a combination of argument classes.
+	 */
+	private final class CacheEntry {
+		private final Class<?>[] types;
+		private final List<MethodDesc> methods;
+
+		private CacheEntry(List<Class<?>> types, List<MethodDesc> methods) {
+			this.types = types.toArray(new Class<?>[types.size()]);
+			this.methods = methods;
+		}
+
+		private boolean matches(Object[] params) {
+			if (params.length != types.length)
+				return false;
+			for (int i = 0; i < params.length; i++) {
+				Object param = params[i];
+				if ((param != null ? param.getClass() : getDefaultClass(i)) != types[i])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The maximum number of argument class combinations that are resolved without allocating a key.
+	 */
+	private static final int INLINE_CACHE_SIZE = 8;
+
+	/**
+	 * The most recently resolved argument classes, the first entry is the one of the first invocation. Entries are
+	 * only added, so a call site that always passes the same classes is served by the first entry. The array is
+	 * replaced when an entry is added, a lost update only causes another lookup in the {@link #cache}. If a class
+	 * combination is missed while the array is full, it is dropped for good and all invocations use the {@link #cache}
+	 * directly, since probing the entries would not pay off for that many combinations.
+	 */
+	@SuppressWarnings("unchecked")
+	private volatile CacheEntry[] inlineCache = new PolymorphicDispatcher.CacheEntry[0];
+
 	protected int compare(MethodDesc o1, MethodDesc o2) {
 		final List<Class<?>> paramTypes1 = Arrays.asList(o1.getParameterTypes());
 		final List<Class<?>> paramTypes2 = Arrays.asList(o2.getParameterTypes());
@@ -277,7 +328,7 @@ public class PolymorphicDispatcher<RT> {
 				throw new IllegalArgumentException("Wrong number of arguments. Expected "+filter.getMinParams()+" to "+filter.getMaxParams()+".");
 			}
 		}
-		List<MethodDesc> result = cache.get(getTypes(params));
+		List<MethodDesc> result = getMethods(params);
 		// check if ambiguous
 		if (result.size()>1)
 			return handleAmbigousMethods(result, params);
@@ -286,9 +337,7 @@ public class PolymorphicDispatcher<RT> {
 			return handleNoSuchMethod(params);
 
 		try {
-			MethodDesc current = result.get(0);
-			current.method.setAccessible(true);
-			return (RT) current.method.invoke(current.target, params);
+			return (RT) result.get(0).invoke(params);
 		} catch (InvocationTargetException e) {
 			if (e.getTargetException() instanceof Error)
 				throw (Error) e.getTargetException();
@@ -300,6 +349,28 @@ public class PolymorphicDispatcher<RT> {
 		}
 	}
 
+	private List<MethodDesc> getMethods(Object[] params) {
+		CacheEntry[] entries = inlineCache;
+		if (entries == null)
+			return cache.get(getTypes(params));
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].matches(params))
+				return entries[i].methods;
+		}
+		List<Class<?>> types = getTypes(params);
+		List<MethodDesc> result = cache.get(types);
+		if (entries.length < INLINE_CACHE_SIZE) {
+			@SuppressWarnings("unchecked")
+			CacheEntry[] newEntries = new PolymorphicDispatcher.CacheEntry[entries.length + 1];
+			System.arraycopy(entries, 0, newEntries, 0, entries.length);
+			newEntries[entries.length] = new CacheEntry(types, result);
+			inlineCache = newEntries;
+		} else {
+			inlineCache = null;
+		}
+		return result;
+	}
+
 	protected RT handleNoSuchMethod(Object... params) {
 		return handler.handle(params, new NoSuchMethodException(methodFilter, params));
 	}
@@ -10,110 +10,440 @@ package org.eclipse.xtext.util.internal;
 import static com.google.common.collect.Maps.*;
 import static java.util.Collections.*;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Lists;
 
 /**
+ * Collects timings of tasks and values of counters. Nothing is recorded unless the stopwatches are
+ * {@link #setEnabled(boolean) enabled}.
+ * <p>
+ * Timings are measured in nanoseconds. A task is reentrant per thread, i.e. if a thread starts a task that it is already
+ * running, only the outermost start and stop are measured. Tasks that are started while another task is running on the
+ * same thread are recorded as nested spans of that task, so the {@link #snapshot() snapshot} shows where the time of a
+ * task was spent. The snapshot can be printed or exported {@link Snapshot#toJson() as JSON}.
+ *
  * @author Sven Efftinge - Initial contribution and API
  */
 public class Stopwatches {
-	
+
 	public interface StoppedTask {
 		public void start();
 		public void stop();
 	}
-	
+
 	public static class StopwatchForTask implements StoppedTask {
-		final static long notRunning = -1;
-		
-		private NumbersForTask numbers;
-		private long lastStart = notRunning;
-		private int reentrant = 0;
-		
-		StopwatchForTask(NumbersForTask numbers) {
+
+		private final String task;
+		private final NumbersForTask numbers;
+
+		StopwatchForTask(String task, NumbersForTask numbers) {
+			this.task = task;
 			this.numbers = numbers;
 		}
-		
+
 		public void start() {
-			if (!isRunning())
-				lastStart = System.currentTimeMillis();
-			reentrant++;
+			ThreadState state = threadState.get();
+			Running running = state.running.get(numbers);
+			if (running == null) {
+				Span parent = state.stack.isEmpty() ? root : state.stack.get(state.stack.size() - 1).span;
+				running = new Running(parent.getChild(task));
+				state.running.put(numbers, running);
+				state.stack.add(running);
+				running.start = System.nanoTime();
+			}
+			running.depth++;
 		}
-		
+
+		/**
+		 * @return whether the task is running on the current thread.
+		 */
 		public boolean isRunning() {
-			return lastStart != notRunning;
+			return threadState.get().running.containsKey(numbers);
 		}
-		
+
 		public void stop() {
-			if (isRunning()) {
-				reentrant--;
-				if (reentrant == 0) {
-					long currentTimeMillis = System.currentTimeMillis();
-					numbers.addMilliseconds(currentTimeMillis - lastStart);
-					numbers.increaseMeasurements();
-					lastStart = notRunning;
+			ThreadState state = threadState.get();
+			Running running = state.running.get(numbers);
+			if (running != null) {
+				running.depth--;
+				if (running.depth == 0) {
+					long nanoseconds = System.nanoTime() - running.start;
+					numbers.add(nanoseconds);
+					running.span.add(nanoseconds);
+					state.running.remove(numbers);
+					// tasks may be stopped in any order, later tasks become children of the innermost running one
+					state.stack.remove(running);
 				}
 			}
 		}
 	}
-	
+
 	public static class NumbersForTask {
-		long milliseconds = 0;
-		int numberOfMeasurements = 0;
-		
+		private final AtomicLong nanoseconds = new AtomicLong();
+		private long sequence;
+		private final AtomicInteger numberOfMeasurements = new AtomicInteger();
+
 		public long getMilliseconds() {
-			return milliseconds;
+			return nanoseconds.get() / 1000000;
+		}
+
+		/**
+		 * @since 2.5
+		 */
+		public long getNanoseconds() {
+			return nanoseconds.get();
+		}
+
+		public int getNumberOfMeasurements() {
+			return numberOfMeasurements.get();
+		}
+
+		void add(long nanoseconds) {
+			this.nanoseconds.addAndGet(nanoseconds);
+			this.numberOfMeasurements.incrementAndGet();
+		}
+	}
+
+	/**
+	 * The accumulated numbers of a task that was started while the task of its parent span was running.
+	 */
+	static class Span extends NumbersForTask {
+		private final String name;
+		private final ConcurrentMap<String, Span> children = newConcurrentMap();
+
+		Span(String name) {
+			this.name = name;
+		}
+
+		Span getChild(String name) {
+			Span result = children.get(name);
+			if (result == null) {
+				Span newSpan = new Span(name);
+				result = children.putIfAbsent(name, newSpan);
+				if (result == null)
+					result = newSpan;
+			}
+			return result;
 		}
-		
-		synchronized void addMilliseconds(long milliseconds) {
-			this.milliseconds += milliseconds;
+
+		SpanSnapshot snapshot() {
+			List<SpanSnapshot> childSnapshots = Lists.newArrayListWithCapacity(children.size());
+			for (Span child : children.values()) {
+				childSnapshots.add(child.snapshot());
+			}
+			Collections.sort(childSnapshots, BY_TIME);
+			return new SpanSnapshot(name, getNanoseconds(), getNumberOfMeasurements(), unmodifiableList(childSnapshots));
 		}
-		
+	}
+
+	static class Running {
+		final Span span;
+		long start;
+		int depth;
+
+		Running(Span span) {
+			this.span = span;
+		}
+	}
+
+	static class ThreadState {
+		final Map<NumbersForTask, Running> running = new IdentityHashMap<NumbersForTask, Running>();
+		/**
+		 * The running tasks of the thread in the order of their start.
+		 */
+		final List<Running> stack = Lists.newArrayList();
+	}
+
+	/**
+	 * An immutable copy of the numbers of a span and its nested spans.
+	 *
+	 * @since 2.5
+	 */
+	public static class SpanSnapshot {
+		private final String name;
+		private final long nanoseconds;
+		private final int numberOfMeasurements;
+		private final List<SpanSnapshot> children;
+
+		SpanSnapshot(String name, long nanoseconds, int numberOfMeasurements, List<SpanSnapshot> children) {
+			this.name = name;
+			this.nanoseconds = nanoseconds;
+			this.numberOfMeasurements = numberOfMeasurements;
+			this.children = children;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getNanoseconds() {
+			return nanoseconds;
+		}
+
 		public int getNumberOfMeasurements() {
 			return numberOfMeasurements;
 		}
-		
-		synchronized void increaseMeasurements() {
-			this.numberOfMeasurements++;
+
+		/**
+		 * @return the nested spans, the most expensive one first.
+		 */
+		public List<SpanSnapshot> getChildren() {
+			return children;
+		}
+	}
+
+	/**
+	 * An immutable copy of all recorded numbers.
+	 *
+	 * @since 2.5
+	 */
+	public static class Snapshot {
+		private final Map<String, SpanSnapshot> tasks;
+		private final Map<String, Long> counters;
+		private final List<SpanSnapshot> spans;
+
+		Snapshot(Map<String, SpanSnapshot> tasks, Map<String, Long> counters, List<SpanSnapshot> spans) {
+			this.tasks = tasks;
+			this.counters = counters;
+			this.spans = spans;
+		}
+
+		/**
+		 * @return the accumulated numbers of each task regardless of its nesting, in the order of the first start.
+		 */
+		public Map<String, SpanSnapshot> getTasks() {
+			return tasks;
+		}
+
+		public Map<String, Long> getCounters() {
+			return counters;
+		}
+
+		/**
+		 * @return the spans that were not nested in another span, the most expensive one first.
+		 */
+		public List<SpanSnapshot> getSpans() {
+			return spans;
+		}
+
+		public String toJson() {
+			StringBuilder result = new StringBuilder();
+			result.append("{\n  \"tasks\" : [");
+			boolean first = true;
+			for (SpanSnapshot task : tasks.values()) {
+				result.append(first ? "\n    " : ",\n    ");
+				appendJson(task, false, result);
+				first = false;
+			}
+			result.append("\n  ],\n  \"counters\" : {");
+			first = true;
+			for (Entry<String, Long> counter : counters.entrySet()) {
+				result.append(first ? "\n    " : ",\n    ");
+				appendJsonString(counter.getKey(), result);
+				result.append(" : ").append(counter.getValue());
+				first = false;
+			}
+			result.append("\n  },\n  \"spans\" : [");
+			first = true;
+			for (SpanSnapshot span : spans) {
+				result.append(first ? "\n    " : ",\n    ");
+				appendJson(span, true, result);
+				first = false;
+			}
+			result.append("\n  ]\n}");
+			return result.toString();
+		}
+
+		protected void appendJson(SpanSnapshot span, boolean withChildren, StringBuilder result) {
+			result.append("{\"name\" : ");
+			appendJsonString(span.getName(), result);
+			result.append(", \"nanoseconds\" : ").append(span.getNanoseconds());
+			result.append(", \"measurements\" : ").append(span.getNumberOfMeasurements());
+			if (withChildren && !span.getChildren().isEmpty()) {
+				result.append(", \"children\" : [");
+				for (int i = 0; i < span.getChildren().size(); i++) {
+					if (i > 0)
+						result.append(", ");
+					appendJson(span.getChildren().get(i), true, result);
+				}
+				result.append("]");
+			}
+			result.append("}");
+		}
+
+		protected void appendJsonString(String value, StringBuilder result) {
+			result.append('"');
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				switch (c) {
+					case '"': result.append("\\\""); break;
+					case '\\': result.append("\\\\"); break;
+					case '\n': result.append("\\n"); break;
+					case '\r': result.append("\\r"); break;
+					case '\t': result.append("\\t"); break;
+					default:
+						if (c < ' ')
+							result.append(String.format("\\u%04x", (int) c));
+						else
+							result.append(c);
+				}
+			}
+			result.append('"');
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder();
+			for (SpanSnapshot span : spans) {
+				appendTree(span, "", result);
+			}
+			for (Entry<String, Long> counter : counters.entrySet()) {
+				result.append("Counter '").append(counter.getKey()).append("': ").append(counter.getValue()).append("\n");
+			}
+			return result.toString();
+		}
+
+		protected void appendTree(SpanSnapshot span, String indentation, StringBuilder result) {
+			result.append(indentation).append("Task '").append(span.getName()).append("' took ")
+					.append(span.getNanoseconds() / 1000000).append("ms (").append(span.getNumberOfMeasurements())
+					.append(" measurements).\n");
+			for (SpanSnapshot child : span.getChildren()) {
+				appendTree(child, indentation + "  ", result);
+			}
 		}
 	}
 
-	private static Map<String, NumbersForTask> data = newLinkedHashMap();
-	private static boolean enabled = false;
-	private static StoppedTask NULLIMPL = new StoppedTask() {
+	private static final Comparator<SpanSnapshot> BY_TIME = new Comparator<SpanSnapshot>() {
+		public int compare(SpanSnapshot o1, SpanSnapshot o2) {
+			long n1 = o1.getNanoseconds();
+			long n2 = o2.getNanoseconds();
+			return n1 < n2 ? 1 : (n1 == n2 ? o1.getName().compareTo(o2.getName()) : -1);
+		}
+	};
+
+	private static final Comparator<Entry<String, NumbersForTask>> BY_FIRST_START =
+			new Comparator<Entry<String, NumbersForTask>>() {
+				public int compare(Entry<String, NumbersForTask> o1, Entry<String, NumbersForTask> o2) {
+					long s1 = o1.getValue().sequence;
+					long s2 = o2.getValue().sequence;
+					return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+				}
+			};
+
+	private static ConcurrentMap<String, NumbersForTask> data = newConcurrentMap();
+	private static final AtomicLong taskSequence = new AtomicLong();
+	private static ConcurrentMap<String, AtomicLong> counters = newConcurrentMap();
+	private static volatile Span root = new Span("");
+	private static final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+		@Override
+		protected ThreadState initialValue() {
+			return new ThreadState();
+		}
+	};
+	private static volatile boolean enabled = false;
+	private static final StoppedTask NULLIMPL = new StoppedTask() {
 		public void start() {}
 		public void stop() {}
 	};
-	
+
+	/**
+	 * @return a shared task that does nothing if the stopwatches are disabled.
+	 */
 	public static StoppedTask forTask(String task) {
 		if (!enabled)
 			return NULLIMPL;
-		synchronized (data) {
-			NumbersForTask numbers = data.get(task);
-			if (numbers == null) {
-				numbers = new NumbersForTask();
-				data.put(task, numbers);
-			}
-			return new StopwatchForTask(numbers);
+		NumbersForTask numbers = data.get(task);
+		if (numbers == null) {
+			NumbersForTask newNumbers = new NumbersForTask();
+			newNumbers.sequence = taskSequence.incrementAndGet();
+			numbers = data.putIfAbsent(task, newNumbers);
+			if (numbers == null)
+				numbers = newNumbers;
+		}
+		return new StopwatchForTask(task, numbers);
+	}
+
+	/**
+	 * Adds one to the given counter.
+	 *
+	 * @since 2.5
+	 */
+	public static void count(String counter) {
+		count(counter, 1);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	public static void count(String counter, long delta) {
+		if (!enabled)
+			return;
+		AtomicLong value = counters.get(counter);
+		if (value == null) {
+			AtomicLong newValue = new AtomicLong();
+			value = counters.putIfAbsent(counter, newValue);
+			if (value == null)
+				value = newValue;
 		}
+		value.addAndGet(delta);
 	}
-	
+
 	public static void setEnabled(boolean isEnabled) {
 		enabled = isEnabled;
 	}
-	
+
+	/**
+	 * @since 2.5
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
 	public static void resetAll() {
-		synchronized (data) {
-			data.clear();
-		}
+		data.clear();
+		counters.clear();
+		root = new Span("");
 	}
-	
+
+	/**
+	 * @return the numbers of each task in the order of its first start.
+	 */
 	public static Map<String, NumbersForTask> allNumbers() {
-		synchronized (data) {
-			return unmodifiableMap(data);
+		List<Entry<String, NumbersForTask>> entries = Lists.newArrayList(data.entrySet());
+		Collections.sort(entries, BY_FIRST_START);
+		Map<String, NumbersForTask> result = newLinkedHashMap();
+		for (Entry<String, NumbersForTask> entry : entries) {
+			result.put(entry.getKey(), entry.getValue());
 		}
+		return unmodifiableMap(result);
 	}
-	
+
+	/**
+	 * @since 2.5
+	 */
+	public static Snapshot snapshot() {
+		Map<String, SpanSnapshot> tasks = newLinkedHashMap();
+		for (Entry<String, NumbersForTask> task : allNumbers().entrySet()) {
+			NumbersForTask numbers = task.getValue();
+			tasks.put(task.getKey(), new SpanSnapshot(task.getKey(), numbers.getNanoseconds(),
+					numbers.getNumberOfMeasurements(), Collections.<SpanSnapshot> emptyList()));
+		}
+		Map<String, Long> counterValues = newTreeMap();
+		for (Entry<String, AtomicLong> counter : counters.entrySet()) {
+			counterValues.put(counter.getKey(), counter.getValue().get());
+		}
+		return new Snapshot(unmodifiableMap(tasks), unmodifiableMap(counterValues), root.snapshot().getChildren());
+	}
+
 	public static String getPrintableStopwatchData() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("\n");
@@ -122,7 +452,8 @@ public class Stopwatches {
 			sb.append("Task '"+task.getKey()+"' took "+task.getValue().getMilliseconds()+"ms ("+task.getValue().getNumberOfMeasurements()+" measurements).\n");
 		}
 		sb.append("-------------------------------------------------------------------------------------------------------------------------\n");
+		sb.append(snapshot());
 		return sb.toString();
 	}
-	
+
 }
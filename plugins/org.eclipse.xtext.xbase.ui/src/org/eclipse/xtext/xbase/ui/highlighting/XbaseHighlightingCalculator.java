@@ -7,7 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.xbase.ui.highlighting;
 
+import java.lang.reflect.Method;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -38,8 +40,9 @@ import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.ui.editor.syntaxcoloring.DefaultHighlightingConfiguration;
 import org.eclipse.xtext.ui.editor.syntaxcoloring.IHighlightedPositionAcceptor;
-import org.eclipse.xtext.ui.editor.syntaxcoloring.ISemanticHighlightingCalculator;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.IIncrementalSemanticHighlightingCalculator;
 import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.xbase.XAbstractFeatureCall;
 import org.eclipse.xtext.xbase.XAssignment;
 import org.eclipse.xtext.xbase.XBinaryOperation;
@@ -51,8 +54,11 @@ import org.eclipse.xtext.xbase.XUnaryOperation;
 import org.eclipse.xtext.xbase.XbasePackage;
 import org.eclipse.xtext.xbase.annotations.xAnnotations.XAnnotation;
 import org.eclipse.xtext.xbase.annotations.xAnnotations.XAnnotationsPackage;
+import org.eclipse.xtext.xbase.jvmmodel.ILogicalContainerProvider;
 import org.eclipse.xtext.xbase.services.XbaseGrammarAccess;
+import org.eclipse.xtext.xtype.XComputedTypeReference;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
@@ -69,28 +75,27 @@ import com.google.inject.Inject;
  * @author Sebastian Zarnekow - Initial contribution and API
  * @author Holger Schill
  */
-public class XbaseHighlightingCalculator implements ISemanticHighlightingCalculator {
+public class XbaseHighlightingCalculator implements IIncrementalSemanticHighlightingCalculator {
 
 	@Inject
 	private XbaseGrammarAccess grammarAccess;
 
+	@Inject
+	private ILogicalContainerProvider logicalContainerProvider;
+
 	private Map<String, String> highlightedIdentifiers;
 	
 	private BitSet idLengthsToHighlight;
 
+	private Boolean incrementalHighlightingSupported;
+
 	public void provideHighlightingFor(XtextResource resource, IHighlightedPositionAcceptor acceptor) {
 		if (resource == null)
 			return;
 		IParseResult parseResult = resource.getParseResult();
 		if (parseResult == null || parseResult.getRootASTElement() == null)
 			return;
-		if (highlightedIdentifiers == null) {
-			highlightedIdentifiers = initializeHighlightedIdentifiers();
-			idLengthsToHighlight = new BitSet();
-			for (String s : highlightedIdentifiers.keySet()) {
-				idLengthsToHighlight.set(s.length());
-			}
-		}
+		ensureHighlightedIdentifiersInitialized();
 		//TODO remove this check when the typesystem works without a java project
 		if (resource.isValidationDisabled()) {
 			highlightSpecialIdentifiers(acceptor, parseResult.getRootNode());
@@ -99,13 +104,141 @@ public class XbaseHighlightingCalculator implements ISemanticHighlightingCalcula
 		doProvideHighlightingFor(resource, acceptor);
 	}
 	
+	/**
+	 * Highlights the outermost expressions that contain the reparsed elements. Changes that may affect the highlighting
+	 * of other expressions are not highlighted incrementally, e.g. changes of declarations or of expressions whose
+	 * type is inferred for their logical container. Subclasses that customize the highlighting of the resource are
+	 * always highlighted completely unless they opt in with {@link #isIncrementalHighlightingSupported()}.
+	 * 
+	 * @since 2.5
+	 */
+	public ITextRegion provideHighlightingFor(XtextResource resource, ReplaceRegion region,
+			Collection<EObject> reparsedElements, IHighlightedPositionAcceptor acceptor) {
+		if (resource == null || resource.isValidationDisabled() || !isIncrementalHighlightingSupported())
+			return null;
+		IParseResult parseResult = resource.getParseResult();
+		if (parseResult == null || parseResult.getRootASTElement() == null)
+			return null;
+		ITextRegion result = null;
+		List<XExpression> expressions = Lists.newArrayListWithCapacity(reparsedElements.size());
+		for (EObject element : reparsedElements) {
+			XExpression expression = getOutermostExpression(element);
+			if (expression == null || !isHighlightedIncrementally(expression))
+				return null;
+			ICompositeNode node = NodeModelUtils.findActualNodeFor(expression);
+			if (node == null)
+				return null;
+			result = result == null ? node.getTotalTextRegion() : result.merge(node.getTotalTextRegion());
+			expressions.add(expression);
+		}
+		if (result == null)
+			return null;
+		ensureHighlightedIdentifiersInitialized();
+		for (XExpression expression : expressions) {
+			doProvideHighlightingFor(expression, acceptor);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether the highlighting of changed expressions may be computed incrementally. Positions that subclasses
+	 * announce in {@link #doProvideHighlightingFor(XtextResource, IHighlightedPositionAcceptor)} would be lost, so
+	 * this is only the case if no subclass overrides the highlighting of the resource. Subclasses that implement
+	 * {@link #doProvideHighlightingFor(XExpression, IHighlightedPositionAcceptor)} accordingly may override this
+	 * method.
+	 * 
+	 * @see #isResourceHighlightingOverriddenBelow(Class)
+	 * @since 2.5
+	 */
+	protected boolean isIncrementalHighlightingSupported() {
+		if (incrementalHighlightingSupported == null)
+			incrementalHighlightingSupported = Boolean
+					.valueOf(!isResourceHighlightingOverriddenBelow(XbaseHighlightingCalculator.class));
+		return incrementalHighlightingSupported.booleanValue();
+	}
+
+	/**
+	 * @return <code>true</code> if a subclass of the given type overrides a method that highlights the whole
+	 *         resource.
+	 * @since 2.5
+	 */
+	protected boolean isResourceHighlightingOverriddenBelow(Class<?> type) {
+		for (Class<?> clazz = getClass(); clazz != null && clazz != type; clazz = clazz.getSuperclass()) {
+			for (Method method : clazz.getDeclaredMethods()) {
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				if (parameterTypes.length == 2 && parameterTypes[0] == XtextResource.class
+						&& parameterTypes[1] == IHighlightedPositionAcceptor.class)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the outermost expression that contains the given element or <code>null</code> if the element is not
+	 *         part of an expression.
+	 * @since 2.5
+	 */
+	protected XExpression getOutermostExpression(EObject element) {
+		XExpression result = null;
+		for (EObject current = element; current != null; current = current.eContainer()) {
+			if (current instanceof XExpression)
+				result = (XExpression) current;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether the highlighting of the given outermost expression can be computed without the rest of the
+	 * resource. Annotations may affect the highlighting of the annotated element, and the expressions of logical
+	 * containers with an inferred type may affect the linking of other expressions.
+	 * 
+	 * @since 2.5
+	 */
+	protected boolean isHighlightedIncrementally(XExpression expression) {
+		if (expression instanceof XAnnotation)
+			return false;
+		JvmIdentifiableElement container = logicalContainerProvider.getLogicalContainer(expression);
+		if (container instanceof JvmOperation) {
+			return !(((JvmOperation) container).getReturnType() instanceof XComputedTypeReference);
+		}
+		if (container instanceof JvmField) {
+			return !(((JvmField) container).getType() instanceof XComputedTypeReference);
+		}
+		return container != null || expression.eContainer() == null;
+	}
+
+	/**
+	 * Highlights the given expression and its contents when the highlighting is computed incrementally.
+	 * 
+	 * @since 2.5
+	 */
+	protected void doProvideHighlightingFor(XExpression expression, IHighlightedPositionAcceptor acceptor) {
+		ICompositeNode node = NodeModelUtils.findActualNodeFor(expression);
+		if (node != null)
+			highlightSpecialIdentifiers(acceptor, node);
+		searchAndHighlightElements(EcoreUtil2.eAll(expression), acceptor);
+	}
+
+	private void ensureHighlightedIdentifiersInitialized() {
+		if (highlightedIdentifiers == null) {
+			highlightedIdentifiers = initializeHighlightedIdentifiers();
+			idLengthsToHighlight = new BitSet();
+			for (String s : highlightedIdentifiers.keySet()) {
+				idLengthsToHighlight.set(s.length());
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * Actual implementation of the semantic highlighting calculation. It is ensured, that the given resource is not
 	 * <code>null</code> and refers to an initialized parse result.
 	 * </p>
 	 * <p>
-	 * Clients should override this method in order to perform custom highlighting.
+	 * Clients should override this method in order to perform custom highlighting. Custom highlighting of the
+	 * contents of expressions has to be implemented in
+	 * {@link #doProvideHighlightingFor(XExpression, IHighlightedPositionAcceptor)}, too.
 	 * </p>
 	 * 
 	 * @param resource
@@ -123,7 +256,13 @@ public class XbaseHighlightingCalculator implements ISemanticHighlightingCalcula
 	}
 
 	protected void searchAndHighlightElements(XtextResource resource, IHighlightedPositionAcceptor acceptor) {
-		TreeIterator<EObject> iterator = EcoreUtil2.eAll(resource.getParseResult().getRootASTElement());
+		searchAndHighlightElements(EcoreUtil2.eAll(resource.getParseResult().getRootASTElement()), acceptor);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected void searchAndHighlightElements(TreeIterator<EObject> iterator, IHighlightedPositionAcceptor acceptor) {
 		while (iterator.hasNext()) {
 			EObject object = iterator.next();
 			if (object instanceof XAbstractFeatureCall) {
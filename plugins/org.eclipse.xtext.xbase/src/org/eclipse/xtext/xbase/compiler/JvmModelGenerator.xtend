@@ -65,6 +65,7 @@ import org.eclipse.xtext.resource.ILocationInFileProvider
 import org.eclipse.xtext.scoping.IScopeProvider
 import org.eclipse.xtext.util.ITextRegionWithLineInformation
 import org.eclipse.xtext.util.Strings
+import org.eclipse.xtext.util.internal.Stopwatches
 import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.xbase.XBlockExpression
 import org.eclipse.xtext.xbase.XExpression
@@ -108,8 +109,14 @@ class JvmModelGenerator implements IGenerator {
 	@Inject IQualifiedNameConverter qualifiedNameConverter
 	
 	override void doGenerate(Resource input, IFileSystemAccess fsa) {
-		for (obj : input.contents) {
-			obj.internalDoGenerate(fsa)
+		val task = Stopwatches.forTask('JvmModelGenerator.doGenerate')
+		task.start
+		try {
+			for (obj : input.contents) {
+				obj.internalDoGenerate(fsa)
+			}
+		} finally {
+			task.stop
 		}
 	}
 	
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.compiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.resource.ISynchronizable;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * Generates the Java code of many {@link JvmDeclaredType types} concurrently, e.g. in a batch compiler. Each type is
+ * generated and written on its own, so the generated files do not depend on the number of threads or on the order in
+ * which the tasks are executed.
+ * <p>
+ * The resources are {@link #freeze(Iterable) frozen} first: all proxies are resolved and the types of all expressions
+ * are computed and cached. The generation may still load further types into the resource set, e.g. the types that the
+ * compiler refers to implicitly like {@link org.eclipse.xtext.xbase.lib.Exceptions} or the targets of javadoc links.
+ * Therefore the types are only generated concurrently if their resource set is {@link ISynchronizable synchronizable},
+ * so resources and types are loaded under its lock. Otherwise they are generated one after another.
+ * <p>
+ * The {@link IFileSystemAccess} has to support concurrent writes of different files, as the
+ * {@link org.eclipse.xtext.generator.JavaIoFileSystemAccess} does.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class ParallelJvmModelGenerator {
+
+	@Inject
+	private JvmModelGenerator generator;
+
+	@Inject
+	private IGeneratorConfigProvider generatorConfigProvider;
+
+	@Inject
+	private IBatchTypeResolver typeResolver;
+
+	/**
+	 * Resolves the proxies, the types of the expressions and the inferred type references of the given resources,
+	 * which would otherwise be resolved lazily by concurrent generators.
+	 */
+	public void freeze(Iterable<? extends Resource> resources) {
+		for (Resource resource : resources) {
+			EcoreUtil.resolveAll(resource);
+			if (!resource.getContents().isEmpty())
+				typeResolver.resolveTypes(resource.getContents().get(0));
+			TreeIterator<EObject> iterator = resource.getAllContents();
+			while (iterator.hasNext()) {
+				EObject next = iterator.next();
+				if (next instanceof JvmTypeReference)
+					((JvmTypeReference) next).getType();
+			}
+		}
+	}
+
+	/**
+	 * Freezes the given resources and generates the types they contain with the given executor, like
+	 * {@link JvmModelGenerator#doGenerate(Resource, IFileSystemAccess)} does for a single resource. Returns when all
+	 * types are written.
+	 */
+	public void generate(Iterable<? extends Resource> resources, IFileSystemAccess fsa, ExecutorService executor)
+			throws InterruptedException {
+		freeze(resources);
+		Map<JvmDeclaredType, String> fileNames = Maps.newLinkedHashMap();
+		for (Resource resource : resources) {
+			for (EObject content : resource.getContents()) {
+				if (content instanceof JvmDeclaredType) {
+					JvmDeclaredType type = (JvmDeclaredType) content;
+					fileNames.put(type, type.getQualifiedName().replace('.', '/') + ".java");
+				}
+			}
+		}
+		generateTypes(fileNames, fsa, executor);
+	}
+
+	/**
+	 * Generates the types with the given number of threads.
+	 *
+	 * @see #generateTypes(Map, IFileSystemAccess, ExecutorService)
+	 */
+	public void generateTypes(Map<? extends JvmDeclaredType, String> fileNames, IFileSystemAccess fsa, int threads)
+			throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			generateTypes(fileNames, fsa, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generates the types with the given executor and writes each of them to its file. The resources of the types
+	 * have to be {@link #freeze(Iterable) frozen}. Returns when all types are written. If the generation of a type
+	 * fails, the failure of the first such type in the iteration order of the map is rethrown.
+	 * <p>
+	 * If the resource set of a type is not {@link ISynchronizable synchronizable}, all types are generated on the
+	 * calling thread.
+	 *
+	 * @param fileNames
+	 *            the types, mapped to the name of the generated file.
+	 */
+	public void generateTypes(Map<? extends JvmDeclaredType, String> fileNames, final IFileSystemAccess fsa,
+			ExecutorService executor) throws InterruptedException {
+		if (!isSynchronized(fileNames.keySet())) {
+			for (Map.Entry<? extends JvmDeclaredType, String> entry : fileNames.entrySet()) {
+				JvmDeclaredType type = entry.getKey();
+				fsa.generateFile(entry.getValue(), generator.generateType(type, generatorConfigProvider.get(type)));
+			}
+			return;
+		}
+		List<Future<?>> tasks = Lists.newArrayListWithCapacity(fileNames.size());
+		try {
+			for (Map.Entry<? extends JvmDeclaredType, String> entry : fileNames.entrySet()) {
+				final JvmDeclaredType type = entry.getKey();
+				final String fileName = entry.getValue();
+				final GeneratorConfig config = generatorConfigProvider.get(type);
+				tasks.add(executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						fsa.generateFile(fileName, generator.generateType(type, config));
+						return null;
+					}
+				}));
+			}
+			for (Future<?> task : tasks) {
+				try {
+					task.get();
+				} catch (ExecutionException e) {
+					throw Throwables.propagate(e.getCause());
+				}
+			}
+		} finally {
+			for (Future<?> task : tasks)
+				task.cancel(true);
+		}
+	}
+
+	protected boolean isSynchronized(Iterable<? extends JvmDeclaredType> types) {
+		for (JvmDeclaredType type : types) {
+			Resource resource = type.eResource();
+			if (resource == null || !(resource.getResourceSet() instanceof ISynchronizable<?>))
+				return false;
+		}
+		return true;
+	}
+
+}
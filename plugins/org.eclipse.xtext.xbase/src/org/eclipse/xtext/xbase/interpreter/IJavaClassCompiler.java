@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.interpreter;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Compiles Java source code in memory, e.g. with the Eclipse batch compiler or the compiler of the JDK.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public interface IJavaClassCompiler {
+
+	/**
+	 * @param className
+	 *            the qualified name of the class.
+	 * @param javaCode
+	 *            the complete source of the compilation unit that declares the class.
+	 * @return the loaded class. Its class loader must see the classes of the Xbase library.
+	 * @throws IllegalArgumentException
+	 *             if the code does not compile.
+	 */
+	Class<?> compileToClass(String className, String javaCode);
+
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.interpreter.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.util.TypeReferences;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.XAbstractFeatureCall;
+import org.eclipse.xtext.xbase.XAssignment;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.XbasePackage;
+import org.eclipse.xtext.xbase.compiler.XbaseCompiler;
+import org.eclipse.xtext.xbase.compiler.output.FakeTreeAppendable;
+import org.eclipse.xtext.xbase.compiler.output.ITreeAppendable;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
+import org.eclipse.xtext.xbase.interpreter.IExpressionInterpreter;
+import org.eclipse.xtext.xbase.interpreter.IJavaClassCompiler;
+import org.eclipse.xtext.xbase.lib.Functions;
+import org.eclipse.xtext.xbase.lib.Functions.Function0;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
+import org.eclipse.xtext.xbase.typesystem.IResolvedTypes;
+import org.eclipse.xtext.xbase.typesystem.references.LightweightTypeReference;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * An {@link IExpressionInterpreter} that compiles expressions to Java classes with the {@link XbaseCompiler} and an
+ * {@link IJavaClassCompiler}. The compiled class of an expression is cached, so repeated evaluations of the same
+ * expression are plain method calls. Expressions are interpreted by the {@link XbaseInterpreter} if no Java compiler
+ * is bound or if they cannot be compiled.
+ * <p>
+ * Local variables and parameters that are declared outside of the expression become parameters of the compiled
+ * class. Their values are read from the {@link IEvaluationContext} on each evaluation. The compiled code checks the
+ * {@link CancelIndicator} before it runs and on each iteration of a loop or invocation of a lambda.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class CompilingExpressionInterpreter implements IExpressionInterpreter {
+
+	private static final Logger log = Logger.getLogger(CompilingExpressionInterpreter.class);
+
+	private static final AtomicInteger classCounter = new AtomicInteger();
+
+	private static final Object NOT_COMPILABLE = new Object();
+
+	private static final Object ARGUMENTS = new Object();
+
+	private static final Object CANCEL_INDICATOR = new Object();
+
+	@Inject
+	private XbaseInterpreter interpreter;
+
+	@Inject
+	private Provider<CancelableXbaseCompiler> compilerProvider;
+
+	@Inject
+	private TypeReferences typeReferences;
+
+	@Inject
+	private IBatchTypeResolver typeResolver;
+
+	@Inject
+	private Provider<IEvaluationContext> contextProvider;
+
+	private IJavaClassCompiler javaCompiler;
+
+	private final ConcurrentMap<XExpression, Object> compiledExpressions = new MapMaker().weakKeys().makeMap();
+
+	@Inject(optional = true)
+	public void setJavaCompiler(IJavaClassCompiler javaCompiler) {
+		this.javaCompiler = javaCompiler;
+	}
+
+	public IEvaluationResult evaluate(XExpression expression) {
+		return evaluate(expression, contextProvider.get(), CancelIndicator.NullImpl);
+	}
+
+	public IEvaluationResult evaluate(XExpression expression, IEvaluationContext context, CancelIndicator indicator) {
+		CompiledExpression compiledExpression = getCompiledExpression(expression);
+		if (compiledExpression == null)
+			return interpreter.evaluate(expression, context, indicator);
+		if (indicator == null)
+			indicator = CancelIndicator.NullImpl;
+		if (indicator.isCanceled())
+			return null;
+		try {
+			return new DefaultEvaluationResult(compiledExpression.evaluate(context, indicator), null);
+		} catch (CancellationException e) {
+			if (indicator.isCanceled())
+				return null;
+			return new DefaultEvaluationResult(null, e);
+		} catch (Throwable t) {
+			return new DefaultEvaluationResult(null, t);
+		}
+	}
+
+	/**
+	 * @return the compiled expression or <code>null</code> if the expression has to be interpreted.
+	 */
+	protected CompiledExpression getCompiledExpression(XExpression expression) {
+		if (javaCompiler == null)
+			return null;
+		Object result = compiledExpressions.get(expression);
+		if (result == null) {
+			result = compile(expression);
+			if (result == null)
+				result = NOT_COMPILABLE;
+			Object existing = compiledExpressions.putIfAbsent(expression, result);
+			if (existing != null)
+				result = existing;
+		}
+		return result != NOT_COMPILABLE ? (CompiledExpression) result : null;
+	}
+
+	/**
+	 * Compiling an expression resolves its types, which is not thread-safe.
+	 * 
+	 * @return the compiled expression or <code>null</code> if the expression cannot be compiled.
+	 */
+	protected synchronized CompiledExpression compile(XExpression expression) {
+		if (!isCompilable(expression))
+			return null;
+		String className = "_$CompiledExpression" + classCounter.incrementAndGet();
+		String javaCode = null;
+		try {
+			List<JvmIdentifiableElement> parameters = getParameters(expression);
+			javaCode = getJavaCode(className, expression, parameters);
+			Class<?> compiledClass = javaCompiler.compileToClass(className, javaCode);
+			@SuppressWarnings("unchecked")
+			Function2<Object[], Function0<Boolean>, Object> function = 
+					(Function2<Object[], Function0<Boolean>, Object>) compiledClass.newInstance();
+			ImmutableList.Builder<QualifiedName> parameterNames = ImmutableList.builder();
+			for (JvmIdentifiableElement parameter : parameters) {
+				parameterNames.add(QualifiedName.create(parameter.getSimpleName()));
+			}
+			return new CompiledExpression(function, parameterNames.build());
+		} catch (Exception e) {
+			compilationFailed(expression, javaCode, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Expressions may read local variables and parameters that are declared outside of the expression, but they may
+	 * not assign them since the new value would not be written back to the {@link IEvaluationContext}.
+	 */
+	protected boolean isCompilable(XExpression expression) {
+		TreeIterator<EObject> iterator = EcoreUtil.getAllContents(expression, true);
+		while (iterator.hasNext()) {
+			EObject next = iterator.next();
+			if (next instanceof XAbstractFeatureCall) {
+				XAbstractFeatureCall featureCall = (XAbstractFeatureCall) next;
+				JvmIdentifiableElement feature = featureCall.getFeature();
+				if (feature == null || feature.eIsProxy())
+					return false;
+				if (feature instanceof JvmType) {
+					if (!featureCall.isTypeLiteral() && !featureCall.isPackageFragment())
+						return false;
+				} else if (featureCall instanceof XAssignment && isParameter(expression, feature)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the local variables and parameters that are declared outside of the expression, in the order of their
+	 *         first use.
+	 */
+	protected List<JvmIdentifiableElement> getParameters(XExpression expression) {
+		Set<JvmIdentifiableElement> result = Sets.newLinkedHashSet();
+		TreeIterator<EObject> iterator = EcoreUtil.getAllContents(expression, true);
+		while (iterator.hasNext()) {
+			EObject next = iterator.next();
+			if (next instanceof XAbstractFeatureCall) {
+				JvmIdentifiableElement feature = ((XAbstractFeatureCall) next).getFeature();
+				if (isParameter(expression, feature))
+					result.add(feature);
+			}
+		}
+		return ImmutableList.copyOf(result);
+	}
+
+	protected boolean isParameter(XExpression expression, JvmIdentifiableElement feature) {
+		return !(feature instanceof JvmType) && !(feature instanceof JvmMember)
+				&& !EcoreUtil.isAncestor(expression, feature);
+	}
+
+	protected String getJavaCode(String className, XExpression expression, List<JvmIdentifiableElement> parameters) {
+		FakeTreeAppendable body = new FakeTreeAppendable();
+		body.increaseIndentation().increaseIndentation();
+		String arguments = body.declareSyntheticVariable(ARGUMENTS, "_arguments");
+		String cancelIndicator = body.declareSyntheticVariable(CANCEL_INDICATOR, "_canceled");
+		IResolvedTypes resolvedTypes = typeResolver.resolveTypes(expression);
+		for (int i = 0; i < parameters.size(); i++) {
+			JvmIdentifiableElement parameter = parameters.get(i);
+			LightweightTypeReference type = resolvedTypes.getActualType(parameter);
+			if (type == null)
+				throw new IllegalStateException("Cannot resolve the type of " + parameter.getSimpleName());
+			String name = body.declareVariable(parameter, parameter.getSimpleName());
+			body.newLine().append("final ").append(type.getJavaIdentifier()).append(" ").append(name).append(" = (")
+					.append(type.getWrapperTypeIfPrimitive().getJavaIdentifier()).append(") ").append(arguments)
+					.append("[").append(String.valueOf(i)).append("];");
+		}
+		compilerProvider.get().compile(expression, body, typeReferences.getTypeForName(Object.class, expression));
+		String function0 = Functions.Function0.class.getCanonicalName() + "<Boolean>";
+		StringBuilder result = new StringBuilder();
+		result.append("public class ").append(className).append(" implements ")
+				.append(Functions.Function2.class.getCanonicalName()).append("<Object[], ").append(function0)
+				.append(", Object> {\n");
+		result.append("\tpublic Object apply(final Object[] ").append(arguments).append(", final ").append(function0)
+				.append(" ").append(cancelIndicator).append(") {");
+		result.append(body.getContent());
+		result.append("\n\t}\n}\n");
+		return result.toString();
+	}
+
+	/**
+	 * Called if the Java code of an expression does not compile, e.g. because it accesses protected members. The
+	 * expression will be interpreted.
+	 */
+	protected void compilationFailed(XExpression expression, String javaCode, Exception exception) {
+		if (log.isDebugEnabled())
+			log.debug("Interpreting expression that could not be compiled:\n" + javaCode, exception);
+	}
+
+	/**
+	 * A compiled expression together with the names of the context values that it reads.
+	 */
+	protected static class CompiledExpression {
+
+		private final Function2<Object[], Function0<Boolean>, Object> function;
+
+		private final List<QualifiedName> parameterNames;
+
+		protected CompiledExpression(Function2<Object[], Function0<Boolean>, Object> function,
+				List<QualifiedName> parameterNames) {
+			this.function = function;
+			this.parameterNames = parameterNames;
+		}
+
+		/**
+		 * @throws CancellationException if the indicator was canceled during the evaluation.
+		 */
+		public Object evaluate(IEvaluationContext context, final CancelIndicator indicator) {
+			Object[] arguments = new Object[parameterNames.size()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = context.getValue(parameterNames.get(i));
+			}
+			return function.apply(arguments, new Function0<Boolean>() {
+				public Boolean apply() {
+					return indicator.isCanceled();
+				}
+			});
+		}
+
+	}
+
+	/**
+	 * Checks the cancel indicator of the compiled expression at the start of each loop iteration and lambda
+	 * invocation.
+	 */
+	public static class CancelableXbaseCompiler extends XbaseCompiler {
+
+		@Override
+		protected void doInternalToJavaStatement(XExpression obj, ITreeAppendable appendable, boolean isReferenced) {
+			if (isCancelationPoint(obj)) {
+				appendable.newLine().append("if (").append(appendable.getName(CANCEL_INDICATOR))
+						.append(".apply().booleanValue())");
+				appendable.increaseIndentation().newLine().append("throw new ")
+						.append(CancellationException.class.getName()).append("();");
+				appendable.decreaseIndentation();
+			}
+			super.doInternalToJavaStatement(obj, appendable, isReferenced);
+		}
+
+		protected boolean isCancelationPoint(XExpression expression) {
+			EStructuralFeature containingFeature = expression.eContainingFeature();
+			return containingFeature == XbasePackage.Literals.XABSTRACT_WHILE_EXPRESSION__BODY
+					|| containingFeature == XbasePackage.Literals.XFOR_LOOP_EXPRESSION__EACH_EXPRESSION
+					|| containingFeature == XbasePackage.Literals.XCLOSURE__EXPRESSION;
+		}
+
+	}
+
+}
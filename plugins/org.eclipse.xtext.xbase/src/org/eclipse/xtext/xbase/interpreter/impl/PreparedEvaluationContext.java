@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.interpreter.impl;
+
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+
+/**
+ * Carries the {@link PreparedExpression} through the evaluation, so the forked contexts of blocks and closures use
+ * the prepared lookups, too.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+class PreparedEvaluationContext implements IEvaluationContext {
+
+	private final IEvaluationContext delegate;
+
+	private final PreparedExpression preparedExpression;
+
+	PreparedEvaluationContext(IEvaluationContext delegate, PreparedExpression preparedExpression) {
+		this.delegate = delegate;
+		this.preparedExpression = preparedExpression;
+	}
+
+	public Object getValue(QualifiedName qualifiedName) {
+		return delegate.getValue(qualifiedName);
+	}
+
+	public void newValue(QualifiedName qualifiedName, Object value) {
+		delegate.newValue(qualifiedName, value);
+	}
+
+	public void assignValue(QualifiedName qualifiedName, Object value) {
+		delegate.assignValue(qualifiedName, value);
+	}
+
+	public IEvaluationContext fork() {
+		return new PreparedEvaluationContext(delegate.fork(), preparedExpression);
+	}
+
+	PreparedExpression getPreparedExpression() {
+		return preparedExpression;
+	}
+
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.interpreter.impl;
+
+import java.lang.reflect.AccessibleObject;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Maps;
+
+/**
+ * An expression whose types, reflective members and classes were looked up once by
+ * {@link XbaseInterpreter#prepare(XExpression)}. A prepared expression can be evaluated repeatedly and concurrently,
+ * as long as each evaluation uses its own {@link IEvaluationContext context}. The expression must not be modified
+ * after it was prepared.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class PreparedExpression {
+
+	/**
+	 * The conversion of a value that is expected to be an {@link Iterable} but may be an array.
+	 */
+	static final Object WRAP_ARRAY = new Object();
+
+	static class Builder {
+
+		private final XbaseInterpreter interpreter;
+		private final XExpression expression;
+		private final Map<EObject, Object> conversions = new IdentityHashMap<EObject, Object>();
+		private final Map<XExpression, Object> constants = new IdentityHashMap<XExpression, Object>();
+		private final Map<XExpression, Class<?>> actualTypes = new IdentityHashMap<XExpression, Class<?>>();
+		private final Map<XExpression, String> operators = new IdentityHashMap<XExpression, String>();
+		private final Map<JvmIdentifiableElement, AccessibleObject> members = new IdentityHashMap<JvmIdentifiableElement, AccessibleObject>();
+		private final Map<String, Class<?>> classes = Maps.newHashMap();
+
+		Builder(XbaseInterpreter interpreter, XExpression expression) {
+			this.interpreter = interpreter;
+			this.expression = expression;
+		}
+
+		/**
+		 * @param conversion either the component type of the expected array or {@link PreparedExpression#WRAP_ARRAY}.
+		 */
+		void putConversion(EObject expressionOrType, Object conversion) {
+			conversions.put(expressionOrType, conversion);
+		}
+
+		void putConstant(XExpression expression, Object value) {
+			constants.put(expression, value);
+		}
+
+		void putActualType(XExpression expression, Class<?> type) {
+			actualTypes.put(expression, type);
+		}
+
+		void putOperator(XExpression expression, String operator) {
+			operators.put(expression, operator);
+		}
+
+		void putMember(JvmIdentifiableElement element, AccessibleObject member) {
+			members.put(element, member);
+		}
+
+		void putClass(String name, Class<?> clazz) {
+			classes.put(name, clazz);
+		}
+
+		boolean hasClass(String name) {
+			return classes.containsKey(name);
+		}
+
+		PreparedExpression build() {
+			return new PreparedExpression(this);
+		}
+	}
+
+	private final XbaseInterpreter interpreter;
+	private final XExpression expression;
+	private final Map<EObject, Object> conversions;
+	private final Map<XExpression, Object> constants;
+	private final Map<XExpression, Class<?>> actualTypes;
+	private final Map<XExpression, String> operators;
+	private final Map<JvmIdentifiableElement, AccessibleObject> members;
+	private final Map<String, Class<?>> classes;
+
+	PreparedExpression(Builder builder) {
+		this.interpreter = builder.interpreter;
+		this.expression = builder.expression;
+		this.conversions = new IdentityHashMap<EObject, Object>(builder.conversions);
+		this.constants = new IdentityHashMap<XExpression, Object>(builder.constants);
+		this.actualTypes = new IdentityHashMap<XExpression, Class<?>>(builder.actualTypes);
+		this.operators = new IdentityHashMap<XExpression, String>(builder.operators);
+		this.members = new IdentityHashMap<JvmIdentifiableElement, AccessibleObject>(builder.members);
+		this.classes = Maps.newHashMap(builder.classes);
+	}
+
+	public XExpression getExpression() {
+		return expression;
+	}
+
+	public IEvaluationResult evaluate() {
+		return evaluate(interpreter.createContext(), CancelIndicator.NullImpl);
+	}
+
+	public IEvaluationResult evaluate(IEvaluationContext context, CancelIndicator indicator) {
+		return interpreter.evaluate(expression, new PreparedEvaluationContext(context, this), indicator);
+	}
+
+	/**
+	 * @return the component type of the expected array, {@link #WRAP_ARRAY} or <code>null</code> if the value of the
+	 *         expression or the casted value of the type reference is used as is.
+	 */
+	Object getConversion(EObject expressionOrType) {
+		return conversions.get(expressionOrType);
+	}
+
+	public boolean hasConstant(XExpression expression) {
+		return constants.containsKey(expression);
+	}
+
+	public Object getConstant(XExpression expression) {
+		return constants.get(expression);
+	}
+
+	/**
+	 * @return the raw type of the given expression or <code>null</code> if it was not prepared.
+	 */
+	public Class<?> getActualType(XExpression expression) {
+		return actualTypes.get(expression);
+	}
+
+	/**
+	 * @return the operator of the given short circuit or mapped to operation or <code>null</code>.
+	 */
+	public String getOperator(XExpression expression) {
+		return operators.get(expression);
+	}
+
+	public AccessibleObject getMember(JvmIdentifiableElement element) {
+		return members.get(element);
+	}
+
+	public Class<?> getClass(String name) {
+		return classes.get(name);
+	}
+
+}
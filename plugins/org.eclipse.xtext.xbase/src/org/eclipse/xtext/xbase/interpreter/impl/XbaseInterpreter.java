@@ -12,6 +12,7 @@ import static com.google.common.collect.Maps.*;
 import static com.google.common.collect.Sets.*;
 import static org.eclipse.xtext.util.Strings.*;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -28,6 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.common.types.JvmConstructor;
 import org.eclipse.xtext.common.types.JvmExecutable;
 import org.eclipse.xtext.common.types.JvmField;
@@ -88,6 +92,7 @@ import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures;
 import org.eclipse.xtext.xbase.scoping.featurecalls.OperatorMapping;
 import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
+import org.eclipse.xtext.xbase.typesystem.IResolvedTypes;
 import org.eclipse.xtext.xbase.typesystem.computation.NumberLiterals;
 import org.eclipse.xtext.xbase.typesystem.legacy.StandardTypeReferenceOwner;
 import org.eclipse.xtext.xbase.typesystem.references.LightweightTypeReference;
@@ -204,15 +209,173 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		}
 	}
 
+	/**
+	 * Looks up the types, the reflective members and the classes that are used by the given expression once, so the
+	 * returned {@link PreparedExpression} can be evaluated repeatedly without looking them up again. The prepared
+	 * expression can be evaluated concurrently by multiple threads as long as each evaluation uses its own
+	 * {@link IEvaluationContext}. Preparing an expression resolves its types and is not thread-safe.
+	 * 
+	 * @since 2.5
+	 */
+	public PreparedExpression prepare(XExpression expression) {
+		EcoreUtil.resolveAll(expression);
+		PreparedExpression.Builder builder = new PreparedExpression.Builder(this, expression);
+		prepare(expression, builder);
+		TreeIterator<EObject> iterator = expression.eAllContents();
+		while (iterator.hasNext()) {
+			EObject next = iterator.next();
+			if (next instanceof XExpression) {
+				prepare((XExpression) next, builder);
+			} else if (next instanceof JvmTypeReference) {
+				prepareClass((JvmTypeReference) next, builder);
+			}
+		}
+		return builder.build();
+	}
+
+	private void prepare(XExpression expression, PreparedExpression.Builder builder) {
+		IResolvedTypes resolvedTypes = typeResolver.resolveTypes(expression);
+		LightweightTypeReference expectedType = resolvedTypes.getExpectedType(expression);
+		if (expectedType != null)
+			prepareConversion(expression, expectedType, builder);
+		NullEvaluationContext nullContext = new NullEvaluationContext();
+		if (expression instanceof XStringLiteral) {
+			builder.putConstant(expression, _doEvaluate((XStringLiteral) expression, nullContext, CancelIndicator.NullImpl));
+		} else if (expression instanceof XNumberLiteral) {
+			try {
+				builder.putConstant(expression, _doEvaluate((XNumberLiteral) expression, nullContext, CancelIndicator.NullImpl));
+			} catch (RuntimeException e) {
+				// report the problem when the literal is evaluated
+			}
+		} else if (expression instanceof XTypeLiteral) {
+			XTypeLiteral literal = (XTypeLiteral) expression;
+			if (literal.getType() != null && !literal.getType().eIsProxy())
+				prepareClass(literal.getType().getQualifiedName() + Joiner.on("").join(literal.getArrayDimensions()), builder);
+		} else if (expression instanceof XListLiteral || expression instanceof XSetLiteral) {
+			prepareActualType(expression, resolvedTypes, builder);
+			if (expression instanceof XSetLiteral) {
+				for (XExpression element : ((XSetLiteral) expression).getElements()) {
+					prepareActualType(element, resolvedTypes, builder);
+				}
+			}
+		} else if (expression instanceof XCastedExpression) {
+			JvmTypeReference type = ((XCastedExpression) expression).getType();
+			StandardTypeReferenceOwner owner = new StandardTypeReferenceOwner(services, expression);
+			prepareConversion(type, new OwnedConverter(owner).toLightweightReference(type), builder);
+		} else if (expression instanceof XConstructorCall) {
+			JvmConstructor constructor = ((XConstructorCall) expression).getConstructor();
+			if (constructor != null && !constructor.eIsProxy()) {
+				prepareMember(constructor, javaReflectAccess.getConstructor(constructor), builder);
+				prepareParameterClasses(constructor, builder);
+			}
+		} else if (expression instanceof XAbstractFeatureCall) {
+			XAbstractFeatureCall featureCall = (XAbstractFeatureCall) expression;
+			JvmIdentifiableElement feature = featureCall.getFeature();
+			if (featureCall.isTypeLiteral()) {
+				prepareClass(((JvmType) feature).getQualifiedName(), builder);
+			} else if (feature instanceof JvmOperation) {
+				prepareMember(feature, javaReflectAccess.getMethod((JvmOperation) feature), builder);
+				prepareParameterClasses((JvmOperation) feature, builder);
+			} else if (feature instanceof JvmField) {
+				prepareMember(feature, javaReflectAccess.getField((JvmField) feature), builder);
+				prepareClass(((JvmField) feature).getType(), builder);
+			}
+			if (featureCall instanceof XMemberFeatureCall && ((XMemberFeatureCall) featureCall).isNullSafe()) {
+				LightweightTypeReference actualType = resolvedTypes.getActualType(featureCall);
+				if (actualType != null)
+					builder.putConstant(featureCall, getDefaultObjectValue(actualType));
+			}
+			if (expressionHelper.isShortCircuitOperation(featureCall)
+					|| expressionHelper.isOperatorFromExtension(featureCall, OperatorMapping.MAPPED_TO, ObjectExtensions.class)) {
+				builder.putOperator(featureCall, featureCall.getConcreteSyntaxFeatureName());
+			}
+		}
+	}
+
+	private void prepareConversion(EObject expressionOrType, LightweightTypeReference expectedType,
+			PreparedExpression.Builder builder) {
+		if (expectedType.isArray()) {
+			Class<?> arrayType = getJavaReflectAccess().getRawType(expectedType.getType());
+			if (arrayType != null)
+				builder.putConversion(expressionOrType, arrayType.getComponentType());
+		} else if (expectedType.isSubtypeOf(Iterable.class)) {
+			builder.putConversion(expressionOrType, PreparedExpression.WRAP_ARRAY);
+		}
+	}
+
+	private void prepareActualType(XExpression expression, IResolvedTypes resolvedTypes, PreparedExpression.Builder builder) {
+		LightweightTypeReference actualType = resolvedTypes.getActualType(expression);
+		if (actualType != null) {
+			Class<?> rawType = getJavaReflectAccess().getRawType(actualType.getType());
+			if (rawType != null)
+				builder.putActualType(expression, rawType);
+		}
+	}
+
+	private void prepareMember(JvmIdentifiableElement element, AccessibleObject member, PreparedExpression.Builder builder) {
+		if (member != null) {
+			member.setAccessible(true);
+			builder.putMember(element, member);
+		}
+	}
+
+	private void prepareParameterClasses(JvmExecutable executable, PreparedExpression.Builder builder) {
+		for (JvmFormalParameter parameter : executable.getParameters()) {
+			prepareClass(parameter.getParameterType(), builder);
+		}
+	}
+
+	private void prepareClass(JvmTypeReference typeReference, PreparedExpression.Builder builder) {
+		if (typeReference == null)
+			return;
+		JvmType type = typeReference.getType();
+		if (type != null && !type.eIsProxy()) {
+			prepareClass(type.getQualifiedName(), builder);
+			prepareClass(type.getIdentifier(), builder);
+		}
+	}
+
+	private void prepareClass(String name, PreparedExpression.Builder builder) {
+		if (name == null || builder.hasClass(name))
+			return;
+		try {
+			builder.putClass(name, classFinder.forName(name));
+		} catch (ClassNotFoundException e) {
+			// report the problem when the class is used
+		}
+	}
+
+	/**
+	 * @return the prepared expression that is evaluated with the given context or <code>null</code> if the
+	 *         expression was not {@link #prepare(XExpression) prepared}.
+	 * @since 2.5
+	 */
+	protected PreparedExpression getPreparedExpression(IEvaluationContext context) {
+		if (context instanceof PreparedEvaluationContext)
+			return ((PreparedEvaluationContext) context).getPreparedExpression();
+		return null;
+	}
+
 	protected Object internalEvaluate(XExpression expression, IEvaluationContext context, CancelIndicator indicator) throws EvaluationException {
 		if (indicator.isCanceled())
 			throw new InterpreterCanceledException();
 		Object result = doEvaluate(expression, context, indicator);
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null)
+			return convert(result, preparedExpression.getConversion(expression));
 		final LightweightTypeReference expectedType = typeResolver.resolveTypes(expression).getExpectedType(expression);
 		if(expectedType != null)
 			result = wrapOrUnwrapArray(result, expectedType);
 		return result;
 	}
+
+	private Object convert(Object result, Object conversion) {
+		if (conversion == PreparedExpression.WRAP_ARRAY)
+			return Conversions.doWrapArray(result);
+		if (conversion != null)
+			return Conversions.unwrapArray(result, (Class<?>) conversion);
+		return result;
+	}
 	
 	/**
 	 * don't call this directly. Always call evaluate() internalEvaluate()
@@ -289,10 +452,12 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 
 	/**
-	 * @param context unused in this context but required for dispatching
 	 * @param indicator unused in this context but required for dispatching
 	 */
 	protected Object _doEvaluate(XStringLiteral literal, IEvaluationContext context, CancelIndicator indicator) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null && preparedExpression.hasConstant(literal))
+			return preparedExpression.getConstant(literal);
 		LightweightTypeReference type = typeResolver.resolveTypes(literal).getActualType(literal);
 		if (type != null && (type.isType(Character.TYPE) || type.isType(Character.class))) {
 			return literal.getValue().charAt(0);
@@ -301,10 +466,12 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 
 	/**
-	 * @param context unused in this context but required for dispatching
 	 * @param indicator unused in this context but required for dispatching
 	 */
 	protected Object _doEvaluate(XNumberLiteral literal, IEvaluationContext context, CancelIndicator indicator) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null && preparedExpression.hasConstant(literal))
+			return preparedExpression.getConstant(literal);
 		return numberLiterals.numberValue(literal, numberLiterals.getJavaType(literal));
 	}
 
@@ -317,7 +484,6 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 
 	/**
-	 * @param context unused in this context but required for dispatching
 	 * @param indicator unused in this context but required for dispatching
 	 */
 	protected Object _doEvaluate(XTypeLiteral literal, IEvaluationContext context, CancelIndicator indicator) {
@@ -330,7 +496,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			throw new EvaluationException(new ClassNotFoundException(nodesForFeature.get(0).getText()));
 		}
 		try {
-			Class<?> result = classFinder.forName(literal.getType().getQualifiedName() + Joiner.on("").join(literal.getArrayDimensions()));
+			Class<?> result = findClass(literal.getType().getQualifiedName() + Joiner.on("").join(literal.getArrayDimensions()), context);
 			return result;
 		} catch (ClassNotFoundException cnfe) {
 			throw new EvaluationException(cnfe);
@@ -338,29 +504,37 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 
 	protected Object _doEvaluate(XListLiteral literal, IEvaluationContext context, CancelIndicator indicator) {
-		LightweightTypeReference type = typeResolver.resolveTypes(literal).getActualType(literal);
+		boolean isArray;
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Class<?> type = preparedExpression.getActualType(literal);
+			isArray = type != null && type.isArray();
+		} else {
+			LightweightTypeReference type = typeResolver.resolveTypes(literal).getActualType(literal);
+			isArray = type != null && type.isArray();
+		}
 		List<Object> list = newArrayList();
 		for(XExpression element: literal.getElements()) {
 			if (indicator.isCanceled())
 				throw new InterpreterCanceledException();
 			list.add(internalEvaluate(element, context, indicator));
 		}
-		if(type != null && type.isArray())
+		if(isArray)
 			return Iterables.toArray(list, Object.class);
 		else
 			return Collections.unmodifiableList(list);
 	}
 
 	protected Object _doEvaluate(XSetLiteral literal, IEvaluationContext context, CancelIndicator indicator) {
-		if(isType(literal, Map.class)) {
+		if(isType(literal, Map.class, context)) {
 			Map<Object, Object> map = newHashMap();
 			for(XExpression element: literal.getElements()) {
 				if (indicator.isCanceled())
 					throw new InterpreterCanceledException();
-				if (expressionHelper.isOperatorFromExtension(element, OperatorMapping.MAPPED_TO, ObjectExtensions.class)) {
+				if (isMappedTo(element, context)) {
 					map.put(internalEvaluate(((XBinaryOperation)element).getLeftOperand(), context, indicator),
 							internalEvaluate(((XBinaryOperation)element).getRightOperand(), context, indicator));
-				} else if (isType(element, Pair.class)) {
+				} else if (isType(element, Pair.class, context)) {
 					Pair<?, ?> pair = (Pair<?, ?>) internalEvaluate(element, context, indicator);
 					map.put(pair == null ? null : pair.getKey(), pair == null ? null : pair.getValue());
 				}
@@ -381,6 +555,40 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		return resolveType(element, clazz) != null;
 	}
 
+	/**
+	 * @since 2.5
+	 */
+	protected boolean isType(XExpression element, Class<?> clazz, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Class<?> type = preparedExpression.getActualType(element);
+			return type != null && type.getName().equals(clazz.getName());
+		}
+		return isType(element, clazz);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected boolean isMappedTo(XExpression element, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null)
+			return OperatorMapping.MAPPED_TO.getLastSegment().equals(preparedExpression.getOperator(element));
+		return expressionHelper.isOperatorFromExtension(element, OperatorMapping.MAPPED_TO, ObjectExtensions.class);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected boolean isShortCircuitOperation(XAbstractFeatureCall featureCall, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			String operator = preparedExpression.getOperator(featureCall);
+			return operator != null && !OperatorMapping.MAPPED_TO.getLastSegment().equals(operator);
+		}
+		return expressionHelper.isShortCircuitOperation(featureCall);
+	}
+
 	protected LightweightTypeReference resolveType(XExpression element, Class<?> clazz) {
 		LightweightTypeReference elementType = typeResolver.resolveTypes(element).getActualType(element);
 		return elementType != null && elementType.isType(clazz) ? elementType : null;
@@ -452,7 +660,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			if (casePart.getTypeGuard() != null) {
 				String typeName = casePart.getTypeGuard().getType().getQualifiedName();
 				try {
-					expectedType = classFinder.forName(typeName);
+					expectedType = findClass(typeName, forkedContext);
 				} catch (ClassNotFoundException e) {
 					throw new EvaluationException(new NoClassDefFoundError(typeName));
 				}
@@ -479,10 +687,15 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 
 	protected Object _doEvaluate(XCastedExpression castedExpression, IEvaluationContext context, CancelIndicator indicator) {
 		Object result = internalEvaluate(castedExpression.getTarget(), context, indicator);
-		StandardTypeReferenceOwner owner = new StandardTypeReferenceOwner(services, castedExpression);
-		LightweightTypeReference targetType = new OwnedConverter(owner).toLightweightReference(castedExpression.getType());
-		result = wrapOrUnwrapArray(result, targetType);
-		result = coerceArgumentType(result, castedExpression.getType());
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			result = convert(result, preparedExpression.getConversion(castedExpression.getType()));
+		} else {
+			StandardTypeReferenceOwner owner = new StandardTypeReferenceOwner(services, castedExpression);
+			LightweightTypeReference targetType = new OwnedConverter(owner).toLightweightReference(castedExpression.getType());
+			result = wrapOrUnwrapArray(result, targetType);
+		}
+		result = coerceArgumentType(result, castedExpression.getType(), context);
 		JvmType castType = castedExpression.getType().getType();
 		if (castType instanceof JvmPrimitiveType) {
 			if (result == null) {
@@ -493,7 +706,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			String typeName = castType.getQualifiedName();
 			Class<?> expectedType = null;
 			try {
-				expectedType = classFinder.forName(typeName);
+				expectedType = findClass(typeName, context);
 			} catch (ClassNotFoundException e) {
 				throw new EvaluationException(new NoClassDefFoundError(typeName));
 			}
@@ -591,7 +804,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 				JvmFormalParameter exception = catchClause.getDeclaredParam();
 				String exceptionTypeName = exception.getParameterType().getType().getQualifiedName();
 				try {
-					Class<?> exceptionType = classFinder.forName(exceptionTypeName);
+					Class<?> exceptionType = findClass(exceptionTypeName, context);
 					if (!exceptionType.isInstance(cause))
 						continue;
 				} catch (ClassNotFoundException e) {
@@ -687,11 +900,12 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	protected Object _doEvaluate(XConstructorCall constructorCall, IEvaluationContext context, CancelIndicator indicator) {
 		JvmConstructor jvmConstructor = constructorCall.getConstructor();
 		List<Object> arguments = evaluateArgumentExpressions(jvmConstructor, constructorCall.getArguments(), context, indicator);
-		Constructor<?> constructor = javaReflectAccess.getConstructor(jvmConstructor);
+		Constructor<?> constructor = getConstructor(jvmConstructor, context);
 		try {
 			if (constructor == null)
 				throw new NoSuchMethodException("Could not find constructor " + jvmConstructor.getIdentifier());
-			constructor.setAccessible(true);
+			if (!constructor.isAccessible())
+				constructor.setAccessible(true);
 			Object result = constructor.newInstance(arguments.toArray(new Object[arguments.size()]));
 			return result;
 		} catch (InvocationTargetException targetException) {
@@ -705,7 +919,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		if (featureCall.isTypeLiteral()) {
 			JvmType type = (JvmType) featureCall.getFeature();
 			try {
-				Class<?> result = classFinder.forName(type.getQualifiedName());
+				Class<?> result = findClass(type.getQualifiedName(), context);
 				return result;
 			} catch (ClassNotFoundException cnfe) {
 				throw new EvaluationException(cnfe);
@@ -714,6 +928,9 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			XExpression receiver = getActualReceiver(featureCall); //, featureCall.getFeature(), featureCall.getImplicitReceiver());
 			Object receiverObj = receiver==null?null:internalEvaluate(receiver, context, indicator);
 			if (featureCall.isNullSafe() && receiverObj==null) {
+				PreparedExpression preparedExpression = getPreparedExpression(context);
+				if (preparedExpression != null && preparedExpression.hasConstant(featureCall))
+					return preparedExpression.getConstant(featureCall);
 				return getDefaultObjectValue(typeResolver.resolveTypes(featureCall).getActualType(featureCall));
 			}
 			return invokeFeature(featureCall.getFeature(), featureCall, receiverObj, context, indicator);
@@ -758,7 +975,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		Class<?> expectedType = null;
 		String className = instanceOf.getType().getType().getQualifiedName();
 		try {
-			expectedType = classFinder.forName(className);
+			expectedType = findClass(className, context);
 		} catch (ClassNotFoundException cnfe) {
 			throw new EvaluationException(new NoClassDefFoundError(className));
 		}
@@ -804,7 +1021,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		if (featureCall.isTypeLiteral()) {
 			JvmType type = (JvmType) featureCall.getFeature();
 			try {
-				Class<?> result = classFinder.forName(type.getQualifiedName());
+				Class<?> result = findClass(type.getQualifiedName(), context);
 				return result;
 			} catch (ClassNotFoundException cnfe) {
 				throw new EvaluationException(cnfe);
@@ -815,7 +1032,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 	
 	protected Object _doEvaluate(XAbstractFeatureCall featureCall, IEvaluationContext context, CancelIndicator indicator) {
-		if (expressionHelper.isShortCircuitOperation(featureCall)) {
+		if (isShortCircuitOperation(featureCall, context)) {
 			XExpression leftOperand = ((XBinaryOperation)featureCall).getLeftOperand();
 			Object result = internalEvaluate(leftOperand, context, indicator);
 			String operatorName = featureCall.getConcreteSyntaxFeatureName();
@@ -887,11 +1104,16 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	 * @param indicator unused in this context but required for dispatching
 	 */
 	protected Object _invokeFeature(JvmField jvmField, XAbstractFeatureCall featureCall, Object receiver, IEvaluationContext context, CancelIndicator indicator) {
+		if (getPreparedExpression(context) != null)
+			return featureCallField(getField(jvmField, context), jvmField, receiver);
 		return featureCallField(jvmField, receiver);
 	}
 
 	protected Object featureCallField(JvmField jvmField, Object receiver) {
-		Field field = javaReflectAccess.getField(jvmField);
+		return featureCallField(javaReflectAccess.getField(jvmField), jvmField, receiver);
+	}
+
+	private Object featureCallField(Field field, JvmField jvmField, Object receiver) {
 		try {
 			if (field == null) {
 				throw new NoSuchFieldException("Could not find field " + jvmField.getIdentifier());
@@ -899,7 +1121,8 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			if(!Modifier.isStatic(field.getModifiers()) && receiver == null) {
 				throw new EvaluationException(new NullPointerException("cannot access field " + field + " on null"));
 			}
-			field.setAccessible(true);
+			if (!field.isAccessible())
+				field.setAccessible(true);
 			Object result = field.get(receiver);
 			return result;
 		} catch(EvaluationException ee) {
@@ -929,11 +1152,16 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	 */
 	protected Object invokeOperation(JvmOperation operation, Object receiver, List<Object> argumentValues,
 			IEvaluationContext context, CancelIndicator indicator) {
+		if (getPreparedExpression(context) != null)
+			return invokeOperation(getMethod(operation, context), operation, receiver, argumentValues);
 		return invokeOperation(operation, receiver, argumentValues);
 	}
 	
 	protected Object invokeOperation(JvmOperation operation, Object receiver, List<Object> argumentValues) {
-		Method method = javaReflectAccess.getMethod(operation);
+		return invokeOperation(javaReflectAccess.getMethod(operation), operation, receiver, argumentValues);
+	}
+
+	private Object invokeOperation(Method method, JvmOperation operation, Object receiver, List<Object> argumentValues) {
 		try {
 			if (method == null) {
 				throw new NoSuchMethodException("Could not find method " + operation.getIdentifier());
@@ -953,7 +1181,8 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 					throw new InvocationTargetException(throwable);
 				}
 			} else {
-				method.setAccessible(true);
+				if (!method.isAccessible())
+					method.setAccessible(true);
 				Object result = method.invoke(receiver, argumentValues.toArray(new Object[argumentValues.size()]));
 				return result;
 			}
@@ -986,16 +1215,16 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			XExpression arg = expressions.get(i);
 			Object argResult = internalEvaluate(arg, context, indicator);
 			JvmTypeReference parameterType = executable.getParameters().get(i).getParameterType();
-			Object argumentValue = coerceArgumentType(argResult, parameterType);
+			Object argumentValue = coerceArgumentType(argResult, parameterType, context);
 			result.add(argumentValue);
 		}
 		if (executable.isVarArgs()) {
 			Class<?> componentType = null;
 			if (executable instanceof JvmOperation) {
-				Method method = javaReflectAccess.getMethod((JvmOperation) executable);
+				Method method = getMethod((JvmOperation) executable, context);
 				componentType = method.getParameterTypes()[paramCount].getComponentType();
 			} else {
-				Constructor<?> constructor = javaReflectAccess.getConstructor((JvmConstructor) executable);
+				Constructor<?> constructor = getConstructor((JvmConstructor) executable, context);
 				componentType = constructor.getParameterTypes()[paramCount].getComponentType();
 			}
 			if (expressions.size() == executable.getParameters().size()) {
@@ -1022,12 +1251,25 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 	}
 	
 	protected Object coerceArgumentType(Object value, JvmTypeReference expectedType) {
+		return doCoerceArgumentType(value, expectedType, null);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected Object coerceArgumentType(Object value, JvmTypeReference expectedType, IEvaluationContext context) {
+		if (getPreparedExpression(context) == null)
+			return coerceArgumentType(value, expectedType);
+		return doCoerceArgumentType(value, expectedType, context);
+	}
+
+	private Object doCoerceArgumentType(Object value, JvmTypeReference expectedType, IEvaluationContext context) {
 		if (value == null)
 			return null;
 		if (expectedType.getType() instanceof JvmGenericType && ((JvmGenericType) expectedType.getType()).isInterface()) {
 			try {
 				JvmType type = expectedType.getType();
-				Class<?> functionIntf = classFinder.forName(type.getIdentifier());
+				Class<?> functionIntf = findClass(type.getIdentifier(), context);
 				if (!functionIntf.isInstance(value)) {
 					InvocationHandler invocationHandler = null;
 					if (Proxy.isProxyClass(value.getClass())) {
@@ -1101,7 +1343,7 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			IEvaluationContext context, CancelIndicator indicator) {
 		if (variable.getType() != null) {
 			JvmTypeReference type = variable.getType();
-			Object coerced = coerceArgumentType(value, type);
+			Object coerced = coerceArgumentType(value, type, context);
 			context.assignValue(QualifiedName.create(variable.getName()), coerced);
 		} else {
 			context.assignValue(QualifiedName.create(variable.getName()), value);
@@ -1116,13 +1358,14 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			throw new EvaluationException(new NullPointerException("Cannot assign value to field: "
 					+ jvmField.getIdentifier() + " on null instance"));
 		JvmTypeReference type = jvmField.getType();
-		Object coerced = coerceArgumentType(value, type);
-		Field field = javaReflectAccess.getField(jvmField);
+		Object coerced = coerceArgumentType(value, type, context);
+		Field field = getField(jvmField, context);
 		try {
 			if (field == null) {
 				throw new NoSuchFieldException("Could not find field " + jvmField.getIdentifier());
 			}
-			field.setAccessible(true);
+			if (!field.isAccessible())
+				field.setAccessible(true);
 			field.set(receiver, coerced);
 			return value;
 		} catch (Exception e) {
@@ -1144,13 +1387,13 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 			XExpression implicitArgument = assignment.getAssignable();
 			Object argResult = internalEvaluate(implicitArgument, context, indicator);
 			JvmTypeReference firstParameterType = jvmOperation.getParameters().get(0).getParameterType();
-			Object firstValue = coerceArgumentType(argResult, firstParameterType);
+			Object firstValue = coerceArgumentType(argResult, firstParameterType, context);
 			JvmTypeReference secondParameterType = jvmOperation.getParameters().get(1).getParameterType();
-			Object secondValue = coerceArgumentType(value, secondParameterType);
+			Object secondValue = coerceArgumentType(value, secondParameterType, context);
 			argumentValues = Lists.newArrayList(firstValue, secondValue);
 		} else {
 			JvmTypeReference secondParameterType = jvmOperation.getParameters().get(0).getParameterType();
-			Object coerced = coerceArgumentType(value, secondParameterType);
+			Object coerced = coerceArgumentType(value, secondParameterType, context);
 			argumentValues = Lists.newArrayList(coerced);
 		}
 		Object receiver = getReceiver(assignment, context, indicator);
@@ -1162,6 +1405,71 @@ public class XbaseInterpreter implements IExpressionInterpreter {
 		return classFinder;
 	}
 
+	/**
+	 * @since 2.5
+	 */
+	protected Class<?> findClass(String name, IEvaluationContext context) throws ClassNotFoundException {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Class<?> result = preparedExpression.getClass(name);
+			if (result != null)
+				return result;
+			// the class finder is not thread-safe
+			synchronized (classFinder) {
+				return classFinder.forName(name);
+			}
+		}
+		return classFinder.forName(name);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected Method getMethod(JvmOperation operation, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Method result = (Method) preparedExpression.getMember(operation);
+			if (result != null)
+				return result;
+			synchronized (javaReflectAccess) {
+				return javaReflectAccess.getMethod(operation);
+			}
+		}
+		return javaReflectAccess.getMethod(operation);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected Constructor<?> getConstructor(JvmConstructor constructor, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Constructor<?> result = (Constructor<?>) preparedExpression.getMember(constructor);
+			if (result != null)
+				return result;
+			synchronized (javaReflectAccess) {
+				return javaReflectAccess.getConstructor(constructor);
+			}
+		}
+		return javaReflectAccess.getConstructor(constructor);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected Field getField(JvmField field, IEvaluationContext context) {
+		PreparedExpression preparedExpression = getPreparedExpression(context);
+		if (preparedExpression != null) {
+			Field result = (Field) preparedExpression.getMember(field);
+			if (result != null)
+				return result;
+			synchronized (javaReflectAccess) {
+				return javaReflectAccess.getField(field);
+			}
+		}
+		return javaReflectAccess.getField(field);
+	}
+
 	protected JavaReflectAccess getJavaReflectAccess() {
 		return javaReflectAccess;
 	}
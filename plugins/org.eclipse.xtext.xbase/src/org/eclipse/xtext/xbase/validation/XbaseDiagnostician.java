@@ -19,6 +19,7 @@ import org.eclipse.xtext.validation.CancelableDiagnostician;
 import org.eclipse.xtext.xbase.XClosure;
 
 import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 
 /**
@@ -38,7 +39,7 @@ public class XbaseDiagnostician extends CancelableDiagnostician {
 
 	@Override
 	protected boolean doValidateContents(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
-		if (isCanceled(context))
+		if (isCanceled(context) || isContentsSkipped(eObject, context))
 			return true;
 		if (eObject instanceof XClosure) {
 			return doValidateLambdaContents((XClosure) eObject, diagnostics, context);
@@ -46,6 +47,20 @@ public class XbaseDiagnostician extends CancelableDiagnostician {
 		return super.doValidateContents(eObject, diagnostics, context);
 	}
 
+	@Override
+	public List<EObject> getValidatedContents(EObject eObject) {
+		if (eObject instanceof XClosure) {
+			XClosure closure = (XClosure) eObject;
+			JvmFormalParameter implicitParameter = closure.getImplicitParameter();
+			if (implicitParameter != null && !closure.eContents().contains(implicitParameter)) {
+				List<EObject> result = Lists.newArrayList(closure.eContents());
+				result.add(implicitParameter);
+				return result;
+			}
+		}
+		return super.getValidatedContents(eObject);
+	}
+
 	/**
 	 * Validates the implicit first parameter explicitly if it was not contained in {@link EObject#eContents()}.
 	 */
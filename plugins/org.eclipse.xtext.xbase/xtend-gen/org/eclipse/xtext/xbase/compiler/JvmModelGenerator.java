@@ -83,6 +83,8 @@ import org.eclipse.xtext.scoping.IScopeProvider;
 import org.eclipse.xtext.util.ITextRegionWithLineInformation;
 import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.Strings;
+import org.eclipse.xtext.util.internal.Stopwatches;
+import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.XBlockExpression;
 import org.eclipse.xtext.xbase.XExpression;
@@ -186,9 +188,15 @@ public class JvmModelGenerator implements IGenerator {
   private IQualifiedNameConverter qualifiedNameConverter;
   
   public void doGenerate(final Resource input, final IFileSystemAccess fsa) {
-    EList<EObject> _contents = input.getContents();
-    for (final EObject obj : _contents) {
-      this.internalDoGenerate(obj, fsa);
+    final StoppedTask task = Stopwatches.forTask("JvmModelGenerator.doGenerate");
+    task.start();
+    try {
+      EList<EObject> _contents = input.getContents();
+      for (final EObject obj : _contents) {
+        this.internalDoGenerate(obj, fsa);
+      }
+    } finally {
+      task.stop();
     }
   }
   
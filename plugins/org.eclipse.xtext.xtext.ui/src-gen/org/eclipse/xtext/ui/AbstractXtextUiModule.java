@@ -128,5 +128,10 @@ public abstract class AbstractXtextUiModule extends DefaultUiModule {
 		return org.eclipse.xtext.ui.contentassist.antlr.PartialXtextContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.ui.contentassist.antlr.PartialXtextContentAssistParser.class);
+	}
+
 
 }
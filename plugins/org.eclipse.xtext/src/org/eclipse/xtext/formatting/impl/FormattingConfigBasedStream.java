@@ -10,6 +10,7 @@ package org.eclipse.xtext.formatting.impl;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -163,12 +164,20 @@ public class FormattingConfigBasedStream extends BaseTokenStream {
 				return "";
 			if (indentation <= 0)
 				return indentationPrefix;
-			StringBuffer result = new StringBuffer(indentation * cfg.getIndentationSpace().length()
-					+ indentationPrefix.length());
-			result.append(indentationPrefix);
-			for (int i = 0; i < indentation; i++)
-				result.append(cfg.getIndentationSpace());
-			return result.toString();
+			// every line asks for its indentation, so the strings are computed once per level
+			while (indentations.size() <= indentation)
+				indentations.add(null);
+			String result = indentations.get(indentation);
+			if (result == null) {
+				StringBuilder builder = new StringBuilder(indentation * cfg.getIndentationSpace().length()
+						+ indentationPrefix.length());
+				builder.append(indentationPrefix);
+				for (int i = 0; i < indentation; i++)
+					builder.append(cfg.getIndentationSpace());
+				result = builder.toString();
+				indentations.set(indentation, result);
+			}
+			return result;
 		}
 
 		public Pair<AbstractRule, String> getSpaces(LineEntry entry, boolean isLineStart) {
@@ -329,6 +338,14 @@ public class FormattingConfigBasedStream extends BaseTokenStream {
 
 	protected Set<ElementLocator> activeRangeLocators = Sets.newHashSet();
 
+	private final Predicate<RuleCall> definesHiddenTokens = new Predicate<RuleCall>() {
+		public boolean apply(RuleCall input) {
+			return ((ParserRule) input.getRule()).isDefinesHiddenTokens();
+		}
+	};
+
+	private final List<String> indentations = Lists.newArrayList();
+
 	protected FormattingConfig cfg;
 
 	protected Line currentLine = null;
@@ -393,10 +410,15 @@ public class FormattingConfigBasedStream extends BaseTokenStream {
 
 	protected Set<ElementLocator> collectLocators(EObject ele) {
 		Set<ElementLocator> result = Sets.newHashSet(activeRangeLocators);
-		Collection<ElementLocator> loc = Sets.newHashSet();
-		if (ele instanceof AbstractElement)
-			for (ElementPattern pattern : matcher.matchNext((AbstractElement) ele))
-				loc.add(pattern.getLocator());
+		Collection<ElementLocator> loc = Collections.emptySet();
+		if (ele instanceof AbstractElement) {
+			Collection<ElementPattern> patterns = matcher.matchNext((AbstractElement) ele);
+			if (!patterns.isEmpty()) {
+				loc = Sets.newHashSet();
+				for (ElementPattern pattern : patterns)
+					loc.add(pattern.getLocator());
+			}
+		}
 		if ((last instanceof AbstractRule && hiddenTokenHelper.isComment((AbstractRule) last))
 				|| (ele instanceof AbstractRule && hiddenTokenHelper.isComment((AbstractRule) ele)))
 			loc = collectLocatorsForComments(loc, last, ele);
@@ -462,11 +484,7 @@ public class FormattingConfigBasedStream extends BaseTokenStream {
 	}
 
 	protected Pair<Integer, RuleCall> findTopmostHiddenTokenDef() {
-		return matcher.findTopmostRuleCall(new Predicate<RuleCall>() {
-			public boolean apply(RuleCall input) {
-				return ((ParserRule) input.getRule()).isDefinesHiddenTokens();
-			}
-		});
+		return matcher.findTopmostRuleCall(definesHiddenTokens);
 	}
 
 	@Override
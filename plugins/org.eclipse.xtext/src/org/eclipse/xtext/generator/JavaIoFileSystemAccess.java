@@ -32,6 +32,9 @@ import com.google.common.io.Files;
 import com.google.inject.Inject;
 
 /**
+ * Writes the generated files to the local file system. Once it is configured, different files may be generated
+ * concurrently.
+ * 
  * @author Sven Efftinge - Initial contribution and API
  * @author Jan Koehnlein
  * @author Moritz Eysholdt
@@ -153,7 +156,8 @@ public class JavaIoFileSystemAccess extends AbstractFileSystemAccess2 {
 	}
 
 	protected void createFolder(File parent) {
-		if (parent != null && !parent.exists() && !parent.mkdirs())
+		// the folder may have been created concurrently, thus check again if mkdirs fails
+		if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.isDirectory())
 			throw new RuntimeIOException("Could not create directory " + parent);
 	}
 
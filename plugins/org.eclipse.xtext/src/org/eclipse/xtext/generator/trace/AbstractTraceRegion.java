@@ -39,6 +39,7 @@ public abstract class AbstractTraceRegion {
 
 	private AbstractTraceRegion parent;
 	private List<AbstractTraceRegion> nestedRegions;
+	private volatile boolean nestedRegionsLoaded;
 
 	/**
 	 * Creates a new trace region and adds it to the parent if a parent was given.
@@ -92,17 +93,49 @@ public abstract class AbstractTraceRegion {
 	 * @return the list of directly nested regions.
 	 */
 	public final List<AbstractTraceRegion> getNestedRegions() {
+		ensureNestedRegionsLoaded();
 		if (nestedRegions == null)
 			return Collections.emptyList();
 		return Collections.unmodifiableList(nestedRegions);
 	}
 	
 	protected final List<AbstractTraceRegion> getWritableNestedRegions() {
+		ensureNestedRegionsLoaded();
 		if (nestedRegions == null)
 			nestedRegions = Lists.newArrayListWithCapacity(4);
 		return nestedRegions;
 	}
 	
+	private void ensureNestedRegionsLoaded() {
+		if (!nestedRegionsLoaded) {
+			synchronized (this) {
+				if (!nestedRegionsLoaded) {
+					List<AbstractTraceRegion> loaded = loadNestedRegions();
+					if (loaded != null && !loaded.isEmpty()) {
+						if (nestedRegions == null)
+							nestedRegions = Lists.newArrayList(loaded);
+						else
+							nestedRegions.addAll(loaded);
+					}
+					nestedRegionsLoaded = true;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Invoked once before the nested regions are accessed for the first time. Regions that
+	 * read their children on demand return them here. The returned regions must not
+	 * {@link #setAsChildIn(AbstractTraceRegion) add themselves} to this region.
+	 * @return the lazily created nested regions or <code>null</code> if the nested regions
+	 *   have been added by their constructors.
+	 * @since 2.5
+	 */
+	@Nullable
+	protected List<AbstractTraceRegion> loadNestedRegions() {
+		return null;
+	}
+	
 	public List<AbstractTraceRegion> invertFor(URI expectedAssociatedPath, URI myPath) {
 		Map<URI, List<Pair<ILocationData, AbstractTraceRegion>>> matchingLocations = collectMatchingLocations(expectedAssociatedPath);
 		List<Pair<ILocationData, AbstractTraceRegion>> expectedMatchingLocations = matchingLocations.get(expectedAssociatedPath);
@@ -281,6 +314,7 @@ public abstract class AbstractTraceRegion {
 	 * @return an unmodifiable iterator for all leafs. Never <code>null</code>.
 	 */
 	public final Iterator<AbstractTraceRegion> leafIterator() {
+		ensureNestedRegionsLoaded();
 		if (nestedRegions == null)
 			return Collections.<AbstractTraceRegion>singleton(this).iterator();
 		return new LeafIterator(this);
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.generator.trace;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A trace region that is read from the indexed format of the {@link TraceRegionSerializer}.
+ * The nested regions are created when they are accessed for the first time, so only the
+ * regions along the path to a queried offset are materialized.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @noextend This class is not intended to be subclassed by clients.
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @since 2.5
+ */
+@NonNullByDefault
+public class IndexedTraceRegion extends AbstractTraceRegion {
+
+	/**
+	 * The region and location tables of a trace. The buffer is only read with absolute
+	 * positions, so a table may be shared by concurrent readers.
+	 */
+	static class Table {
+
+		static final int OFFSET = 0;
+		static final int LENGTH = 1;
+		static final int LINE_NUMBER = 2;
+		static final int END_LINE_NUMBER = 3;
+		static final int FIRST_LOCATION = 4;
+		static final int FIRST_CHILD = 5;
+		static final int REGION_FIELDS = 6;
+
+		static final int PATH = 4;
+		static final int LOCATION_FIELDS = 5;
+
+		private final ByteBuffer buffer;
+		private final URI[] paths;
+		private final int regionTable;
+		private final int regionCount;
+		private final int locationTable;
+		private final int locationCount;
+
+		Table(ByteBuffer buffer, URI[] paths, int regionTable, int regionCount, int locationCount) {
+			this.buffer = buffer;
+			this.paths = paths;
+			this.regionTable = regionTable;
+			this.regionCount = regionCount;
+			this.locationTable = regionTable + regionCount * REGION_FIELDS * 4;
+			this.locationCount = locationCount;
+		}
+
+		int getEnd() {
+			return locationTable + locationCount * LOCATION_FIELDS * 4;
+		}
+
+		int getRegionCount() {
+			return regionCount;
+		}
+
+		int getRegionField(int region, int field) {
+			return buffer.getInt(regionTable + (region * REGION_FIELDS + field) * 4);
+		}
+
+		int getLocationField(int location, int field) {
+			return buffer.getInt(locationTable + (location * LOCATION_FIELDS + field) * 4);
+		}
+
+		/**
+		 * The nested regions of a region are stored next to each other, and the nested
+		 * regions of the following region start right after them.
+		 */
+		int getChildrenEnd(int region) {
+			return region + 1 < regionCount ? getRegionField(region + 1, FIRST_CHILD) : regionCount;
+		}
+
+		int getLocationsEnd(int region) {
+			return region + 1 < regionCount ? getRegionField(region + 1, FIRST_LOCATION) : locationCount;
+		}
+
+		LocationData getLocation(int location) {
+			int pathIndex = getLocationField(location, PATH);
+			return new LocationData(
+					getLocationField(location, OFFSET),
+					getLocationField(location, LENGTH),
+					getLocationField(location, LINE_NUMBER),
+					getLocationField(location, END_LINE_NUMBER),
+					pathIndex < 0 ? null : paths[pathIndex]);
+		}
+
+	}
+
+	private final Table table;
+	private final int index;
+	private final int myOffset;
+	private final int myLength;
+	private final int myLineNumber;
+	private final int myEndLineNumber;
+	private volatile List<ILocationData> associatedLocations;
+
+	IndexedTraceRegion(Table table, int index, @Nullable AbstractTraceRegion parent) {
+		super(parent);
+		this.table = table;
+		this.index = index;
+		this.myOffset = table.getRegionField(index, Table.OFFSET);
+		this.myLength = table.getRegionField(index, Table.LENGTH);
+		this.myLineNumber = table.getRegionField(index, Table.LINE_NUMBER);
+		this.myEndLineNumber = table.getRegionField(index, Table.END_LINE_NUMBER);
+	}
+
+	@Override
+	protected void setAsChildIn(AbstractTraceRegion parent) {
+		// the parent creates its nested regions in loadNestedRegions
+	}
+
+	@Override
+	@Nullable
+	protected List<AbstractTraceRegion> loadNestedRegions() {
+		int first = table.getRegionField(index, Table.FIRST_CHILD);
+		int end = table.getChildrenEnd(index);
+		if (first == end)
+			return null;
+		List<AbstractTraceRegion> result = Lists.newArrayListWithCapacity(end - first);
+		for (int i = first; i < end; i++) {
+			result.add(new IndexedTraceRegion(table, i, this));
+		}
+		return result;
+	}
+
+	@Override
+	public int getMyOffset() {
+		return myOffset;
+	}
+
+	@Override
+	public int getMyLength() {
+		return myLength;
+	}
+
+	@Override
+	public int getMyLineNumber() {
+		return myLineNumber;
+	}
+
+	@Override
+	public int getMyEndLineNumber() {
+		return myEndLineNumber;
+	}
+
+	@Override
+	public List<ILocationData> getAssociatedLocations() {
+		List<ILocationData> result = associatedLocations;
+		if (result == null) {
+			int first = table.getRegionField(index, Table.FIRST_LOCATION);
+			int end = table.getLocationsEnd(index);
+			result = Lists.newArrayListWithCapacity(end - first);
+			for (int i = first; i < end; i++) {
+				result.add(table.getLocation(i));
+			}
+			result = Collections.unmodifiableList(result);
+			associatedLocations = result;
+		}
+		return result;
+	}
+
+}
@@ -11,14 +11,21 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.emf.common.util.URI;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
 
 /**
  * @noextend This interface is not intended to be extended by clients.
@@ -68,6 +75,45 @@ public class TraceRegionSerializer {
 		
 	}
 	
+	private static class RegionData {
+		private final int[] region;
+		private final List<int[]> locations = Lists.newArrayListWithCapacity(2);
+		private final List<RegionData> children = Lists.newArrayListWithCapacity(4);
+		
+		private RegionData(int offset, int length, int lineNumber, int endLineNumber) {
+			this.region = new int[] { offset, length, lineNumber, endLineNumber };
+		}
+	}
+	
+	/**
+	 * Reads the bytes of a buffer starting at its current position.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+		
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+		
+		@Override
+		public int read() {
+			if (!buffer.hasRemaining())
+				return -1;
+			return buffer.get() & 0xFF;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int result = Math.min(len, buffer.remaining());
+			buffer.get(b, off, result);
+			return result;
+		}
+	}
+	
 	private static final int VERSION_3 = 3;
 	
 	/**
@@ -77,12 +123,32 @@ public class TraceRegionSerializer {
 	 */
 	private static final int VERSION_4 = 4;
 	
+	/**
+	 * changes compared to version 4:
+	 * 
+	 * - version 5 stores the regions in a table instead of a tree. After the version and the
+	 *   flag for the root region, the header contains the number and the values of the distinct
+	 *   paths followed by the number of regions and the number of locations. Each region in the
+	 *   table is stored as offset, length, line number, end line number, index of the first
+	 *   location and index of the first nested region. Each location is stored as offset, length,
+	 *   line number, end line number and the index of its path or -1. The regions are written
+	 *   breadth first, so the nested regions of a region are adjacent and sorted by offset.
+	 */
+	private static final int VERSION_5 = 5;
+	
+	/**
+	 * Writes the given root region in the indexed format.
+	 */
 	public void writeTraceRegionTo(AbstractTraceRegion region, OutputStream stream) throws IOException {
 		if (region != null && region.getParent() != null)
 			throw new IllegalArgumentException("region must be the root");
-		doWriteTo(new IdentityStrategy(), region, stream);
+		doWriteIndexedTo(new IdentityStrategy(), region, stream);
 	}
 
+	/**
+	 * Writes the regions as a tree in the format of version 4 that has to be read completely.
+	 * @see #doWriteIndexedTo(Strategy, Object, OutputStream)
+	 */
 	public <Region, Location> void doWriteTo(final Strategy<Region, Location> strategy, Region region, OutputStream stream) throws IOException {
 		final DataOutputStream dataStream = new DataOutputStream(new BufferedOutputStream(stream));
 		try {
@@ -124,13 +190,126 @@ public class TraceRegionSerializer {
 		}
 	}
 	
+	/**
+	 * Writes the regions in the indexed format that allows to read the nested regions of a
+	 * region on demand.
+	 * @since 2.5
+	 */
+	public <Region, Location> void doWriteIndexedTo(final Strategy<Region, Location> strategy, Region region, OutputStream stream) throws IOException {
+		final DataOutputStream dataStream = new DataOutputStream(new BufferedOutputStream(stream));
+		try {
+			dataStream.writeInt(VERSION_5);
+			dataStream.writeBoolean(region != null);
+			if (region == null)
+				return;
+			final LinkedList<RegionData> stack = Lists.newLinkedList();
+			final List<RegionData> regions = Lists.newArrayList();
+			final Map<String, Integer> paths = Maps.newLinkedHashMap();
+			strategy.writeRegion(region, new Callback<Region, Location>() {
+				public void doWriteRegion(int offset, int length, int lineNumber, int endLineNumber, List<Location> locations, List<Region> children) throws IOException {
+					RegionData data = new RegionData(offset, length, lineNumber, endLineNumber);
+					if (stack.isEmpty())
+						regions.add(data);
+					else
+						stack.getLast().children.add(data);
+					stack.add(data);
+					for(Location loc: locations) {
+						strategy.writeLocation(loc, this);
+					}
+					for(Region child: children) {
+						strategy.writeRegion(child, this);
+					}
+					stack.removeLast();
+				}
+
+				public void doWriteLocation(int offset, int length, int lineNumber, int endLineNumber, URI path) throws IOException {
+					int pathIndex = -1;
+					if (path != null) {
+						String key = path.toString();
+						Integer index = paths.get(key);
+						if (index == null) {
+							index = paths.size();
+							paths.put(key, index);
+						}
+						pathIndex = index;
+					}
+					stack.getLast().locations.add(new int[] { offset, length, lineNumber, endLineNumber, pathIndex });
+				}
+			});
+			// breadth first
+			for(int i = 0; i < regions.size(); i++) {
+				regions.addAll(regions.get(i).children);
+			}
+			dataStream.writeInt(paths.size());
+			for(String path: paths.keySet()) {
+				dataStream.writeUTF(path);
+			}
+			dataStream.writeInt(regions.size());
+			int locationCount = 0;
+			for(RegionData data: regions) {
+				locationCount += data.locations.size();
+			}
+			dataStream.writeInt(locationCount);
+			int firstLocation = 0;
+			int firstChild = 1;
+			for(RegionData data: regions) {
+				for(int value: data.region) {
+					dataStream.writeInt(value);
+				}
+				dataStream.writeInt(firstLocation);
+				dataStream.writeInt(firstChild);
+				firstLocation += data.locations.size();
+				firstChild += data.children.size();
+			}
+			for(RegionData data: regions) {
+				for(int[] location: data.locations) {
+					for(int value: location) {
+						dataStream.writeInt(value);
+					}
+				}
+			}
+		} finally {
+			dataStream.flush();
+		}
+	}
+	
+	/**
+	 * Reads the root region. The nested regions of a trace in the indexed format are read
+	 * when they are accessed for the first time.
+	 */
 	public AbstractTraceRegion readTraceRegionFrom(InputStream contents) throws IOException {
-		return doReadFrom(contents, new IdentityStrategy());
+		return readTraceRegionFrom(ByteBuffer.wrap(ByteStreams.toByteArray(contents)));
+	}
+	
+	/**
+	 * Reads the root region from the remaining bytes of the given buffer, e.g. a mapped trace file.
+	 * The buffer must not be modified as long as the regions of a trace in the indexed format
+	 * are used.
+	 * @since 2.5
+	 */
+	public AbstractTraceRegion readTraceRegionFrom(ByteBuffer contents) throws IOException {
+		ByteBuffer buffer = contents.duplicate();
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		if (buffer.remaining() < 4)
+			throw new EOFException();
+		if (buffer.getInt(buffer.position()) != VERSION_5)
+			return doReadFrom(new ByteBufferInputStream(buffer), new IdentityStrategy());
+		buffer.getInt();
+		IndexedTraceRegion.Table table = readTable(buffer);
+		if (table == null)
+			return null;
+		return new IndexedTraceRegion(table, 0, null);
 	}
 
 	public <Region, Location> Region doReadFrom(InputStream contents, Strategy<Region, Location> reader) throws IOException {
 		DataInputStream dataStream = new DataInputStream(new BufferedInputStream(contents));
 		int version = dataStream.readInt();
+		if (version == VERSION_5) {
+			IndexedTraceRegion.Table table = readTable(ByteBuffer.wrap(ByteStreams.toByteArray(dataStream)));
+			if (table == null)
+				return null;
+			return doReadFrom(table, 0, reader, null);
+		}
 		if (version != VERSION_3 && version != VERSION_4)
 			return null;
 		boolean isNull = !dataStream.readBoolean();
@@ -138,6 +317,49 @@ public class TraceRegionSerializer {
 			return null;
 		return doReadFrom(dataStream, reader, null, version);
 	}
+	
+	/**
+	 * Reads the header of the indexed format from the given buffer that is positioned after the version.
+	 * @return the table or <code>null</code> if there is no root region.
+	 */
+	private IndexedTraceRegion.Table readTable(ByteBuffer buffer) throws IOException {
+		if (!buffer.hasRemaining())
+			throw new EOFException();
+		boolean isNull = buffer.get() == 0;
+		if (isNull)
+			return null;
+		DataInputStream dataStream = new DataInputStream(new ByteBufferInputStream(buffer));
+		URI[] paths = new URI[dataStream.readInt()];
+		for(int i = 0; i < paths.length; i++) {
+			paths[i] = URI.createURI(dataStream.readUTF());
+		}
+		int regionCount = dataStream.readInt();
+		int locationCount = dataStream.readInt();
+		IndexedTraceRegion.Table result = new IndexedTraceRegion.Table(buffer, paths, buffer.position(), regionCount, locationCount);
+		if (regionCount <= 0 || result.getEnd() > buffer.limit())
+			throw new EOFException();
+		return result;
+	}
+	
+	private <Location, Region> Region doReadFrom(IndexedTraceRegion.Table table, int index, Strategy<Region, Location> reader, Region parent) {
+		int locationsEnd = table.getLocationsEnd(index);
+		List<Location> allLocations = Lists.newArrayList();
+		for(int i = table.getRegionField(index, IndexedTraceRegion.Table.FIRST_LOCATION); i < locationsEnd; i++) {
+			LocationData location = table.getLocation(i);
+			allLocations.add(reader.createLocation(location.getOffset(), location.getLength(), location.getLineNumber(), location.getEndLineNumber(), location.getPath()));
+		}
+		Region result = reader.createRegion(
+				table.getRegionField(index, IndexedTraceRegion.Table.OFFSET), 
+				table.getRegionField(index, IndexedTraceRegion.Table.LENGTH), 
+				table.getRegionField(index, IndexedTraceRegion.Table.LINE_NUMBER), 
+				table.getRegionField(index, IndexedTraceRegion.Table.END_LINE_NUMBER), 
+				allLocations, parent);
+		int childrenEnd = table.getChildrenEnd(index);
+		for(int i = table.getRegionField(index, IndexedTraceRegion.Table.FIRST_CHILD); i < childrenEnd; i++) {
+			doReadFrom(table, i, reader, result);
+		}
+		return result;
+	}
 
 	public <Location, Region> Region doReadFrom(DataInputStream dataStream, Strategy<Region, Location> reader, Region parent, int version)
 			throws IOException {
@@ -40,6 +40,8 @@ import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Triple;
+import org.eclipse.xtext.util.internal.Stopwatches;
+import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
 
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
@@ -218,7 +220,10 @@ public class LazyLinkingResource extends XtextResource {
 	 * @since 2.4
 	 */
 	protected EObject getEObject(String uriFragment, Triple<EObject, EReference, INode> triple) throws AssertionError {
+		StoppedTask task = Stopwatches.forTask("LazyLinkingResource.getEObject");
 		try {
+			task.start();
+			Stopwatches.count("LazyLinkingResource.resolvedCrossReferences");
 			if (!resolving.add(triple))
 				return handleCyclicResolution(triple);
 			Set<String> unresolveableProxies = getUnresolvableURIFragments();
@@ -259,6 +264,7 @@ public class LazyLinkingResource extends XtextResource {
 			return null;
 		} finally {
 			resolving.remove(triple);
+			task.stop();
 		}
 	}
 
@@ -12,6 +12,7 @@ import java.util.List;
 import org.eclipse.xtext.util.Strings;
 
 import com.google.inject.ImplementedBy;
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 /**
@@ -66,4 +67,22 @@ public interface IQualifiedNameConverter {
 			return ".";
 		}
 	}
+
+	/**
+	 * Returns {@link QualifiedNamePool pooled} qualified names. Bind it in the runtime module to reduce the memory
+	 * footprint of large indexes.
+	 * 
+	 * @since 2.5
+	 */
+	@Singleton
+	static class InterningImpl extends DefaultImpl {
+
+		@Inject
+		private QualifiedNamePool pool;
+
+		@Override
+		public QualifiedName toQualifiedName(String qualifiedNameAsString) {
+			return pool.intern(super.toQualifiedName(qualifiedNameAsString));
+		}
+	}
 }
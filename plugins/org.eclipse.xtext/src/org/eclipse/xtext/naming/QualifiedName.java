@@ -239,12 +239,18 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		return new QualifiedName(newSegments);
 	}
 
+	/**
+	 * Returns the lower case variant of this name. The result is cached. A name that is lower case already is its own
+	 * lower case variant, so the index does not hold a copy of it.
+	 */
 	public QualifiedName toLowerCase() {
 		if (lowerCase != null)
 			return lowerCase;
-		String[] newSegments = new String[segments.length];
-		for (int i = 0; i < getSegmentCount(); ++i)
-			newSegments[i] = segments[i].toLowerCase();
+		String[] newSegments = toLowerCaseSegments();
+		if (newSegments == null) {
+			lowerCase = this;
+			return this;
+		}
 		lowerCase = new QualifiedName(newSegments) {
 			@Override
 			public QualifiedName toLowerCase() {
@@ -254,6 +260,25 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		return lowerCase;
 	}
 
+	/**
+	 * @return the lower case segments of this name or <code>null</code> if all segments are lower case already.
+	 * @since 2.5
+	 */
+	protected String[] toLowerCaseSegments() {
+		String[] result = null;
+		for (int i = 0; i < segments.length; ++i) {
+			String segment = segments[i];
+			String lowerCaseSegment = segment.toLowerCase();
+			if (result == null && !lowerCaseSegment.equals(segment)) {
+				result = new String[segments.length];
+				System.arraycopy(segments, 0, result, 0, i);
+			}
+			if (result != null)
+				result[i] = lowerCaseSegment;
+		}
+		return result;
+	}
+
 	public QualifiedName toUpperCase() {
 		String[] newSegments = new String[getSegmentCount()];
 		for (int i = 0; i < getSegmentCount(); ++i)
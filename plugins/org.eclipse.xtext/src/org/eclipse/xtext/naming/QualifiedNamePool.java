@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import java.util.List;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.inject.Singleton;
+
+/**
+ * Interns {@link QualifiedName qualified names} and their segments. Equal names that are obtained from the same pool
+ * are identical, which makes {@link QualifiedName#equals(Object)} a reference comparison, and their segment strings are
+ * shared. The lower case variant of a pooled name is pooled, too. Names and segments that are no longer referenced
+ * are garbage collected.
+ * <p>
+ * The pool is thread-safe. Use the {@link IQualifiedNameConverter.InterningImpl} to intern the names of the index.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+@Singleton
+public class QualifiedNamePool {
+
+	private static class PooledQualifiedName extends QualifiedName {
+
+		private final QualifiedNamePool pool;
+
+		private volatile QualifiedName lowerCase;
+
+		PooledQualifiedName(QualifiedNamePool pool, String[] segments) {
+			super(segments);
+			this.pool = pool;
+		}
+
+		@Override
+		public QualifiedName toLowerCase() {
+			QualifiedName result = lowerCase;
+			if (result == null) {
+				String[] lowerCaseSegments = toLowerCaseSegments();
+				if (lowerCaseSegments == null)
+					result = this;
+				else
+					result = pool.internSegments(lowerCaseSegments);
+				lowerCase = result;
+			}
+			return result;
+		}
+	}
+
+	private final Interner<String> segments = Interners.newWeakInterner();
+
+	private final Interner<QualifiedName> names = Interners.newWeakInterner();
+
+	/**
+	 * @return the pooled instance that is equal to the given name. Never <code>null</code>.
+	 * @exception IllegalArgumentException
+	 *                if the name is <code>null</code>.
+	 */
+	public QualifiedName intern(QualifiedName name) {
+		if (name == null)
+			throw new IllegalArgumentException("Qualified name cannot be null");
+		if (name.isEmpty())
+			return QualifiedName.EMPTY;
+		if (name instanceof PooledQualifiedName && ((PooledQualifiedName) name).pool == this)
+			return name;
+		String[] newSegments = new String[name.getSegmentCount()];
+		for (int i = 0; i < newSegments.length; i++)
+			newSegments[i] = name.getSegment(i);
+		return internSegments(newSegments);
+	}
+
+	/**
+	 * @see QualifiedName#create(List)
+	 */
+	public QualifiedName create(List<String> segments) {
+		return intern(QualifiedName.create(segments));
+	}
+
+	/**
+	 * @see QualifiedName#create(String...)
+	 */
+	public QualifiedName create(String... segments) {
+		return intern(QualifiedName.create(segments));
+	}
+
+	/**
+	 * @param newSegments a new array that will be owned by the pooled name if there is none yet.
+	 */
+	protected QualifiedName internSegments(String[] newSegments) {
+		for (int i = 0; i < newSegments.length; i++)
+			newSegments[i] = segments.intern(newSegments[i]);
+		return names.intern(new PooledQualifiedName(this, newSegments));
+	}
+
+}
@@ -385,4 +385,13 @@ public class NodeModelBuilder {
 		compressRoot = false;
 	}
 
+	/**
+	 * Called by the parser when the node model is complete. Returns the root node that is passed to clients.
+	 * The default implementation returns the given node unchanged.
+	 * @since 2.5
+	 */
+	public ICompositeNode finishNodeModel(ICompositeNode rootNode) {
+		return rootNode;
+	}
+
 }
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.BidiIterable;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.util.EmptyBidiIterable;
+import org.eclipse.xtext.nodemodel.util.NodeIterable;
+import org.eclipse.xtext.nodemodel.util.SingletonBidiIterable;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A flyweight view on a composite node of a {@link PackedNodeModel}. If the grammar elements of nested composite nodes
+ * have been folded into a single node, each level is represented by its own view just like the
+ * {@link SyntheticCompositeNode} does it for the default node model.
+ *
+ * The views of nodes with a direct semantic element are the adapters that associate the node with the element.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+@Beta
+public class PackedCompositeNode extends PackedNode implements ICompositeNode, Adapter {
+
+	private final int foldLevel;
+
+	protected PackedCompositeNode(PackedNodeModel model, int index, int foldLevel) {
+		super(model, index);
+		this.foldLevel = foldLevel;
+	}
+
+	protected boolean isInnermostLevel() {
+		return foldLevel == getModel().getFoldDepth(getIndex()) - 1;
+	}
+
+	@Override
+	public ICompositeNode getParent() {
+		if (foldLevel > 0)
+			return new PackedCompositeNode(getModel(), getIndex(), foldLevel - 1);
+		return super.getParent();
+	}
+
+	@Override
+	public boolean hasPreviousSibling() {
+		return foldLevel == 0 && super.hasPreviousSibling();
+	}
+
+	@Override
+	public boolean hasNextSibling() {
+		return foldLevel == 0 && super.hasNextSibling();
+	}
+
+	@Override
+	public INode getPreviousSibling() {
+		if (foldLevel > 0)
+			return null;
+		return super.getPreviousSibling();
+	}
+
+	@Override
+	public INode getNextSibling() {
+		if (foldLevel > 0)
+			return null;
+		return super.getNextSibling();
+	}
+
+	public BidiIterable<INode> getChildren() {
+		if (hasChildren()) {
+			INode firstChild = getFirstChild();
+			if (firstChild.hasSiblings()) {
+				return new NodeIterable(firstChild);
+			} else {
+				return SingletonBidiIterable.<INode>create(firstChild);
+			}
+		}
+		return EmptyBidiIterable.instance();
+	}
+
+	public boolean hasChildren() {
+		return !isInnermostLevel() || getModel().getFirstChild(getIndex()) >= 0;
+	}
+
+	public INode getFirstChild() {
+		if (!isInnermostLevel())
+			return new PackedCompositeNode(getModel(), getIndex(), foldLevel + 1);
+		int firstChild = getModel().getFirstChild(getIndex());
+		if (firstChild < 0)
+			return null;
+		return getModel().getNode(firstChild);
+	}
+
+	public INode getLastChild() {
+		if (!isInnermostLevel())
+			return new PackedCompositeNode(getModel(), getIndex(), foldLevel + 1);
+		int lastChild = getModel().getLastChild(getIndex());
+		if (lastChild < 0)
+			return null;
+		return getModel().getNode(lastChild);
+	}
+
+	public int getLookAhead() {
+		return getModel().getLookAhead(getIndex());
+	}
+
+	public EObject getGrammarElement() {
+		Object grammarElementOrArray = getModel().getGrammarElementOrArray(getIndex());
+		if (grammarElementOrArray instanceof EObject[])
+			return ((EObject[]) grammarElementOrArray)[foldLevel];
+		return (EObject) grammarElementOrArray;
+	}
+
+	public boolean hasDirectSemanticElement() {
+		return foldLevel == 0 && getModel().getDirectSemanticElement(getIndex()) != null;
+	}
+
+	public SyntaxErrorMessage getSyntaxErrorMessage() {
+		if (foldLevel > 0)
+			return null;
+		return getModel().getSyntaxErrorMessage(getIndex());
+	}
+
+	public void notifyChanged(Notification notification) {
+		// ignore
+	}
+
+	public Notifier getTarget() {
+		if (foldLevel > 0)
+			return null;
+		return getModel().getDirectSemanticElement(getIndex());
+	}
+
+	public void setTarget(Notifier newTarget) {
+		// the semantic element is stored in the model
+	}
+
+	public boolean isAdapterForType(Object type) {
+		return type instanceof Class<?> && INode.class.isAssignableFrom((Class<?>) type);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		if (!(obj instanceof PackedCompositeNode))
+			return false;
+		PackedCompositeNode casted = (PackedCompositeNode) obj;
+		return getModel() == casted.getModel() && getIndex() == casted.getIndex() && foldLevel == casted.foldLevel;
+	}
+
+	@Override
+	public int hashCode() {
+		return getModel().hashCode() ^ (getIndex() * 31 + foldLevel);
+	}
+
+}
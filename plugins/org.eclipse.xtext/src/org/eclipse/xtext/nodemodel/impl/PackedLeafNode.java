@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.Collections;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A flyweight view on a leaf node of a {@link PackedNodeModel}.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+@Beta
+public class PackedLeafNode extends PackedNode implements ILeafNode {
+
+	protected PackedLeafNode(PackedNodeModel model, int index) {
+		super(model, index);
+	}
+
+	public boolean isHidden() {
+		return getModel().isHidden(getIndex());
+	}
+
+	@Override
+	public int getOffset() {
+		return getTotalOffset();
+	}
+
+	@Override
+	public int getLength() {
+		return getTotalLength();
+	}
+
+	@Override
+	public Iterable<ILeafNode> getLeafNodes() {
+		return Collections.<ILeafNode>singletonList(this);
+	}
+
+	public EObject getGrammarElement() {
+		return (EObject) getModel().getGrammarElementOrArray(getIndex());
+	}
+
+	public boolean hasDirectSemanticElement() {
+		return false;
+	}
+
+	public SyntaxErrorMessage getSyntaxErrorMessage() {
+		return getModel().getSyntaxErrorMessage(getIndex());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		if (!(obj instanceof PackedLeafNode))
+			return false;
+		PackedLeafNode casted = (PackedLeafNode) obj;
+		return getModel() == casted.getModel() && getIndex() == casted.getIndex();
+	}
+
+	@Override
+	public int hashCode() {
+		return getModel().hashCode() ^ getIndex();
+	}
+
+}
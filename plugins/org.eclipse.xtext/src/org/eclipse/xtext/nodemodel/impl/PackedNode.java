@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.BidiTreeIterable;
+import org.eclipse.xtext.nodemodel.BidiTreeIterator;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeTreeIterator;
+import org.eclipse.xtext.nodemodel.util.ReversedBidiTreeIterable;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ITextRegionWithLineInformation;
+import org.eclipse.xtext.util.TextRegion;
+import org.eclipse.xtext.util.TextRegionWithLineInformation;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * A flyweight view on a node of a {@link PackedNodeModel}.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+@Beta
+public abstract class PackedNode implements INode, BidiTreeIterable<INode> {
+
+	private final PackedNodeModel model;
+
+	private final int index;
+
+	protected PackedNode(PackedNodeModel model, int index) {
+		this.model = model;
+		this.index = index;
+	}
+
+	protected PackedNodeModel getModel() {
+		return model;
+	}
+
+	protected int getIndex() {
+		return index;
+	}
+
+	public ICompositeNode getRootNode() {
+		return model.getRootNode();
+	}
+
+	public ICompositeNode getParent() {
+		int parent = model.getParent(index);
+		if (parent < 0)
+			return null;
+		return model.getNodeAsParent(parent);
+	}
+
+	public boolean hasSiblings() {
+		return hasPreviousSibling() || hasNextSibling();
+	}
+
+	public boolean hasPreviousSibling() {
+		int parent = model.getParent(index);
+		return parent >= 0 && index != parent + 1;
+	}
+
+	public boolean hasNextSibling() {
+		int parent = model.getParent(index);
+		return parent >= 0 && model.getEnd(index) != model.getEnd(parent);
+	}
+
+	public INode getPreviousSibling() {
+		int previous = model.getPreviousSibling(index);
+		if (previous < 0)
+			return null;
+		return model.getNode(previous);
+	}
+
+	public INode getNextSibling() {
+		int next = model.getNextSibling(index);
+		if (next < 0)
+			return null;
+		return model.getNode(next);
+	}
+
+	public Iterable<ILeafNode> getLeafNodes() {
+		final int end = model.getEnd(index);
+		return new Iterable<ILeafNode>() {
+			public Iterator<ILeafNode> iterator() {
+				return new AbstractIterator<ILeafNode>() {
+					private int next = index;
+
+					@Override
+					protected ILeafNode computeNext() {
+						while (next < end) {
+							int candidate = next++;
+							if (model.isLeaf(candidate))
+								return new PackedLeafNode(model, candidate);
+						}
+						return endOfData();
+					}
+				};
+			}
+		};
+	}
+
+	public int getTotalOffset() {
+		return model.getTotalOffset(index);
+	}
+
+	public int getTotalLength() {
+		return getTotalEndOffset() - getTotalOffset();
+	}
+
+	public int getTotalEndOffset() {
+		return model.getTotalEndOffset(index);
+	}
+
+	public int getOffset() {
+		int end = model.getEnd(index);
+		int firstLeaf = -1;
+		for (int i = index; i < end; i++) {
+			if (model.isLeaf(i)) {
+				if (!model.isHidden(i))
+					return model.getTotalOffset(i);
+				if (firstLeaf == -1)
+					firstLeaf = i;
+			}
+		}
+		if (firstLeaf != -1)
+			return model.getTotalOffset(firstLeaf);
+		return getTotalOffset();
+	}
+
+	public int getLength() {
+		int lastVisibleLeaf = getLastVisibleLeaf();
+		if (lastVisibleLeaf != -1)
+			return model.getTotalEndOffset(lastVisibleLeaf) - getOffset();
+		return getTotalLength();
+	}
+
+	public int getEndOffset() {
+		int lastVisibleLeaf = getLastVisibleLeaf();
+		if (lastVisibleLeaf != -1)
+			return model.getTotalEndOffset(lastVisibleLeaf);
+		return getTotalEndOffset();
+	}
+
+	private int getLastVisibleLeaf() {
+		for (int i = model.getEnd(index) - 1; i >= index; i--) {
+			if (model.isLeaf(i) && !model.isHidden(i))
+				return i;
+		}
+		return -1;
+	}
+
+	public int getTotalStartLine() {
+		return getLineOfOffset(getTotalOffset());
+	}
+
+	public int getStartLine() {
+		return getLineOfOffset(getOffset());
+	}
+
+	public int getTotalEndLine() {
+		return getLineOfOffset(getTotalEndOffset());
+	}
+
+	public int getEndLine() {
+		return getLineOfOffset(getEndOffset());
+	}
+
+	protected int getLineOfOffset(int offset) {
+		int insertionPoint = Arrays.binarySearch(model.getLineBreakOffsets(), offset);
+		if (insertionPoint >= 0)
+			return insertionPoint + 1;
+		return -insertionPoint;
+	}
+
+	public String getText() {
+		return model.getCompleteContent().substring(getTotalOffset(), getTotalEndOffset());
+	}
+
+	public EObject getSemanticElement() {
+		return model.getSemanticElement(index);
+	}
+
+	public BidiTreeIterable<INode> getAsTreeIterable() {
+		return this;
+	}
+
+	public BidiTreeIterator<INode> iterator() {
+		return new NodeTreeIterator(this);
+	}
+
+	public BidiTreeIterable<INode> reverse() {
+		return new ReversedBidiTreeIterable<INode>(this);
+	}
+
+	public ITextRegion getTextRegion() {
+		int offset = getOffset();
+		return new TextRegion(offset, getEndOffset() - offset);
+	}
+
+	public ITextRegion getTotalTextRegion() {
+		return new TextRegion(getTotalOffset(), getTotalLength());
+	}
+
+	public ITextRegionWithLineInformation getTextRegionWithLineInformation() {
+		int offset = getOffset();
+		return getTextRegionWithLineInformation(offset, getEndOffset() - offset);
+	}
+
+	public ITextRegionWithLineInformation getTotalTextRegionWithLineInformation() {
+		return getTextRegionWithLineInformation(getTotalOffset(), getTotalLength());
+	}
+
+	protected ITextRegionWithLineInformation getTextRegionWithLineInformation(int offset, int length) {
+		return new TextRegionWithLineInformation(offset, length, getLineOfOffset(offset), getLineOfOffset(offset
+				+ length));
+	}
+
+}
@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+
+/**
+ * A read-only node model that stores a complete node tree in a few primitive arrays. The nodes are numbered in
+ * pre-order, so the subtree of the node with index <code>i</code> occupies the indexes from <code>i</code> (inclusive)
+ * to <code>end(i)</code> (exclusive). Per node, the arrays hold the index of the parent, the end of the subtree, the id
+ * of the grammar element and the look ahead. Leaf nodes store their offset and composite nodes the index of the first
+ * leaf in or after their subtree. Since the leaf nodes cover the complete content without gaps, all other offsets and
+ * lengths are derived from these values. Semantic elements and syntax errors are kept in small sorted tables.
+ * <p>
+ * The {@link INode nodes} that are handed out to clients are flyweights that are created on demand. Two nodes that
+ * represent the same element are {@link Object#equals(Object) equal} but not necessarily identical. Only the root node
+ * and the nodes that are directly associated with a semantic element are canonical instances.
+ * <p>
+ * A packed node model cannot be modified. Resources that use it are always reparsed completely.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ * @see PackedNodeModelBuilder
+ */
+@Beta
+public class PackedNodeModel {
+
+	private static final byte LEAF = 1;
+
+	private static final byte HIDDEN = 2;
+
+	private final String completeContent;
+
+	private final int[] lineBreakOffsets;
+
+	private final byte[] flags;
+
+	private final int[] parents;
+
+	private final int[] ends;
+
+	private final int[] offsetsOrLeafIndexes;
+
+	private final int[] grammarElementIds;
+
+	private final int[] lookAheads;
+
+	private final Object[] grammarElements;
+
+	private final int[] semanticNodeIndexes;
+
+	private final EObject[] semanticElements;
+
+	private final PackedCompositeNode[] semanticNodes;
+
+	private final int[] syntaxErrorIndexes;
+
+	private final SyntaxErrorMessage[] syntaxErrors;
+
+	private final PackedCompositeNode rootNode;
+
+	/**
+	 * Creates a packed copy of the node model that starts at the given root. The semantic elements are associated with
+	 * the nodes of the copy, so the given node model must not be used afterwards.
+	 *
+	 * @return the packed node model or <code>null</code> if the given node model cannot be packed because its leaf
+	 *         nodes do not cover the complete content. The given node model is left unchanged in that case.
+	 */
+	@Nullable
+	public static PackedNodeModel pack(RootNode root) {
+		int size = 0;
+		int semanticNodeCount = 0;
+		int syntaxErrorCount = 0;
+		for (BasicNodeTreeIterator iterator = new BasicNodeTreeIterator(root); iterator.hasNext();) {
+			AbstractNode node = iterator.next();
+			size++;
+			if (node.basicGetSemanticElement() != null)
+				semanticNodeCount++;
+			if (node.getSyntaxErrorMessage() != null)
+				syntaxErrorCount++;
+		}
+		byte[] flags = new byte[size];
+		int[] parents = new int[size];
+		int[] ends = new int[size];
+		int[] offsetsOrLeafIndexes = new int[size];
+		int[] grammarElementIds = new int[size];
+		int[] lookAheads = new int[size];
+		Map<Object, Integer> grammarElementToId = new IdentityHashMap<Object, Integer>();
+		List<Object> grammarElements = Lists.newArrayList();
+		int[] semanticNodeIndexes = new int[semanticNodeCount];
+		AbstractNode[] originalSemanticNodes = new AbstractNode[semanticNodeCount];
+		int[] syntaxErrorIndexes = new int[syntaxErrorCount];
+		SyntaxErrorMessage[] syntaxErrors = new SyntaxErrorMessage[syntaxErrorCount];
+		List<AbstractNode> path = Lists.newArrayList();
+		List<Integer> pathIndexes = Lists.newArrayList();
+		int index = 0;
+		int offset = 0;
+		int semanticSlot = 0;
+		int syntaxErrorSlot = 0;
+		for (BasicNodeTreeIterator iterator = new BasicNodeTreeIterator(root); iterator.hasNext(); index++) {
+			AbstractNode node = iterator.next();
+			CompositeNode parent = node.basicGetParent();
+			while (!path.isEmpty() && path.get(path.size() - 1) != parent) {
+				path.remove(path.size() - 1);
+				ends[pathIndexes.remove(pathIndexes.size() - 1)] = index;
+			}
+			parents[index] = pathIndexes.isEmpty() ? -1 : pathIndexes.get(pathIndexes.size() - 1);
+			Object grammarElement = node.basicGetGrammarElement();
+			Integer grammarElementId = grammarElementToId.get(grammarElement);
+			if (grammarElementId == null) {
+				grammarElementId = grammarElements.size();
+				grammarElementToId.put(grammarElement, grammarElementId);
+				grammarElements.add(grammarElement);
+			}
+			grammarElementIds[index] = grammarElementId;
+			if (node instanceof LeafNode) {
+				LeafNode leaf = (LeafNode) node;
+				if (leaf.getTotalOffset() != offset)
+					return null;
+				flags[index] = (byte) (leaf.isHidden() ? LEAF | HIDDEN : LEAF);
+				offsetsOrLeafIndexes[index] = offset;
+				ends[index] = index + 1;
+				offset += leaf.getTotalLength();
+			} else {
+				lookAheads[index] = ((CompositeNode) node).getLookAhead();
+				path.add(node);
+				pathIndexes.add(index);
+			}
+			if (node.basicGetSemanticElement() != null) {
+				semanticNodeIndexes[semanticSlot] = index;
+				originalSemanticNodes[semanticSlot] = node;
+				semanticSlot++;
+			}
+			if (node.getSyntaxErrorMessage() != null) {
+				syntaxErrorIndexes[syntaxErrorSlot] = index;
+				syntaxErrors[syntaxErrorSlot] = node.getSyntaxErrorMessage();
+				syntaxErrorSlot++;
+			}
+		}
+		if (offset != root.getCompleteContent().length())
+			return null;
+		for (Integer pathIndex : pathIndexes) {
+			ends[pathIndex] = size;
+		}
+		int nextLeaf = size;
+		for (int i = size - 1; i >= 0; i--) {
+			if ((flags[i] & LEAF) != 0) {
+				nextLeaf = i;
+			} else {
+				offsetsOrLeafIndexes[i] = nextLeaf;
+			}
+		}
+		EObject[] semanticElements = new EObject[semanticNodeCount];
+		for (int i = 0; i < semanticNodeCount; i++) {
+			semanticElements[i] = originalSemanticNodes[i].basicGetSemanticElement();
+		}
+		PackedNodeModel result = new PackedNodeModel(root.getCompleteContent(), root.basicGetLineBreakOffsets(),
+				flags, parents, ends, offsetsOrLeafIndexes, grammarElementIds, lookAheads, grammarElements.toArray(),
+				semanticNodeIndexes, semanticElements, syntaxErrorIndexes, syntaxErrors);
+		for (int i = 0; i < semanticNodeCount; i++) {
+			EList<Adapter> adapters = semanticElements[i].eAdapters();
+			int adapterIndex = adapters.indexOf(originalSemanticNodes[i]);
+			if (adapterIndex >= 0) {
+				adapters.set(adapterIndex, result.semanticNodes[i]);
+			} else {
+				adapters.add(result.semanticNodes[i]);
+			}
+		}
+		return result;
+	}
+
+	protected PackedNodeModel(String completeContent, int[] lineBreakOffsets, byte[] flags, int[] parents,
+			int[] ends, int[] offsetsOrLeafIndexes, int[] grammarElementIds, int[] lookAheads,
+			Object[] grammarElements, int[] semanticNodeIndexes, EObject[] semanticElements,
+			int[] syntaxErrorIndexes, SyntaxErrorMessage[] syntaxErrors) {
+		this.completeContent = completeContent;
+		this.lineBreakOffsets = lineBreakOffsets;
+		this.flags = flags;
+		this.parents = parents;
+		this.ends = ends;
+		this.offsetsOrLeafIndexes = offsetsOrLeafIndexes;
+		this.grammarElementIds = grammarElementIds;
+		this.lookAheads = lookAheads;
+		this.grammarElements = grammarElements;
+		this.semanticNodeIndexes = semanticNodeIndexes;
+		this.semanticElements = semanticElements;
+		this.syntaxErrorIndexes = syntaxErrorIndexes;
+		this.syntaxErrors = syntaxErrors;
+		this.rootNode = new PackedCompositeNode(this, 0, 0);
+		this.semanticNodes = new PackedCompositeNode[semanticNodeIndexes.length];
+		for (int i = 0; i < semanticNodeIndexes.length; i++) {
+			semanticNodes[i] = semanticNodeIndexes[i] == 0 ? rootNode : new PackedCompositeNode(this,
+					semanticNodeIndexes[i], 0);
+		}
+	}
+
+	public PackedCompositeNode getRootNode() {
+		return rootNode;
+	}
+
+	/**
+	 * @return the number of nodes in this model. Synthetic nodes for folded grammar elements are not counted.
+	 */
+	public int getNodeCount() {
+		return flags.length;
+	}
+
+	boolean isLeaf(int index) {
+		return (flags[index] & LEAF) != 0;
+	}
+
+	boolean isHidden(int index) {
+		return (flags[index] & HIDDEN) != 0;
+	}
+
+	int getParent(int index) {
+		return parents[index];
+	}
+
+	int getEnd(int index) {
+		return ends[index];
+	}
+
+	int getLookAhead(int index) {
+		return lookAheads[index];
+	}
+
+	Object getGrammarElementOrArray(int index) {
+		return grammarElements[grammarElementIds[index]];
+	}
+
+	/**
+	 * @return the number of levels that are represented by the composite node with the given index. It is greater
+	 *         than one if the grammar elements of nested composite nodes have been folded into a single node.
+	 */
+	int getFoldDepth(int index) {
+		Object grammarElementOrArray = getGrammarElementOrArray(index);
+		if (grammarElementOrArray instanceof EObject[])
+			return ((EObject[]) grammarElementOrArray).length;
+		return 1;
+	}
+
+	String getCompleteContent() {
+		return completeContent;
+	}
+
+	int[] getLineBreakOffsets() {
+		return lineBreakOffsets;
+	}
+
+	int getTotalOffset(int index) {
+		return getOffsetOfFirstLeafFrom(index);
+	}
+
+	int getTotalEndOffset(int index) {
+		return getOffsetOfFirstLeafFrom(ends[index]);
+	}
+
+	/**
+	 * @return the offset of the first leaf node whose index is not smaller than the given one or the length of the
+	 *         content if there is no such leaf node.
+	 */
+	private int getOffsetOfFirstLeafFrom(int index) {
+		int leafIndex = index;
+		if (leafIndex < flags.length && !isLeaf(leafIndex))
+			leafIndex = offsetsOrLeafIndexes[leafIndex];
+		if (leafIndex >= flags.length)
+			return completeContent.length();
+		return offsetsOrLeafIndexes[leafIndex];
+	}
+
+	@Nullable
+	EObject getDirectSemanticElement(int index) {
+		int slot = Arrays.binarySearch(semanticNodeIndexes, index);
+		if (slot >= 0)
+			return semanticElements[slot];
+		return null;
+	}
+
+	@Nullable
+	EObject getSemanticElement(int index) {
+		for (int i = index; i >= 0; i = parents[i]) {
+			EObject result = getDirectSemanticElement(i);
+			if (result != null)
+				return result;
+		}
+		return null;
+	}
+
+	@Nullable
+	SyntaxErrorMessage getSyntaxErrorMessage(int index) {
+		int slot = Arrays.binarySearch(syntaxErrorIndexes, index);
+		if (slot >= 0)
+			return syntaxErrors[slot];
+		return null;
+	}
+
+	boolean hasSyntaxErrors() {
+		return syntaxErrors.length != 0;
+	}
+
+	/**
+	 * @return the index of the previous sibling or <code>-1</code>.
+	 */
+	int getPreviousSibling(int index) {
+		int parent = parents[index];
+		if (parent < 0 || index == parent + 1)
+			return -1;
+		int result = index - 1;
+		while (parents[result] != parent) {
+			result = parents[result];
+		}
+		return result;
+	}
+
+	/**
+	 * @return the index of the next sibling or <code>-1</code>.
+	 */
+	int getNextSibling(int index) {
+		int parent = parents[index];
+		if (parent < 0 || ends[index] == ends[parent])
+			return -1;
+		return ends[index];
+	}
+
+	/**
+	 * @return the index of the first child or <code>-1</code>.
+	 */
+	int getFirstChild(int index) {
+		if (ends[index] == index + 1)
+			return -1;
+		return index + 1;
+	}
+
+	/**
+	 * @return the index of the last child or <code>-1</code>.
+	 */
+	int getLastChild(int index) {
+		if (ends[index] == index + 1)
+			return -1;
+		int result = ends[index] - 1;
+		while (parents[result] != index) {
+			result = parents[result];
+		}
+		return result;
+	}
+
+	/**
+	 * @return the node with the given index. For composite nodes with folded grammar elements, the outermost level is
+	 *         returned.
+	 */
+	PackedNode getNode(int index) {
+		if (isLeaf(index))
+			return new PackedLeafNode(this, index);
+		if (index == 0)
+			return rootNode;
+		int slot = Arrays.binarySearch(semanticNodeIndexes, index);
+		if (slot >= 0)
+			return semanticNodes[slot];
+		return new PackedCompositeNode(this, index, 0);
+	}
+
+	/**
+	 * @return the composite node with the given index as it is seen by its children, that is the innermost level if
+	 *         grammar elements have been folded.
+	 */
+	PackedCompositeNode getNodeAsParent(int index) {
+		int foldDepth = getFoldDepth(index);
+		if (foldDepth == 1)
+			return (PackedCompositeNode) getNode(index);
+		return new PackedCompositeNode(this, index, foldDepth - 1);
+	}
+
+}
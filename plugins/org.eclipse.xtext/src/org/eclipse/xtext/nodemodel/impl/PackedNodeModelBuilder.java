@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A node model builder that converts the complete node model into a {@link PackedNodeModel} which needs considerably
+ * less memory. It is enabled by binding it in the runtime module of a language:
+ *
+ * <pre>
+ * public Class&lt;? extends NodeModelBuilder&gt; bindNodeModelBuilder() {
+ * 	return PackedNodeModelBuilder.class;
+ * }
+ * </pre>
+ *
+ * Packed node models cannot be modified, so editors that use this builder always reparse the complete document.
+ * Clients must not rely on the identity of nodes but compare them by means of {@link Object#equals(Object)}.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+@NonNullByDefault
+public class PackedNodeModelBuilder extends NodeModelBuilder {
+
+	private boolean partialParse;
+
+	@Override
+	public void setForcedFirstGrammarElement(RuleCall ruleCall) {
+		super.setForcedFirstGrammarElement(ruleCall);
+		partialParse = true;
+	}
+
+	@Override
+	public ICompositeNode finishNodeModel(ICompositeNode rootNode) {
+		if (partialParse || !(rootNode instanceof RootNode))
+			return rootNode;
+		PackedNodeModel packed = PackedNodeModel.pack((RootNode) rootNode);
+		if (packed == null)
+			return rootNode;
+		return packed.getRootNode();
+	}
+
+}
@@ -65,15 +65,22 @@ public class NodeModelUtils {
 	@Nullable
 	public static ILeafNode findLeafNodeAtOffset(@NonNull INode node, int leafNodeOffset) {
 		INode localNode = node;
-		while(!(localNode instanceof AbstractNode)) {
+		while(localNode != null && !(localNode instanceof AbstractNode)) {
 			localNode = localNode.getParent();
 		}
+		BidiTreeIterator<? extends INode> iterator;
+		if (localNode != null) {
+			iterator = ((AbstractNode) localNode).basicIterator();
+		} else {
+			// nodes of a packed node model
+			localNode = node;
+			iterator = node.getAsTreeIterable().iterator();
+		}
 		int offset = localNode.getTotalOffset();
 		int length = localNode.getTotalLength();
-		BidiTreeIterator<AbstractNode> iterator = ((AbstractNode) localNode).basicIterator();
 		if (leafNodeOffset > (offset + length) / 2) {
 			while (iterator.hasPrevious()) {
-				AbstractNode previous = iterator.previous();
+				INode previous = iterator.previous();
 				int previousOffset = previous.getTotalOffset();
 				int previousLength = previous.getTotalLength();
 				if (!intersects(previousOffset, previousLength, leafNodeOffset)) {
@@ -88,7 +95,7 @@ public class NodeModelUtils {
 			}
 		} else {
 			while (iterator.hasNext()) {
-				AbstractNode next = iterator.next();
+				INode next = iterator.next();
 				int nextOffset = next.getTotalOffset();
 				int nextLength = next.getTotalLength();
 				if (!intersects(nextOffset, nextLength, leafNodeOffset)) {
@@ -243,7 +250,7 @@ public class NodeModelUtils {
 			if (parent.hasDirectSemanticElement())
 				return findActualSemanticObjectFor(parent);
 			INode sibling = parent.getFirstChild();
-			while(sibling != node) {
+			while(!sibling.equals(node)) {
 				EObject siblingGrammarElement = sibling.getGrammarElement();
 				if (siblingGrammarElement != null && GrammarUtil.containingAssignment(siblingGrammarElement) == null) {
 					if (GrammarUtil.isEObjectRuleCall(siblingGrammarElement))
@@ -57,6 +57,13 @@ public class ParseResult implements IParseResult {
 		return new Iterable<INode>() {
 			@SuppressWarnings("unchecked")
 			public Iterator<INode> iterator() {
+				if (!(rootNode instanceof CompositeNode)) {
+					return Iterators.filter(rootNode.getAsTreeIterable().iterator(), new Predicate<INode>() {
+						public boolean apply(INode input) {
+							return input.getSyntaxErrorMessage() != null;
+						}
+					});
+				}
 				Iterator<? extends INode> result = Iterators.filter(((CompositeNode) rootNode).basicIterator(),
 						new Predicate<AbstractNode>() {
 					public boolean apply(AbstractNode input) {
@@ -538,7 +538,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 				appendAllTokens();
 			} finally {
 				ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
-				result = new ParseResult(current, root, hadErrors);
+				result = new ParseResult(current, nodeBuilder.finishNodeModel(root), hadErrors);
 			}
 		} catch (InvocationTargetException ite) {
 			Throwable targetException = ite.getTargetException();
@@ -547,7 +547,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 					appendAllTokens();
 				} finally {
 					ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
-					result = new ParseResult(current, root, hadErrors);
+					result = new ParseResult(current, nodeBuilder.finishNodeModel(root), hadErrors);
 				}
 				throw (RecognitionException) targetException;
 			}
@@ -76,6 +76,10 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 			throw new NullPointerException("previousParseResult and previousParseResult.rootNode may not be null");
 		}
 		ICompositeNode oldRootNode = previousParseResult.getRootNode();
+		if (!(oldRootNode instanceof CompositeNode)) {
+			// packed node models cannot be modified
+			return fullyReparse(parser, previousParseResult, changedRegion);
+		}
 		if (changedRegion.getEndOffset() > oldRootNode.getTotalLength()) {
 			log.error("Invalid " + changedRegion + " originalLength=" + oldRootNode.getTotalLength());
 			return fullyReparse(parser, previousParseResult, changedRegion);
@@ -64,7 +64,10 @@ public class Serializer implements ISerializer {
 	}
 
 	public void serialize(EObject obj, Writer writer, SaveOptions options) throws IOException {
-		serialize(obj, new WriterTokenStream(writer), options);
+		WriterTokenStream tokenStream = new WriterTokenStream(writer, WriterTokenStream.DEFAULT_BUFFER_SIZE);
+		serialize(obj, tokenStream, options);
+		// the formatter stream may not propagate the flush to the buffered stream
+		tokenStream.flush();
 	}
 
 	public String serialize(EObject obj) {
@@ -89,7 +92,10 @@ public class Serializer implements ISerializer {
 
 	@Deprecated
 	public TreeConstructionReport serialize(EObject obj, Writer writer, SerializerOptions options) throws IOException {
-		return serialize(obj, new WriterTokenStream(writer), options.toSaveOptions());
+		WriterTokenStream tokenStream = new WriterTokenStream(writer, WriterTokenStream.DEFAULT_BUFFER_SIZE);
+		TreeConstructionReport report = serialize(obj, tokenStream, options.toSaveOptions());
+		tokenStream.flush();
+		return report;
 	}
 
 	@Deprecated
@@ -17,7 +17,7 @@ import org.eclipse.xtext.formatting.impl.AbstractTokenStream;
  */
 public class TokenStringBuffer extends AbstractTokenStream {
 
-	private StringBuffer out = new StringBuffer();
+	private StringBuilder out = new StringBuilder();
 
 	@Override
 	public void flush() throws IOException {
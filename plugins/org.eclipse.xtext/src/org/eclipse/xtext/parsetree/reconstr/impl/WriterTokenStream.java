@@ -14,32 +14,87 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.formatting.impl.AbstractTokenStream;
 
 /**
+ * Writes the tokens to a {@link Writer}. If a buffer size is given, the tokens are collected in a buffer of that size,
+ * so the writer is not called for every single token. The buffer is written whenever it is full and on
+ * {@link #flush()}, so clients that pass a buffer size have to flush the stream.
+ * 
  * @author Jan Koehnlein - Initial contribution and API
  */
 public class WriterTokenStream extends AbstractTokenStream {
 
+	/**
+	 * @since 2.5
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
 	private Writer out;
 
+	private final char[] buffer;
+
+	private int count;
+
+	/**
+	 * Creates a stream that writes every token immediately.
+	 */
 	public WriterTokenStream(Writer out) {
+		this(out, 0);
+	}
+
+	/**
+	 * @param bufferSize
+	 *            the number of characters that are collected before they are written. A size of <code>0</code> writes
+	 *            every token immediately.
+	 * @since 2.5
+	 */
+	public WriterTokenStream(Writer out, int bufferSize) {
 		super();
+		if (bufferSize < 0)
+			throw new IllegalArgumentException("bufferSize must not be negative: " + bufferSize);
 		this.out = out;
+		this.buffer = new char[bufferSize];
 	}
 
 	@Override
 	public void flush() throws IOException {
+		flushBuffer();
 		out.flush();
 	}
 
 	@Override
 	public void writeHidden(EObject grammarElement, String value) throws IOException {
-		if (value != null && value.length() > 0)
-			out.write(value);
+		write(value);
 	}
 
 	@Override
 	public void writeSemantic(EObject grammarElement, String value) throws IOException {
-		if (value != null && value.length() > 0)
-			out.write(value);
+		write(value);
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected void write(String value) throws IOException {
+		if (value == null)
+			return;
+		int length = value.length();
+		if (length == 0)
+			return;
+		if (length > buffer.length - count) {
+			flushBuffer();
+			if (length > buffer.length) {
+				out.write(value);
+				return;
+			}
+		}
+		value.getChars(0, length, buffer, count);
+		count += length;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (count > 0) {
+			out.write(buffer, 0, count);
+			count = 0;
+		}
 	}
 
 }
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource;
+
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A reverse index over the {@link IResourceDescription#getReferenceDescriptions() references} and
+ * {@link IResourceDescription#getImportedNames() imported names} of a set of resource descriptions. It allows to find
+ * the resources that depend on an object, a resource or a name without iterating all resource descriptions.
+ *
+ * Implementations are usually {@link IResourceDescriptions} as well.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public interface IReferenceIndex {
+
+	/**
+	 * @return the URIs of the resources that have a {@link IReferenceDescription reference} to the object with the
+	 *         given URI. Never <code>null</code>.
+	 */
+	Set<URI> getResourcesReferencingObject(URI targetObjectURI);
+
+	/**
+	 * @return the URIs of the resources that have a {@link IReferenceDescription reference} to any of the objects with
+	 *         the given URIs. Never <code>null</code>.
+	 */
+	Set<URI> getResourcesReferencingObjects(Set<URI> targetObjectURIs);
+
+	/**
+	 * @return the URIs of the resources that have a {@link IReferenceDescription reference} to any object in the
+	 *         resource with the given URI. The resource itself is not part of the result. Never <code>null</code>.
+	 */
+	Set<URI> getResourcesReferencingResource(URI targetResourceURI);
+
+	/**
+	 * @param importedName
+	 *            the name as it is reported by {@link IResourceDescription#getImportedNames()}, that is usually
+	 *            {@link QualifiedName#toLowerCase() lower case}.
+	 * @return the URIs of the resources that import the given name. Never <code>null</code>.
+	 */
+	Set<URI> getResourcesImportingName(QualifiedName importedName);
+
+}
@@ -37,6 +37,7 @@ import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader;
 import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
+import org.eclipse.xtext.resource.persistence.ParseResultCache;
 import org.eclipse.xtext.serializer.ISerializer;
 import org.eclipse.xtext.util.IResourceScopeCache;
 import org.eclipse.xtext.util.LazyStringInputStream;
@@ -46,6 +47,7 @@ import org.eclipse.xtext.util.Tuples;
 import org.eclipse.xtext.validation.IConcreteSyntaxValidator;
 import org.eclipse.xtext.validation.IConcreteSyntaxValidator.IDiagnosticAcceptor;
 
+import com.google.common.io.CharStreams;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
@@ -78,6 +80,14 @@ public class XtextResource extends ResourceImpl {
 
 	public static final String OPTION_ENCODING = XtextResource.class.getName() + ".DEFAULT_ENCODING";
 
+	/**
+	 * Load option whose value is a {@link ParseResultCache}. If present, the parse result is read from the cache
+	 * if the content of the resource did not change, and it is written to the cache otherwise.
+	 * 
+	 * @since 2.5
+	 */
+	public static final String OPTION_PARSE_RESULT_CACHE = XtextResource.class.getName() + ".PARSE_RESULT_CACHE";
+
 	private boolean validationDisabled;
 	
 	/**
@@ -161,10 +171,44 @@ public class XtextResource extends ResourceImpl {
 	@Override
 	protected void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
 		setEncodingFromOptions(options);
+		ParseResultCache parseResultCache = getParseResultCache(options);
+		if (parseResultCache != null) {
+			doLoad(createReader(inputStream), parseResultCache);
+			return;
+		}
 		IParseResult result = parser.parse(createReader(inputStream));
 		updateInternalState(this.parseResult, result);
 	}
 	
+	/**
+	 * @since 2.5
+	 */
+	protected void doLoad(Reader reader, ParseResultCache parseResultCache) throws IOException {
+		String content = CharStreams.toString(reader);
+		IParseResult result = parseResultCache.load(this, content);
+		if (result != null) {
+			updateInternalState(this.parseResult, result);
+		} else {
+			result = parser.parse(new StringReader(content));
+			updateInternalState(this.parseResult, result);
+			parseResultCache.store(this, content);
+		}
+	}
+	
+	/**
+	 * @since 2.5
+	 */
+	@Nullable
+	protected ParseResultCache getParseResultCache(@Nullable Map<?, ?> options) {
+		if (options != null) {
+			Object cacheOption = options.get(OPTION_PARSE_RESULT_CACHE);
+			if (cacheOption instanceof ParseResultCache) {
+				return (ParseResultCache) cacheOption;
+			}
+		}
+		return null;
+	}
+	
 	/**
 	 * @since 2.5
 	 */
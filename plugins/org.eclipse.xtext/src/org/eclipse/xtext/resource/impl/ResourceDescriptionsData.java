@@ -22,11 +22,14 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IReferenceIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.impl.AbstractCompoundSelectable;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -34,12 +37,14 @@ import com.google.common.collect.Sets;
 /**
  * Instances of {@link ResourceDescriptionsData} provide indexed access to
  * resource descriptions that export elements with a certain name.
+ * They also serve as a {@link IReferenceIndex reverse index} from referenced objects,
+ * referenced resources and imported names to the resources that depend on them.
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  * @since 2.5
  * 
  */
-@Beta public class ResourceDescriptionsData extends AbstractCompoundSelectable {
+@Beta public class ResourceDescriptionsData extends AbstractCompoundSelectable implements IReferenceIndex {
 	
 	public static class ResourceSetAdapter extends AdapterImpl {
 		
@@ -87,6 +92,12 @@ import com.google.common.collect.Sets;
 	 * of elements becomes small enough.  
 	 */
 	private final Map<QualifiedName, Object> lookupMap;
+	
+	/**
+	 * The reverse index is computed on first access and maintained by {@link #removeDescription(URI)} and 
+	 * {@link #addDescription(URI, IResourceDescription)} afterwards. Guarded by <code>this</code>.
+	 */
+	private ReferenceIndex referenceIndex;
 
 	public ResourceDescriptionsData(Iterable<IResourceDescription> descriptions) {
 		int expectedSize = 500; // magic number in case it's not a Collection
@@ -110,9 +121,15 @@ import com.google.common.collect.Sets;
 	}
 	
 	public ResourceDescriptionsData copy() {
-		return new ResourceDescriptionsData(
+		ResourceDescriptionsData result = new ResourceDescriptionsData(
 				Maps.newHashMap(resourceDescriptionMap),
 				copyLookupMap());
+		synchronized (this) {
+			if (referenceIndex != null) {
+				result.referenceIndex = referenceIndex.copy();
+			}
+		}
+		return result;
 	}
 	
 	protected Map<QualifiedName, Object> copyLookupMap() {
@@ -141,6 +158,11 @@ import com.google.common.collect.Sets;
 	public void removeDescription(URI uri) {
 		IResourceDescription oldDescription = resourceDescriptionMap.remove(uri);
 		if (oldDescription != null) {
+			synchronized (this) {
+				if (referenceIndex != null) {
+					referenceIndex.unregister(uri, oldDescription);
+				}
+			}
 			for(IEObjectDescription object: oldDescription.getExportedObjects()) {
 				QualifiedName objectName = object.getName().toLowerCase();
 				Object existing = lookupMap.get(objectName);
@@ -203,7 +225,39 @@ import com.google.common.collect.Sets;
 		if (newDescription != null) {
 			resourceDescriptionMap.put(uri, newDescription);
 			registerDescription(newDescription, lookupMap);
+			synchronized (this) {
+				if (referenceIndex != null) {
+					referenceIndex.register(uri, newDescription);
+				}
+			}
+		}
+	}
+	
+	public Set<URI> getResourcesReferencingObject(URI targetObjectURI) {
+		return getReferenceIndex().getResourcesReferencingObject(targetObjectURI);
+	}
+	
+	public Set<URI> getResourcesReferencingObjects(Set<URI> targetObjectURIs) {
+		return getReferenceIndex().getResourcesReferencingObjects(targetObjectURIs);
+	}
+	
+	public Set<URI> getResourcesReferencingResource(URI targetResourceURI) {
+		return getReferenceIndex().getResourcesReferencingResource(targetResourceURI);
+	}
+	
+	public Set<URI> getResourcesImportingName(QualifiedName importedName) {
+		return getReferenceIndex().getResourcesImportingName(importedName);
+	}
+	
+	protected synchronized ReferenceIndex getReferenceIndex() {
+		if (referenceIndex == null) {
+			ReferenceIndex result = new ReferenceIndex(resourceDescriptionMap.size());
+			for(Map.Entry<URI, IResourceDescription> entry: resourceDescriptionMap.entrySet()) {
+				result.register(entry.getKey(), entry.getValue());
+			}
+			referenceIndex = result;
 		}
+		return referenceIndex;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -224,4 +278,114 @@ import com.google.common.collect.Sets;
 			}
 		}
 	}
+	
+	/**
+	 * Maps referenced objects, referenced resources and imported names to the URIs of the 
+	 * resources that depend on them.
+	 */
+	protected static class ReferenceIndex {
+		
+		private final Map<URI, Set<URI>> byTargetObject;
+		private final Map<URI, Set<URI>> byTargetResource;
+		private final Map<QualifiedName, Set<URI>> byImportedName;
+		
+		protected ReferenceIndex(int expectedSize) {
+			// magic numbers - it is assumed that a resource refers to a couple of objects in another resource 
+			byTargetObject = Maps.newHashMapWithExpectedSize(expectedSize * 4);
+			byTargetResource = Maps.newHashMapWithExpectedSize(expectedSize);
+			byImportedName = Maps.newHashMapWithExpectedSize(expectedSize * 4);
+		}
+		
+		private ReferenceIndex(ReferenceIndex original) {
+			byTargetObject = copy(original.byTargetObject);
+			byTargetResource = copy(original.byTargetResource);
+			byImportedName = copy(original.byImportedName);
+		}
+		
+		protected ReferenceIndex copy() {
+			return new ReferenceIndex(this);
+		}
+		
+		private static <K> Map<K, Set<URI>> copy(Map<K, Set<URI>> original) {
+			Map<K, Set<URI>> result = Maps.newHashMapWithExpectedSize(original.size());
+			for(Map.Entry<K, Set<URI>> entry: original.entrySet()) {
+				result.put(entry.getKey(), new HashSet<URI>(entry.getValue()));
+			}
+			return result;
+		}
+		
+		protected void register(URI uri, IResourceDescription description) {
+			for(IReferenceDescription reference: description.getReferenceDescriptions()) {
+				URI targetObject = reference.getTargetEObjectUri();
+				if (targetObject != null) {
+					add(byTargetObject, targetObject, uri);
+					URI targetResource = targetObject.trimFragment();
+					if (!uri.equals(targetResource)) {
+						add(byTargetResource, targetResource, uri);
+					}
+				}
+			}
+			for(QualifiedName importedName: description.getImportedNames()) {
+				add(byImportedName, importedName, uri);
+			}
+		}
+		
+		protected void unregister(URI uri, IResourceDescription description) {
+			for(IReferenceDescription reference: description.getReferenceDescriptions()) {
+				URI targetObject = reference.getTargetEObjectUri();
+				if (targetObject != null) {
+					remove(byTargetObject, targetObject, uri);
+					remove(byTargetResource, targetObject.trimFragment(), uri);
+				}
+			}
+			for(QualifiedName importedName: description.getImportedNames()) {
+				remove(byImportedName, importedName, uri);
+			}
+		}
+		
+		protected Set<URI> getResourcesReferencingObject(URI targetObjectURI) {
+			return getResources(byTargetObject, targetObjectURI);
+		}
+		
+		protected Set<URI> getResourcesReferencingObjects(Set<URI> targetObjectURIs) {
+			Set<URI> result = Sets.newHashSet();
+			for(URI targetObjectURI: targetObjectURIs) {
+				Set<URI> resources = byTargetObject.get(targetObjectURI);
+				if (resources != null)
+					result.addAll(resources);
+			}
+			return result;
+		}
+		
+		protected Set<URI> getResourcesReferencingResource(URI targetResourceURI) {
+			return getResources(byTargetResource, targetResourceURI);
+		}
+		
+		protected Set<URI> getResourcesImportingName(QualifiedName importedName) {
+			return getResources(byImportedName, importedName);
+		}
+		
+		private static <K> Set<URI> getResources(Map<K, Set<URI>> map, K key) {
+			Set<URI> result = map.get(key);
+			if (result == null)
+				return Collections.emptySet();
+			return ImmutableSet.copyOf(result);
+		}
+		
+		private static <K> void add(Map<K, Set<URI>> map, K key, URI uri) {
+			Set<URI> set = map.get(key);
+			if (set == null) {
+				set = Sets.newHashSetWithExpectedSize(2);
+				map.put(key, set);
+			}
+			set.add(uri);
+		}
+		
+		private static <K> void remove(Map<K, Set<URI>> map, K key, URI uri) {
+			Set<URI> set = map.get(key);
+			if (set != null && set.remove(uri) && set.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
 }
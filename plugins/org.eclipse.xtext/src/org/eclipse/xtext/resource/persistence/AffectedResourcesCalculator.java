@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+
+/**
+ * Computes the set of resources that have to be rebuilt after some resources were changed or deleted. A resource is
+ * rebuilt if it changed itself or if its {@link IResourceDescription.Manager manager} considers it to be
+ * {@link IResourceDescription.Manager#isAffected(Collection, IResourceDescription, IResourceDescriptions) affected} by
+ * the deltas of the rebuilt resources. The computation is repeated until no more deltas with changed exported objects
+ * are produced.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ * @since 2.5
+ */
+public class AffectedResourcesCalculator {
+
+	/**
+	 * Provides the up-to-date description of a resource that is about to be rebuilt.
+	 */
+	public interface DescriptionProvider {
+		/**
+		 * @return the new description or <code>null</code> if the resource does no longer exist.
+		 */
+		IResourceDescription getNewDescription(URI uri);
+	}
+
+	@Inject
+	private IResourceServiceProvider.Registry registry;
+
+	public void setRegistry(IResourceServiceProvider.Registry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Updates the given index in place and returns the URIs of all resources that have to be rebuilt, in a stable
+	 * order. Deleted resources are removed from the index and are not part of the result.
+	 */
+	public Set<URI> computeResourcesToBuild(ResourceDescriptionsData index, Collection<URI> changed,
+			Collection<URI> deleted, IResourceDescriptions context, DescriptionProvider descriptionProvider) {
+		Set<URI> result = Sets.newLinkedHashSet();
+		List<Delta> deltas = Lists.newArrayList();
+		for (URI uri : changed) {
+			result.add(uri);
+			IResourceDescription.Delta delta = update(index, uri, descriptionProvider.getNewDescription(uri));
+			if (delta != null) {
+				deltas.add(delta);
+			}
+		}
+		for (URI uri : deleted) {
+			IResourceDescription.Delta delta = update(index, uri, null);
+			if (delta != null) {
+				deltas.add(delta);
+			}
+		}
+		List<Delta> changedDeltas = getChangedDeltas(deltas);
+		while (!changedDeltas.isEmpty()) {
+			deltas = Lists.newArrayList();
+			for (IResourceDescription candidate : Lists.newArrayList(index.getAllResourceDescriptions())) {
+				URI uri = candidate.getURI();
+				if (!result.contains(uri)) {
+					IResourceDescription.Manager manager = getManager(uri);
+					if (manager != null && manager.isAffected(changedDeltas, candidate, context)) {
+						result.add(uri);
+						IResourceDescription.Delta delta = update(index, uri, descriptionProvider.getNewDescription(uri));
+						if (delta != null) {
+							deltas.add(delta);
+						}
+					}
+				}
+			}
+			changedDeltas = getChangedDeltas(deltas);
+		}
+		return result;
+	}
+
+	protected Delta update(ResourceDescriptionsData index, URI uri, IResourceDescription newDescription) {
+		IResourceDescription oldDescription = index.getResourceDescription(uri);
+		if (newDescription == null) {
+			index.removeDescription(uri);
+		} else {
+			index.addDescription(uri, newDescription);
+		}
+		if (oldDescription == null && newDescription == null) {
+			return null;
+		}
+		IResourceDescription.Manager manager = getManager(uri);
+		if (manager == null) {
+			return null;
+		}
+		return manager.createDelta(oldDescription, newDescription);
+	}
+
+	protected List<Delta> getChangedDeltas(List<Delta> deltas) {
+		List<Delta> result = Lists.newArrayList();
+		for (Delta delta : deltas) {
+			if (delta.haveEObjectDescriptionsChanged()) {
+				result.add(delta);
+			}
+		}
+		return result;
+	}
+
+	protected IResourceDescription.Manager getManager(URI uri) {
+		IResourceServiceProvider resourceServiceProvider = registry.getResourceServiceProvider(uri);
+		if (resourceServiceProvider == null) {
+			return null;
+		}
+		return resourceServiceProvider.getResourceDescriptionManager();
+	}
+
+}
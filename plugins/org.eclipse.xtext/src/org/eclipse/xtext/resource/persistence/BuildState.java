@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.collect.Sets;
+
+/**
+ * The state of a batch build that is kept between two runs. It consists of the index, the fingerprints of the
+ * contents of the built resources and a fingerprint of the environment, e.g. the class path, that was used for the
+ * build.
+ * 
+ * @author Dennis Huebner - Initial contribution and API
+ * @since 2.5
+ */
+public class BuildState {
+
+	private final ResourceDescriptionsData index;
+
+	private final Map<URI, String> fingerprints;
+
+	private final String environmentFingerprint;
+
+	public BuildState(ResourceDescriptionsData index, Map<URI, String> fingerprints, String environmentFingerprint) {
+		this.index = index;
+		this.fingerprints = Collections.unmodifiableMap(fingerprints);
+		this.environmentFingerprint = environmentFingerprint;
+	}
+
+	public ResourceDescriptionsData getIndex() {
+		return index;
+	}
+
+	public Map<URI, String> getFingerprints() {
+		return fingerprints;
+	}
+
+	public String getEnvironmentFingerprint() {
+		return environmentFingerprint;
+	}
+
+	/**
+	 * @return the URIs of the resources that were added or whose contents changed since this state was recorded.
+	 */
+	public Set<URI> getChangedURIs(Map<URI, String> currentFingerprints) {
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (Map.Entry<URI, String> entry : currentFingerprints.entrySet()) {
+			if (!entry.getValue().equals(fingerprints.get(entry.getKey()))) {
+				result.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the URIs of the resources that were recorded in this state but do no longer exist.
+	 */
+	public Set<URI> getDeletedURIs(Map<URI, String> currentFingerprints) {
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (URI uri : fingerprints.keySet()) {
+			if (!currentFingerprints.containsKey(uri)) {
+				result.add(uri);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Writes and reads a {@link BuildState} in a compact binary format. Classes and references are written once per
+ * file and addressed by their position afterwards.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ * @since 2.5
+ */
+public class BuildStatePersister {
+
+	private static final Logger LOG = Logger.getLogger(BuildStatePersister.class);
+
+	private static final int MAGIC_NUMBER = 0x58425354;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Writes the state to a temporary file next to the given file and renames it afterwards, so an interrupted save
+	 * does not leave a truncated state behind.
+	 */
+	public void save(BuildState state, File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (!parent.exists() && !parent.mkdirs() && !parent.isDirectory()) {
+			throw new IOException("Could not create directory " + parent);
+		}
+		File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				write(state, out);
+			} finally {
+				out.close();
+			}
+			// renaming onto an existing file fails on some platforms
+			if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+				throw new IOException("Could not rename '" + tempFile + "' to '" + file + "'.");
+			}
+		} finally {
+			if (tempFile.exists())
+				tempFile.delete();
+		}
+	}
+
+	/**
+	 * @return the persisted state or <code>null</code> if the file does not exist or cannot be read.
+	 */
+	public BuildState load(File file, ResourceSet resourceSet) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				return read(in, resourceSet);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			LOG.warn("Could not read the build state from '" + file + "'.", e);
+		} catch (RuntimeException e) {
+			LOG.warn("Could not read the build state from '" + file + "'.", e);
+		}
+		return null;
+	}
+
+	protected void write(BuildState state, DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(VERSION);
+		writeString(out, state.getEnvironmentFingerprint());
+		Map<URI, String> fingerprints = state.getFingerprints();
+		out.writeInt(fingerprints.size());
+		for (Map.Entry<URI, String> entry : fingerprints.entrySet()) {
+			writeString(out, entry.getKey().toString());
+			writeString(out, entry.getValue());
+		}
+		List<IResourceDescription> descriptions = Lists.newArrayList(state.getIndex().getAllResourceDescriptions());
+		out.writeInt(descriptions.size());
+		Map<EObject, Integer> pool = Maps.newHashMap();
+		for (IResourceDescription description : descriptions) {
+			writeResourceDescription(out, description, pool);
+		}
+	}
+
+	protected BuildState read(DataInputStream in, ResourceSet resourceSet) throws IOException {
+		if (in.readInt() != MAGIC_NUMBER) {
+			throw new IOException("Not a build state file.");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version " + version + ".");
+		}
+		String environmentFingerprint = readString(in);
+		int fingerprintCount = in.readInt();
+		Map<URI, String> fingerprints = Maps.newLinkedHashMap();
+		for (int i = 0; i < fingerprintCount; i++) {
+			fingerprints.put(URI.createURI(readString(in)), readString(in));
+		}
+		int descriptionCount = in.readInt();
+		List<IResourceDescription> descriptions = Lists.newArrayListWithCapacity(descriptionCount);
+		List<EObject> pool = Lists.newArrayList();
+		for (int i = 0; i < descriptionCount; i++) {
+			descriptions.add(readResourceDescription(in, resourceSet, pool));
+		}
+		return new BuildState(new ResourceDescriptionsData(descriptions), fingerprints, environmentFingerprint);
+	}
+
+	protected void writeResourceDescription(DataOutputStream out, IResourceDescription description,
+			Map<EObject, Integer> pool) throws IOException {
+		writeString(out, description.getURI().toString());
+		List<IEObjectDescription> exported = Lists.newArrayList(description.getExportedObjects());
+		out.writeInt(exported.size());
+		for (IEObjectDescription object : exported) {
+			writeQualifiedName(out, object.getName());
+			writePooled(out, object.getEClass(), pool);
+			writeString(out, object.getEObjectURI().toString());
+			String[] keys = object.getUserDataKeys();
+			out.writeInt(keys.length);
+			for (String key : keys) {
+				writeString(out, key);
+				writeString(out, object.getUserData(key));
+			}
+		}
+		List<QualifiedName> importedNames = Lists.newArrayList(description.getImportedNames());
+		out.writeInt(importedNames.size());
+		for (QualifiedName importedName : importedNames) {
+			writeQualifiedName(out, importedName);
+		}
+		List<IReferenceDescription> references = Lists.newArrayList();
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			// references to objects without a URI cannot be resolved and are not persisted
+			if (reference.getTargetEObjectUri() != null) {
+				references.add(reference);
+			}
+		}
+		out.writeInt(references.size());
+		for (IReferenceDescription reference : references) {
+			writeString(out, reference.getSourceEObjectUri().toString());
+			writeString(out, reference.getTargetEObjectUri().toString());
+			writePooled(out, reference.getEReference(), pool);
+			out.writeInt(reference.getIndexInList());
+			URI container = reference.getContainerEObjectURI();
+			writeString(out, container != null ? container.toString() : null);
+		}
+	}
+
+	protected IResourceDescription readResourceDescription(DataInputStream in, ResourceSet resourceSet,
+			List<EObject> pool) throws IOException {
+		URI uri = URI.createURI(readString(in));
+		int exportedCount = in.readInt();
+		List<IEObjectDescription> exported = Lists.newArrayListWithCapacity(exportedCount);
+		for (int i = 0; i < exportedCount; i++) {
+			QualifiedName name = readQualifiedName(in);
+			EClass eClass = (EClass) readPooled(in, resourceSet, pool);
+			InternalEObject proxy = (InternalEObject) EcoreUtil.create(eClass);
+			proxy.eSetProxyURI(URI.createURI(readString(in)));
+			int userDataCount = in.readInt();
+			Map<String, String> userData = null;
+			if (userDataCount > 0) {
+				userData = Maps.newHashMapWithExpectedSize(userDataCount);
+				for (int j = 0; j < userDataCount; j++) {
+					userData.put(readString(in), readString(in));
+				}
+			}
+			exported.add(EObjectDescription.create(name, proxy, userData));
+		}
+		int importedNameCount = in.readInt();
+		List<QualifiedName> importedNames = Lists.newArrayListWithCapacity(importedNameCount);
+		for (int i = 0; i < importedNameCount; i++) {
+			importedNames.add(readQualifiedName(in));
+		}
+		int referenceCount = in.readInt();
+		List<IReferenceDescription> references = Lists.newArrayListWithCapacity(referenceCount);
+		for (int i = 0; i < referenceCount; i++) {
+			URI source = URI.createURI(readString(in));
+			URI target = URI.createURI(readString(in));
+			EReference eReference = (EReference) readPooled(in, resourceSet, pool);
+			int indexInList = in.readInt();
+			String container = readString(in);
+			references.add(new DefaultReferenceDescription(source, target, eReference, indexInList,
+					container != null ? URI.createURI(container) : null));
+		}
+		return new DetachedResourceDescription(uri, exported, importedNames, references);
+	}
+
+	protected void writePooled(DataOutputStream out, EObject object, Map<EObject, Integer> pool) throws IOException {
+		Integer index = pool.get(object);
+		if (index != null) {
+			out.writeInt(index);
+		} else {
+			out.writeInt(-1);
+			writeString(out, EcoreUtil.getURI(object).toString());
+			pool.put(object, pool.size());
+		}
+	}
+
+	protected EObject readPooled(DataInputStream in, ResourceSet resourceSet, List<EObject> pool) throws IOException {
+		int index = in.readInt();
+		if (index >= 0) {
+			return pool.get(index);
+		}
+		String uri = readString(in);
+		EObject result = resourceSet.getEObject(URI.createURI(uri), true);
+		if (result == null) {
+			throw new IOException("Cannot resolve '" + uri + "'.");
+		}
+		pool.add(result);
+		return result;
+	}
+
+	protected void writeQualifiedName(DataOutputStream out, QualifiedName name) throws IOException {
+		out.writeInt(name.getSegmentCount());
+		for (int i = 0; i < name.getSegmentCount(); i++) {
+			writeString(out, name.getSegment(i));
+		}
+	}
+
+	protected QualifiedName readQualifiedName(DataInputStream in) throws IOException {
+		int segmentCount = in.readInt();
+		String[] segments = new String[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = readString(in);
+		}
+		return QualifiedName.create(segments);
+	}
+
+	protected void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	protected String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+}
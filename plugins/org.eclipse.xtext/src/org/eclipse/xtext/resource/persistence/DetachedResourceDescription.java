@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+import org.eclipse.xtext.resource.impl.EObjectDescriptionLookUp;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+/**
+ * An immutable {@link IResourceDescription} that does not refer to the
+ * {@link org.eclipse.emf.ecore.resource.Resource resource} it was computed from. Exported objects are represented
+ * by proxies, thus a detached description may be shared by several resource sets and read concurrently.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ * @since 2.5
+ */
+public class DetachedResourceDescription extends AbstractResourceDescription {
+
+	private final URI uri;
+
+	private final ImmutableList<IEObjectDescription> exported;
+
+	private final ImmutableList<QualifiedName> importedNames;
+
+	private final ImmutableList<IReferenceDescription> references;
+
+	public DetachedResourceDescription(URI uri, List<IEObjectDescription> exported, List<QualifiedName> importedNames,
+			List<IReferenceDescription> references) {
+		this.uri = uri;
+		this.exported = ImmutableList.copyOf(exported);
+		this.importedNames = ImmutableList.copyOf(importedNames);
+		this.references = ImmutableList.copyOf(references);
+		// initialize eagerly to allow concurrent read access
+		this.lookup = new EObjectDescriptionLookUp(this.exported);
+	}
+
+	/**
+	 * Copies the exported objects of the given description. Imported names and references are not copied since
+	 * computing them may require the linking of the original resource.
+	 */
+	public static DetachedResourceDescription copyExportedObjects(IResourceDescription original) {
+		List<IReferenceDescription> noReferences = Collections.emptyList();
+		List<QualifiedName> noImportedNames = Collections.emptyList();
+		return new DetachedResourceDescription(original.getURI(), copy(original.getExportedObjects()),
+				noImportedNames, noReferences);
+	}
+
+	/**
+	 * Copies the exported objects, the imported names and the references of the given description.
+	 */
+	public static DetachedResourceDescription copyAll(IResourceDescription original) {
+		return new DetachedResourceDescription(original.getURI(), copy(original.getExportedObjects()),
+				ImmutableList.copyOf(original.getImportedNames()), ImmutableList.copyOf(original.getReferenceDescriptions()));
+	}
+
+	protected static List<IEObjectDescription> copy(Iterable<IEObjectDescription> exportedObjects) {
+		ImmutableList.Builder<IEObjectDescription> result = ImmutableList.builder();
+		for (IEObjectDescription from : exportedObjects) {
+			if (from.getEObjectOrProxy().eIsProxy()) {
+				result.add(from);
+			} else {
+				InternalEObject proxy = (InternalEObject) EcoreUtil.create(from.getEClass());
+				proxy.eSetProxyURI(from.getEObjectURI());
+				Map<String, String> userData = null;
+				for (String key : from.getUserDataKeys()) {
+					if (userData == null) {
+						userData = Maps.newHashMapWithExpectedSize(2);
+					}
+					userData.put(key, from.getUserData(key));
+				}
+				result.add(EObjectDescription.create(from.getName(), proxy, userData));
+			}
+		}
+		return result.build();
+	}
+
+	@Override
+	protected List<IEObjectDescription> computeExportedObjects() {
+		return exported;
+	}
+
+	public Iterable<QualifiedName> getImportedNames() {
+		return importedNames;
+	}
+
+	public Iterable<IReferenceDescription> getReferenceDescriptions() {
+		return references;
+	}
+
+	public URI getURI() {
+		return uri;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIConverter;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Computes content based fingerprints of resources and of the environment of a build.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ * @since 2.5
+ */
+public class FingerprintCalculator {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	public Map<URI, String> getFingerprints(Iterable<URI> uris, URIConverter uriConverter) throws IOException {
+		Map<URI, String> result = Maps.newLinkedHashMap();
+		for (URI uri : uris) {
+			result.put(uri, getFingerprint(uri, uriConverter));
+		}
+		return result;
+	}
+
+	public String getFingerprint(URI uri, URIConverter uriConverter) throws IOException {
+		InputStream in = uriConverter.createInputStream(uri);
+		try {
+			return getFingerprint(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	public String getFingerprint(InputStream in) throws IOException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+		return toHexString(digest.digest());
+	}
+
+	public String getFingerprint(String content) {
+		MessageDigest digest = createDigest();
+		update(digest, content);
+		return toHexString(digest.digest());
+	}
+
+	/**
+	 * Computes a fingerprint of the given class path and the additional settings. Archives and class files are
+	 * identified by their path, size and time stamp.
+	 */
+	public String getEnvironmentFingerprint(Iterable<String> classPathEntries, String... settings) {
+		MessageDigest digest = createDigest();
+		for (String entry : classPathEntries) {
+			update(digest, entry);
+			File file = new File(entry);
+			if (file.isFile()) {
+				update(digest, String.valueOf(file.length()));
+				update(digest, String.valueOf(file.lastModified()));
+			}
+		}
+		for (String setting : settings) {
+			update(digest, String.valueOf(setting));
+		}
+		return toHexString(digest.digest());
+	}
+
+	protected void update(MessageDigest digest, String value) {
+		try {
+			digest.update(value.getBytes("UTF-8"));
+			digest.update((byte) 0);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	protected MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	protected String toHexString(byte[] bytes) {
+		char[] result = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			result[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			result[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(result);
+	}
+
+}
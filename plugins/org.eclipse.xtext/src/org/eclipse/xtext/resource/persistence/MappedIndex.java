@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+
+/**
+ * A read-only index of resource descriptions that is backed by a memory-mapped file. The file is organized in
+ * columns of fixed-size records that refer to each other by their position:
+ * <ul>
+ * <li>a pool of UTF-8 encoded strings and a pool of qualified names whose segments are pooled strings,</li>
+ * <li>the resource descriptions with the ranges of their exported objects, imported names and references,</li>
+ * <li>the exported objects with the ranges of their user data, the user data, the imported names and the
+ * references.</li>
+ * </ul>
+ * URIs are stored as a pair of pooled strings, the URI without the fragment and the fragment. Classes and references
+ * are stored by their URI.
+ * <p>
+ * Opening an index only reads the URIs of the {@link MappedResourceDescription resource descriptions}. Everything
+ * else is decoded from the mapped file on demand and is not retained on the heap. An index can be read concurrently.
+ * The file should not be modified as long as the index is used. Use a {@link MappedIndexWriter} to write an index.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class MappedIndex {
+
+	private static final Logger LOG = Logger.getLogger(MappedIndex.class);
+
+	static final int MAGIC_NUMBER = 0x5849444D;
+
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 13;
+
+	static final int DESCRIPTION_SIZE = 7;
+
+	static final int OBJECT_SIZE = 6;
+
+	static final int USER_DATA_SIZE = 2;
+
+	static final int REFERENCE_SIZE = 8;
+
+	private final ByteBuffer buffer;
+
+	private final int stringCount;
+
+	private final int stringsStart;
+
+	private final int nameCount;
+
+	private final int namesStart;
+
+	private final int descriptionCount;
+
+	private final int descriptionsStart;
+
+	private final int objectsStart;
+
+	private final int userDataStart;
+
+	private final int importedNamesStart;
+
+	private final int referencesStart;
+
+	private final ConcurrentMap<Integer, EObject> metaModelElements = new MapMaker().makeMap();
+
+	private final ResourceSet metaModelResourceSet = new ResourceSetImpl();
+
+	/**
+	 * Maps the given file into memory. The file may be deleted afterwards on platforms that allow to delete a mapped
+	 * file.
+	 */
+	public static MappedIndex open(File file) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			return new MappedIndex(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	protected MappedIndex(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE * 4 || buffer.getInt(0) != MAGIC_NUMBER) {
+			throw new IOException("Not an index file.");
+		}
+		int version = buffer.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported version " + version + ".");
+		}
+		if (buffer.getInt(8) != buffer.capacity()) {
+			throw new IOException("The size of the index file does not match.");
+		}
+		stringCount = buffer.getInt(12);
+		stringsStart = buffer.getInt(16);
+		nameCount = buffer.getInt(20);
+		namesStart = buffer.getInt(24);
+		descriptionCount = buffer.getInt(28);
+		descriptionsStart = buffer.getInt(32);
+		objectsStart = buffer.getInt(36);
+		userDataStart = buffer.getInt(40);
+		importedNamesStart = buffer.getInt(44);
+		referencesStart = buffer.getInt(48);
+	}
+
+	/**
+	 * Creates the descriptions of all resources in this index. The descriptions are views on the index and do not
+	 * keep their contents on the heap.
+	 */
+	public List<IResourceDescription> getResourceDescriptions() {
+		List<IResourceDescription> result = Lists.newArrayListWithCapacity(descriptionCount);
+		for (int i = 0; i < descriptionCount; i++) {
+			int record = descriptionsStart + i * DESCRIPTION_SIZE * 4;
+			result.add(new MappedResourceDescription(this, record, URI.createURI(getString(buffer.getInt(record)))));
+		}
+		return result;
+	}
+
+	public int getResourceDescriptionCount() {
+		return descriptionCount;
+	}
+
+	int getInt(int offset) {
+		return buffer.getInt(offset);
+	}
+
+	int getObjectRecord(int index) {
+		return objectsStart + index * OBJECT_SIZE * 4;
+	}
+
+	int getUserDataRecord(int index) {
+		return userDataStart + index * USER_DATA_SIZE * 4;
+	}
+
+	int getImportedNameRecord(int index) {
+		return importedNamesStart + index * 4;
+	}
+
+	int getReferenceRecord(int index) {
+		return referencesStart + index * REFERENCE_SIZE * 4;
+	}
+
+	String getString(int id) {
+		if (id < 0) {
+			return null;
+		}
+		if (id >= stringCount) {
+			throw new IndexOutOfBoundsException("String " + id);
+		}
+		int offset = buffer.getInt(stringsStart + id * 4);
+		int length = buffer.getInt(offset);
+		// work on a duplicate since the position and the limit of the shared buffer must not be changed
+		ByteBuffer bytes = buffer.duplicate();
+		bytes.position(offset + 4);
+		bytes.limit(offset + 4 + length);
+		return Charsets.UTF_8.decode(bytes).toString();
+	}
+
+	QualifiedName getQualifiedName(int id) {
+		if (id >= nameCount) {
+			throw new IndexOutOfBoundsException("Name " + id);
+		}
+		int offset = buffer.getInt(namesStart + id * 4);
+		String[] segments = new String[buffer.getInt(offset)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = getString(buffer.getInt(offset + 4 + i * 4));
+		}
+		return QualifiedName.create(segments);
+	}
+
+	/**
+	 * Reads the pair of pooled strings that represents a URI.
+	 */
+	URI getURI(int offset) {
+		String uri = getString(buffer.getInt(offset));
+		if (uri == null) {
+			return null;
+		}
+		String fragment = getString(buffer.getInt(offset + 4));
+		if (fragment == null) {
+			return URI.createURI(uri);
+		}
+		return URI.createURI(uri).appendFragment(fragment);
+	}
+
+	/**
+	 * @return the class or reference with the given id or <code>null</code> if the element cannot be resolved.
+	 */
+	EObject getMetaModelElement(int id) {
+		if (id < 0) {
+			return null;
+		}
+		EObject result = metaModelElements.get(id);
+		if (result == null) {
+			String uri = getString(id);
+			synchronized (metaModelResourceSet) {
+				try {
+					result = metaModelResourceSet.getEObject(URI.createURI(uri), true);
+				} catch (RuntimeException e) {
+					LOG.warn("Cannot resolve '" + uri + "'.", e);
+				}
+			}
+			if (result == null) {
+				return null;
+			}
+			metaModelElements.put(id, result);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import static org.eclipse.xtext.resource.persistence.MappedIndex.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Writes resource descriptions in the file format that is read by {@link MappedIndex}. Strings and qualified names
+ * are pooled, so each distinct value is written only once.
+ * <p>
+ * Instances are not thread-safe and are meant to write a single file.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class MappedIndexWriter {
+
+	private final Map<String, Integer> stringIds = Maps.newHashMap();
+
+	private final List<byte[]> strings = Lists.newArrayList();
+
+	private final Map<QualifiedName, Integer> nameIds = Maps.newHashMap();
+
+	private final List<int[]> names = Lists.newArrayList();
+
+	private final Map<EObject, Integer> metaModelElementIds = Maps.newHashMap();
+
+	private final IntList descriptions = new IntList();
+
+	private final IntList objects = new IntList();
+
+	private final IntList userData = new IntList();
+
+	private final IntList importedNames = new IntList();
+
+	private final IntList references = new IntList();
+
+	/**
+	 * Writes the given descriptions to the given file. The file is written completely before it replaces an existing
+	 * file, so readers never see a partially written index.
+	 */
+	public void write(Iterable<? extends IResourceDescription> resourceDescriptions, File file) throws IOException {
+		for (IResourceDescription description : resourceDescriptions) {
+			add(description);
+		}
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.isDirectory()) {
+			throw new IOException("Could not create directory " + parent);
+		}
+		File tempFile = File.createTempFile(file.getName(), ".tmp", parent);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				writeTo(out);
+			} finally {
+				out.close();
+			}
+			if (!tempFile.renameTo(file)) {
+				file.delete();
+				if (!tempFile.renameTo(file)) {
+					throw new IOException("Could not write " + file);
+				}
+			}
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	protected void add(IResourceDescription description) {
+		descriptions.add(stringId(description.getURI().toString()));
+		int firstObject = objects.size() / OBJECT_SIZE;
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			objects.add(nameId(object.getName()));
+			objects.add(metaModelElementId(object.getEClass()));
+			addURI(objects, object.getEObjectURI());
+			String[] keys = object.getUserDataKeys();
+			objects.add(userData.size() / USER_DATA_SIZE);
+			objects.add(keys.length);
+			for (String key : keys) {
+				userData.add(stringId(key));
+				userData.add(stringId(object.getUserData(key)));
+			}
+		}
+		descriptions.add(firstObject);
+		descriptions.add(objects.size() / OBJECT_SIZE - firstObject);
+		int firstImportedName = importedNames.size();
+		for (QualifiedName importedName : description.getImportedNames()) {
+			importedNames.add(nameId(importedName));
+		}
+		descriptions.add(firstImportedName);
+		descriptions.add(importedNames.size() - firstImportedName);
+		int firstReference = references.size() / REFERENCE_SIZE;
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			addURI(references, reference.getSourceEObjectUri());
+			addURI(references, reference.getTargetEObjectUri());
+			references.add(metaModelElementId(reference.getEReference()));
+			references.add(reference.getIndexInList());
+			addURI(references, reference.getContainerEObjectURI());
+		}
+		descriptions.add(firstReference);
+		descriptions.add(references.size() / REFERENCE_SIZE - firstReference);
+	}
+
+	/**
+	 * Adds the URI as two pooled strings, the URI without the fragment and the fragment. Thus, the URI of a
+	 * resource is shared by the URIs of all objects in that resource.
+	 */
+	protected void addURI(IntList target, URI uri) {
+		if (uri == null) {
+			target.add(-1);
+			target.add(-1);
+		} else {
+			target.add(stringId(uri.trimFragment().toString()));
+			target.add(stringId(uri.fragment()));
+		}
+	}
+
+	protected int stringId(String value) {
+		if (value == null) {
+			return -1;
+		}
+		Integer result = stringIds.get(value);
+		if (result == null) {
+			result = strings.size();
+			ByteBuffer encoded = Charsets.UTF_8.encode(value);
+			byte[] bytes = new byte[encoded.remaining()];
+			encoded.get(bytes);
+			strings.add(bytes);
+			stringIds.put(value, result);
+		}
+		return result;
+	}
+
+	protected int nameId(QualifiedName name) {
+		Integer result = nameIds.get(name);
+		if (result == null) {
+			int[] segments = new int[name.getSegmentCount()];
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = stringId(name.getSegment(i));
+			}
+			result = names.size();
+			names.add(segments);
+			nameIds.put(name, result);
+		}
+		return result;
+	}
+
+	protected int metaModelElementId(EObject element) {
+		if (element == null) {
+			return -1;
+		}
+		Integer result = metaModelElementIds.get(element);
+		if (result == null) {
+			result = stringId(EcoreUtil.getURI(element).toString());
+			metaModelElementIds.put(element, result);
+		}
+		return result;
+	}
+
+	protected void writeTo(DataOutputStream out) throws IOException {
+		int headerSize = HEADER_SIZE * 4;
+		int stringsStart = headerSize;
+		int stringDataStart = stringsStart + strings.size() * 4;
+		int namesStart = stringDataStart;
+		for (byte[] string : strings) {
+			namesStart += 4 + string.length;
+		}
+		int nameDataStart = namesStart + names.size() * 4;
+		int descriptionsStart = nameDataStart;
+		for (int[] name : names) {
+			descriptionsStart += 4 + name.length * 4;
+		}
+		int objectsStart = descriptionsStart + descriptions.size() * 4;
+		int userDataStart = objectsStart + objects.size() * 4;
+		int importedNamesStart = userDataStart + userData.size() * 4;
+		int referencesStart = importedNamesStart + importedNames.size() * 4;
+		int fileSize = referencesStart + references.size() * 4;
+
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(VERSION);
+		out.writeInt(fileSize);
+		out.writeInt(strings.size());
+		out.writeInt(stringsStart);
+		out.writeInt(names.size());
+		out.writeInt(namesStart);
+		out.writeInt(descriptions.size() / DESCRIPTION_SIZE);
+		out.writeInt(descriptionsStart);
+		out.writeInt(objectsStart);
+		out.writeInt(userDataStart);
+		out.writeInt(importedNamesStart);
+		out.writeInt(referencesStart);
+
+		int offset = stringDataStart;
+		for (byte[] string : strings) {
+			out.writeInt(offset);
+			offset += 4 + string.length;
+		}
+		for (byte[] string : strings) {
+			out.writeInt(string.length);
+			out.write(string);
+		}
+		offset = nameDataStart;
+		for (int[] name : names) {
+			out.writeInt(offset);
+			offset += 4 + name.length * 4;
+		}
+		for (int[] name : names) {
+			out.writeInt(name.length);
+			for (int segment : name) {
+				out.writeInt(segment);
+			}
+		}
+		descriptions.writeTo(out);
+		objects.writeTo(out);
+		userData.writeTo(out);
+		importedNames.writeTo(out);
+		references.writeTo(out);
+		if (out.size() != fileSize) {
+			throw new IllegalStateException("Unexpected size of the index: " + out.size() + " instead of " + fileSize);
+		}
+	}
+
+	/**
+	 * A growable list of primitive <code>int</code> values.
+	 */
+	protected static class IntList {
+
+		private int[] values = new int[256];
+
+		private int size;
+
+		public void add(int value) {
+			if (size == values.length) {
+				int[] newValues = new int[size * 2];
+				System.arraycopy(values, 0, newValues, 0, size);
+				values = newValues;
+			}
+			values[size++] = value;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public void writeTo(DataOutputStream out) throws IOException {
+			for (int i = 0; i < size; i++) {
+				out.writeInt(values[i]);
+			}
+		}
+	}
+
+}
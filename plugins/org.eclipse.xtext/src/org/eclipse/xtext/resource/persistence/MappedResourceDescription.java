@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.EObjectDescriptionLookUp;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A resource description that is read on demand from a {@link MappedIndex}. Exported objects are represented by
+ * proxies. The exported objects, the imported names and the references are decoded whenever they are requested. Only
+ * the look up that answers queries for exported objects is cached, and the cache may be cleared by the garbage
+ * collector.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class MappedResourceDescription extends AbstractResourceDescription {
+
+	private final MappedIndex index;
+
+	private final int record;
+
+	private final URI uri;
+
+	private volatile SoftReference<EObjectDescriptionLookUp> lookupReference;
+
+	MappedResourceDescription(MappedIndex index, int record, URI uri) {
+		this.index = index;
+		this.record = record;
+		this.uri = uri;
+	}
+
+	public URI getURI() {
+		return uri;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return index.getInt(record + 8) == 0;
+	}
+
+	/**
+	 * Decodes the exported objects without caching them.
+	 */
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjects() {
+		return computeExportedObjects();
+	}
+
+	@Override
+	protected List<IEObjectDescription> computeExportedObjects() {
+		int first = index.getInt(record + 4);
+		int count = index.getInt(record + 8);
+		List<IEObjectDescription> result = Lists.newArrayListWithCapacity(count);
+		for (int i = first; i < first + count; i++) {
+			IEObjectDescription object = createEObjectDescription(index.getObjectRecord(i));
+			if (object != null) {
+				result.add(object);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the description or <code>null</code> if its class cannot be resolved anymore.
+	 */
+	protected IEObjectDescription createEObjectDescription(int objectRecord) {
+		EClass eClass = (EClass) index.getMetaModelElement(index.getInt(objectRecord + 4));
+		if (eClass == null) {
+			return null;
+		}
+		QualifiedName name = index.getQualifiedName(index.getInt(objectRecord));
+		InternalEObject proxy = (InternalEObject) EcoreUtil.create(eClass);
+		proxy.eSetProxyURI(index.getURI(objectRecord + 8));
+		int userDataCount = index.getInt(objectRecord + 20);
+		Map<String, String> userData = null;
+		if (userDataCount > 0) {
+			int firstUserData = index.getInt(objectRecord + 16);
+			userData = Maps.newHashMapWithExpectedSize(userDataCount);
+			for (int i = firstUserData; i < firstUserData + userDataCount; i++) {
+				int userDataRecord = index.getUserDataRecord(i);
+				userData.put(index.getString(index.getInt(userDataRecord)),
+						index.getString(index.getInt(userDataRecord + 4)));
+			}
+		}
+		return EObjectDescription.create(name, proxy, userData);
+	}
+
+	@Override
+	protected EObjectDescriptionLookUp getLookUp() {
+		SoftReference<EObjectDescriptionLookUp> reference = lookupReference;
+		EObjectDescriptionLookUp result = reference != null ? reference.get() : null;
+		if (result == null) {
+			result = new EObjectDescriptionLookUp(computeExportedObjects());
+			lookupReference = new SoftReference<EObjectDescriptionLookUp>(result);
+		}
+		return result;
+	}
+
+	public Iterable<QualifiedName> getImportedNames() {
+		final int first = index.getInt(record + 12);
+		final int count = index.getInt(record + 16);
+		return new AbstractList<QualifiedName>() {
+			@Override
+			public QualifiedName get(int i) {
+				if (i < 0 || i >= count)
+					throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+				return index.getQualifiedName(index.getInt(index.getImportedNameRecord(first + i)));
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	public Iterable<IReferenceDescription> getReferenceDescriptions() {
+		final int first = index.getInt(record + 20);
+		final int count = index.getInt(record + 24);
+		return new AbstractList<IReferenceDescription>() {
+			@Override
+			public IReferenceDescription get(int i) {
+				if (i < 0 || i >= count)
+					throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+				return createReferenceDescription(index.getReferenceRecord(first + i));
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	protected IReferenceDescription createReferenceDescription(int referenceRecord) {
+		EObject eReference = index.getMetaModelElement(index.getInt(referenceRecord + 16));
+		return new DefaultReferenceDescription(index.getURI(referenceRecord), index.getURI(referenceRecord + 8),
+				eReference instanceof EReference ? (EReference) eReference : null, index.getInt(referenceRecord + 20),
+				index.getURI(referenceRecord + 24));
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + uri + "]";
+	}
+
+}
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.AbstractRule;
+import org.eclipse.xtext.Assignment;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.GrammarUtil;
+import org.eclipse.xtext.IGrammarAccess;
+import org.eclipse.xtext.Keyword;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.TypeRef;
+import org.eclipse.xtext.nodemodel.impl.RootNode;
+import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
+import org.eclipse.xtext.nodemodel.serialization.DeserializationConversionContext;
+import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+
+/**
+ * An on-disk cache for the results of the parser. An entry holds the semantic model in EMF's binary format and the
+ * {@link SerializableNodeModel node model} of a resource. It is only used if the text of the resource and the grammar
+ * of its language still match the fingerprints that were recorded when the entry was written.
+ * <p>
+ * The cache is enabled by passing an instance as the load option {@link XtextResource#OPTION_PARSE_RESULT_CACHE}.
+ * It is safe to use a cache concurrently from multiple resource sets.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class ParseResultCache {
+
+	private static final Logger log = Logger.getLogger(ParseResultCache.class);
+
+	private static final int MAGIC_NUMBER = 0x58505243;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private final File directory;
+
+	private final FingerprintCalculator fingerprintCalculator;
+
+	private final ConcurrentMap<Grammar, String> grammarFingerprints = new MapMaker().weakKeys().makeMap();
+
+	public ParseResultCache(File directory) {
+		this(directory, new FingerprintCalculator());
+	}
+
+	public ParseResultCache(File directory, FingerprintCalculator fingerprintCalculator) {
+		this.directory = directory;
+		this.fingerprintCalculator = fingerprintCalculator;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Reads the cached parse result for the given resource and content. The semantic model is added to the contents
+	 * of the resource.
+	 *
+	 * @return the parse result or <code>null</code> if there is no up-to-date entry. The resource is left
+	 *         unchanged in that case.
+	 */
+	@Nullable
+	public IParseResult load(XtextResource resource, String content) {
+		File file = getCacheFile(resource.getURI());
+		if (!file.isFile()) {
+			return null;
+		}
+		int contentSize = resource.getContents().size();
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION
+						|| !getGrammarFingerprint(resource).equals(in.readUTF())
+						|| !fingerprintCalculator.getFingerprint(content).equals(in.readUTF())) {
+					return null;
+				}
+				byte[] semanticModel = new byte[in.readInt()];
+				in.readFully(semanticModel);
+				new BinaryResourceImpl.EObjectInputStream(new ByteArrayInputStream(semanticModel), null)
+						.loadResource(resource);
+				DeserializationConversionContext context = new DeserializationConversionContext(resource, content);
+				SerializableNodeModel nodeModel = new SerializableNodeModel();
+				nodeModel.readObjectData(in, context);
+				EObject rootASTElement = resource.getContents().size() > contentSize ? resource.getContents().get(
+						contentSize) : null;
+				return new ParseResult(rootASTElement, nodeModel.root, context.hasErrors());
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			handleInvalidEntry(resource, contentSize, file, e);
+		} catch (RuntimeException e) {
+			handleInvalidEntry(resource, contentSize, file, e);
+		}
+		return null;
+	}
+
+	protected void handleInvalidEntry(XtextResource resource, int contentSize, File file, Exception e) {
+		log.warn("Cannot read cached parse result for " + resource.getURI() + ": " + e.getMessage());
+		if (log.isDebugEnabled()) {
+			log.debug(e.getMessage(), e);
+		}
+		EList<EObject> contents = resource.getContents();
+		while (contents.size() > contentSize) {
+			contents.remove(contents.size() - 1);
+		}
+		file.delete();
+	}
+
+	/**
+	 * Writes the current parse result of the given resource to the cache. Problems are logged but not propagated.
+	 */
+	public void store(XtextResource resource, String content) {
+		IParseResult parseResult = resource.getParseResult();
+		if (parseResult == null || !(parseResult.getRootNode() instanceof RootNode)) {
+			// only the default node model can be serialized
+			return;
+		}
+		File file = getCacheFile(resource.getURI());
+		File tempFile = null;
+		try {
+			ByteArrayOutputStream semanticModel = new ByteArrayOutputStream();
+			BinaryResourceImpl.EObjectOutputStream eObjectOut = new BinaryResourceImpl.EObjectOutputStream(
+					semanticModel, null);
+			eObjectOut.saveResource(resource);
+			eObjectOut.flush();
+			SerializationConversionContext context = new SerializationConversionContext(resource);
+			if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+				throw new IOException("Cannot create directory " + directory);
+			}
+			tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(getGrammarFingerprint(resource));
+				out.writeUTF(fingerprintCalculator.getFingerprint(content));
+				out.writeInt(semanticModel.size());
+				semanticModel.writeTo(out);
+				new SerializableNodeModel(resource).writeObjectData(out, context);
+			} finally {
+				out.close();
+			}
+			if (!tempFile.renameTo(file)) {
+				file.delete();
+				if (!tempFile.renameTo(file)) {
+					throw new IOException("Cannot write " + file);
+				}
+			}
+			tempFile = null;
+		} catch (IOException e) {
+			handleStoreFailure(resource, e);
+		} catch (RuntimeException e) {
+			handleStoreFailure(resource, e);
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	protected void handleStoreFailure(XtextResource resource, Exception e) {
+		log.warn("Cannot cache parse result for " + resource.getURI() + ": " + e.getMessage());
+		if (log.isDebugEnabled()) {
+			log.debug(e.getMessage(), e);
+		}
+	}
+
+	protected File getCacheFile(URI uri) {
+		return new File(directory, fingerprintCalculator.getFingerprint(uri.toString()) + ".parse");
+	}
+
+	protected String getGrammarFingerprint(XtextResource resource) {
+		Grammar grammar = resource.getResourceServiceProvider().get(IGrammarAccess.class).getGrammar();
+		String result = grammarFingerprints.get(grammar);
+		if (result == null) {
+			result = computeGrammarFingerprint(grammar);
+			grammarFingerprints.put(grammar, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes a fingerprint of the structure of the given grammar and the grammars it uses. The fingerprint changes
+	 * whenever the URI of a grammar element or the information that is needed to parse a document changes.
+	 */
+	protected String computeGrammarFingerprint(Grammar grammar) {
+		StringBuilder result = new StringBuilder();
+		List<Grammar> grammars = Lists.newArrayList(grammar);
+		grammars.addAll(GrammarUtil.allUsedGrammars(grammar));
+		for (Grammar g : grammars) {
+			append(result, g.getName());
+			for (TreeIterator<EObject> iterator = g.eAllContents(); iterator.hasNext();) {
+				EObject element = iterator.next();
+				append(result, element.eClass().getName());
+				append(result, EcoreUtil.getURI(element).fragment());
+				if (element instanceof AbstractRule) {
+					append(result, ((AbstractRule) element).getName());
+				} else if (element instanceof AbstractElement) {
+					append(result, ((AbstractElement) element).getCardinality());
+					if (element instanceof Keyword) {
+						append(result, ((Keyword) element).getValue());
+					} else if (element instanceof Assignment) {
+						append(result, ((Assignment) element).getFeature());
+						append(result, ((Assignment) element).getOperator());
+					} else if (element instanceof RuleCall && ((RuleCall) element).getRule() != null) {
+						append(result, ((RuleCall) element).getRule().getName());
+					}
+				} else if (element instanceof TypeRef && ((TypeRef) element).getClassifier() != null) {
+					append(result, ((TypeRef) element).getClassifier().getName());
+				}
+			}
+		}
+		return fingerprintCalculator.getFingerprint(result.toString());
+	}
+
+	private void append(StringBuilder result, String segment) {
+		result.append(segment).append('\u0000');
+	}
+
+}
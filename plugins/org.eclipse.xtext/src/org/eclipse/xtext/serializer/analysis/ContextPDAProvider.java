@@ -164,7 +164,7 @@ public class ContextPDAProvider implements IContextPDAProvider {
 
 	}
 
-	protected Map<EObject, Pda<ISerState, RuleCall>> cache = Maps.newHashMap();
+	protected Map<EObject, Pda<ISerState, RuleCall>> cache = Maps.newConcurrentMap();
 
 	@Inject
 	protected PdaUtil pdaUtil;
@@ -197,8 +197,13 @@ public class ContextPDAProvider implements IContextPDAProvider {
 
 	public Pda<ISerState, RuleCall> getContextPDA(EObject context) {
 		Pda<ISerState, RuleCall> result = cache.get(context);
-		if (result == null)
-			cache.put(context, result = createPDA(context, result));
+		if (result == null) {
+			synchronized (GrammarAnalysisLock.get(context)) {
+				result = cache.get(context);
+				if (result == null)
+					cache.put(context, result = createPDA(context, result));
+			}
+		}
 		return result;
 	}
 
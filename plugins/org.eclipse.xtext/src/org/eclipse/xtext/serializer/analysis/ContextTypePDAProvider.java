@@ -12,6 +12,7 @@ import java.util.Map;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.Action;
 import org.eclipse.xtext.Assignment;
 import org.eclipse.xtext.GrammarUtil;
@@ -162,13 +163,22 @@ public class ContextTypePDAProvider implements IContextTypePDAProvider {
 
 	}
 
-	protected Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> cache = Maps.newHashMap();
+	protected Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> cache = Maps.newConcurrentMap();
 	@Inject
 	protected IContextProvider contextProvider;
 
 	@Inject
 	protected IContextPDAProvider pdaProvider;
 
+	/**
+	 * @since 2.5
+	 */
+	@Inject
+	protected PrecomputedContextTypePDAs precomputedPDAs;
+
+	private final Map<Resource, Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>>> precomputedPDAsByResource = Maps
+			.newConcurrentMap();
+
 	protected Pda<ISerState, RuleCall> createPDA(EObject context, EClass type) {
 		Pda<ISerState, RuleCall> contextPda = pdaProvider.getContextPDA(context);
 		Pda<ISerState, RuleCall> contextTypePda = null;
@@ -184,11 +194,34 @@ public class ContextTypePDAProvider implements IContextTypePDAProvider {
 	public Pda<ISerState, RuleCall> getContextTypePDA(EObject context, EClass type) {
 		Pair<EObject, EClass> key = Tuples.create(context, type);
 		Pda<ISerState, RuleCall> result = cache.get(key);
-		if (result == null)
-			cache.put(key, result = createPDA(context, type));
+		if (result == null) {
+			synchronized (GrammarAnalysisLock.get(context)) {
+				result = cache.get(key);
+				if (result == null) {
+					result = getPrecomputedPDA(key);
+					if (result == null)
+						result = createPDA(context, type);
+					cache.put(key, result);
+				}
+			}
+		}
 		return result;
 	}
 
+	/**
+	 * @return the PDA that the generator stored next to the persisted grammar or <code>null</code> if there is none.
+	 * @since 2.5
+	 */
+	protected Pda<ISerState, RuleCall> getPrecomputedPDA(Pair<EObject, EClass> key) {
+		Resource resource = key.getFirst().eResource();
+		if (resource == null)
+			return null;
+		Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> pdas = precomputedPDAsByResource.get(resource);
+		if (pdas == null)
+			precomputedPDAsByResource.put(resource, pdas = precomputedPDAs.load(resource));
+		return pdas.get(key);
+	}
+
 	protected TypeFilter newTypeFilter(EClass type) {
 		return new TypeFilter(type);
 	}
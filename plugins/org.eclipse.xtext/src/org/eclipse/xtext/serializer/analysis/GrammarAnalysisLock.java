@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer.analysis;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Guards the analysis of grammars for the serializer. The grammar NFAs attach their states as adapters to the shared
+ * grammar elements and the providers of this package call each other. A grammar and the grammars it uses are loaded
+ * into the same resource set, so there is one lock per resource set. It avoids both corrupted adapter lists and lock
+ * ordering issues while the grammars of unrelated languages are analyzed in parallel. The analysis of a context is
+ * done once, cached results are read without locking.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+final class GrammarAnalysisLock {
+
+	private static final ConcurrentMap<Object, Object> locks = new MapMaker().weakKeys().makeMap();
+
+	private GrammarAnalysisLock() {
+	}
+
+	/**
+	 * @return the lock for the analysis of the grammar that contains the given element.
+	 */
+	static Object get(EObject grammarElement) {
+		Object key = getKey(grammarElement);
+		Object result = locks.get(key);
+		if (result == null) {
+			Object newLock = new Object();
+			result = locks.putIfAbsent(key, newLock);
+			if (result == null)
+				result = newLock;
+		}
+		return result;
+	}
+
+	private static Object getKey(EObject grammarElement) {
+		Resource resource = grammarElement.eResource();
+		if (resource == null)
+			return EcoreUtil.getRootContainer(grammarElement);
+		if (resource.getResourceSet() == null)
+			return resource;
+		return resource.getResourceSet();
+	}
+
+}
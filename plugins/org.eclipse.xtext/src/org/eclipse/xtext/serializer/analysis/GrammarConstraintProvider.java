@@ -335,7 +335,7 @@ public class GrammarConstraintProvider implements IGrammarConstraintProvider {
 
 		protected List<IConstraintElement> children;
 
-		protected List<IConstraintElement> containedAssignments = null;
+		protected volatile List<IConstraintElement> containedAssignments = null;
 
 		//		protected IConstraintElement excludingAlternative = UNINTITIALIZED;
 
@@ -558,15 +558,17 @@ public class GrammarConstraintProvider implements IGrammarConstraintProvider {
 		}
 
 		public List<IConstraintElement> getContainedAssignments() {
-			if (containedAssignments == null) {
-				containedAssignments = Lists.newArrayList();
+			List<IConstraintElement> result = containedAssignments;
+			if (result == null) {
+				result = Lists.newArrayList();
 				if (assignmentId >= 0)
-					containedAssignments.add(this);
+					result.add(this);
 				if (getChildren() != null)
 					for (IConstraintElement child : getChildren())
-						containedAssignments.addAll(child.getContainedAssignments());
+						result.addAll(child.getContainedAssignments());
+				containedAssignments = result;
 			}
-			return containedAssignments;
+			return result;
 		}
 
 		public IConstraintElement getContainer() {
@@ -961,7 +963,7 @@ public class GrammarConstraintProvider implements IGrammarConstraintProvider {
 
 	protected final static ConstraintElement UNINTITIALIZED = new ConstraintElement();
 
-	protected Map<Grammar, List<IConstraintContext>> cache = Maps.newHashMap();
+	protected Map<Grammar, List<IConstraintContext>> cache = Maps.newConcurrentMap();
 
 	@Inject
 	protected Context2NameFunction context2Name;
@@ -1399,16 +1401,21 @@ public class GrammarConstraintProvider implements IGrammarConstraintProvider {
 	public List<IConstraintContext> getConstraints(Grammar context) {
 		List<IConstraintContext> result = cache.get(context);
 		if (result == null) {
-			result = Lists.newArrayList();
-			for (ParserRule parserRule : GrammarUtil.allParserRules(context))
-				if (parserRule.getType().getClassifier() instanceof EClass) {
-					result.add(getConstraints(parserRule));
-					for (Action action : GrammarUtil.containedActions(parserRule))
-						if (action.getFeature() != null)
-							result.add(getConstraints(action));
+			synchronized (GrammarAnalysisLock.get(context)) {
+				result = cache.get(context);
+				if (result == null) {
+					result = Lists.newArrayList();
+					for (ParserRule parserRule : GrammarUtil.allParserRules(context))
+						if (parserRule.getType().getClassifier() instanceof EClass) {
+							result.add(getConstraints(parserRule));
+							for (Action action : GrammarUtil.containedActions(parserRule))
+								if (action.getFeature() != null)
+									result.add(getConstraints(action));
+						}
+					filterDuplicateConstraintsAndSetNames(context, result);
+					cache.put(context, result);
 				}
-			filterDuplicateConstraintsAndSetNames(context, result);
-			cache.put(context, result);
+			}
 		}
 		return result;
 	}
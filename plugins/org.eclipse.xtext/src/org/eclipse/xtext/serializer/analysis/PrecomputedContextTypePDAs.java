@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer.analysis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.AbstractMetamodelDeclaration;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.GrammarUtil;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.serializer.analysis.ISerState.SerStateType;
+import org.eclipse.xtext.serializer.analysis.SerializerPDA.SerializerPDAState;
+import org.eclipse.xtext.util.Pair;
+import org.eclipse.xtext.util.Strings;
+import org.eclipse.xtext.util.Tuples;
+import org.eclipse.xtext.util.formallang.Pda;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Persists the {@link IContextTypePDAProvider context type PDAs} of a grammar as compact binary tables. The serializer
+ * fragment of the generator writes them next to the persisted grammar and the {@link ContextTypePDAProvider} loads
+ * them instead of analyzing the grammar at runtime.
+ *
+ * Grammar elements are referenced by the name of their grammar and their URI fragment relative to that grammar, e.g.
+ * <code>rules.3/alternatives/elements.1</code>. The runtime loads a grammar and the grammars it uses into a single
+ * resource, so the URI fragments of the resource differ from the ones seen by the generator.
+ *
+ * @author Moritz Eysholdt - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class PrecomputedContextTypePDAs {
+
+	public static final String FILE_EXTENSION = "xtextpda";
+
+	private static final Logger log = Logger.getLogger(PrecomputedContextTypePDAs.class);
+
+	private static final int VERSION = 1;
+
+	public static String getClasspathRelativePath(Grammar grammar) {
+		return GrammarUtil.getLanguageId(grammar).replace('.', '/') + "." + FILE_EXTENSION;
+	}
+
+	/**
+	 * @return the PDAs that are stored next to the given grammar resource or an empty map if there are none.
+	 */
+	public Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> load(Resource grammarResource) {
+		if (grammarResource.getResourceSet() == null || grammarResource.getContents().isEmpty()
+				|| !(grammarResource.getContents().get(0) instanceof Grammar))
+			return Collections.emptyMap();
+		Grammar grammar = (Grammar) grammarResource.getContents().get(0);
+		URI uri = grammarResource.getURI().trimFileExtension().appendFileExtension(FILE_EXTENSION);
+		InputStream in;
+		try {
+			in = grammarResource.getResourceSet().getURIConverter().createInputStream(uri);
+		} catch (IOException e) {
+			return Collections.emptyMap();
+		} catch (RuntimeException e) {
+			// unresolvable classpath URI
+			return Collections.emptyMap();
+		}
+		try {
+			return read(grammar, in);
+		} catch (IOException e) {
+			log.error("Could not read the precomputed PDAs from " + uri + ": " + e.getMessage(), e);
+			return Collections.emptyMap();
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				log.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	public void write(Grammar grammar, IContextProvider contextProvider, IContextTypePDAProvider pdaProvider,
+			OutputStream out) throws IOException {
+		List<Grammar> grammars = getGrammars(grammar);
+		Map<EObject, Integer> elements = Maps.newLinkedHashMap();
+		Map<EClass, Integer> types = Maps.newLinkedHashMap();
+		ByteArrayOutputStream pdaBytes = new ByteArrayOutputStream();
+		DataOutputStream pdaData = new DataOutputStream(pdaBytes);
+		List<EObject> contexts = contextProvider.getAllContexts(grammar);
+		int pdaCount = 0;
+		for (EObject context : contexts) {
+			for (EClass type : contextProvider.getTypesForContext(context)) {
+				Pda<ISerState, RuleCall> pda = pdaProvider.getContextTypePDA(context, type);
+				pdaData.writeInt(getIndex(elements, context));
+				pdaData.writeInt(type == null ? -1 : getIndex(types, type));
+				writePDA(pda, elements, pdaData);
+				pdaCount++;
+			}
+		}
+		pdaData.flush();
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(VERSION);
+		data.writeInt(grammars.size());
+		for (Grammar g : grammars)
+			data.writeUTF(g.getName());
+		data.writeInt(elements.size());
+		for (EObject element : elements.keySet()) {
+			Grammar g = GrammarUtil.getGrammar(element);
+			int grammarIndex = grammars.indexOf(g);
+			if (grammarIndex < 0)
+				throw new IllegalStateException("Element of an unknown grammar: " + g.getName());
+			data.writeInt(grammarIndex);
+			data.writeUTF(getFragment(g, element));
+		}
+		data.writeInt(types.size());
+		for (EClass type : types.keySet()) {
+			data.writeUTF(type.getEPackage().getNsURI());
+			data.writeUTF(type.getName());
+		}
+		data.writeInt(pdaCount);
+		pdaBytes.writeTo(data);
+		data.flush();
+	}
+
+	protected void writePDA(Pda<ISerState, RuleCall> pda, Map<EObject, Integer> elements, DataOutputStream data)
+			throws IOException {
+		Map<ISerState, Integer> index = new IdentityHashMap<ISerState, Integer>();
+		List<ISerState> states = Lists.newArrayList();
+		index.put(pda.getStart(), 0);
+		states.add(pda.getStart());
+		for (int i = 0; i < states.size(); i++)
+			for (ISerState follower : pda.getFollowers(states.get(i)))
+				if (!index.containsKey(follower)) {
+					index.put(follower, states.size());
+					states.add(follower);
+				}
+		if (!index.containsKey(pda.getStop())) {
+			index.put(pda.getStop(), states.size());
+			states.add(pda.getStop());
+		}
+		data.writeInt(states.size());
+		for (ISerState state : states) {
+			data.writeByte(state.getType().ordinal());
+			AbstractElement element = state.getGrammarElement();
+			data.writeInt(element == null ? -1 : getIndex(elements, element));
+		}
+		for (ISerState state : states) {
+			List<ISerState> followers = Lists.newArrayList(pda.getFollowers(state));
+			data.writeInt(followers.size());
+			for (ISerState follower : followers)
+				data.writeInt(index.get(follower));
+		}
+		data.writeInt(index.get(pda.getStop()));
+	}
+
+	public Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> read(Grammar grammar, InputStream in)
+			throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		int version = data.readInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported version " + version);
+		Map<String, Grammar> grammarsByName = Maps.newHashMap();
+		for (Grammar g : getGrammars(grammar))
+			grammarsByName.put(g.getName(), g);
+		Grammar[] grammars = new Grammar[data.readInt()];
+		for (int i = 0; i < grammars.length; i++) {
+			String name = data.readUTF();
+			grammars[i] = grammarsByName.get(name);
+			if (grammars[i] == null)
+				throw new IOException("Unknown grammar " + name);
+		}
+		EObject[] elements = new EObject[data.readInt()];
+		for (int i = 0; i < elements.length; i++) {
+			int grammarIndex = data.readInt();
+			if (grammarIndex < 0 || grammarIndex >= grammars.length)
+				throw new IOException("Invalid grammar index " + grammarIndex);
+			elements[i] = resolve(grammars[grammarIndex], data.readUTF());
+		}
+		EClass[] types = new EClass[data.readInt()];
+		for (int i = 0; i < types.length; i++)
+			types[i] = resolveType(grammarsByName.values(), data.readUTF(), data.readUTF());
+		int pdaCount = data.readInt();
+		Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> result = Maps.newHashMapWithExpectedSize(pdaCount);
+		for (int i = 0; i < pdaCount; i++) {
+			EObject context = get(elements, data.readInt(), EObject.class);
+			int typeIndex = data.readInt();
+			EClass type = typeIndex == -1 ? null : get(types, typeIndex, EClass.class);
+			result.put(Tuples.create(context, type), readPDA(elements, data));
+		}
+		return result;
+	}
+
+	protected Pda<ISerState, RuleCall> readPDA(EObject[] elements, DataInputStream data) throws IOException {
+		SerStateType[] stateTypes = SerStateType.values();
+		SerializerPDAState[] states = new SerializerPDAState[data.readInt()];
+		if (states.length == 0)
+			throw new IOException("PDA without states");
+		for (int i = 0; i < states.length; i++) {
+			int stateType = data.readByte();
+			if (stateType < 0 || stateType >= stateTypes.length)
+				throw new IOException("Invalid state type " + stateType);
+			int elementIndex = data.readInt();
+			AbstractElement element = elementIndex == -1 ? null : get(elements, elementIndex, AbstractElement.class);
+			states[i] = new SerializerPDAState(element, stateTypes[stateType]);
+		}
+		for (SerializerPDAState state : states) {
+			int followerCount = data.readInt();
+			if (followerCount > 0) {
+				state.followers = Lists.newArrayListWithCapacity(followerCount);
+				for (int i = 0; i < followerCount; i++)
+					state.followers.add(get(states, data.readInt(), ISerState.class));
+			}
+		}
+		return new SerializerPDA(states[0], get(states, data.readInt(), SerializerPDAState.class));
+	}
+
+	protected List<Grammar> getGrammars(Grammar grammar) {
+		List<Grammar> result = Lists.newArrayList(grammar);
+		result.addAll(GrammarUtil.allUsedGrammars(grammar));
+		return result;
+	}
+
+	protected String getFragment(Grammar grammar, EObject element) {
+		List<String> segments = Lists.newArrayList();
+		for (EObject current = element; current != grammar; current = current.eContainer()) {
+			EReference feature = current.eContainmentFeature();
+			if (feature.isMany())
+				segments.add(feature.getName() + "." + ((List<?>) current.eContainer().eGet(feature)).indexOf(current));
+			else
+				segments.add(feature.getName());
+		}
+		Collections.reverse(segments);
+		return Strings.concat("/", segments);
+	}
+
+	protected EObject resolve(Grammar grammar, String fragment) throws IOException {
+		EObject result = grammar;
+		if (fragment.length() == 0)
+			return result;
+		for (String segment : Strings.split(fragment, '/')) {
+			int dot = segment.lastIndexOf('.');
+			EStructuralFeature feature = result.eClass().getEStructuralFeature(
+					dot < 0 ? segment : segment.substring(0, dot));
+			if (!(feature instanceof EReference) || !((EReference) feature).isContainment()
+					|| feature.isMany() != (dot >= 0))
+				throw new IOException("Cannot resolve " + fragment + " in grammar " + grammar.getName());
+			Object value = result.eGet(feature);
+			if (dot >= 0) {
+				List<?> list = (List<?>) value;
+				int index;
+				try {
+					index = Integer.parseInt(segment.substring(dot + 1));
+				} catch (NumberFormatException e) {
+					throw new IOException("Cannot resolve " + fragment + " in grammar " + grammar.getName());
+				}
+				value = index >= 0 && index < list.size() ? list.get(index) : null;
+			}
+			if (!(value instanceof EObject))
+				throw new IOException("Cannot resolve " + fragment + " in grammar " + grammar.getName());
+			result = (EObject) value;
+		}
+		return result;
+	}
+
+	protected EClass resolveType(Iterable<Grammar> grammars, String nsURI, String name) throws IOException {
+		for (Grammar grammar : grammars)
+			for (AbstractMetamodelDeclaration declaration : grammar.getMetamodelDeclarations())
+				if (declaration.getEPackage() != null && nsURI.equals(declaration.getEPackage().getNsURI())) {
+					EClassifier result = declaration.getEPackage().getEClassifier(name);
+					if (result instanceof EClass)
+						return (EClass) result;
+				}
+		throw new IOException("Unknown type " + nsURI + "#" + name);
+	}
+
+	protected <T> int getIndex(Map<T, Integer> index, T object) {
+		Integer result = index.get(object);
+		if (result == null)
+			index.put(object, result = index.size());
+		return result;
+	}
+
+	protected <T> T get(Object[] array, int index, Class<T> type) throws IOException {
+		if (index < 0 || index >= array.length || !type.isInstance(array[index]))
+			throw new IOException("Invalid index " + index);
+		return type.cast(array[index]);
+	}
+
+}
@@ -170,7 +170,7 @@ public class SemanticSequencerNfaProvider implements ISemanticSequencerNfaProvid
 	@Inject
 	protected ISyntacticSequencerPDAProvider pdaProvider;
 
-	protected Map<Pair<EObject, EClass>, Nfa<ISemState>> resultCache = Maps.newHashMap();
+	protected Map<Pair<EObject, EClass>, Nfa<ISemState>> resultCache = Maps.newConcurrentMap();
 
 	protected boolean addAll(BitSet to, BitSet bits) {
 		BitSet cpy = new BitSet();
@@ -198,18 +198,31 @@ public class SemanticSequencerNfaProvider implements ISemanticSequencerNfaProvid
 		Nfa<ISemState> nfa = resultCache.get(key);
 		if (nfa != null)
 			return nfa;
+		synchronized (GrammarAnalysisLock.get(context)) {
+			nfa = resultCache.get(key);
+			if (nfa == null) {
+				nfa = createNFA(context, type);
+				resultCache.put(key, nfa);
+			}
+			return nfa;
+		}
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected Nfa<ISemState> createNFA(EObject context, EClass type) {
 		NfaUtil util = new NfaUtil();
 		SynAbsorberNfaAdapter synNfa = new SynAbsorberNfaAdapter(pdaProvider.getPDA(context, type));
 		//		System.out.println(new NfaFormatter().format(synNfa));
 		Map<ISynAbsorberState, Integer> distanceMap = util.distanceToFinalStateMap(synNfa);
-		nfa = util.create(util.sort(synNfa, distanceMap), new SemStateFactory());
+		Nfa<ISemState> nfa = util.create(util.sort(synNfa, distanceMap), new SemStateFactory());
 		//		util.sortInplace(nfa, distanceMap);
 		if (type != null)
 			initContentValidationNeeded(type, nfa);
 		initRemainingFeatures(nfa.getStop(), util.inverse(nfa), Sets.<ISemState> newHashSet());
 		initOrderIDs(nfa);
 		//		System.out.println(new NfaFormatter().format(nfa));
-		resultCache.put(key, nfa);
 		return nfa;
 	}
 
@@ -168,13 +168,13 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 
 		protected int distanceToAbsorber = -1;
 
-		protected Boolean involvesRuleExit;
+		protected volatile Boolean involvesRuleExit;
 
-		protected Boolean involvesUnassignedTokenRuleCalls = null;
+		protected volatile Boolean involvesUnassignedTokenRuleCalls = null;
 
-		protected List<ISynState> shortestPathToAbsorber = null;
+		protected volatile List<ISynState> shortestPathToAbsorber = null;
 
-		protected Boolean syntacticallyAmbiguous = null;
+		protected volatile Boolean syntacticallyAmbiguous = null;
 
 		protected ISynAbsorberState target;
 
@@ -423,9 +423,9 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 
 		protected static final AbstractElementAlias UNINITIALIZED = new TokenAlias(false, false, null);
 
-		protected AbstractElementAlias ambiguousSyntax = UNINITIALIZED;
+		protected volatile AbstractElementAlias ambiguousSyntax = UNINITIALIZED;
 
-		protected List<AbstractElementAlias> ambiguousSyntaxes;
+		protected volatile List<AbstractElementAlias> ambiguousSyntaxes;
 
 		protected ISynAbsorberState source;
 
@@ -435,11 +435,12 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 		}
 
 		public AbstractElementAlias getAmbiguousSyntax() {
-			if (ambiguousSyntax != UNINITIALIZED)
-				return ambiguousSyntax;
-			ambiguousSyntax = getShortSyntax();
-			if (ambiguousSyntax instanceof GroupAlias) {
-				GroupAlias group = (GroupAlias) ambiguousSyntax;
+			AbstractElementAlias result = ambiguousSyntax;
+			if (result != UNINITIALIZED)
+				return result;
+			result = getShortSyntax();
+			if (result instanceof GroupAlias) {
+				GroupAlias group = (GroupAlias) result;
 				List<AbstractElementAlias> children = group.getChildren();
 				int start = 0;
 				while (start < children.size() && children.get(start) instanceof TokenAlias
@@ -450,21 +451,23 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 						&& !children.get(end).isOptional())
 					end--;
 				if (start <= end) {
-					ambiguousSyntax = group = new GroupAlias(false, false, children.subList(start, end + 1));
+					result = group = new GroupAlias(false, false, children.subList(start, end + 1));
 					if (group.children.size() == 1)
-						ambiguousSyntax = group.children.get(0);
+						result = group.children.get(0);
 				} else
-					ambiguousSyntax = null;
+					result = null;
 			}
-			return ambiguousSyntax;
+			ambiguousSyntax = result;
+			return result;
 		}
 
 		public List<AbstractElementAlias> getAmbiguousSyntaxes() {
-			if (ambiguousSyntaxes != null)
-				return ambiguousSyntaxes;
+			List<AbstractElementAlias> result = ambiguousSyntaxes;
+			if (result != null)
+				return result;
 			if (!isSyntacticallyAmbiguous())
 				return ambiguousSyntaxes = Collections.emptyList();
-			ambiguousSyntaxes = Lists.newArrayList();
+			result = Lists.newArrayList();
 			Nfa<ISynState> nfa = new PdaUtil().filterUnambiguousPaths(getPathToTarget());
 			nfa = new NfaUtil().filter(nfa, new Filter());
 			AbstractElementAlias syntax = new NfaToProduction().nfaToGrammar(nfa, new GetGrammarElement(),
@@ -473,10 +476,11 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 				GroupAlias group = (GroupAlias) syntax;
 				for (AbstractElementAlias child : group.getChildren())
 					if (child.isMany() || child.isOptional() || child instanceof AlternativeAlias)
-						ambiguousSyntaxes.add(child);
+						result.add(child);
 			} else
-				ambiguousSyntaxes.add(syntax);
-			return ambiguousSyntaxes;
+				result.add(syntax);
+			ambiguousSyntaxes = result;
+			return result;
 		}
 
 		public AbstractElementAlias getShortSyntax() {
@@ -500,7 +504,7 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 
 	}
 
-	protected Map<Pair<EObject, EClass>, ISynAbsorberState> cache = Maps.newHashMap();
+	protected Map<Pair<EObject, EClass>, ISynAbsorberState> cache = Maps.newConcurrentMap();
 
 	//	protected SequencerPDAProvider pdaProvider = createSequencerPDAProvider();
 	@Inject
@@ -599,11 +603,16 @@ public class SyntacticSequencerPDAProvider implements ISyntacticSequencerPDAProv
 		Pair<EObject, EClass> key = Tuples.create(context, type);
 		ISynAbsorberState result = cache.get(key);
 		if (result == null) {
-			Map<ISerState, SynAbsorberState> absorbers = Maps.newHashMap();
-			Map<SynAbsorberState, Map<ISerState, SynState>> emitters = Maps.newHashMap();
-			Pda<? extends ISerState, RuleCall> pda = pdaProvider.getContextTypePDA(context, type);
-			result = createAbsorberState(pda.getStart(), absorbers, emitters, context, type);
-			cache.put(key, result);
+			synchronized (GrammarAnalysisLock.get(context)) {
+				result = cache.get(key);
+				if (result == null) {
+					Map<ISerState, SynAbsorberState> absorbers = Maps.newHashMap();
+					Map<SynAbsorberState, Map<ISerState, SynState>> emitters = Maps.newHashMap();
+					Pda<? extends ISerState, RuleCall> pda = pdaProvider.getContextTypePDA(context, type);
+					result = createAbsorberState(pda.getStart(), absorbers, emitters, context, type);
+					cache.put(key, result);
+				}
+			}
 		}
 		return result;
 	}
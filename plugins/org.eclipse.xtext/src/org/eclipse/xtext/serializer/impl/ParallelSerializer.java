@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.SaveOptions;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.util.Pair;
+import org.eclipse.xtext.util.Tuples;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * Serializes independent models concurrently, e.g. to export or migrate many resources. Each model is written to its
+ * own {@link Writer}. The grammar analysis of the {@link ISerializer} is shared by all threads.
+ * <p>
+ * The models must not be modified while they are serialized. Cross references should be resolved before, e.g. with
+ * {@link org.eclipse.emf.ecore.util.EcoreUtil#resolveAll(org.eclipse.emf.ecore.resource.ResourceSet)}, since
+ * resolving proxies modifies the shared resource set. Language specific services that are used by the serializer,
+ * e.g. value converters, scope providers and formatters, have to be thread-safe.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class ParallelSerializer {
+
+	/**
+	 * Provides the writer for a serialized model. The writer is closed when the model is serialized.
+	 */
+	public interface IWriterProvider {
+		Writer getWriter(EObject model) throws IOException;
+	}
+
+	@Inject
+	private ISerializer serializer;
+
+	/**
+	 * Serializes the models with the given number of threads.
+	 * 
+	 * @return the models that could not be serialized, mapped to the exception. Never <code>null</code>.
+	 */
+	public Map<EObject, Exception> serialize(Iterable<? extends EObject> models, IWriterProvider writers,
+			SaveOptions options, int threads) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			return serialize(models, writers, options, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Serializes the models with the given executor. Returns when all models are serialized.
+	 * 
+	 * @return the models that could not be serialized, mapped to the exception. Never <code>null</code>.
+	 */
+	public Map<EObject, Exception> serialize(Iterable<? extends EObject> models, final IWriterProvider writers,
+			final SaveOptions options, ExecutorService executor) throws InterruptedException {
+		List<Pair<EObject, Future<?>>> tasks = Lists.newArrayList();
+		try {
+			for (final EObject model : models) {
+				Future<?> task = executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						serialize(model, writers, options);
+						return null;
+					}
+				});
+				tasks.add(Tuples.<EObject, Future<?>> create(model, task));
+			}
+			Map<EObject, Exception> result = Maps.newLinkedHashMap();
+			for (Pair<EObject, Future<?>> task : tasks) {
+				try {
+					task.getSecond().get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof Error)
+						throw (Error) cause;
+					result.put(task.getFirst(), cause instanceof Exception ? (Exception) cause : e);
+				}
+			}
+			return result;
+		} finally {
+			for (Pair<EObject, Future<?>> task : tasks)
+				task.getSecond().cancel(true);
+		}
+	}
+
+	/**
+	 * Serializes the root objects of the given resources, like {@link org.eclipse.xtext.resource.XtextResource} does
+	 * when it is saved. Empty resources are skipped.
+	 * 
+	 * @return the root objects that could not be serialized, mapped to the exception. Never <code>null</code>.
+	 */
+	public Map<EObject, Exception> serializeResources(Iterable<? extends Resource> resources, IWriterProvider writers,
+			SaveOptions options, ExecutorService executor) throws InterruptedException {
+		List<EObject> models = Lists.newArrayList();
+		for (Resource resource : resources)
+			if (!resource.getContents().isEmpty())
+				models.add(resource.getContents().get(0));
+		return serialize(models, writers, options, executor);
+	}
+
+	protected void serialize(EObject model, IWriterProvider writers, SaveOptions options) throws IOException {
+		Writer writer = writers.getWriter(model);
+		try {
+			serializer.serialize(model, writer, options);
+		} finally {
+			writer.close();
+		}
+	}
+
+}
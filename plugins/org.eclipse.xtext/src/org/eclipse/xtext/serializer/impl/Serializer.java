@@ -127,7 +127,10 @@ public class Serializer implements ISerializer {
 	}
 
 	public void serialize(EObject obj, Writer writer, SaveOptions options) throws IOException {
-		serialize(obj, new WriterTokenStream(writer), options);
+		WriterTokenStream tokenStream = new WriterTokenStream(writer, WriterTokenStream.DEFAULT_BUFFER_SIZE);
+		serialize(obj, tokenStream, options);
+		// the formatter stream may not propagate the flush to the buffered stream
+		tokenStream.flush();
 	}
 
 	public ReplaceRegion serializeReplacement(EObject obj, SaveOptions options) {
@@ -48,9 +48,9 @@ public class ContextFinder implements IContextFinder {
 	@Inject
 	protected IAssignmentFinder assignmentFinder;
 
-	protected List<IConstraintContext> constraintContexts;
+	protected volatile List<IConstraintContext> constraintContexts;
 
-	protected Map<Pair<EObject, EClass>, IConstraint> constraints;
+	protected volatile Map<Pair<EObject, EClass>, IConstraint> constraints;
 
 	@Inject
 	protected IGrammarAccess grammar;
@@ -111,8 +111,6 @@ public class ContextFinder implements IContextFinder {
 		if (semanticObject == null)
 			throw new NullPointerException();
 
-		initConstraints();
-
 		Map<IConstraint, List<EObject>> constraints;
 		if (contextCandidates != null)
 			constraints = getConstraints(semanticObject, contextCandidates);
@@ -140,7 +138,6 @@ public class ContextFinder implements IContextFinder {
 
 	public Iterable<EObject> findContextsByContentsAndContainer(EObject semanticObject,
 			Iterable<EObject> contextCandidates) {
-		initConstraints();
 		contextCandidates = findContextsByContainer(semanticObject, contextCandidates);
 		if (contextCandidates != null && Iterables.size(contextCandidates) < 2)
 			return contextCandidates;
@@ -162,6 +159,7 @@ public class ContextFinder implements IContextFinder {
 	}
 
 	protected Map<IConstraint, List<EObject>> getConstraints(EClass cls) {
+		initConstraints();
 		Map<IConstraint, List<EObject>> result = Maps.newHashMap();
 		for (IConstraintContext cc : constraintContexts)
 			for (IConstraint constraint : cc.getConstraints())
@@ -175,6 +173,7 @@ public class ContextFinder implements IContextFinder {
 	}
 
 	protected Map<IConstraint, List<EObject>> getConstraints(EObject semanticObject, Iterable<EObject> contextCandidates) {
+		initConstraints();
 		Map<IConstraint, List<EObject>> result = Maps.newHashMap();
 		for (EObject ctx : contextCandidates) {
 			IConstraint constraint = constraints.get(Tuples.create(ctx, semanticObject.eClass()));
@@ -195,14 +194,24 @@ public class ContextFinder implements IContextFinder {
 		throw new RuntimeException("There is no parser rule in the grammar.");
 	}
 
+	/**
+	 * The constraints of the whole grammar are only needed if the context of an object is ambiguous, e.g. not for the
+	 * root objects of a resource.
+	 */
 	protected void initConstraints() {
 		if (constraintContexts == null) {
-			constraints = Maps.newHashMap();
-			constraintContexts = grammarConstraintProvider.getConstraints(grammar.getGrammar());
-			//			System.out.println(Joiner.on("\n").join(constraintContexts));
-			for (IConstraintContext ctx : constraintContexts)
-				for (IConstraint constraint : ctx.getConstraints())
-					constraints.put(Tuples.create(ctx.getContext(), constraint.getType()), constraint);
+			synchronized (this) {
+				if (constraintContexts == null) {
+					Map<Pair<EObject, EClass>, IConstraint> newConstraints = Maps.newHashMap();
+					List<IConstraintContext> newConstraintContexts = grammarConstraintProvider.getConstraints(grammar
+							.getGrammar());
+					for (IConstraintContext ctx : newConstraintContexts)
+						for (IConstraint constraint : ctx.getConstraints())
+							newConstraints.put(Tuples.create(ctx.getContext(), constraint.getType()), constraint);
+					constraints = newConstraints;
+					constraintContexts = newConstraintContexts;
+				}
+			}
 		}
 	}
 
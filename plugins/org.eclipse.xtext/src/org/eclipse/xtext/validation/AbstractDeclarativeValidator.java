@@ -15,6 +15,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.Diagnostic;
@@ -22,12 +24,14 @@ import org.eclipse.emf.common.util.DiagnosticChain;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.util.Exceptions;
 import org.eclipse.xtext.util.SimpleCache;
 
 import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -82,11 +86,14 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		public final Method method;
 		private final String s;
 		private final AbstractDeclarativeValidator instance;
+		private final CheckType checkType;
 
 		public MethodWrapper(AbstractDeclarativeValidator instance, Method m) {
 			this.instance = instance;
 			this.method = m;
 			this.s = m.getName() + ":" + m.getParameterTypes()[0].getName();
+			this.checkType = m.getAnnotation(Check.class).value();
+			m.setAccessible(true);
 		}
 
 		@Override
@@ -99,19 +106,25 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		}
 
 		public void invoke(State state) {
-			if (instance.state.get() != null && instance.state.get() != state)
+			if (!state.checkMode.shouldCheck(checkType))
+				return;
+			invokeUnfiltered(state);
+		}
+
+		/**
+		 * Invokes the check regardless of the check mode.
+		 */
+		void invokeUnfiltered(State state) {
+			State current = instance.state.get();
+			if (current != null && current != state)
 				throw new IllegalStateException("State is already assigned.");
-			boolean wasNull = instance.state.get() == null;
+			boolean wasNull = current == null;
 			if (wasNull)
 				instance.state.set(state);
 			try {
-				Check annotation = method.getAnnotation(Check.class);
-				if (!state.checkMode.shouldCheck(annotation.value()))
-					return;
 				try {
 					state.currentMethod = method;
-					state.currentCheckType = annotation.value();
-					method.setAccessible(true);
+					state.currentCheckType = checkType;
 					method.invoke(instance, state.currentObject);
 				} catch (IllegalArgumentException e) {
 					log.error(e.getMessage(), e);
@@ -236,6 +249,81 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 				}
 			});
 
+	/**
+	 * The check methods that apply to the instances of an {@link EClass}. The methods are filtered by the check
+	 * types in advance, the filtered methods are indexed by the bit mask of the enabled check types.
+	 */
+	static class CheckTable {
+		private final Class<?> instanceClass;
+		private final MethodWrapper[][] methodsByMask;
+
+		CheckTable(Class<?> instanceClass, List<MethodWrapper> methods) {
+			this.instanceClass = instanceClass;
+			this.methodsByMask = new MethodWrapper[1 << CheckType.values().length][];
+			for (int mask = 0; mask < methodsByMask.length; mask++) {
+				List<MethodWrapper> filtered = new ArrayList<MethodWrapper>(methods.size());
+				for (MethodWrapper method : methods) {
+					if ((mask & (1 << method.checkType.ordinal())) != 0)
+						filtered.add(method);
+				}
+				methodsByMask[mask] = filtered.toArray(new MethodWrapper[filtered.size()]);
+			}
+		}
+
+		MethodWrapper[] getMethods(int checkTypeMask) {
+			return methodsByMask[checkTypeMask];
+		}
+	}
+
+	/**
+	 * The check tables per package, indexed by the classifier id of the classes.
+	 */
+	private final ConcurrentMap<EPackage, AtomicReferenceArray<CheckTable>> checkTables = new MapMaker().weakKeys()
+			.makeMap();
+
+	private CheckTable getCheckTable(EObject object) {
+		EClass eClass = object.eClass();
+		EPackage ePackage = eClass.getEPackage();
+		int classifierID = eClass.getClassifierID();
+		if (ePackage == null || classifierID < 0)
+			return new CheckTable(object.getClass(), methodsForType.get(object.getClass()));
+		AtomicReferenceArray<CheckTable> tables = checkTables.get(ePackage);
+		if (tables == null || classifierID >= tables.length()) {
+			// the table is replaced if the classifiers of a dynamic package were changed
+			tables = new AtomicReferenceArray<CheckTable>(Math.max(classifierID + 1, ePackage.getEClassifiers()
+					.size()));
+			checkTables.put(ePackage, tables);
+		}
+		CheckTable result = tables.get(classifierID);
+		if (result == null || result.instanceClass != object.getClass()) {
+			result = new CheckTable(object.getClass(), methodsForType.get(object.getClass()));
+			tables.set(classifierID, result);
+		}
+		return result;
+	}
+
+	private static final CheckType[] checkTypes = CheckType.values();
+
+	/**
+	 * The bit masks of the check types that are enabled by a {@link CheckMode}. A check mode is expected to enable the
+	 * same check types for its whole life time.
+	 */
+	private static final ConcurrentMap<CheckMode, Integer> checkTypeMasks = new MapMaker().weakKeys().makeMap();
+
+	private static int getCheckTypeMask(CheckMode checkMode) {
+		Integer result = checkTypeMasks.get(checkMode);
+		if (result == null) {
+			int mask = 0;
+			for (CheckType checkType : checkTypes) {
+				if (checkMode.shouldCheck(checkType))
+					mask |= 1 << checkType.ordinal();
+			}
+			result = mask;
+			checkTypeMasks.put(checkMode, result);
+		}
+		return result;
+	}
+
 	public static class State {
 		public DiagnosticChain chain = null;
 		public EObject currentObject = null;
@@ -288,8 +376,20 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		state.checkMode = checkMode;
 		state.context = context;
 
-		for (MethodWrapper method : methodsForType.get(object.getClass())) {
-			method.invoke(state);
+		MethodWrapper[] methods = getCheckTable(object).getMethods(getCheckTypeMask(checkMode));
+		if (methods.length != 0) {
+			// assign the state once instead of once per check method
+			boolean wasNull = this.state.get() == null;
+			if (wasNull)
+				this.state.set(state);
+			try {
+				for (MethodWrapper method : methods) {
+					method.invokeUnfiltered(state);
+				}
+			} finally {
+				if (wasNull)
+					this.state.set(null);
+			}
 		}
 
 		return !state.hasErrors;
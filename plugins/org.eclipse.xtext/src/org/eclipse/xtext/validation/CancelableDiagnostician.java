@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.DiagnosticChain;
@@ -24,6 +25,13 @@ public class CancelableDiagnostician extends Diagnostician {
 	
 	public static final String CANCEL_INDICATOR = CancelableDiagnostician.class + ".CANCEL_INDICATOR";
 	
+	/**
+	 * The key of the object whose contents are not validated. Allows to validate the contents of an object 
+	 * independently from the object itself.
+	 * @since 2.5
+	 */
+	public static final String SKIP_CONTENTS = CancelableDiagnostician.class + ".SKIP_CONTENTS";
+	
 	@Inject
 	public CancelableDiagnostician(EValidator.Registry registry) {
 		super(registry);
@@ -41,9 +49,26 @@ public class CancelableDiagnostician extends Diagnostician {
 		return indicator != null && indicator.isCanceled();
 	}
 	
+	/**
+	 * @since 2.5
+	 */
+	protected boolean isContentsSkipped(EObject eObject, Map<Object, Object> context) {
+		return context != null && context.get(SKIP_CONTENTS) == eObject;
+	}
+	
+	/**
+	 * Returns the children that are visited when the contents of the given object are validated.
+	 * Clients that customize {@link #doValidateContents(EObject, DiagnosticChain, Map)} have to 
+	 * customize this method accordingly.
+	 * @since 2.5
+	 */
+	public List<EObject> getValidatedContents(EObject eObject) {
+		return eObject.eContents();
+	}
+	
 	@Override
 	protected boolean doValidateContents(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
-		if (isCanceled(context))
+		if (isCanceled(context) || isContentsSkipped(eObject, context))
 			return true;
 		return super.doValidateContents(eObject, diagnostics, context);
 	}
@@ -69,23 +69,30 @@ public class CompositeEValidator implements EValidator {
 		}
 	}
 
+	/**
+	 * The default validator for the constraints of the meta model.
+	 * @since 2.5
+	 */
+	@ThreadSafeValidator
+	protected static class DefaultEObjectValidator extends EObjectValidator {
+		@Override
+		public boolean validate_EveryProxyResolves(EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			// don't check, we have our own implementation, which creates nicer messages
+			return true;
+		}
+		
+		@Override
+		public boolean validate_NoCircularContainment(EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			// don't check
+			return true;
+		}
+	}
+
 	protected void initDefaults() {
 		if (isUseEObjectValidator()) {
-	 		this.addValidator(new EObjectValidator(){
-				@Override
-				public boolean validate_EveryProxyResolves(EObject eObject, DiagnosticChain diagnostics,
-						Map<Object, Object> context) {
-					// don't check, we have our own implementation, which creates nicer messages
-					return true;
-				}
-				
-				@Override
-				public boolean validate_NoCircularContainment(EObject eObject, DiagnosticChain diagnostics,
-						Map<Object, Object> context) {
-					// don't check
-					return true;
-				}
-			});
+	 		this.addValidator(new DefaultEObjectValidator());
 		}
 	}
 
@@ -149,6 +156,26 @@ public class CompositeEValidator implements EValidator {
 		return result;
 	}
 
+	/**
+	 * @return <code>true</code> if all the validators declare themselves {@link ThreadSafeValidator thread-safe}.
+	 * @since 2.5
+	 */
+	public boolean isThreadSafe() {
+		for (int i = 0; i < getContents().size(); i++) {
+			if (!isThreadSafe(getContents().get(i).getDelegate()))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected boolean isThreadSafe(EValidator validator) {
+		return validator.getClass() == EObjectValidator.class
+				|| validator.getClass().isAnnotationPresent(ThreadSafeValidator.class);
+	}
+
 	private Diagnostic createExceptionDiagnostic(String message, Object source, Throwable t) {
 		return new BasicDiagnostic(Diagnostic.ERROR, source.toString(), 0, message, new Object[] { t });
 
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.validation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EValidator;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EObjectValidator;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.IAcceptor;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+
+/**
+ * A resource validator that validates independent subtrees of a resource concurrently. The content tree is split
+ * into units: a unit either validates an object with all its contents or only the object itself while its children
+ * form units on their own. The units are validated in parallel and their issues are reported in the order of the
+ * units, which is the order of a sequential depth-first validation.
+ * <p>
+ * Subtrees are only validated concurrently if all the validators of the resource are
+ * {@link ThreadSafeValidator thread-safe}, the {@link Diagnostician} is a {@link CancelableDiagnostician}, and the
+ * check mode does not include {@link CheckType#EXPENSIVE expensive} checks. Otherwise the resource is validated
+ * sequentially. Each unit is validated with its own validation context.
+ * <p>
+ * Use it by binding {@link IResourceValidator} to this class.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+public class ParallelResourceValidatorImpl extends ResourceValidatorImpl {
+
+	private static final Logger log = Logger.getLogger(ParallelResourceValidatorImpl.class);
+
+	private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService sharedExecutor;
+
+	/**
+	 * Set while a thread of the pool validates a unit. Nested validations are performed sequentially since the
+	 * pool could be exhausted otherwise.
+	 */
+	private static final ThreadLocal<Boolean> VALIDATING_UNIT = new ThreadLocal<Boolean>();
+
+	@Inject
+	private EValidator.Registry validatorRegistry;
+
+	private int maximumSplitDepth = 3;
+
+	/**
+	 * An object that is validated with or without its contents.
+	 */
+	protected static class ValidationUnit {
+		private final EObject object;
+		private final boolean withContents;
+		private final int depth;
+
+		protected ValidationUnit(EObject object, boolean withContents, int depth) {
+			this.object = object;
+			this.withContents = withContents;
+			this.depth = depth;
+		}
+
+		public EObject getObject() {
+			return object;
+		}
+
+		public boolean isWithContents() {
+			return withContents;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		@Override
+		public String toString() {
+			return (withContents ? "subtree of " : "") + object.eClass().getName() + " at depth " + depth;
+		}
+	}
+
+	@Override
+	protected void validate(Resource resource, CheckMode mode, CancelIndicator monitor, IAcceptor<Issue> acceptor) {
+		if (!canValidateConcurrently(resource, mode)) {
+			super.validate(resource, mode, monitor, acceptor);
+			return;
+		}
+		List<ValidationUnit> units = split(resource, (CancelableDiagnostician) getDiagnostician(), getThreadCount() * 4);
+		if (units.size() <= 1) {
+			super.validate(resource, mode, monitor, acceptor);
+			return;
+		}
+		List<Future<List<Diagnostic>>> results = Lists.newArrayList();
+		int batchSize = (units.size() + getThreadCount() * 4 - 1) / (getThreadCount() * 4);
+		for (List<ValidationUnit> batch : Lists.partition(units, batchSize)) {
+			results.add(getExecutor().submit(createTask(resource, batch, mode, monitor)));
+		}
+		for (Future<List<Diagnostic>> result : results) {
+			for (Diagnostic diagnostic : getResult(result)) {
+				if (monitor.isCanceled())
+					break;
+				issueFromEValidatorDiagnostic(diagnostic, acceptor);
+			}
+		}
+	}
+
+	protected boolean canValidateConcurrently(Resource resource, CheckMode mode) {
+		if (VALIDATING_UNIT.get() != null || getThreadCount() <= 1)
+			return false;
+		if (mode.shouldCheck(CheckType.EXPENSIVE) || !(getDiagnostician() instanceof CancelableDiagnostician))
+			return false;
+		Set<EClass> classes = Sets.newHashSet();
+		TreeIterator<EObject> iterator = resource.getAllContents();
+		while (iterator.hasNext()) {
+			classes.add(iterator.next().eClass());
+		}
+		Set<EPackage> packages = Sets.newHashSet();
+		for (EClass eClass : classes) {
+			packages.add(eClass.getEPackage());
+			for (EClass superType : eClass.getEAllSuperTypes()) {
+				packages.add(superType.getEPackage());
+			}
+		}
+		for (EPackage ePackage : packages) {
+			if (!isThreadSafe(validatorRegistry.getEValidator(ePackage)))
+				return false;
+		}
+		return true;
+	}
+
+	protected boolean isThreadSafe(EValidator validator) {
+		if (validator == null || validator.getClass() == EObjectValidator.class)
+			return true;
+		if (validator instanceof CompositeEValidator)
+			return ((CompositeEValidator) validator).isThreadSafe();
+		return validator.getClass().isAnnotationPresent(ThreadSafeValidator.class);
+	}
+
+	/**
+	 * Splits the contents of the resource level by level until there are at least the given number of units that
+	 * are validated with their contents, or until the {@link #getMaximumSplitDepth() maximum depth} is reached.
+	 *
+	 * @return the units in the order of a depth-first traversal.
+	 */
+	protected List<ValidationUnit> split(Resource resource, CancelableDiagnostician diagnostician, int minimumUnitCount) {
+		List<ValidationUnit> result = Lists.newArrayList();
+		for (EObject root : resource.getContents()) {
+			result.add(new ValidationUnit(root, true, 0));
+		}
+		for (int depth = 0; depth < maximumSplitDepth && result.size() < minimumUnitCount; depth++) {
+			List<ValidationUnit> next = Lists.newArrayListWithCapacity(result.size() * 2);
+			for (ValidationUnit unit : result) {
+				List<EObject> children = unit.getDepth() == depth && unit.isWithContents() ? diagnostician
+						.getValidatedContents(unit.getObject()) : Collections.<EObject> emptyList();
+				if (children.isEmpty()) {
+					next.add(unit);
+				} else {
+					next.add(new ValidationUnit(unit.getObject(), false, depth));
+					for (EObject child : children) {
+						next.add(new ValidationUnit(child, true, depth + 1));
+					}
+				}
+			}
+			result = next;
+		}
+		return result;
+	}
+
+	protected Callable<List<Diagnostic>> createTask(final Resource resource, final List<ValidationUnit> units,
+			final CheckMode mode, final CancelIndicator monitor) {
+		return new Callable<List<Diagnostic>>() {
+			public List<Diagnostic> call() throws Exception {
+				VALIDATING_UNIT.set(Boolean.TRUE);
+				try {
+					List<Diagnostic> result = Lists.newArrayList();
+					for (ValidationUnit unit : units) {
+						if (monitor.isCanceled())
+							return Collections.emptyList();
+						validate(resource, unit, mode, monitor, result);
+					}
+					return result;
+				} finally {
+					VALIDATING_UNIT.remove();
+				}
+			}
+		};
+	}
+
+	protected void validate(Resource resource, ValidationUnit unit, CheckMode mode, CancelIndicator monitor,
+			List<Diagnostic> result) {
+		try {
+			Map<Object, Object> options = createValidationOptions(resource, mode, monitor);
+			if (!unit.isWithContents()) {
+				options.put(CancelableDiagnostician.SKIP_CONTENTS, unit.getObject());
+			}
+			Diagnostic diagnostic = getDiagnostician().validate(unit.getObject(), options);
+			if (!diagnostic.getChildren().isEmpty()) {
+				result.addAll(diagnostic.getChildren());
+			} else {
+				result.add(diagnostic);
+			}
+		} catch (RuntimeException e) {
+			log.error(e.getMessage(), e);
+		}
+	}
+
+	private List<Diagnostic> getResult(Future<List<Diagnostic>> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error)
+				throw (Error) cause;
+			log.error(cause.getMessage(), cause);
+			return Collections.emptyList();
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the executor that validates the units. By default, a pool of daemon threads that is shared by all
+	 *         instances.
+	 */
+	protected ExecutorService getExecutor() {
+		synchronized (ParallelResourceValidatorImpl.class) {
+			if (sharedExecutor == null) {
+				final AtomicInteger threadNumber = new AtomicInteger();
+				sharedExecutor = Executors.newFixedThreadPool(THREAD_COUNT, new ThreadFactory() {
+					public Thread newThread(Runnable runnable) {
+						Thread result = new Thread(runnable, "Xtext validation " + threadNumber.incrementAndGet());
+						result.setDaemon(true);
+						return result;
+					}
+				});
+			}
+			return sharedExecutor;
+		}
+	}
+
+	protected int getThreadCount() {
+		return THREAD_COUNT;
+	}
+
+	public int getMaximumSplitDepth() {
+		return maximumSplitDepth;
+	}
+
+	public void setMaximumSplitDepth(int maximumSplitDepth) {
+		this.maximumSplitDepth = maximumSplitDepth;
+	}
+
+	public void setValidatorRegistry(EValidator.Registry validatorRegistry) {
+		this.validatorRegistry = validatorRegistry;
+	}
+
+}
@@ -126,18 +126,7 @@ public class ResourceValidatorImpl implements IResourceValidator {
 	protected void validate(Resource resource, EObject element, final CheckMode mode, final CancelIndicator monitor,
 			IAcceptor<Issue> acceptor) {
 		try {
-			Map<Object, Object> options = Maps.newHashMap();
-			options.put(CheckMode.KEY, mode);
-			options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
-			// disable concrete syntax validation, since a semantic model that has been parsed 
-			// from the concrete syntax always complies with it - otherwise there are parse errors.
-			options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
-			// see EObjectValidator.getRootEValidator(Map<Object, Object>)
-			options.put(EValidator.class, diagnostician);
-			if (resource instanceof XtextResource) {
-				options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
-						((XtextResource) resource).getLanguageName());
-			}
+			Map<Object, Object> options = createValidationOptions(resource, mode, monitor);
 			Diagnostic diagnostic = diagnostician.validate(element, options);
 			if (!diagnostic.getChildren().isEmpty()) {
 				for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
@@ -151,6 +140,26 @@ public class ResourceValidatorImpl implements IResourceValidator {
 		}
 	}
 
+	/**
+	 * @return a new map of the options that are passed to the {@link #getDiagnostician() diagnostician}.
+	 * @since 2.5
+	 */
+	protected Map<Object, Object> createValidationOptions(Resource resource, CheckMode mode, CancelIndicator monitor) {
+		Map<Object, Object> options = Maps.newHashMap();
+		options.put(CheckMode.KEY, mode);
+		options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
+		// disable concrete syntax validation, since a semantic model that has been parsed 
+		// from the concrete syntax always complies with it - otherwise there are parse errors.
+		options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
+		// see EObjectValidator.getRootEValidator(Map<Object, Object>)
+		options.put(EValidator.class, diagnostician);
+		if (resource instanceof XtextResource) {
+			options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
+					((XtextResource) resource).getLanguageName());
+		}
+		return options;
+	}
+
 	protected void resolveProxies(final Resource resource, final CancelIndicator monitor) {
 		EcoreUtil2.resolveLazyCrossReferences(resource, monitor);
 	}
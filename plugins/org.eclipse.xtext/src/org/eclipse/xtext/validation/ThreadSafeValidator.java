@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Declares that an {@link org.eclipse.emf.ecore.EValidator} may validate different subtrees of the same resource
+ * concurrently. The checks of such a validator must not modify the model or any other shared state, and they must
+ * not rely on state that is collected in the validation context while other objects are validated. This includes the
+ * {@link ComposedChecks composed checks} of a declarative validator.
+ * <p>
+ * The annotation is not inherited, since a subclass may add checks that are not thread-safe.
+ *
+ * @see ParallelResourceValidatorImpl
+ * @author Sebastian Zarnekow - Initial contribution and API
+ * @since 2.5
+ */
+@Beta
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface ThreadSafeValidator {
+}
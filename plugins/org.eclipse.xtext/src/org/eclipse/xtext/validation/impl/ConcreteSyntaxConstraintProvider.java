@@ -64,7 +64,7 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 		protected boolean multiple = false;
 		protected boolean optional = false;
 		protected EClass semanticType = null;
-		protected Set<EClass> semanticTypes = UNINITIALIZED;
+		protected volatile Set<EClass> semanticTypes = UNINITIALIZED;
 		protected ConstraintType type;
 
 		protected SyntaxConstraintNode() {
@@ -212,14 +212,16 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 		}
 
 		public Set<EClass> getSemanticTypesToCheck() {
-			if (semanticTypes == UNINITIALIZED) {
-				semanticTypes = getSemanticTypes();
-				if (semanticTypes.isEmpty()
-						|| (!isRoot() && semanticTypes.equals(((SyntaxConstraintNode) getContainer())
+			Set<EClass> result = semanticTypes;
+			if (result == UNINITIALIZED) {
+				result = getSemanticTypes();
+				if (result.isEmpty()
+						|| (!isRoot() && result.equals(((SyntaxConstraintNode) getContainer())
 								.getSemanticTypes())))
-					semanticTypes = null;
+					result = null;
+				semanticTypes = result;
 			}
-			return semanticTypes;
+			return result;
 		}
 
 		public ConstraintType getType() {
@@ -276,11 +278,11 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 
 	protected final ISyntaxConstraint INVALID_RULE = new SyntaxConstraintNode();
 
-	protected Map<ParserRule, ISyntaxConstraint> rule2element = Maps.newHashMap();
+	protected Map<ParserRule, ISyntaxConstraint> rule2element = Maps.newConcurrentMap();
 
-	protected Map<EClass, List<ISyntaxConstraint>> type2Elements = Maps.newHashMap();
+	protected Map<EClass, List<ISyntaxConstraint>> type2Elements = Maps.newConcurrentMap();
 
-	protected Set<ParserRule> validRules;
+	protected volatile Set<ParserRule> validRules;
 
 	protected void collectReachableRules(ParserRule pr, Set<ParserRule> rules, Set<ParserRule> visited) {
 		if (!visited.add(pr))
@@ -446,11 +448,16 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 	public ISyntaxConstraint getConstraint(ParserRule rule) {
 		ISyntaxConstraint e = rule2element.get(rule);
 		if (e == null) {
-			if (isValidateableRule(rule))
-				e = createElement(rule.getAlternatives());
-			else
-				e = INVALID_RULE;
-			rule2element.put(rule, e);
+			synchronized (this) {
+				e = rule2element.get(rule);
+				if (e == null) {
+					if (isValidateableRule(rule))
+						e = createElement(rule.getAlternatives());
+					else
+						e = INVALID_RULE;
+					rule2element.put(rule, e);
+				}
+			}
 		}
 		return e != INVALID_RULE ? e : null;
 	}
@@ -459,7 +466,19 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 		List<ISyntaxConstraint> eles = type2Elements.get(cls);
 		if (eles != null)
 			return eles;
-		eles = Lists.newArrayList();
+		synchronized (this) {
+			eles = type2Elements.get(cls);
+			if (eles == null)
+				type2Elements.put(cls, eles = createConstraints(cls));
+			return eles;
+		}
+	}
+
+	/**
+	 * @since 2.5
+	 */
+	protected List<ISyntaxConstraint> createConstraints(EClass cls) {
+		List<ISyntaxConstraint> eles = Lists.newArrayList();
 		for (ParserRule r : getValidRules()) {
 			if (((EClass) r.getType().getClassifier()).isSuperTypeOf(cls)) {
 				ISyntaxConstraint e = getConstraint(r);
@@ -471,7 +490,6 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 				}
 			}
 		}
-		type2Elements.put(cls, eles);
 		return eles;
 	}
 
@@ -483,13 +501,15 @@ public class ConcreteSyntaxConstraintProvider implements IConcreteSyntaxConstrai
 	}
 
 	protected Set<ParserRule> getValidRules() {
-		if (validRules != null)
-			return validRules;
-		validRules = Sets.newHashSet();
+		Set<ParserRule> result = validRules;
+		if (result != null)
+			return result;
+		result = Sets.newHashSet();
 		ParserRule first = getFirstParserRule(grammar);
-		validRules.add(first);
-		collectReachableRules(first, validRules, new HashSet<ParserRule>());
-		return validRules;
+		result.add(first);
+		collectReachableRules(first, result, new HashSet<ParserRule>());
+		validRules = result;
+		return result;
 	}
 
 	protected boolean isParserRule(AbstractRule rule) {
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.TreeSet;
+
+import org.eclipse.xtext.util.PolymorphicDispatcher;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.common.collect.Lists;
+
+/**
+ * Measures the dispatch for call sites that pass one, a few or more argument types than the inline cache of the
+ * {@link PolymorphicDispatcher} holds.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class PolymorphicDispatcherBenchmark extends SimpleBenchmark {
+
+	public static class Target {
+		protected int size(Object o) {
+			return 1;
+		}
+
+		protected int size(Number n) {
+			return 2;
+		}
+
+		protected int size(Integer i) {
+			return 3;
+		}
+
+		protected int size(CharSequence c) {
+			return c.length();
+		}
+
+		protected int size(Collection<?> c) {
+			return c.size();
+		}
+	}
+
+	private static final Object[] ALL_ARGUMENTS = { 1, 2L, 3.0, 4f, (short) 5, (byte) 6, BigInteger.ONE,
+			BigDecimal.ONE, "s", new StringBuilder("sb"), new StringBuffer("sbf"), new ArrayList<Object>(),
+			new LinkedList<Object>(), new HashSet<Object>(), new TreeSet<Object>(), new HashMap<Object, Object>() };
+
+	@Param({ "1", "2", "8", "9", "16" })
+	int numberOfTypes;
+
+	private Object[] arguments;
+
+	@Override
+	protected void setUp() throws Exception {
+		arguments = new Object[numberOfTypes];
+		System.arraycopy(ALL_ARGUMENTS, 0, arguments, 0, numberOfTypes);
+	}
+
+	public int timeInvoke(int reps) {
+		PolymorphicDispatcher<Integer> dispatcher = new PolymorphicDispatcher<Integer>("size", 1, 1,
+				Lists.newArrayList(new Target()));
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (Object argument : arguments) {
+				result += dispatcher.invoke(argument);
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(PolymorphicDispatcherBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.naming;
+
+import java.util.List;
+
+import org.eclipse.xtext.naming.IQualifiedNameConverter;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.naming.QualifiedNamePool;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.common.collect.Lists;
+import com.google.inject.Guice;
+
+/**
+ * Creates the exported names of a synthetic index and their lower case keys, as the
+ * {@link org.eclipse.xtext.resource.impl.ResourceDescriptionsData ResourceDescriptionsData} does. Each resource
+ * exports a type and its members, the types are spread across a limited number of packages.
+ * <p>
+ * Caliper measures the time. Run {@link RetainedHeap} to print the heap that is retained by an index with 50k
+ * resources.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class QualifiedNamePoolBenchmark extends SimpleBenchmark {
+
+	public enum Impl {
+		Plain {
+			@Override
+			IQualifiedNameConverter createConverter() {
+				return new IQualifiedNameConverter.DefaultImpl();
+			}
+		},
+		Pooled {
+			@Override
+			IQualifiedNameConverter createConverter() {
+				return Guice.createInjector().getInstance(IQualifiedNameConverter.InterningImpl.class);
+			}
+		};
+		abstract IQualifiedNameConverter createConverter();
+	}
+
+	private static final String[] MEMBERS = { "getName", "setName", "getValue", "setValue", "toString", "hashCode",
+			"equals", "create", "apply", "isEmpty" };
+
+	@Param
+	Impl implementation;
+
+	@Param({ "1000", "50000" })
+	int resources;
+
+	public int timeCreateIndex(int reps) {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			result += createIndex(implementation.createConverter(), resources).size();
+		}
+		return result;
+	}
+
+	static List<QualifiedName> createIndex(IQualifiedNameConverter converter, int resources) {
+		List<QualifiedName> result = Lists.newArrayListWithCapacity(resources * (MEMBERS.length + 1) * 2);
+		for (int i = 0; i < resources; i++) {
+			String typeName = "org.example.module" + (i % 50) + ".pkg" + (i % 500) + ".Type" + i;
+			addName(converter.toQualifiedName(typeName), result);
+			for (String member : MEMBERS) {
+				addName(converter.toQualifiedName(typeName + "." + member), result);
+			}
+		}
+		return result;
+	}
+
+	private static void addName(QualifiedName name, List<QualifiedName> index) {
+		index.add(name);
+		index.add(name.toLowerCase());
+	}
+
+	/**
+	 * Prints the heap that is retained by the names of an index with 50k resources.
+	 */
+	public static class RetainedHeap {
+
+		public static void main(String[] args) {
+			int resources = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+			for (Impl impl : Impl.values()) {
+				IQualifiedNameConverter converter = impl.createConverter();
+				long before = usedMemory();
+				List<QualifiedName> index = createIndex(converter, resources);
+				long after = usedMemory();
+				System.out.println(impl + ": " + (after - before) / 1024 + " KB for " + index.size() + " names");
+			}
+		}
+
+		private static long usedMemory() {
+			Runtime runtime = Runtime.getRuntime();
+			for (int i = 0; i < 5; i++) {
+				System.gc();
+			}
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+
+	public static void main(String[] args) {
+		Runner.main(QualifiedNamePoolBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.pipeline;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.IParser;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+/**
+ * Measures the parser of a language that is not based on Xbase, the Xtext grammar language, on a
+ * {@link SyntheticCorpus synthetic corpus}. See {@link XtendPipelineBenchmark} for the options to record the GC log
+ * and to save the results.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class GrammarParsingBenchmark extends SimpleBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int files;
+
+	@Param({ "10", "100" })
+	int rules;
+
+	private IParser parser;
+
+	private List<String> contents;
+
+	@Override
+	protected void setUp() throws Exception {
+		parser = new XtextStandaloneSetup().createInjectorAndDoEMFRegistration().getInstance(IParser.class);
+		contents = new SyntheticCorpus(files, 0).getGrammars(rules);
+		for (String content : contents) {
+			IParseResult parseResult = parser.parse(new StringReader(content));
+			if (parseResult.hasSyntaxErrors()) {
+				throw new IllegalStateException(parseResult.getSyntaxErrors().iterator().next().getSyntaxErrorMessage()
+						.getMessage());
+			}
+		}
+	}
+
+	public int timeParse(int reps) {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (String content : contents) {
+				result += parser.parse(new StringReader(content)).getRootNode().getTotalLength();
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(GrammarParsingBenchmark.class, args);
+	}
+
+}
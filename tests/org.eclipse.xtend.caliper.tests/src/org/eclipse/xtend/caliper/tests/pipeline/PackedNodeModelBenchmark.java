@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.pipeline;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.eclipse.xtext.XtextRuntimeModule;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.nodemodel.impl.PackedNodeModelBuilder;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.IParser;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.inject.Guice;
+
+/**
+ * Compares the default node model with the {@link PackedNodeModelBuilder packed node model} when parsing the grammars
+ * of a {@link SyntheticCorpus synthetic corpus}.
+ * <p>
+ * Caliper measures the time of the parser only. The heap that is retained by the parse results is printed by
+ * {@link #main(String[])} before the benchmark is run.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class PackedNodeModelBenchmark extends SimpleBenchmark {
+
+	public enum NodeModel {
+		DEFAULT, PACKED
+	}
+
+	@Param({ "10", "100" })
+	int rules;
+
+	@Param
+	NodeModel nodeModel;
+
+	private IParser parser;
+
+	private List<String> contents;
+
+	@Override
+	protected void setUp() throws Exception {
+		parser = createParser(nodeModel);
+		contents = new SyntheticCorpus(10, 0).getGrammars(rules);
+	}
+
+	public int timeParse(int reps) {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (String content : contents) {
+				result += parser.parse(new StringReader(content)).getRootNode().getTotalLength();
+			}
+		}
+		return result;
+	}
+
+	protected static IParser createParser(NodeModel nodeModel) {
+		new XtextStandaloneSetup().createInjectorAndDoEMFRegistration();
+		if (nodeModel == NodeModel.PACKED) {
+			return Guice.createInjector(new XtextRuntimeModule() {
+				@SuppressWarnings("unused")
+				public Class<? extends NodeModelBuilder> bindNodeModelBuilder() {
+					return PackedNodeModelBuilder.class;
+				}
+			}).getInstance(IParser.class);
+		}
+		return Guice.createInjector(new XtextRuntimeModule()).getInstance(IParser.class);
+	}
+
+	/**
+	 * @return the heap in bytes that is retained by the parse result of the given grammar, averaged over a couple of
+	 *         copies.
+	 */
+	protected static long getRetainedHeap(IParser parser, String content) {
+		int copies = 10;
+		IParseResult[] results = new IParseResult[copies];
+		long before = getUsedHeap();
+		for (int i = 0; i < copies; i++) {
+			results[i] = parser.parse(new StringReader(content));
+		}
+		long after = getUsedHeap();
+		for (IParseResult result : results) {
+			if (result.getRootNode().getTotalLength() != content.length())
+				throw new IllegalStateException();
+		}
+		return (after - before) / copies;
+	}
+
+	protected static long getUsedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.yield();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	public static void main(String[] args) {
+		String content = new SyntheticCorpus(1, 0).getGrammars(1000).get(0);
+		for (NodeModel nodeModel : NodeModel.values()) {
+			System.out.println("Retained heap of the " + nodeModel + " node model for a grammar of " + content.length()
+					+ " characters: " + getRetainedHeap(createParser(nodeModel), content) + " bytes");
+		}
+		Runner.main(PackedNodeModelBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.pipeline;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtend.core.XtendStandaloneSetup;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.resource.SaveOptions;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.StringInputStream;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.inject.Injector;
+
+/**
+ * Measures the serialization of a single large generated Xtend file into a {@link String} and into a {@link Writer}
+ * that discards the text. The GC log that is recorded with <code>--captureVmLog</code> shows the garbage of both
+ * targets, see {@link XtendPipelineBenchmark} for the other options.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class SerializerMemoryBenchmark extends SimpleBenchmark {
+
+	public enum Target {
+		STRING, WRITER
+	}
+
+	static class CountingWriter extends Writer {
+		int count;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(String str) {
+			count += str.length();
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Param({ "100", "1000" })
+	int members;
+
+	@Param
+	Target target;
+
+	private ISerializer serializer;
+
+	private EObject model;
+
+	@Override
+	protected void setUp() throws Exception {
+		Injector injector = new XtendStandaloneSetup().createInjectorAndDoEMFRegistration();
+		SyntheticCorpus corpus = new SyntheticCorpus(1, members);
+		XtextResourceSet resourceSet = injector.getInstance(XtextResourceSet.class);
+		resourceSet.setClasspathURIContext(getClass());
+		Resource resource = resourceSet.createResource(URI.createURI("synthetic/" + corpus.getXtendFileName(0)));
+		resource.load(new StringInputStream(corpus.getXtendFiles().get(0)), null);
+		EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+		if (!resource.getErrors().isEmpty()) {
+			throw new IllegalStateException(resource.getURI() + ": " + resource.getErrors());
+		}
+		model = resource.getContents().get(0);
+		serializer = injector.getInstance(ISerializer.class);
+	}
+
+	public int timeSerialize(int reps) throws IOException {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			switch (target) {
+				case STRING:
+					result += serializer.serialize(model).length();
+					break;
+				case WRITER:
+					CountingWriter writer = new CountingWriter();
+					serializer.serialize(model, writer, SaveOptions.defaultOptions());
+					result += writer.count;
+					break;
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(SerializerMemoryBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.pipeline;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Creates the sources of the pipeline benchmarks. The sources only depend on the JDK and the Xbase library, so they
+ * compile without errors in a plain standalone setup. Each class refers to the class of the previous file, so
+ * linking crosses file boundaries.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class SyntheticCorpus {
+
+	private final int files;
+
+	private final int members;
+
+	/**
+	 * @param files
+	 *            the number of files.
+	 * @param members
+	 *            the number of member groups per file. A group consists of three methods that exercise collection
+	 *            operations with lambdas, loops and constructor calls.
+	 */
+	public SyntheticCorpus(int files, int members) {
+		this.files = files;
+		this.members = members;
+	}
+
+	public List<String> getXtendFiles() {
+		List<String> result = Lists.newArrayListWithCapacity(files);
+		for (int i = 0; i < files; i++) {
+			result.add(getXtendFile(i));
+		}
+		return result;
+	}
+
+	public String getXtendFileName(int index) {
+		return "Class" + index + ".xtend";
+	}
+
+	protected String getXtendFile(int index) {
+		String previous = "Class" + Math.max(index - 1, 0);
+		StringBuilder result = new StringBuilder();
+		result.append("package synthetic\n\n");
+		result.append("import java.util.List\n\n");
+		result.append("class Class").append(index);
+		if (index > 0) {
+			result.append(" extends ").append(previous);
+		}
+		result.append(" {\n\n");
+		result.append("\tval List<String> names").append(index).append(" = newArrayList('a', 'b', 'c')\n\n");
+		for (int j = 0; j < members; j++) {
+			String suffix = index + "_" + j;
+			result.append("\tdef String join").append(suffix).append("(int value, List<String> list) {\n");
+			result.append("\t\tval result = <String>newArrayList\n");
+			result.append("\t\tfor (s : list) {\n");
+			result.append("\t\t\tif (s.length > value) {\n");
+			result.append("\t\t\t\tresult += s.toUpperCase\n");
+			result.append("\t\t\t}\n");
+			result.append("\t\t}\n");
+			result.append("\t\tresult.map[it + value].filter[!empty].join(',')\n");
+			result.append("\t}\n\n");
+			result.append("\tdef int compute").append(suffix).append("(int a, int b) {\n");
+			result.append("\t\tvar sum = 0\n");
+			result.append("\t\tfor (k : a .. b) {\n");
+			result.append("\t\t\tsum = sum + k * ").append(j + 1).append("\n");
+			result.append("\t\t}\n");
+			result.append("\t\tif (sum > 100) sum / 2 else sum\n");
+			result.append("\t}\n\n");
+			result.append("\tdef ").append(previous).append(" create").append(suffix).append("() {\n");
+			result.append("\t\tval other = new ").append(previous).append("\n");
+			result.append("\t\tjoin").append(suffix).append("(names").append(index).append(".size, names")
+					.append(index).append(")\n");
+			result.append("\t\tother\n");
+			result.append("\t}\n\n");
+		}
+		result.append("}\n");
+		return result.toString();
+	}
+
+	/**
+	 * @return grammars of the Xtext grammar language with the given number of parser rules each.
+	 */
+	public List<String> getGrammars(int rules) {
+		List<String> result = Lists.newArrayListWithCapacity(files);
+		for (int i = 0; i < files; i++) {
+			result.add(getGrammar(i, rules));
+		}
+		return result;
+	}
+
+	protected String getGrammar(int index, int rules) {
+		StringBuilder result = new StringBuilder();
+		result.append("grammar synthetic.Grammar").append(index).append(" hidden(WS)\n\n");
+		result.append("generate grammar").append(index).append(" \"http://synthetic/grammar").append(index)
+				.append("\"\n");
+		result.append("import \"http://www.eclipse.org/emf/2002/Ecore\" as ecore\n\n");
+		result.append("Model: elements+=Element*;\n\n");
+		result.append("Element:\n\t");
+		for (int i = 0; i < rules; i++) {
+			if (i > 0) {
+				result.append(" | ");
+			}
+			result.append("Rule").append(i);
+		}
+		result.append(";\n\n");
+		for (int i = 0; i < rules; i++) {
+			result.append("Rule").append(i).append(":\n");
+			result.append("\t'keyword").append(i).append("' name=ID ('extends' superType=[Element])?\n");
+			result.append("\t'{' (values+=INT (',' values+=INT)*)? '}';\n\n");
+		}
+		result.append("terminal ID: '^'?('a'..'z'|'A'..'Z'|'_') ('a'..'z'|'A'..'Z'|'_'|'0'..'9')*;\n");
+		result.append("terminal INT returns ecore::EInt: ('0'..'9')+;\n");
+		result.append("terminal WS: (' '|'\\t'|'\\r'|'\\n')+;\n");
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.pipeline;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtend.core.XtendStandaloneSetup;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.generator.IGenerator;
+import org.eclipse.xtext.generator.InMemoryFileSystemAccess;
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.serializer.ISerializer;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.IResourceScopeCache;
+import org.eclipse.xtext.util.StringInputStream;
+import org.eclipse.xtext.validation.CheckMode;
+import org.eclipse.xtext.validation.ResourceValidatorImpl;
+import org.eclipse.xtext.xbase.typesystem.IBatchTypeResolver;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.inject.Injector;
+
+/**
+ * Measures the stages of the Xtend pipeline on a {@link SyntheticCorpus synthetic corpus}. Each stage works on input
+ * that was prepared by the previous stages in {@link #setUp()}, except for linking: Caliper does not allow to prepare
+ * the input of every repetition, so linking is measured together with loading and its cost is the difference to
+ * {@link #timeParse(int) parsing}.
+ * <p>
+ * The benchmark runs headless. Use <code>--captureVmLog</code> to record the GC log and
+ * <code>--saveResults &lt;file&gt;</code> to write the results as JSON, e.g. to compare them with the results of a
+ * previous version.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class XtendPipelineBenchmark extends SimpleBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int files;
+
+	@Param({ "10", "50" })
+	int members;
+
+	private Injector injector;
+
+	private SyntheticCorpus corpus;
+
+	private List<String> contents;
+
+	/**
+	 * The resources are linked and their types are resolved.
+	 */
+	private XtextResourceSet resourceSet;
+
+	@Override
+	protected void setUp() throws Exception {
+		injector = new XtendStandaloneSetup().createInjectorAndDoEMFRegistration();
+		corpus = new SyntheticCorpus(files, members);
+		contents = corpus.getXtendFiles();
+		resourceSet = loadAndLink();
+		IBatchTypeResolver typeResolver = injector.getInstance(IBatchTypeResolver.class);
+		for (Resource resource : resourceSet.getResources()) {
+			if (!resource.getErrors().isEmpty()) {
+				throw new IllegalStateException(resource.getURI() + ": " + resource.getErrors());
+			}
+			typeResolver.resolveTypes(resource.getContents().get(0));
+		}
+	}
+
+	protected XtextResourceSet loadAndLink() throws IOException {
+		XtextResourceSet result = injector.getInstance(XtextResourceSet.class);
+		result.setClasspathURIContext(getClass());
+		for (int i = 0; i < contents.size(); i++) {
+			Resource resource = result.createResource(URI.createURI("synthetic/" + corpus.getXtendFileName(i)));
+			resource.load(new StringInputStream(contents.get(i)), null);
+		}
+		for (int i = 0; i < contents.size(); i++) {
+			EcoreUtil2.resolveLazyCrossReferences(result.getResources().get(i), CancelIndicator.NullImpl);
+		}
+		return result;
+	}
+
+	public int timeParse(int reps) {
+		IParser parser = injector.getInstance(IParser.class);
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (String content : contents) {
+				result += parser.parse(new StringReader(content)).getRootNode().getTotalLength();
+			}
+		}
+		return result;
+	}
+
+	public int timeLoadAndLink(int reps) throws IOException {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			result += loadAndLink().getResources().size();
+		}
+		return result;
+	}
+
+	public int timeResolveTypes(int reps) {
+		IResourceScopeCache cache = injector.getInstance(IResourceScopeCache.class);
+		IBatchTypeResolver typeResolver = injector.getInstance(IBatchTypeResolver.class);
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (Resource resource : resourceSet.getResources()) {
+				// discard the cached resolution
+				cache.clear(resource);
+				result += typeResolver.resolveTypes(resource.getContents().get(0)).getQueuedDiagnostics().size();
+			}
+		}
+		return result;
+	}
+
+	public int timeValidate(int reps) {
+		// the resource validator of Xtend caches the issues
+		ResourceValidatorImpl validator = injector.getInstance(ResourceValidatorImpl.class);
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (Resource resource : resourceSet.getResources()) {
+				result += validator.validate(resource, CheckMode.ALL, CancelIndicator.NullImpl).size();
+			}
+		}
+		return result;
+	}
+
+	public int timeSerialize(int reps) {
+		ISerializer serializer = injector.getInstance(ISerializer.class);
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (Resource resource : resourceSet.getResources()) {
+				result += serializer.serialize(resource.getContents().get(0)).length();
+			}
+		}
+		return result;
+	}
+
+	public int timeGenerate(int reps) {
+		IGenerator generator = injector.getInstance(IGenerator.class);
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			for (Resource resource : resourceSet.getResources()) {
+				InMemoryFileSystemAccess fileSystemAccess = injector.getInstance(InMemoryFileSystemAccess.class);
+				generator.doGenerate(resource, fileSystemAccess);
+				result += fileSystemAccess.getFiles().size();
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(XtendPipelineBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IStorage;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.builder.trace.AbstractTrace;
+import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
+import org.eclipse.xtext.generator.trace.ILocationData;
+import org.eclipse.xtext.generator.trace.ITraceRegionProvider;
+import org.eclipse.xtext.generator.trace.TraceRegion;
+import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
+import org.eclipse.xtext.generator.trace.TraceRegionSerializer.Callback;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+/**
+ * Reads the trace of a synthetic generated class and looks up the source regions of a few offsets, as the debugger and
+ * the navigation to the source do. The trace is written either in the tree format of version 4 that has to be read
+ * completely or in the indexed format that reads the nested regions on demand.
+ * <p>
+ * Run {@link FileSize} to print the size of the trace files in both formats.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class TraceRegionSerializerBenchmark extends SimpleBenchmark {
+
+	public enum Format {
+		VERSION_4 {
+			@Override
+			void write(TraceRegionSerializer serializer, AbstractTraceRegion region, ByteArrayOutputStream out)
+					throws IOException {
+				serializer.doWriteTo(new WritingStrategy(), region, out);
+			}
+		},
+		INDEXED {
+			@Override
+			void write(TraceRegionSerializer serializer, AbstractTraceRegion region, ByteArrayOutputStream out)
+					throws IOException {
+				serializer.writeTraceRegionTo(region, out);
+			}
+		};
+		abstract void write(TraceRegionSerializer serializer, AbstractTraceRegion region, ByteArrayOutputStream out)
+				throws IOException;
+	}
+
+	/**
+	 * Writes the regions as they are.
+	 */
+	static class WritingStrategy implements TraceRegionSerializer.Strategy<AbstractTraceRegion, ILocationData> {
+
+		public ILocationData createLocation(int offset, int length, int lineNumber, int endLineNumber, URI path) {
+			throw new UnsupportedOperationException();
+		}
+
+		public AbstractTraceRegion createRegion(int offset, int length, int lineNumber, int endLineNumber,
+				List<ILocationData> associations, AbstractTraceRegion parent) {
+			throw new UnsupportedOperationException();
+		}
+
+		public void writeRegion(AbstractTraceRegion region, Callback<AbstractTraceRegion, ILocationData> callback)
+				throws IOException {
+			callback.doWriteRegion(region.getMyOffset(), region.getMyLength(), region.getMyLineNumber(),
+					region.getMyEndLineNumber(), region.getAssociatedLocations(), region.getNestedRegions());
+		}
+
+		public void writeLocation(ILocationData location, Callback<AbstractTraceRegion, ILocationData> callback)
+				throws IOException {
+			callback.doWriteLocation(location.getOffset(), location.getLength(), location.getLineNumber(),
+					location.getEndLineNumber(), location.getPath());
+		}
+	}
+
+	static class Trace extends AbstractTrace {
+
+		Trace(final TraceRegionSerializer serializer, final byte[] contents) {
+			setTraceRegionProvider(new ITraceRegionProvider() {
+				public AbstractTraceRegion getTraceRegion() {
+					try {
+						return serializer.readTraceRegionFrom(new ByteArrayInputStream(contents));
+					} catch (IOException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+		}
+
+		@Override
+		public URI getLocalURI() {
+			return URI.createURI("synthetic/Generated.java");
+		}
+
+		@Override
+		public IProject getLocalProject() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected IStorage findStorage(URI uri, IProject project) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected InputStream getContents(URI uri, IProject project) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static final URI SOURCE = URI.createURI("platform:/resource/project/src/org/example/Source.xtend");
+
+	@Param
+	Format format;
+
+	@Param({ "100", "1000" })
+	int members;
+
+	@Param({ "1", "20" })
+	int lookups;
+
+	private TraceRegionSerializer serializer;
+
+	private byte[] contents;
+
+	private int[] offsets;
+
+	@Override
+	protected void setUp() throws Exception {
+		serializer = new TraceRegionSerializer();
+		AbstractTraceRegion root = createTrace(members);
+		contents = write(format, root);
+		Random random = new Random(4711);
+		offsets = new int[lookups];
+		for (int i = 0; i < lookups; i++) {
+			offsets[i] = random.nextInt(root.getMyLength());
+		}
+	}
+
+	public int timeLookup(int reps) {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			Trace trace = new Trace(serializer, contents);
+			for (int offset : offsets) {
+				result += trace.findTraceRegionAtLeftOffset(offset).getMyOffset();
+			}
+		}
+		return result;
+	}
+
+	public int timeAllLeafs(int reps) throws IOException {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			AbstractTraceRegion root = serializer.readTraceRegionFrom(new ByteArrayInputStream(contents));
+			Iterator<AbstractTraceRegion> leafs = root.leafIterator();
+			while (leafs.hasNext()) {
+				result += leafs.next().getMyLength();
+			}
+		}
+		return result;
+	}
+
+	static byte[] write(Format format, AbstractTraceRegion root) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(new TraceRegionSerializer(), root, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Creates the trace of a class with the given number of members. Each member consists of five lines with four
+	 * traced expressions each.
+	 */
+	static AbstractTraceRegion createTrace(int members) {
+		int memberLength = 5 * 80;
+		TraceRegion root = new TraceRegion(0, members * memberLength, 0, members * 5, 0, members * 200, 0,
+				members * 4, null, SOURCE);
+		for (int i = 0; i < members; i++) {
+			int offset = i * memberLength;
+			TraceRegion member = new TraceRegion(offset + 4, memberLength - 8, i * 5, i * 5 + 4, i * 200, 190, i * 4,
+					i * 4 + 3, root, SOURCE);
+			for (int line = 0; line < 5; line++) {
+				int lineOffset = offset + line * 80;
+				for (int j = 0; j < 4; j++) {
+					new TraceRegion(lineOffset + 8 + j * 16, 12, i * 5 + line, i * 5 + line, i * 200 + line * 40 + j * 8,
+							6, i * 4 + line / 2, i * 4 + line / 2, member, SOURCE);
+				}
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Prints the size of the trace files in both formats.
+	 */
+	public static class FileSize {
+
+		public static void main(String[] args) throws IOException {
+			int members = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+			AbstractTraceRegion root = createTrace(members);
+			for (Format format : Format.values()) {
+				System.out.println(format + ": " + write(format, root).length / 1024 + " KB for " + members + " members");
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		Runner.main(TraceRegionSerializerBenchmark.class, args);
+	}
+
+}
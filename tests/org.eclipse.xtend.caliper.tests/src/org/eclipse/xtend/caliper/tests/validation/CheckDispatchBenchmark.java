@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.caliper.tests.validation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.ETypedElement;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.validation.AbstractDeclarativeValidator;
+import org.eclipse.xtext.validation.Check;
+import org.eclipse.xtext.validation.CheckMode;
+import org.eclipse.xtext.validation.CheckType;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compares the dispatch table of the {@link AbstractDeclarativeValidator} with the reflective dispatch that was used
+ * before. The reflective dispatch is duplicated here: it reads the annotation and makes the method accessible for
+ * each invocation. It does not assign the state of the validator, so the checks must not report issues.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class CheckDispatchBenchmark extends SimpleBenchmark {
+
+	public enum Impl {
+		Reflective {
+			@Override
+			void validate(CountingValidator validator, EObject object, Map<Object, Object> context) {
+				CheckMode checkMode = CheckMode.getCheckMode(context);
+				try {
+					for (Method method : validator.getMethods(object.getClass())) {
+						Check annotation = method.getAnnotation(Check.class);
+						if (!checkMode.shouldCheck(annotation.value()))
+							continue;
+						method.setAccessible(true);
+						method.invoke(validator, object);
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		},
+		DispatchTable {
+			@Override
+			void validate(CountingValidator validator, EObject object, Map<Object, Object> context) {
+				validator.validate(object, null, context);
+			}
+		};
+		abstract void validate(CountingValidator validator, EObject object, Map<Object, Object> context);
+	}
+
+	public static class CountingValidator extends AbstractDeclarativeValidator {
+
+		int count;
+
+		private final Map<Class<?>, List<Method>> methods = Maps.newHashMap();
+
+		List<Method> getMethods(Class<?> type) {
+			List<Method> result = methods.get(type);
+			if (result == null) {
+				result = Lists.newArrayList();
+				for (Class<?> clazz = getClass(); clazz != AbstractDeclarativeValidator.class; clazz = clazz
+						.getSuperclass()) {
+					for (Method method : clazz.getDeclaredMethods()) {
+						if (method.getAnnotation(Check.class) != null && method.getParameterTypes().length == 1
+								&& method.getParameterTypes()[0].isAssignableFrom(type))
+							result.add(method);
+					}
+				}
+				methods.put(type, result);
+			}
+			return result;
+		}
+
+		@Check
+		public void checkObject(EObject object) {
+			count++;
+		}
+
+		@Check
+		public void checkNamedElement(ENamedElement element) {
+			count++;
+		}
+
+		@Check(CheckType.NORMAL)
+		public void checkNamedElementNormal(ENamedElement element) {
+			count++;
+		}
+
+		@Check
+		public void checkPackage(EPackage ePackage) {
+			count++;
+		}
+
+		@Check
+		public void checkClassifier(EClassifier classifier) {
+			count++;
+		}
+
+		@Check
+		public void checkClass(EClass eClass) {
+			count++;
+		}
+
+		@Check(CheckType.NORMAL)
+		public void checkClassNormal(EClass eClass) {
+			count++;
+		}
+
+		@Check(CheckType.EXPENSIVE)
+		public void checkClassExpensive(EClass eClass) {
+			count++;
+		}
+
+		@Check
+		public void checkTypedElement(ETypedElement element) {
+			count++;
+		}
+
+		@Check
+		public void checkStructuralFeature(EStructuralFeature feature) {
+			count++;
+		}
+
+		@Check(CheckType.NORMAL)
+		public void checkStructuralFeatureNormal(EStructuralFeature feature) {
+			count++;
+		}
+
+		@Check
+		public void checkAttribute(EAttribute attribute) {
+			count++;
+		}
+
+		@Check(CheckType.NORMAL)
+		public void checkAttributeNormal(EAttribute attribute) {
+			count++;
+		}
+
+		@Check(CheckType.EXPENSIVE)
+		public void checkAttributeExpensive(EAttribute attribute) {
+			count++;
+		}
+	}
+
+	@Param
+	Impl implementation;
+
+	@Param({ "FAST", "NORMAL_AND_FAST", "ALL" })
+	String checkMode;
+
+	private CountingValidator validator;
+
+	private EPackage ePackage;
+
+	private Map<Object, Object> context;
+
+	@Override
+	protected void setUp() throws Exception {
+		validator = new CountingValidator();
+		ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("p");
+		for (int i = 0; i < 20; i++) {
+			EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+			eClass.setName("C" + i);
+			for (int j = 0; j < 5; j++) {
+				EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+				attribute.setName("a" + j);
+				attribute.setEType(EcorePackage.Literals.ESTRING);
+				eClass.getEStructuralFeatures().add(attribute);
+			}
+			ePackage.getEClassifiers().add(eClass);
+		}
+		context = Maps.newHashMap();
+		if ("FAST".equals(checkMode)) {
+			context.put(CheckMode.KEY, CheckMode.FAST_ONLY);
+		} else if ("NORMAL_AND_FAST".equals(checkMode)) {
+			context.put(CheckMode.KEY, CheckMode.NORMAL_AND_FAST);
+		} else {
+			context.put(CheckMode.KEY, CheckMode.ALL);
+		}
+	}
+
+	public int timeValidate(int reps) {
+		validator.count = 0;
+		for (int i = 0; i < reps; i++) {
+			implementation.validate(validator, ePackage, context);
+			TreeIterator<EObject> iterator = ePackage.eAllContents();
+			while (iterator.hasNext()) {
+				implementation.validate(validator, iterator.next(), context);
+			}
+		}
+		return validator.count;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(CheckDispatchBenchmark.class, args);
+	}
+
+}
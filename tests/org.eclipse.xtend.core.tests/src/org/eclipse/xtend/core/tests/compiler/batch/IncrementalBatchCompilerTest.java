@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.core.tests.compiler.batch;
+
+import static org.eclipse.xtext.util.Files.*;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Set;
+
+import org.eclipse.xtend.core.compiler.batch.XtendBatchCompiler;
+import org.eclipse.xtend.core.tests.RuntimeInjectorProvider;
+import org.eclipse.xtext.junit4.InjectWith;
+import org.eclipse.xtext.junit4.XtextRunner;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Tests that an incremental compilation of the {@link XtendBatchCompiler} generates exactly the Java files of the
+ * changed and the affected Xtend files.
+ *
+ * @author Dennis Huebner - Initial contribution and API
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(RuntimeInjectorProvider.class)
+public class IncrementalBatchCompilerTest extends Assert {
+
+	private static final String ROOT_DIRECTORY = "./test-incremental";
+
+	private static final String SRC_DIRECTORY = ROOT_DIRECTORY + "/src";
+
+	private static final String OUTPUT_DIRECTORY = ROOT_DIRECTORY + "/out";
+
+	@Inject
+	private Provider<XtendBatchCompiler> batchCompilerProvider;
+
+	@Before
+	public void setUp() throws IOException {
+		new File(SRC_DIRECTORY, "p").mkdirs();
+		new File(OUTPUT_DIRECTORY).mkdirs();
+		// C refers to B, B refers to A, D is independent
+		write("A", "class A {\n  def String a() { 'a' }\n}");
+		write("B", "class B {\n  def String b(A a) { a.a }\n}");
+		write("C", "class C {\n  def B c() { null }\n}");
+		write("D", "class D {\n}");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		cleanFolder(new File(ROOT_DIRECTORY), null, true, true);
+	}
+
+	@Test public void testFullCompilationWithoutState() throws IOException {
+		assertEquals(names("A", "B", "C", "D"), compile());
+	}
+
+	@Test public void testUpToDate() throws IOException {
+		compile();
+		assertEquals(names(), compile());
+	}
+
+	@Test public void testChangeWithoutExportedChanges() throws IOException {
+		compile();
+		write("D", "class D {\n  def int d() { 1 }\n}");
+		assertEquals(names("D"), compile());
+	}
+
+	@Test public void testChangeOfExportedObjects() throws IOException {
+		compile();
+		write("A", "class A {\n  def String a() { 'a' }\n}\nclass A2 {\n}");
+		assertEquals(names("A", "A2", "B"), compile());
+		assertEquals(names(), compile());
+	}
+
+	@Test public void testDelete() throws IOException {
+		compile();
+		assertTrue(new File(OUTPUT_DIRECTORY, "p/D.java").isFile());
+		assertTrue(new File(SRC_DIRECTORY, "p/D.xtend").delete());
+		assertEquals(names(), compile());
+		assertFalse(new File(OUTPUT_DIRECTORY, "p/D.java").exists());
+	}
+
+	@Test public void testAdd() throws IOException {
+		compile();
+		write("E", "class E {\n  def C e() { null }\n}");
+		assertEquals(names("E"), compile());
+	}
+
+	/**
+	 * @return the names of the Java files that were written.
+	 */
+	protected Set<String> compile() throws IOException {
+		Set<String> before = Sets.newHashSet();
+		for (File file : javaFiles()) {
+			before.add(file.getName());
+			assertTrue(file.setLastModified(0));
+		}
+		XtendBatchCompiler batchCompiler = batchCompilerProvider.get();
+		batchCompiler.setSourcePath(SRC_DIRECTORY);
+		batchCompiler.setOutputPath(OUTPUT_DIRECTORY);
+		batchCompiler.setDeleteTempDirectory(true);
+		batchCompiler.setUseCurrentClassLoaderAsParent(true);
+		batchCompiler.setCurrentClassLoader(getClass().getClassLoader());
+		batchCompiler.setBuildStateFile(ROOT_DIRECTORY + "/build.state");
+		assertTrue(batchCompiler.compile());
+		Set<String> result = Sets.newHashSet();
+		for (File file : javaFiles()) {
+			if (!before.contains(file.getName()) || file.lastModified() != 0) {
+				result.add(file.getName());
+			}
+		}
+		return result;
+	}
+
+	protected File[] javaFiles() {
+		File[] result = new File(OUTPUT_DIRECTORY, "p").listFiles(new FileFilter() {
+			public boolean accept(File file) {
+				return file.getName().endsWith(".java");
+			}
+		});
+		return result != null ? result : new File[0];
+	}
+
+	protected Set<String> names(String... names) {
+		Set<String> result = Sets.newHashSet();
+		for (String name : names) {
+			result.add(name + ".java");
+		}
+		return result;
+	}
+
+	protected void write(String name, String content) throws IOException {
+		Files.write("package p\n\n" + content, new File(SRC_DIRECTORY, "p/" + name + ".xtend"), Charsets.UTF_8);
+	}
+
+}
@@ -360,6 +360,30 @@ class TestBatchCompiler {
 		assertEquals(0, new File(OUTPUT_DIRECTORY + "/test").list[dir, name|name.endsWith("._trace")].size)
 	}
 
+	@Test
+	def void testCompileTestDataInParallel() {
+		batchCompiler.writeTraceFiles = true
+		assertTrue(batchCompiler.compile)
+		val serial = readGeneratedFiles
+		assertEquals(14, serial.size)
+		cleanFolder(new File(OUTPUT_DIRECTORY), null, true, false)
+		batchCompiler.numberOfThreads = 4
+		assertTrue(batchCompiler.compile)
+		val parallel = readGeneratedFiles
+		assertEquals(serial.keySet, parallel.keySet)
+		for (name : serial.keySet) {
+			assertArrayEquals(name, serial.get(name), parallel.get(name))
+		}
+	}
+
+	def private readGeneratedFiles() {
+		val result = <String, byte[]>newHashMap
+		for (file : new File(OUTPUT_DIRECTORY + "/test").listFiles) {
+			result.put(file.name, com.google.common.io.Files::toByteArray(file))
+		}
+		return result
+	}
+
 	@Test
 	def void tempDirectory() {
         batchCompiler.deleteTempDirectory = false
@@ -10,6 +10,7 @@ package org.eclipse.xtend.core.tests.compiler.batch;
 import com.google.inject.Inject;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.HashMap;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.eclipse.xtext.util.Files;
 import org.eclipse.xtext.xbase.file.ProjectConfig;
 import org.eclipse.xtext.xbase.file.RuntimeWorkspaceConfigProvider;
 import org.eclipse.xtext.xbase.file.WorkspaceConfig;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Conversions;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
@@ -834,6 +836,52 @@ public class TestBatchCompiler {
     Assert.assertEquals(0, _size_1);
   }
   
+  @Test
+  public void testCompileTestDataInParallel() {
+    try {
+      this.batchCompiler.setWriteTraceFiles(true);
+      boolean _compile = this.batchCompiler.compile();
+      Assert.assertTrue(_compile);
+      final HashMap<String,byte[]> serial = this.readGeneratedFiles();
+      int _size = serial.size();
+      Assert.assertEquals(14, _size);
+      File _file = new File(TestBatchCompiler.OUTPUT_DIRECTORY);
+      Files.cleanFolder(_file, null, true, false);
+      this.batchCompiler.setNumberOfThreads(4);
+      boolean _compile_1 = this.batchCompiler.compile();
+      Assert.assertTrue(_compile_1);
+      final HashMap<String,byte[]> parallel = this.readGeneratedFiles();
+      Set<String> _keySet = serial.keySet();
+      Set<String> _keySet_1 = parallel.keySet();
+      Assert.assertEquals(_keySet, _keySet_1);
+      Set<String> _keySet_2 = serial.keySet();
+      for (final String name : _keySet_2) {
+        byte[] _get = serial.get(name);
+        byte[] _get_1 = parallel.get(name);
+        Assert.assertArrayEquals(name, _get, _get_1);
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private HashMap<String,byte[]> readGeneratedFiles() {
+    try {
+      final HashMap<String,byte[]> result = CollectionLiterals.<String, byte[]>newHashMap();
+      String _plus = (TestBatchCompiler.OUTPUT_DIRECTORY + "/test");
+      File _file = new File(_plus);
+      File[] _listFiles = _file.listFiles();
+      for (final File file : _listFiles) {
+        String _name = file.getName();
+        byte[] _byteArray = com.google.common.io.Files.toByteArray(file);
+        result.put(_name, _byteArray);
+      }
+      return result;
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   @Test
   public void tempDirectory() {
     this.batchCompiler.setDeleteTempDirectory(false);
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.ide.tests.contentassist;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Set;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.xtend.caliper.tests.pipeline.SyntheticCorpus;
+import org.eclipse.xtend.core.XtendStandaloneSetup;
+import org.eclipse.xtend.ide.contentassist.antlr.PartialXtendContentAssistParser;
+import org.eclipse.xtend.ide.contentassist.antlr.XtendParser;
+import org.eclipse.xtend.ide.contentassist.antlr.internal.InternalXtendLexer;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.ui.LexerUIBindings;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.FollowElement;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.FollowElementCache;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.internal.Lexer;
+
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+import com.google.common.collect.Sets;
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+/**
+ * Measures the latency of the content assist parser for a completion request near the end of a large generated Xtend
+ * file. The content assist parser runs headless, so no workbench is required. The follow elements of the document
+ * prefix and of their lookahead are computed like the {@link
+ * org.eclipse.xtext.ui.editor.contentassist.antlr.ParserBasedContentAssistContextFactory.StatefulFactory
+ * StatefulFactory} does. {@link Mode#CACHED} repeats the request on an unchanged document, {@link Mode#MODIFIED}
+ * modifies the document before each request and {@link Mode#PARTIAL} modifies it, too, but parses the text of the
+ * enclosing block expression only.
+ *
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ContentAssistParserBenchmark extends SimpleBenchmark {
+
+	public enum Mode {
+		UNCACHED, CACHED, MODIFIED, PARTIAL
+	}
+
+	@Param({ "100", "1000" })
+	int members;
+
+	@Param
+	Mode mode;
+
+	private XtendParser parser;
+
+	private PartialXtendContentAssistParser partialParser;
+
+	private ICompositeNode entryNode;
+
+	private FollowElementCache cache;
+
+	private Document document;
+
+	private int offset;
+
+	@Override
+	protected void setUp() throws Exception {
+		Injector injector = new XtendStandaloneSetup().createInjectorAndDoEMFRegistration().createChildInjector(
+				new AbstractModule() {
+					@Override
+					protected void configure() {
+						bind(Lexer.class).annotatedWith(Names.named(LexerUIBindings.CONTENT_ASSIST)).to(
+								InternalXtendLexer.class);
+					}
+				});
+		parser = injector.getInstance(XtendParser.class);
+		partialParser = injector.getInstance(PartialXtendContentAssistParser.class);
+		cache = new FollowElementCache();
+		String content = new SyntheticCorpus(1, members).getXtendFiles().get(0);
+		document = new Document(content);
+		// complete the feature call on 's' in the last member
+		offset = content.lastIndexOf("s.toUpperCase") + 2;
+		ICompositeNode rootNode = injector.getInstance(IParser.class).parse(new StringReader(content)).getRootNode();
+		entryNode = cache.getEntryNode(rootNode, offset);
+		if (entryNode == null)
+			throw new IllegalStateException("No entry node for the partial parser at " + offset);
+	}
+
+	public int timeCompletion(int reps) throws BadLocationException {
+		int result = 0;
+		for (int i = 0; i < reps; i++) {
+			if (mode == Mode.MODIFIED || mode == Mode.PARTIAL) {
+				document.replace(0, 1, document.get(0, 1));
+			}
+			Set<FollowElement> visited = Sets.newHashSet();
+			for (FollowElement element : getFollowElements()) {
+				result += expand(element, visited);
+			}
+		}
+		return result;
+	}
+
+	protected Collection<FollowElement> getFollowElements() throws BadLocationException {
+		if (mode == Mode.UNCACHED)
+			return parser.getFollowElements(document.get(0, offset), false);
+		if (mode == Mode.PARTIAL)
+			return cache.getFollowElements(partialParser, entryNode, document, offset, false);
+		return cache.getFollowElements(parser, document, offset, false);
+	}
+
+	protected int expand(FollowElement element, Set<FollowElement> visited) {
+		if (!visited.add(element))
+			return 0;
+		if (element.getLookAhead() <= 1)
+			return 1;
+		Collection<FollowElement> followElements = mode == Mode.UNCACHED ? parser.getFollowElements(element) : cache
+				.getFollowElements(parser, document, element);
+		int result = 0;
+		for (FollowElement followElement : followElements) {
+			if (followElement.getLookAhead() != element.getLookAhead()
+					|| followElement.getGrammarElement() != element.getGrammarElement())
+				result += expand(followElement, visited);
+		}
+		return result;
+	}
+
+	public static void main(String[] args) {
+		Runner.main(ContentAssistParserBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtend.ide.tests.highlighting;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtend.core.tests.AbstractXtendTestCase;
+import org.eclipse.xtend.ide.highlighting.XtendHighlightingCalculator;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.HighlightingReconciler;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.IHighlightedPositionAcceptor;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.MergingHighlightedPositionAcceptor;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * Tests that the incremental highlighting of the {@link XtendHighlightingCalculator} equals the highlighting of the
+ * whole resource within the returned region, and that changes which may affect other members are highlighted
+ * completely.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class XtendIncrementalHighlightingTest extends AbstractXtendTestCase {
+
+	private static class TestedHighlightingReconciler extends HighlightingReconciler {
+		@Override
+		public Collection<EObject> getReparsedElements(XtextResource resource, ReplaceRegion region) {
+			return super.getReparsedElements(resource, region);
+		}
+	}
+
+	private static final String MODEL = 
+			"class Foo {\n" +
+			"  val inferred = 'inferred'\n" +
+			"  String declared = 'declared'\n" +
+			"  def String declaredReturnType() {\n" +
+			"    val x = newArrayList('a')\n" +
+			"    x.size.toString + '''\u00ABdeclared\u00BB'''\n" +
+			"  }\n" +
+			"  def inferredReturnType() {\n" +
+			"    declaredReturnType.length\n" +
+			"  }\n" +
+			"  @Deprecated def String annotated() { null }\n" +
+			"}";
+
+	@Inject
+	private XtendHighlightingCalculator calculator;
+
+	@Override
+	protected XtextResourceSet getResourceSet() {
+		XtextResourceSet result = super.getResourceSet();
+		result.setClasspathURIContext(getClass().getClassLoader());
+		return result;
+	}
+
+	@Test public void testEditLiteralInMethodBody() throws Exception {
+		assertIncrementalEqualsFull("'a'", "'b', 'c'");
+	}
+
+	@Test public void testEditFeatureCallInMethodBody() throws Exception {
+		assertIncrementalEqualsFull("x.size.toString", "x.head.toUpperCase");
+	}
+
+	@Test public void testEditRichStringInMethodBody() throws Exception {
+		assertIncrementalEqualsFull("'''\u00ABdeclared\u00BB'''", "'''\u00ABdeclared\u00BB \u00ABx\u00BB'''");
+	}
+
+	@Test public void testEditInitializerOfDeclaredField() throws Exception {
+		assertIncrementalEqualsFull("'declared'", "'changed'");
+	}
+
+	@Test public void testEditInitializerOfInferredField() throws Exception {
+		assertFullHighlightingRequired("'inferred'", "1");
+	}
+
+	@Test public void testEditBodyOfInferredReturnType() throws Exception {
+		assertFullHighlightingRequired("declaredReturnType.length", "declaredReturnType");
+	}
+
+	@Test public void testEditMethodDeclaration() throws Exception {
+		assertFullHighlightingRequired("declaredReturnType()", "renamed()");
+	}
+
+	@Test public void testEditFieldDeclaration() throws Exception {
+		assertFullHighlightingRequired("String declared", "CharSequence declared");
+	}
+
+	@Test public void testEditAnnotation() throws Exception {
+		assertFullHighlightingRequired("@Deprecated", "@SuppressWarnings('all')");
+	}
+
+	protected void assertIncrementalEqualsFull(String replaced, String replacement) throws Exception {
+		ReplaceRegion region = new ReplaceRegion(MODEL.indexOf(replaced), replaced.length(), replacement);
+		XtextResource resource = update(region);
+		Collection<EObject> reparsedElements = new TestedHighlightingReconciler().getReparsedElements(resource, region);
+		assertNotNull(reparsedElements);
+		List<String> incremental = Lists.newArrayList();
+		ITextRegion highlightedRegion = new MergingHighlightedPositionAcceptor(calculator).provideHighlightingFor(
+				resource, region, reparsedElements, collect(incremental, null));
+		assertNotNull(highlightedRegion);
+		assertTrue(highlightedRegion.getOffset() <= region.getOffset());
+		assertTrue(highlightedRegion.getOffset() + highlightedRegion.getLength() >= region.getOffset()
+				+ replacement.length());
+		List<String> full = Lists.newArrayList();
+		new MergingHighlightedPositionAcceptor(calculator).provideHighlightingFor(resource,
+				collect(full, highlightedRegion));
+		assertFalse(full.isEmpty());
+		assertEquals(full, incremental);
+	}
+
+	protected void assertFullHighlightingRequired(String replaced, String replacement) throws Exception {
+		ReplaceRegion region = new ReplaceRegion(MODEL.indexOf(replaced), replaced.length(), replacement);
+		XtextResource resource = update(region);
+		Collection<EObject> reparsedElements = new TestedHighlightingReconciler().getReparsedElements(resource, region);
+		if (reparsedElements != null) {
+			List<String> incremental = Lists.newArrayList();
+			assertNull(new MergingHighlightedPositionAcceptor(calculator).provideHighlightingFor(resource, region,
+					reparsedElements, collect(incremental, null)));
+			assertTrue(incremental.isEmpty());
+		}
+	}
+
+	protected XtextResource update(ReplaceRegion region) throws Exception {
+		XtextResource resource = (XtextResource) file(MODEL).eResource();
+		resource.update(region.getOffset(), region.getLength(), region.getText());
+		assertTrue(resource.getErrors().toString(), resource.getErrors().isEmpty());
+		return resource;
+	}
+
+	/**
+	 * Collects the positions within the given region or all positions if the region is <code>null</code>.
+	 */
+	protected IHighlightedPositionAcceptor collect(final List<String> result, final ITextRegion region) {
+		return new IHighlightedPositionAcceptor() {
+			public void addPosition(int offset, int length, String... ids) {
+				if (region == null
+						|| (offset >= region.getOffset() && offset + length <= region.getOffset() + region.getLength()))
+					result.add(offset + ":" + length + ":" + Lists.newArrayList(ids));
+			}
+		};
+	}
+
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.builder.tests.BuilderTestLanguageStandaloneSetup;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.OutputConfiguration;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class IncrementalStandaloneBuildTest {
+
+	public static class RecordingStandaloneBuilder extends StandaloneBuilder {
+
+		private Set<String> generated = Sets.newHashSet();
+
+		@Override
+		protected void generateFiles(List<Resource> sourceResources) {
+			for (Resource resource : sourceResources) {
+				generated.add(resource.getURI().lastSegment());
+			}
+		}
+
+		public Set<String> getGenerated() {
+			return generated;
+		}
+	}
+
+	private static Injector injector;
+
+	private static IResourceServiceProvider resourceServiceProvider;
+
+	private File tempDir;
+
+	private File sourceDir;
+
+	@BeforeClass
+	public static void setUpOnce() {
+		injector = Guice.createInjector(new StandaloneBuilderModule());
+		resourceServiceProvider = new BuilderTestLanguageStandaloneSetup().createInjectorAndDoEMFRegistration()
+				.getInstance(IResourceServiceProvider.class);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDir();
+		sourceDir = new File(tempDir, "src");
+		sourceDir.mkdirs();
+		// c refers to b, b refers to a, d is independent
+		write("a", "namespace a { object A }");
+		write("b", "namespace b { object B references a.A }");
+		write("c", "namespace c { object C references b.B }");
+		write("d", "namespace d { object D }");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		assertTrue(org.eclipse.xtext.util.Files.sweepFolder(tempDir));
+		tempDir.delete();
+	}
+
+	@Test public void testFullBuildWithoutState() throws IOException {
+		assertEquals(names("a", "b", "c", "d"), build());
+	}
+
+	@Test public void testUpToDate() throws IOException {
+		build();
+		assertEquals(names(), build());
+	}
+
+	@Test public void testChangeWithoutExportedChanges() throws IOException {
+		build();
+		write("d", "namespace d { object D otherRefs a.A }");
+		assertEquals(names("d"), build());
+	}
+
+	@Test public void testChangeOfExportedObjects() throws IOException {
+		build();
+		write("a", "namespace a { object A object A2 }");
+		assertEquals(names("a", "b"), build());
+		assertEquals(names(), build());
+	}
+
+	@Test public void testDelete() throws IOException {
+		build();
+		assertTrue(new File(sourceDir, "d.buildertestlanguage").delete());
+		assertEquals(names(), build());
+	}
+
+	@Test public void testAdd() throws IOException {
+		build();
+		write("e", "namespace e { object E references c.C }");
+		assertEquals(names("e"), build());
+	}
+
+	@Test public void testChangedEnvironment() throws IOException {
+		build();
+		assertEquals(names("a", "b", "c", "d"), build("ISO-8859-1"));
+	}
+
+	protected Set<String> build() throws IOException {
+		return build("UTF-8");
+	}
+
+	/**
+	 * @return the names of the files that were generated.
+	 */
+	protected Set<String> build(String encoding) throws IOException {
+		OutputConfiguration output = new OutputConfiguration(IFileSystemAccess.DEFAULT_OUTPUT);
+		output.setOutputDirectory(new File(tempDir, "out").getAbsolutePath());
+		LanguageAccess language = new LanguageAccess(Collections.singleton(output), resourceServiceProvider, tempDir);
+		RecordingStandaloneBuilder builder = injector.getInstance(RecordingStandaloneBuilder.class);
+		builder.setLanguages(Collections.singletonMap("buildertestlanguage", language));
+		builder.setSourceDirs(Collections.singletonList(sourceDir.getAbsolutePath()));
+		builder.setClassPathEntries(Collections.<String> emptyList());
+		builder.setTempDir(new File(tempDir, "temp"));
+		builder.setEncoding(encoding);
+		builder.setBuildStateFile(new File(tempDir, "build.state").getAbsolutePath());
+		assertTrue(builder.launch());
+		return builder.getGenerated();
+	}
+
+	protected Set<String> names(String... names) {
+		Set<String> result = Sets.newHashSet();
+		for (String name : names) {
+			result.add(name + ".buildertestlanguage");
+		}
+		return result;
+	}
+
+	protected void write(String name, String content) throws IOException {
+		Files.write(content, new File(sourceDir, name + ".buildertestlanguage"), Charsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.standalone;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.xtext.builder.tests.BuilderTestLanguageStandaloneSetup;
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.eclipse.xtext.generator.OutputConfiguration;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class ParallelStandaloneBuildTest {
+
+	private static Injector injector;
+
+	private static IResourceServiceProvider resourceServiceProvider;
+
+	private File tempDir;
+
+	private File sourceDir;
+
+	@BeforeClass
+	public static void setUpOnce() {
+		injector = Guice.createInjector(new StandaloneBuilderModule());
+		resourceServiceProvider = new BuilderTestLanguageStandaloneSetup().createInjectorAndDoEMFRegistration()
+				.getInstance(IResourceServiceProvider.class);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDir();
+		sourceDir = new File(tempDir, "src");
+		sourceDir.mkdirs();
+		for (int i = 0; i < 20; i++) {
+			Files.write("object Element" + i, new File(sourceDir, "Element" + i + ".buildertestlanguage"),
+					Charsets.UTF_8);
+		}
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		assertTrue(org.eclipse.xtext.util.Files.sweepFolder(tempDir));
+		tempDir.delete();
+	}
+
+	@Test
+	public void testParallelBuildEqualsSerialBuild() throws IOException {
+		Map<String, byte[]> serial = build(1, "serial");
+		assertEquals(20, serial.size());
+		Map<String, byte[]> parallel = build(4, "parallel");
+		assertEquals(serial.keySet(), parallel.keySet());
+		for (Map.Entry<String, byte[]> file : serial.entrySet()) {
+			assertArrayEquals(file.getKey(), file.getValue(), parallel.get(file.getKey()));
+		}
+	}
+
+	private Map<String, byte[]> build(int numberOfThreads, String name) throws IOException {
+		File outputDir = new File(tempDir, name);
+		OutputConfiguration output = new OutputConfiguration(IFileSystemAccess.DEFAULT_OUTPUT);
+		output.setOutputDirectory(outputDir.getAbsolutePath());
+		LanguageAccess language = new LanguageAccess(Collections.singleton(output), resourceServiceProvider, tempDir);
+		StandaloneBuilder builder = injector.getInstance(StandaloneBuilder.class);
+		builder.setLanguages(Collections.singletonMap("buildertestlanguage", language));
+		builder.setSourceDirs(Collections.singletonList(sourceDir.getAbsolutePath()));
+		builder.setClassPathEntries(Collections.<String> emptyList());
+		builder.setTempDir(new File(tempDir, name + "-temp"));
+		builder.setEncoding("UTF-8");
+		builder.setNumberOfThreads(numberOfThreads);
+		assertTrue(builder.launch());
+		Map<String, byte[]> result = Maps.newTreeMap();
+		for (File file : outputDir.listFiles()) {
+			result.put(file.getName(), Files.toByteArray(file));
+		}
+		return result;
+	}
+
+}
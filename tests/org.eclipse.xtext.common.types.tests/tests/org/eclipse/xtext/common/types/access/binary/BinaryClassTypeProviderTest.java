@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.binary;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.common.types.access.impl.AbstractTypeProviderTest;
+import org.eclipse.xtext.common.types.access.impl.ClassURIHelper;
+import org.eclipse.xtext.common.types.access.impl.DeclaredTypeFactory;
+import org.eclipse.xtext.common.types.access.impl.IndexedJvmTypeAccess;
+import org.eclipse.xtext.common.types.xtext.ui.RefactoringTestLanguageInjectorProvider;
+import org.eclipse.xtext.junit4.InjectWith;
+import org.eclipse.xtext.junit4.XtextRunner;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(RefactoringTestLanguageInjectorProvider.class)
+public class BinaryClassTypeProviderTest extends AbstractTypeProviderTest {
+
+	@Inject
+	private ResourceSet resourceSet;
+
+	@Inject
+	private IndexedJvmTypeAccess indexedJvmTypeAccess;
+
+	private BinaryClassTypeProvider typeProvider;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		typeProvider = new BinaryClassTypeProvider(new BinaryClassFinder(getClass().getClassLoader()), resourceSet,
+				indexedJvmTypeAccess);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		typeProvider = null;
+	}
+
+	@Test public void testSameStructureAsReflection_01() {
+		assertSameStructure(java.util.Map.class);
+	}
+
+	@Test public void testSameStructureAsReflection_02() {
+		assertSameStructure(java.util.Collections.class);
+	}
+
+	@Test public void testSameStructureAsReflection_03() {
+		assertSameStructure(java.lang.annotation.Retention.class);
+	}
+
+	@Test public void testSameStructureAsReflection_04() {
+		assertSameStructure(java.lang.annotation.ElementType.class);
+	}
+
+	@Test public void testSameStructureAsReflection_05() {
+		assertSameStructure(java.util.concurrent.ConcurrentHashMap.class);
+	}
+
+	@Test public void testSharedFinder() {
+		BinaryClassTypeProviderFactory factory = new BinaryClassTypeProviderFactory(getClass().getClassLoader());
+		BinaryClassFinder finder = factory.getFinder(getClass().getClassLoader());
+		assertSame(finder, factory.getFinder(getClass().getClassLoader()));
+		BinaryClass binaryClass = finder.find("java.lang.String");
+		assertNotNull(binaryClass);
+		assertSame(binaryClass, finder.find("java.lang.String"));
+		assertNull(finder.find("does.not.Exist"));
+	}
+
+	/**
+	 * Compares the identifiers of all elements and the URIs of all referenced types with the ones
+	 * that are produced by reflection. Reflection does not preserve the declaration order of members,
+	 * thus the elements are sorted.
+	 */
+	protected void assertSameStructure(Class<?> clazz) {
+		JvmDeclaredType reflected = new DeclaredTypeFactory(new ClassURIHelper()).createType(clazz);
+		JvmDeclaredType binary = typeProvider.getTypeFactory().createType(
+				typeProvider.getFinder().find(clazz.getName()));
+		assertEquals(toString(reflected), toString(binary));
+	}
+
+	protected String toString(JvmDeclaredType type) {
+		List<String> lines = Lists.newArrayList();
+		Iterator<EObject> iter = EcoreUtil.getAllContents(type, false);
+		while(iter.hasNext()) {
+			EObject next = iter.next();
+			StringBuilder result = new StringBuilder();
+			result.append(next.eClass().getName());
+			if (next instanceof JvmIdentifiableElement && !next.eIsProxy()) {
+				result.append(' ').append(((JvmIdentifiableElement) next).getIdentifier());
+			}
+			for(EObject referenced: next.eCrossReferences()) {
+				result.append(' ').append(EcoreUtil.getURI(referenced));
+			}
+			lines.add(result.toString());
+		}
+		Collections.sort(lines);
+		return Joiner.on('\n').join(lines);
+	}
+
+	@Override
+	public BinaryClassTypeProvider getTypeProvider() {
+		return typeProvider;
+	}
+
+	@Override
+	protected String getCollectionParamName() {
+		return "arg0";
+	}
+
+}
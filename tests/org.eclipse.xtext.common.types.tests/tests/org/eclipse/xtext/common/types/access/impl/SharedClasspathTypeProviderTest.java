@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.common.types.access.impl;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.xtext.common.types.JvmDeclaredType;
+import org.eclipse.xtext.common.types.JvmMember;
+import org.eclipse.xtext.common.types.access.SharedClasspathTypeProviderFactory;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class SharedClasspathTypeProviderTest extends ClasspathTypeProviderTest {
+
+	@Inject
+	private SharedClasspathTypeProviderFactory typeProviderFactory;
+	
+	@Override
+	protected ClasspathTypeProvider createTypeProvider() {
+		return typeProviderFactory.createTypeProvider(getResourceSet());
+	}
+	
+	@Test public void testSharedTemplateIsCopied() {
+		SharedJvmTypeCache cache = typeProviderFactory.getCache();
+		String key = cache.getKey(String.class);
+		assertNotNull(key);
+		JvmDeclaredType first = cache.getType(key, String.class);
+		JvmDeclaredType second = cache.getType(key, String.class);
+		assertNotSame(first, second);
+		assertNull(first.eResource());
+		assertEquals(first.getIdentifier(), second.getIdentifier());
+		assertEquals(first.getMembers().size(), second.getMembers().size());
+	}
+	
+	@Test public void testConcurrentCopies() throws Exception {
+		final SharedJvmTypeCache cache = new SharedJvmTypeCache();
+		final String key = cache.getKey(String.class);
+		assertNotNull(key);
+		int threads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<JvmDeclaredType>> copies = Lists.newArrayList();
+			for (int i = 0; i < threads; i++) {
+				copies.add(executor.submit(new Callable<JvmDeclaredType>() {
+					public JvmDeclaredType call() throws Exception {
+						start.await();
+						return cache.getType(key, String.class);
+					}
+				}));
+			}
+			start.countDown();
+			List<String> expected = getMemberIdentifiers(new SharedJvmTypeCache().getType(key, String.class));
+			List<JvmDeclaredType> seen = Lists.newArrayList();
+			for (Future<JvmDeclaredType> copy : copies) {
+				JvmDeclaredType type = copy.get();
+				for (JvmDeclaredType other : seen)
+					assertNotSame(other, type);
+				seen.add(type);
+				assertEquals(expected, getMemberIdentifiers(type));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private List<String> getMemberIdentifiers(JvmDeclaredType type) {
+		List<String> result = Lists.newArrayList();
+		for (JvmMember member : type.getMembers())
+			result.add(member.getIdentifier());
+		return result;
+	}
+	
+	@Test public void testKeys() throws Exception {
+		SharedJvmTypeCache cache = new SharedJvmTypeCache();
+		assertNull(cache.getKey(new URL("file:/some/folder/foo/Bar.class"), "foo.Bar"));
+		assertNull(cache.getKey(new URL("jar:file:/does/not/exist.jar!/foo/Bar.class"), "foo.Bar"));
+		assertNull(cache.getKey(getClass()));
+	}
+	
+}
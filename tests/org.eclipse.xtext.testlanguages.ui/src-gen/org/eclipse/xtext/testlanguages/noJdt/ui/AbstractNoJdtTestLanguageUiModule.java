@@ -183,6 +183,11 @@ public abstract class AbstractNoJdtTestLanguageUiModule extends DefaultUiModule
 		return org.eclipse.xtext.testlanguages.noJdt.ui.contentassist.antlr.PartialNoJdtTestLanguageContentAssistParser.class;
 	}
 
+	// contributed by org.eclipse.xtext.ui.generator.templates.CodetemplatesGeneratorFragment
+	public void configureContentAssistPartialParser(com.google.inject.Binder binder) {
+		binder.bind(org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser.class).to(org.eclipse.xtext.testlanguages.noJdt.ui.contentassist.antlr.PartialNoJdtTestLanguageContentAssistParser.class);
+	}
+
 	// contributed by org.eclipse.xtext.ui.generator.compare.CompareFragment
 	public Class<? extends org.eclipse.compare.IViewerCreator> bindIViewerCreator() {
 		return org.eclipse.xtext.ui.compare.DefaultViewerCreator.class;
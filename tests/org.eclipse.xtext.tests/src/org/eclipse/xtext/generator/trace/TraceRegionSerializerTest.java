@@ -7,17 +7,28 @@
  *******************************************************************************/
 package org.eclipse.xtext.generator.trace;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 
+import org.eclipse.emf.common.util.URI;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * @author Moritz Eysholdt - Initial contribution and API
  */
 public class TraceRegionSerializerTest {
 
+	private static final URI FOO = URI.createURI("platform:/resource/project/src/pack/Foo.xtend");
+
+	private static final URI BAR = URI.createURI("platform:/resource/project/src/pack/Bar.xtend");
+
 	@Test
 	public void testReadTraceVersion3() throws IOException {
 		TraceRegionSerializer serializer = new TraceRegionSerializer();
@@ -30,4 +41,112 @@ public class TraceRegionSerializerTest {
 		Assert.assertEquals(2, traceRegion.getNestedRegions().get(0).getNestedRegions().size());
 	}
 
+	@Test
+	public void testIndexedFormat() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		AbstractTraceRegion expected = createTrace(5, 3);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.writeTraceRegionTo(expected, out);
+		AbstractTraceRegion actual = serializer.readTraceRegionFrom(new ByteArrayInputStream(out.toByteArray()));
+		Assert.assertTrue(actual instanceof IndexedTraceRegion);
+		assertEqualRegions(expected, actual);
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(Lists.newArrayList(expected.leafIterator()), Lists.newArrayList(actual.leafIterator()));
+		AbstractTraceRegion nested = actual.getNestedRegions().get(2).getNestedRegions().get(0);
+		Assert.assertEquals(BAR, nested.getAssociatedPath());
+		Assert.assertEquals(FOO, nested.getParent().getAssociatedPath());
+	}
+
+	@Test
+	public void testIndexedFormatFromBuffer() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		AbstractTraceRegion expected = createTrace(3, 2);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(new byte[] { 1, 2, 3 });
+		serializer.writeTraceRegionTo(expected, out);
+		ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+		buffer.position(3);
+		assertEqualRegions(expected, serializer.readTraceRegionFrom(buffer));
+		Assert.assertEquals(3, buffer.position());
+	}
+
+	@Test
+	public void testIndexedFormatWithStrategy() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		AbstractTraceRegion expected = createTrace(4, 4);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.writeTraceRegionTo(expected, out);
+		AbstractTraceRegion actual = serializer.doReadFrom(new ByteArrayInputStream(out.toByteArray()),
+				new TraceRegionSerializer.IdentityStrategy());
+		Assert.assertTrue(actual instanceof TraceRegion);
+		assertEqualRegions(expected, actual);
+	}
+
+	@Test
+	public void testVersion4() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		AbstractTraceRegion expected = createTrace(4, 2);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.doWriteTo(new TraceRegionSerializer.IdentityStrategy(), expected, out);
+		assertEqualRegions(expected, serializer.readTraceRegionFrom(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	public void testNoRegion() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.writeTraceRegionTo(null, out);
+		Assert.assertNull(serializer.readTraceRegionFrom(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	public void testIndexedFormatIsSmaller() throws IOException {
+		TraceRegionSerializer serializer = new TraceRegionSerializer();
+		AbstractTraceRegion region = createTrace(100, 10);
+		ByteArrayOutputStream indexed = new ByteArrayOutputStream();
+		serializer.writeTraceRegionTo(region, indexed);
+		ByteArrayOutputStream version4 = new ByteArrayOutputStream();
+		serializer.doWriteTo(new TraceRegionSerializer.IdentityStrategy(), region, version4);
+		Assert.assertTrue(indexed.size() + " vs " + version4.size(), indexed.size() < version4.size());
+	}
+
+	/**
+	 * Creates a root region with the given number of nested regions that contain the given number of
+	 * nested regions each. Every region spans its own lines.
+	 */
+	public static AbstractTraceRegion createTrace(int children, int grandChildren) {
+		TraceRegion root = new TraceRegion(0, children * grandChildren * 10, 0, children * grandChildren, 0, 1000, 0, 100, null, FOO);
+		for (int i = 0; i < children; i++) {
+			int offset = i * grandChildren * 10;
+			int line = i * grandChildren;
+			TraceRegion child = new TraceRegion(offset, grandChildren * 10, line, line + grandChildren - 1, 10 * i, 10, i, i, root, FOO);
+			for (int j = 0; j < grandChildren; j++) {
+				URI path = i % 2 == 0 && j == 0 ? BAR : null;
+				new TraceRegion(offset + j * 10 + 2, 5, line + j, line + j, 10 * i + j, 1, i, i, child, path);
+			}
+		}
+		return root;
+	}
+
+	protected void assertEqualRegions(AbstractTraceRegion expected, AbstractTraceRegion actual) {
+		Assert.assertEquals(expected.getMyOffset(), actual.getMyOffset());
+		Assert.assertEquals(expected.getMyLength(), actual.getMyLength());
+		Assert.assertEquals(expected.getMyLineNumber(), actual.getMyLineNumber());
+		Assert.assertEquals(expected.getMyEndLineNumber(), actual.getMyEndLineNumber());
+		List<ILocationData> expectedLocations = expected.getAssociatedLocations();
+		List<ILocationData> actualLocations = actual.getAssociatedLocations();
+		Assert.assertEquals(expectedLocations, actualLocations);
+		for (int i = 0; i < expectedLocations.size(); i++) {
+			Assert.assertEquals(expectedLocations.get(i).getLineNumber(), actualLocations.get(i).getLineNumber());
+			Assert.assertEquals(expectedLocations.get(i).getEndLineNumber(), actualLocations.get(i).getEndLineNumber());
+		}
+		List<AbstractTraceRegion> expectedChildren = expected.getNestedRegions();
+		List<AbstractTraceRegion> actualChildren = actual.getNestedRegions();
+		Assert.assertEquals(expectedChildren.size(), actualChildren.size());
+		for (int i = 0; i < expectedChildren.size(); i++) {
+			Assert.assertSame(actual, actualChildren.get(i).getParent());
+			assertEqualRegions(expectedChildren.get(i), actualChildren.get(i));
+		}
+	}
+
 }
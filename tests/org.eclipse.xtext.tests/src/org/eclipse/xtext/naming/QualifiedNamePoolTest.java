@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class QualifiedNamePoolTest extends Assert {
+
+	@Test public void testIntern() {
+		QualifiedNamePool pool = new QualifiedNamePool();
+		QualifiedName name = pool.create("org", "Foo");
+		assertSame(name, pool.intern(QualifiedName.create("org", "Foo")));
+		assertSame(name, pool.intern(name));
+		assertEquals(QualifiedName.create("org", "Foo"), name);
+		assertEquals(name.hashCode(), QualifiedName.create("org", "Foo").hashCode());
+		assertSame(QualifiedName.EMPTY, pool.create());
+	}
+
+	@Test public void testSharedSegments() {
+		QualifiedNamePool pool = new QualifiedNamePool();
+		QualifiedName first = pool.create(new String("org"), "Foo");
+		QualifiedName second = pool.create(new String("org"), "Bar");
+		assertSame(first.getFirstSegment(), second.getFirstSegment());
+	}
+
+	@Test public void testToLowerCase() {
+		QualifiedNamePool pool = new QualifiedNamePool();
+		QualifiedName name = pool.create("org", "Foo");
+		QualifiedName lowerCase = name.toLowerCase();
+		assertEquals(QualifiedName.create("org", "foo"), lowerCase);
+		assertSame(lowerCase, name.toLowerCase());
+		assertSame(lowerCase, pool.create("org", "foo"));
+		assertSame(lowerCase, lowerCase.toLowerCase());
+		assertSame(lowerCase.getFirstSegment(), name.getFirstSegment());
+	}
+
+	@Test public void testLowerCaseNameIsItsOwnLowerCase() {
+		QualifiedName name = QualifiedName.create("org", "foo");
+		assertSame(name, name.toLowerCase());
+		QualifiedName mixed = QualifiedName.create("org", "Foo", "bar");
+		assertEquals(QualifiedName.create("org", "foo", "bar"), mixed.toLowerCase());
+		assertSame(mixed.toLowerCase(), mixed.toLowerCase().toLowerCase());
+	}
+
+	@Test public void testInterningConverter() {
+		Injector injector = Guice.createInjector();
+		IQualifiedNameConverter converter = injector.getInstance(IQualifiedNameConverter.InterningImpl.class);
+		QualifiedName name = converter.toQualifiedName("org.Foo");
+		assertSame(name, converter.toQualifiedName("org.Foo"));
+		assertSame(name, injector.getInstance(QualifiedNamePool.class).create("org", "Foo"));
+		assertEquals("org.Foo", converter.toString(name));
+	}
+
+}
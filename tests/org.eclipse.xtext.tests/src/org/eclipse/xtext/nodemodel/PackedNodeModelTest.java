@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
+import org.eclipse.xtext.nodemodel.impl.PackedCompositeNode;
+import org.eclipse.xtext.nodemodel.impl.PackedNodeModelBuilder;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.testlanguages.ReferenceGrammarTestLanguageRuntimeModule;
+import org.eclipse.xtext.testlanguages.ReferenceGrammarTestLanguageStandaloneSetup;
+import org.eclipse.xtext.testlanguages.SimpleExpressionsTestLanguageRuntimeModule;
+import org.eclipse.xtext.testlanguages.SimpleExpressionsTestLanguageStandaloneSetup;
+import org.eclipse.xtext.testlanguages.referenceGrammar.Familie;
+import org.eclipse.xtext.testlanguages.referenceGrammar.Spielplatz;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class PackedNodeModelTest extends AbstractXtextTests {
+
+	private IParser defaultParser;
+
+	@Override
+	protected boolean shouldTestSerializer(XtextResource resource) {
+		return false;
+	}
+
+	protected void withSimpleExpressions() throws Exception {
+		with(new SimpleExpressionsTestLanguageStandaloneSetup() {
+			@Override
+			public Injector createInjector() {
+				return Guice.createInjector(new SimpleExpressionsTestLanguageRuntimeModule() {
+					@SuppressWarnings("unused")
+					public Class<? extends NodeModelBuilder> bindNodeModelBuilder() {
+						return PackedNodeModelBuilder.class;
+					}
+				});
+			}
+		});
+		defaultParser = new SimpleExpressionsTestLanguageStandaloneSetup().createInjector().getInstance(IParser.class);
+	}
+
+	protected void withReferenceGrammar() throws Exception {
+		with(new ReferenceGrammarTestLanguageStandaloneSetup() {
+			@Override
+			public Injector createInjector() {
+				return Guice.createInjector(new ReferenceGrammarTestLanguageRuntimeModule() {
+					@SuppressWarnings("unused")
+					public Class<? extends NodeModelBuilder> bindNodeModelBuilder() {
+						return PackedNodeModelBuilder.class;
+					}
+				});
+			}
+		});
+		defaultParser = new ReferenceGrammarTestLanguageStandaloneSetup().createInjector().getInstance(IParser.class);
+	}
+
+	@Test public void testFoldedGrammarElements() throws Exception {
+		withSimpleExpressions();
+		assertSameNodeModel("a + b * (c - d) / e f");
+	}
+
+	@Test public void testHiddenTokens() throws Exception {
+		withSimpleExpressions();
+		assertSameNodeModel("  a\n+ // comment\n b\t*\r\n(c)  ");
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		withSimpleExpressions();
+		IParseResult parseResult = assertSameNodeModel("a + * b (");
+		assertTrue(parseResult.hasSyntaxErrors());
+		assertFalse(Iterables.isEmpty(parseResult.getSyntaxErrors()));
+	}
+
+	@Test public void testEmptyDocument() throws Exception {
+		withSimpleExpressions();
+		assertSameNodeModel("");
+		assertSameNodeModel("  ");
+	}
+
+	@Test public void testReferenceGrammar() throws Exception {
+		withReferenceGrammar();
+		assertSameNodeModel("spielplatz 1 \"Platz\" {\n kind ( Bob 0 ) erwachsener ( Carl 2 )\n erwachsener ( Dora 2 )\n"
+				+ " familie ( keyword Carl Dora Bob ) spielzeug ( Ball ROT )\n}");
+	}
+
+	@Test public void testLargeModel() throws Exception {
+		withReferenceGrammar();
+		int elements = 200;
+		StringBuilder model = new StringBuilder(elements * 128);
+		model.append("spielplatz " + elements + " {\n");
+		for (int i = 1; i <= elements; i++) {
+			model.append("  kind (Bob" + i + " " + i + ")\n");
+			model.append("  kind (Joe" + i + " " + i + ")\n");
+			model.append("  erwachsener (Mutter" + i + " " + i + ")\n");
+			model.append("  erwachsener (Vater" + i + " " + i + ")\n");
+			model.append("  familie(Familie" + i + " Vater" + i + " Mutter" + i + " Bob" + i + ", Joe" + i + ")\n");
+			model.append("  spielzeug (Ball" + i + " ROT) // comment\n");
+		}
+		model.append('}');
+		IParseResult actual = assertSameNodeModel(model.toString());
+		IParseResult expected = defaultParser.parse(new StringReader(model.toString()));
+		assertEquals(Iterables.size(expected.getRootNode().getAsTreeIterable()),
+				Iterables.size(actual.getRootNode().getAsTreeIterable()));
+		assertEquals(Iterables.size(expected.getRootNode().getLeafNodes()),
+				Iterables.size(actual.getRootNode().getLeafNodes()));
+		for (INode node : actual.getRootNode().getAsTreeIterable()) {
+			if (node instanceof ICompositeNode) {
+				assertTrue(node instanceof PackedCompositeNode);
+			}
+		}
+	}
+
+	@Test public void testSemanticElements() throws Exception {
+		withReferenceGrammar();
+		String model = "spielplatz 1 { kind ( Bob 0 ) erwachsener ( Carl 2 ) erwachsener ( Dora 2 ) familie ( f Carl Dora Bob ) }";
+		XtextResource resource = getResourceFromString(model);
+		assertTrue(resource.getErrors().toString(), resource.getErrors().isEmpty());
+		Spielplatz spielplatz = (Spielplatz) resource.getContents().get(0);
+		assertSame(resource.getParseResult().getRootNode(), NodeModelUtils.getNode(spielplatz));
+		Familie familie = spielplatz.getFamilie().get(0);
+		assertEquals("Carl", familie.getMutter().getName());
+		assertEquals("Dora", familie.getVater().getName());
+		assertEquals("Bob", familie.getKinder().get(0).getName());
+		ICompositeNode node = NodeModelUtils.getNode(familie);
+		assertTrue(node instanceof PackedCompositeNode);
+		assertEquals("familie ( f Carl Dora Bob )", node.getText().trim());
+		assertSame(familie, node.getSemanticElement());
+		assertEquals(node, NodeModelUtils.findActualNodeFor(familie));
+		int offset = model.indexOf("Dora Bob");
+		ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(resource.getParseResult().getRootNode(), offset);
+		assertEquals("Dora", leaf.getText());
+		assertEquals(node, leaf.getParent());
+		assertSame(familie, NodeModelUtils.findActualSemanticObjectFor(leaf));
+		assertEquals(1, NodeModelUtils.findNodesForFeature(familie, familie.eClass().getEStructuralFeature("vater"))
+				.size());
+	}
+
+	@Test public void testUpdate() throws Exception {
+		withReferenceGrammar();
+		String model = "spielplatz 1 { kind ( Bob 0 ) }";
+		XtextResource resource = getResourceFromString(model);
+		resource.update(model.indexOf("Bob"), 3, "Alice");
+		Spielplatz spielplatz = (Spielplatz) resource.getContents().get(0);
+		assertEquals("Alice", spielplatz.getKinder().get(0).getName());
+		assertEquals("spielplatz 1 { kind ( Alice 0 ) }", resource.getParseResult().getRootNode().getText());
+		assertTrue(resource.getParseResult().getRootNode() instanceof PackedCompositeNode);
+	}
+
+	protected IParseResult assertSameNodeModel(String model) throws Exception {
+		IParseResult expected = defaultParser.parse(new StringReader(model));
+		IParseResult actual = getParser().parse(new StringReader(model));
+		assertTrue(actual.getRootNode() instanceof PackedCompositeNode);
+		assertEquals(expected.hasSyntaxErrors(), actual.hasSyntaxErrors());
+		assertEquals(Iterables.size(expected.getSyntaxErrors()), Iterables.size(actual.getSyntaxErrors()));
+		assertEqualNodes(expected.getRootNode(), actual.getRootNode());
+		Iterator<INode> expectedIterator = expected.getRootNode().getAsTreeIterable().reverse().iterator();
+		Iterator<INode> actualIterator = actual.getRootNode().getAsTreeIterable().reverse().iterator();
+		while (expectedIterator.hasNext()) {
+			assertEqualNodeProperties(expectedIterator.next(), actualIterator.next());
+		}
+		assertFalse(actualIterator.hasNext());
+		for (int offset = 0; offset < model.length(); offset++) {
+			assertEqualNodeProperties(NodeModelUtils.findLeafNodeAtOffset(expected.getRootNode(), offset),
+					NodeModelUtils.findLeafNodeAtOffset(actual.getRootNode(), offset));
+		}
+		return actual;
+	}
+
+	protected void assertEqualNodes(INode expected, INode actual) {
+		assertEqualNodeProperties(expected, actual);
+		if (expected instanceof ICompositeNode) {
+			Iterator<INode> expectedChildren = ((ICompositeNode) expected).getChildren().iterator();
+			Iterator<INode> actualChildren = ((ICompositeNode) actual).getChildren().iterator();
+			while (expectedChildren.hasNext()) {
+				assertTrue(actualChildren.hasNext());
+				INode actualChild = actualChildren.next();
+				assertEquals(actual, actualChild.getParent());
+				assertEqualNodes(expectedChildren.next(), actualChild);
+			}
+			assertFalse(actualChildren.hasNext());
+			Iterator<INode> actualReversed = ((ICompositeNode) actual).getChildren().reverse().iterator();
+			for (INode expectedChild : ((ICompositeNode) expected).getChildren().reverse()) {
+				assertEqualNodeProperties(expectedChild, actualReversed.next());
+			}
+		}
+	}
+
+	protected void assertEqualNodeProperties(INode expected, INode actual) {
+		assertEquals(expected instanceof ICompositeNode, actual instanceof ICompositeNode);
+		assertEquals(expected instanceof ILeafNode, actual instanceof ILeafNode);
+		if (expected instanceof ILeafNode) {
+			assertEquals(((ILeafNode) expected).isHidden(), ((ILeafNode) actual).isHidden());
+		} else {
+			assertEquals(((ICompositeNode) expected).getLookAhead(), ((ICompositeNode) actual).getLookAhead());
+			assertEquals(((ICompositeNode) expected).hasChildren(), ((ICompositeNode) actual).hasChildren());
+		}
+		assertEquals(expected.getTotalOffset(), actual.getTotalOffset());
+		assertEquals(expected.getTotalLength(), actual.getTotalLength());
+		assertEquals(expected.getTotalEndOffset(), actual.getTotalEndOffset());
+		assertEquals(expected.getOffset(), actual.getOffset());
+		assertEquals(expected.getLength(), actual.getLength());
+		assertEquals(expected.getEndOffset(), actual.getEndOffset());
+		assertEquals(expected.getTotalStartLine(), actual.getTotalStartLine());
+		assertEquals(expected.getStartLine(), actual.getStartLine());
+		assertEquals(expected.getEndLine(), actual.getEndLine());
+		assertEquals(expected.getTotalEndLine(), actual.getTotalEndLine());
+		assertEquals(expected.getText(), actual.getText());
+		assertEquals(expected.getTextRegionWithLineInformation(), actual.getTextRegionWithLineInformation());
+		assertEquals(expected.hasSiblings(), actual.hasSiblings());
+		assertEquals(expected.hasPreviousSibling(), actual.hasPreviousSibling());
+		assertEquals(expected.hasNextSibling(), actual.hasNextSibling());
+		assertEquals(expected.getParent() == null, actual.getParent() == null);
+		assertEquals(expected.hasDirectSemanticElement(), actual.hasDirectSemanticElement());
+		assertEquals(Iterables.size(expected.getLeafNodes()), Iterables.size(actual.getLeafNodes()));
+		assertEqualElements(expected.getGrammarElement(), actual.getGrammarElement());
+		assertEqualElements(expected.getSemanticElement(), actual.getSemanticElement());
+		if (expected.getSyntaxErrorMessage() == null) {
+			assertNull(actual.getSyntaxErrorMessage());
+		} else {
+			assertEquals(expected.getSyntaxErrorMessage().getMessage(), actual.getSyntaxErrorMessage().getMessage());
+		}
+	}
+
+	protected void assertEqualElements(EObject expected, EObject actual) {
+		if (expected == null) {
+			assertNull(actual);
+		} else {
+			assertEquals(EcoreUtil.getURI(expected).fragment(), EcoreUtil.getURI(actual).fragment());
+		}
+	}
+
+}
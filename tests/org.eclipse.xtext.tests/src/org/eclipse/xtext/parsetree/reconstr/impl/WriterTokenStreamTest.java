@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parsetree.reconstr.impl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class WriterTokenStreamTest extends Assert {
+
+	static class CountingWriter extends StringWriter {
+		int writes;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			writes++;
+			super.write(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str) {
+			writes++;
+			super.write(str);
+		}
+	}
+
+	@Test public void testBuffered() throws IOException {
+		CountingWriter writer = new CountingWriter();
+		WriterTokenStream stream = new WriterTokenStream(writer, 8);
+		stream.writeSemantic(null, "abc");
+		stream.writeHidden(null, " ");
+		stream.writeSemantic(null, "def");
+		assertEquals("", writer.toString());
+		stream.writeSemantic(null, "gh");
+		assertEquals("abc def", writer.toString());
+		assertEquals(1, writer.writes);
+		stream.flush();
+		assertEquals("abc defgh", writer.toString());
+		assertEquals(2, writer.writes);
+	}
+
+	@Test public void testLargeToken() throws IOException {
+		CountingWriter writer = new CountingWriter();
+		WriterTokenStream stream = new WriterTokenStream(writer, 4);
+		stream.writeSemantic(null, "a");
+		stream.writeSemantic(null, "0123456789");
+		assertEquals("a0123456789", writer.toString());
+		stream.writeSemantic(null, null);
+		stream.writeSemantic(null, "");
+		stream.flush();
+		assertEquals("a0123456789", writer.toString());
+		assertEquals(2, writer.writes);
+	}
+
+	@Test public void testUnbuffered() throws IOException {
+		CountingWriter writer = new CountingWriter();
+		WriterTokenStream stream = new WriterTokenStream(writer, 0);
+		stream.writeSemantic(null, "a");
+		stream.writeHidden(null, "b");
+		assertEquals("ab", writer.toString());
+		assertEquals(2, writer.writes);
+	}
+
+	@Test public void testUnbufferedByDefault() throws IOException {
+		CountingWriter writer = new CountingWriter();
+		WriterTokenStream stream = new WriterTokenStream(writer);
+		stream.writeSemantic(null, "a");
+		assertEquals("a", writer.toString());
+		assertEquals(1, writer.writes);
+	}
+
+}
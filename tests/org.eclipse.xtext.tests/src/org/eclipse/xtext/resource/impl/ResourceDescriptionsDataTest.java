@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.DetachedResourceDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ResourceDescriptionsDataTest extends Assert {
+
+	private URI a = URI.createURI("file:/a.ecore");
+	private URI b = URI.createURI("file:/b.ecore");
+	private URI c = URI.createURI("file:/c.ecore");
+
+	@Test public void testReverseIndex() throws Exception {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.newArrayList(
+				description(a, b.appendFragment("//B"), a.appendFragment("//A")),
+				description(b, c.appendFragment("//C")),
+				description(c)));
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingObject(b.appendFragment("//B")));
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingObject(a.appendFragment("//A")));
+		assertEquals(Sets.newHashSet(a, b), data.getResourcesReferencingObjects(
+				Sets.newHashSet(b.appendFragment("//B"), c.appendFragment("//C"))));
+		assertTrue(data.getResourcesReferencingObjects(Collections.singleton(c.appendFragment("//D"))).isEmpty());
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingResource(b));
+		assertEquals(Collections.singleton(b), data.getResourcesReferencingResource(c));
+		assertTrue(data.getResourcesReferencingResource(a).isEmpty());
+		assertEquals(Collections.singleton(a), data.getResourcesImportingName(QualifiedName.create("b")));
+		assertEquals(Collections.singleton(b), data.getResourcesImportingName(QualifiedName.create("c")));
+		assertTrue(data.getResourcesImportingName(QualifiedName.create("d")).isEmpty());
+	}
+
+	@Test public void testAddAndRemove() throws Exception {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.newArrayList(
+				description(a, b.appendFragment("//B")),
+				description(b)));
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingResource(b));
+		data.addDescription(c, description(c, b.appendFragment("//B")));
+		assertEquals(Sets.newHashSet(a, c), data.getResourcesReferencingResource(b));
+		assertEquals(Sets.newHashSet(a, c), data.getResourcesImportingName(QualifiedName.create("b")));
+		data.addDescription(a, description(a));
+		assertEquals(Collections.singleton(c), data.getResourcesReferencingResource(b));
+		assertEquals(Collections.singleton(c), data.getResourcesReferencingObject(b.appendFragment("//B")));
+		data.removeDescription(c);
+		assertTrue(data.getResourcesReferencingResource(b).isEmpty());
+		assertTrue(data.getResourcesImportingName(QualifiedName.create("b")).isEmpty());
+	}
+
+	@Test public void testResultIsNotModified() throws Exception {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.newArrayList(
+				description(a, b.appendFragment("//B")),
+				description(b)));
+		Set<URI> referencing = data.getResourcesReferencingResource(b);
+		data.addDescription(c, description(c, b.appendFragment("//B")));
+		assertEquals(Collections.singleton(a), referencing);
+		assertEquals(Sets.newHashSet(a, c), data.getResourcesReferencingResource(b));
+	}
+
+	@Test public void testCopyIsIndependent() throws Exception {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.newArrayList(
+				description(a, b.appendFragment("//B")),
+				description(b)));
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingResource(b));
+		ResourceDescriptionsData copy = data.copy();
+		copy.removeDescription(a);
+		assertTrue(copy.getResourcesReferencingResource(b).isEmpty());
+		assertEquals(Collections.singleton(a), data.getResourcesReferencingResource(b));
+	}
+
+	protected IResourceDescription description(URI uri, URI... targets) {
+		List<QualifiedName> importedNames = Lists.newArrayList();
+		List<IReferenceDescription> references = Lists.newArrayList();
+		for (URI target : targets) {
+			importedNames.add(QualifiedName.create(target.trimFileExtension().lastSegment()));
+			references.add(new DefaultReferenceDescription(uri.appendFragment("/"), target,
+					EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, null));
+		}
+		return new DetachedResourceDescription(uri, Collections.<IEObjectDescription> emptyList(), importedNames,
+				references);
+	}
+}
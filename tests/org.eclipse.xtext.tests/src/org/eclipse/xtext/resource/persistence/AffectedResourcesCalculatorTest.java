@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
+import org.eclipse.xtext.resource.impl.DefaultResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ResourceServiceProviderRegistryImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class AffectedResourcesCalculatorTest extends Assert {
+
+	private URI a = URI.createURI("file:/a.ecore");
+	private URI b = URI.createURI("file:/b.ecore");
+	private URI c = URI.createURI("file:/c.ecore");
+	private URI d = URI.createURI("file:/d.ecore");
+	private URI e = URI.createURI("file:/e.ecore");
+
+	private AffectedResourcesCalculator calculator;
+
+	private ResourceDescriptionsData index;
+
+	private Map<URI, IResourceDescription> newDescriptions;
+
+	@Before
+	public void setUp() throws Exception {
+		final IResourceDescription.Manager manager = new DefaultResourceDescriptionManager() {
+			@Override
+			public boolean isAffected(Collection<Delta> deltas, IResourceDescription candidate,
+					IResourceDescriptions context) {
+				for (Delta delta : deltas) {
+					if (isAffected(delta, candidate))
+						return true;
+				}
+				return false;
+			}
+		};
+		ResourceServiceProviderRegistryImpl registry = new ResourceServiceProviderRegistryImpl();
+		registry.getExtensionToFactoryMap().put("ecore", new DefaultResourceServiceProvider() {
+			@Override
+			public IResourceDescription.Manager getResourceDescriptionManager() {
+				return manager;
+			}
+		});
+		calculator = new AffectedResourcesCalculator();
+		calculator.setRegistry(registry);
+		// c imports b, b imports a, d is independent
+		index = new ResourceDescriptionsData(Lists.newArrayList(
+				description(a, "A"),
+				description(b, "B", "A"),
+				description(c, "C", "B"),
+				description(d, "D")));
+		newDescriptions = Maps.newHashMap();
+		for (IResourceDescription description : index.getAllResourceDescriptions()) {
+			newDescriptions.put(description.getURI(), description);
+		}
+	}
+
+	@Test public void testChangeWithoutExportedChanges() throws Exception {
+		newDescriptions.put(a, description(a, "A"));
+		assertEquals(Collections.singleton(a), computeResourcesToBuild(Collections.singleton(a), Collections.<URI> emptySet()));
+	}
+
+	@Test public void testChangeOfExportedObjects() throws Exception {
+		newDescriptions.put(a, exporting(a, "A", "A2"));
+		assertEquals(Sets.newHashSet(a, b), computeResourcesToBuild(Collections.singleton(a), Collections.<URI> emptySet()));
+		assertEquals(2, Iterables.size(index.getResourceDescription(a).getExportedObjects()));
+	}
+
+	@Test public void testTransitiveChangeOfExportedObjects() throws Exception {
+		newDescriptions.put(a, description(a, "A2"));
+		newDescriptions.put(b, description(b, "B2", "A"));
+		assertEquals(Sets.newHashSet(a, b, c), computeResourcesToBuild(Collections.singleton(a), Collections.<URI> emptySet()));
+	}
+
+	@Test public void testDelete() throws Exception {
+		newDescriptions.remove(a);
+		assertEquals(Collections.singleton(b), computeResourcesToBuild(Collections.<URI> emptySet(), Collections.singleton(a)));
+		assertNull(index.getResourceDescription(a));
+	}
+
+	@Test public void testDeleteUnreferenced() throws Exception {
+		newDescriptions.remove(d);
+		assertTrue(computeResourcesToBuild(Collections.<URI> emptySet(), Collections.singleton(d)).isEmpty());
+		assertNull(index.getResourceDescription(d));
+	}
+
+	@Test public void testAdd() throws Exception {
+		newDescriptions.put(e, description(e, "E", "C"));
+		assertEquals(Collections.singleton(e), computeResourcesToBuild(Collections.singleton(e), Collections.<URI> emptySet()));
+		assertNotNull(index.getResourceDescription(e));
+	}
+
+	@Test public void testAddImportedName() throws Exception {
+		newDescriptions.put(e, description(e, "X", "D"));
+		newDescriptions.put(d, description(d, "D", "X"));
+		index.addDescription(d, description(d, "D", "X"));
+		assertEquals(Sets.newHashSet(e, d), computeResourcesToBuild(Collections.singleton(e), Collections.<URI> emptySet()));
+	}
+
+	protected Set<URI> computeResourcesToBuild(Set<URI> changed, Set<URI> deleted) {
+		return calculator.computeResourcesToBuild(index, changed, deleted, null,
+				new AffectedResourcesCalculator.DescriptionProvider() {
+					public IResourceDescription getNewDescription(URI uri) {
+						return newDescriptions.get(uri);
+					}
+				});
+	}
+
+	/**
+	 * A description that exports the first name and imports the others.
+	 */
+	protected IResourceDescription description(URI uri, String exportedName, String... importedNames) {
+		List<IEObjectDescription> exported = Lists.newArrayList();
+		exported.add(exported(uri, exportedName));
+		List<QualifiedName> imported = Lists.newArrayList();
+		for (String importedName : importedNames) {
+			imported.add(QualifiedName.create(importedName).toLowerCase());
+		}
+		return new DetachedResourceDescription(uri, exported, imported, Collections.<IReferenceDescription> emptyList());
+	}
+
+	protected IResourceDescription exporting(URI uri, String... exportedNames) {
+		List<IEObjectDescription> exported = Lists.newArrayList();
+		for (String exportedName : exportedNames) {
+			exported.add(exported(uri, exportedName));
+		}
+		return new DetachedResourceDescription(uri, exported, Collections.<QualifiedName> emptyList(),
+				Collections.<IReferenceDescription> emptyList());
+	}
+
+	protected IEObjectDescription exported(URI uri, String name) {
+		EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+		((InternalEObject) proxy).eSetProxyURI(uri.appendFragment("//" + name));
+		return EObjectDescription.create(QualifiedName.create(name), proxy);
+	}
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * @author Dennis Huebner - Initial contribution and API
+ */
+public class BuildStatePersisterTest extends Assert {
+
+	private File file;
+
+	private BuildStatePersister persister;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("build", ".state");
+		file.delete();
+		persister = new BuildStatePersister();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	@Test public void testLoadMissingFile() throws Exception {
+		assertNull(persister.load(file, new ResourceSetImpl()));
+	}
+
+	@Test public void testRoundTrip() throws Exception {
+		URI resourceURI = URI.createURI("file:/foo.ecore");
+		EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+		((InternalEObject) proxy).eSetProxyURI(resourceURI.appendFragment("//Foo"));
+		IEObjectDescription exported = EObjectDescription.create(QualifiedName.create("foo", "Foo"), proxy,
+				Collections.singletonMap("key", "value"));
+		IReferenceDescription reference = new DefaultReferenceDescription(resourceURI.appendFragment("//Foo"),
+				URI.createURI("file:/bar.ecore#//Bar"), EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, null);
+		IResourceDescription description = new DetachedResourceDescription(resourceURI,
+				Collections.singletonList(exported), Collections.singletonList(QualifiedName.create("bar", "Bar")),
+				Collections.singletonList(reference));
+		Map<URI, String> fingerprints = Maps.newHashMap();
+		fingerprints.put(resourceURI, "abc");
+		BuildState state = new BuildState(new ResourceDescriptionsData(Collections.singletonList(description)),
+				fingerprints, "env");
+
+		persister.save(state, file);
+		BuildState loaded = persister.load(file, new ResourceSetImpl());
+
+		assertNotNull(loaded);
+		assertEquals("env", loaded.getEnvironmentFingerprint());
+		assertEquals(fingerprints, loaded.getFingerprints());
+		IResourceDescription loadedDescription = loaded.getIndex().getResourceDescription(resourceURI);
+		IEObjectDescription loadedExported = Iterables.getOnlyElement(loadedDescription.getExportedObjects());
+		assertEquals(QualifiedName.create("foo", "Foo"), loadedExported.getName());
+		assertSame(EcorePackage.Literals.ECLASS, loadedExported.getEClass());
+		assertEquals(exported.getEObjectURI(), loadedExported.getEObjectURI());
+		assertEquals("value", loadedExported.getUserData("key"));
+		assertEquals(QualifiedName.create("bar", "Bar"), Iterables.getOnlyElement(loadedDescription.getImportedNames()));
+		IReferenceDescription loadedReference = Iterables.getOnlyElement(loadedDescription.getReferenceDescriptions());
+		assertEquals(reference.getSourceEObjectUri(), loadedReference.getSourceEObjectUri());
+		assertEquals(reference.getTargetEObjectUri(), loadedReference.getTargetEObjectUri());
+		assertSame(EcorePackage.Literals.ECLASS__ESUPER_TYPES, loadedReference.getEReference());
+		assertNull(loadedReference.getContainerEObjectURI());
+	}
+
+	@Test public void testSaveReplacesExistingFile() throws Exception {
+		Map<URI, String> fingerprints = Maps.newHashMap();
+		fingerprints.put(URI.createURI("file:/foo.ecore"), "abc");
+		persister.save(new BuildState(new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList()),
+				fingerprints, "env1"), file);
+		persister.save(new BuildState(new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList()),
+				fingerprints, "env2"), file);
+		assertEquals("env2", persister.load(file, new ResourceSetImpl()).getEnvironmentFingerprint());
+		for (String name : file.getParentFile().list()) {
+			assertFalse(name, name.startsWith(file.getName()) && name.endsWith(".tmp"));
+		}
+	}
+
+	@Test public void testReferenceWithoutTarget() throws Exception {
+		URI resourceURI = URI.createURI("file:/foo.ecore");
+		IReferenceDescription resolved = new DefaultReferenceDescription(resourceURI.appendFragment("//Foo"),
+				URI.createURI("file:/bar.ecore#//Bar"), EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, null);
+		IReferenceDescription unresolved = new DefaultReferenceDescription(resourceURI.appendFragment("//Foo"), null,
+				EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, null);
+		IResourceDescription description = new DetachedResourceDescription(resourceURI,
+				Collections.<IEObjectDescription> emptyList(), Collections.<QualifiedName> emptyList(),
+				Lists.newArrayList(resolved, unresolved));
+		persister.save(new BuildState(new ResourceDescriptionsData(Collections.singletonList(description)),
+				Collections.<URI, String> emptyMap(), "env"), file);
+		BuildState loaded = persister.load(file, new ResourceSetImpl());
+		IReferenceDescription loadedReference = Iterables.getOnlyElement(loaded.getIndex()
+				.getResourceDescription(resourceURI).getReferenceDescriptions());
+		assertEquals(resolved.getTargetEObjectUri(), loadedReference.getTargetEObjectUri());
+	}
+
+	@Test public void testChangedAndDeletedURIs() throws Exception {
+		URI changed = URI.createURI("file:/changed.ecore");
+		URI unchanged = URI.createURI("file:/unchanged.ecore");
+		URI deleted = URI.createURI("file:/deleted.ecore");
+		URI added = URI.createURI("file:/added.ecore");
+		Map<URI, String> previous = Maps.newHashMap();
+		previous.put(changed, "1");
+		previous.put(unchanged, "2");
+		previous.put(deleted, "3");
+		BuildState state = new BuildState(new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList()),
+				previous, "env");
+		Map<URI, String> current = Maps.newHashMap();
+		current.put(changed, "4");
+		current.put(unchanged, "2");
+		current.put(added, "5");
+		assertTrue(state.getChangedURIs(current).contains(changed));
+		assertTrue(state.getChangedURIs(current).contains(added));
+		assertEquals(2, state.getChangedURIs(current).size());
+		assertEquals(Collections.singleton(deleted), state.getDeletedURIs(current));
+	}
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class MappedIndexTest extends Assert {
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("mapped", ".index");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	@Test public void testRoundTrip() throws Exception {
+		URI resourceURI = URI.createURI("file:/foo.ecore");
+		EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+		((InternalEObject) proxy).eSetProxyURI(resourceURI.appendFragment("//Foo"));
+		IEObjectDescription exported = EObjectDescription.create(QualifiedName.create("foo", "Foo"), proxy,
+				Collections.singletonMap("key", "v\u00e4lue"));
+		IReferenceDescription reference = new DefaultReferenceDescription(resourceURI.appendFragment("//Foo"),
+				URI.createURI("file:/bar.ecore#//Bar"), EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0,
+				resourceURI.appendFragment("/"));
+		IResourceDescription description = new DetachedResourceDescription(resourceURI,
+				Collections.singletonList(exported), Collections.singletonList(QualifiedName.create("bar", "Bar")),
+				Collections.singletonList(reference));
+
+		new MappedIndexWriter().write(Collections.singletonList(description), file);
+		MappedIndex index = MappedIndex.open(file);
+
+		assertEquals(1, index.getResourceDescriptionCount());
+		IResourceDescription loaded = Iterables.getOnlyElement(index.getResourceDescriptions());
+		assertEquals(resourceURI, loaded.getURI());
+		assertFalse(loaded.isEmpty());
+		IEObjectDescription loadedExported = Iterables.getOnlyElement(loaded.getExportedObjects());
+		assertEquals(QualifiedName.create("foo", "Foo"), loadedExported.getName());
+		assertSame(EcorePackage.Literals.ECLASS, loadedExported.getEClass());
+		assertEquals(exported.getEObjectURI(), loadedExported.getEObjectURI());
+		assertTrue(loadedExported.getEObjectOrProxy().eIsProxy());
+		assertEquals("v\u00e4lue", loadedExported.getUserData("key"));
+		assertEquals(1, Iterables.size(loaded.getExportedObjects(EcorePackage.Literals.ECLASS,
+				QualifiedName.create("FOO", "foo"), true)));
+		assertEquals(QualifiedName.create("bar", "Bar"), Iterables.getOnlyElement(loaded.getImportedNames()));
+		IReferenceDescription loadedReference = Iterables.getOnlyElement(loaded.getReferenceDescriptions());
+		assertEquals(reference.getSourceEObjectUri(), loadedReference.getSourceEObjectUri());
+		assertEquals(reference.getTargetEObjectUri(), loadedReference.getTargetEObjectUri());
+		assertSame(EcorePackage.Literals.ECLASS__ESUPER_TYPES, loadedReference.getEReference());
+		assertEquals(0, loadedReference.getIndexInList());
+		assertEquals(reference.getContainerEObjectURI(), loadedReference.getContainerEObjectURI());
+	}
+
+	@Test public void testManyDescriptions() throws Exception {
+		List<IResourceDescription> descriptions = Lists.newArrayList();
+		for (int i = 0; i < 100; i++) {
+			URI uri = URI.createURI("file:/" + i + ".ecore");
+			List<IEObjectDescription> exported = Lists.newArrayList();
+			for (int j = 0; j < i % 5; j++) {
+				EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+				((InternalEObject) proxy).eSetProxyURI(uri.appendFragment("//C" + j));
+				exported.add(EObjectDescription.create(QualifiedName.create("p" + i, "C" + j), proxy));
+			}
+			List<IReferenceDescription> references = Lists.newArrayList();
+			if (i > 0) {
+				references.add(new DefaultReferenceDescription(uri.appendFragment("//C0"), URI.createURI("file:/"
+						+ (i - 1) + ".ecore#//C0"), EcorePackage.Literals.ECLASS__ESUPER_TYPES, -1, null));
+			}
+			descriptions.add(new DetachedResourceDescription(uri, exported, Collections.<QualifiedName> emptyList(),
+					references));
+		}
+
+		new MappedIndexWriter().write(descriptions, file);
+		ResourceDescriptionsData data = new ResourceDescriptionsData(MappedIndex.open(file).getResourceDescriptions());
+
+		for (IResourceDescription expected : descriptions) {
+			IResourceDescription actual = data.getResourceDescription(expected.getURI());
+			assertEquals(expected.isEmpty(), actual.isEmpty());
+			assertEquals(Iterables.size(expected.getExportedObjects()), Iterables.size(actual.getExportedObjects()));
+			assertEquals(Iterables.size(expected.getReferenceDescriptions()),
+					Iterables.size(actual.getReferenceDescriptions()));
+		}
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.ECLASS,
+				QualifiedName.create("p42", "C1"), false)));
+		assertEquals(Collections.singleton(URI.createURI("file:/43.ecore")),
+				data.getResourcesReferencingResource(URI.createURI("file:/42.ecore")));
+	}
+
+	@Test(expected = IOException.class)
+	public void testSizeMismatch() throws Exception {
+		new MappedIndexWriter().write(Collections.<IResourceDescription> emptyList(), file);
+		FileOutputStream out = new FileOutputStream(file, true);
+		try {
+			out.write(0);
+		} finally {
+			out.close();
+		}
+		MappedIndex.open(file);
+	}
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Collections;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.testlanguages.ReferenceGrammarTestLanguageStandaloneSetup;
+import org.junit.Test;
+
+import com.google.common.io.Files;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ParseResultCacheTest extends AbstractXtextTests {
+
+	private File directory;
+
+	private CountingCache cache;
+
+	private static class CountingCache extends ParseResultCache {
+		private int hits;
+
+		CountingCache(File directory) {
+			super(directory);
+		}
+
+		@Override
+		public IParseResult load(XtextResource resource, String content) {
+			IParseResult result = super.load(resource, content);
+			if (result != null) {
+				hits++;
+			}
+			return result;
+		}
+	}
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(ReferenceGrammarTestLanguageStandaloneSetup.class);
+		directory = Files.createTempDir();
+		cache = new CountingCache(directory);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		Files.deleteRecursively(directory);
+		super.tearDown();
+	}
+
+	@Test public void testRoundTrip() throws Exception {
+		String model = "spielplatz 1 \"Platz\" { kind ( Bob 0 ) kind ( Alice 1 ) erwachsener ( Carl 2 ) }";
+		XtextResource parsed = load(model);
+		assertEquals(0, cache.hits);
+		XtextResource cached = load(model);
+		assertEquals(1, cache.hits);
+		assertTrue(cached.getErrors().isEmpty());
+		assertTrue(EcoreUtil.equals(parsed.getContents().get(0), cached.getContents().get(0)));
+		ICompositeNode rootNode = cached.getParseResult().getRootNode();
+		assertEquals(model, rootNode.getText());
+		assertSame(cached.getContents().get(0), rootNode.getSemanticElement());
+		for (EObject element : cached.getContents().get(0).eContents()) {
+			assertNotNull(NodeModelUtils.getNode(element));
+		}
+	}
+
+	@Test public void testChangedContent() throws Exception {
+		load("spielplatz 1 { kind ( Bob 0 ) }");
+		XtextResource resource = load("spielplatz 1 { kind ( Alice 0 ) }");
+		assertEquals(0, cache.hits);
+		assertEquals("spielplatz 1 { kind ( Alice 0 ) }", resource.getParseResult().getRootNode().getText());
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		String model = "spielplatz 1 { kind ( Bob ) }";
+		XtextResource parsed = load(model);
+		XtextResource cached = load(model);
+		assertEquals(1, cache.hits);
+		assertFalse(parsed.getErrors().isEmpty());
+		assertEquals(parsed.getErrors().size(), cached.getErrors().size());
+	}
+
+	@Test public void testCorruptEntry() throws Exception {
+		String model = "spielplatz 1 { kind ( Bob 0 ) }";
+		XtextResource resource = load(model);
+		File file = cache.getCacheFile(resource.getURI());
+		assertTrue(file.isFile());
+		Files.write(new byte[] { 1, 2, 3 }, file);
+		resource = load(model);
+		assertEquals(0, cache.hits);
+		assertEquals(1, resource.getContents().size());
+		assertEquals(model, resource.getParseResult().getRootNode().getText());
+	}
+
+	protected XtextResource load(String model) throws Exception {
+		XtextResourceSet resourceSet = get(XtextResourceSet.class);
+		XtextResource resource = (XtextResource) getResourceFactory().createResource(
+				URI.createURI("mytestmodel." + getCurrentFileExtension()));
+		resourceSet.getResources().add(resource);
+		resource.load(new ByteArrayInputStream(model.getBytes("UTF-8")),
+				Collections.singletonMap(XtextResource.OPTION_PARSE_RESULT_CACHE, cache));
+		return resource;
+	}
+}
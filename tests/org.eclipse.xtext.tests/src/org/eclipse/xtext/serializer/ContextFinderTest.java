@@ -9,6 +9,10 @@ package org.eclipse.xtext.serializer;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.junit4.AbstractXtextTests;
@@ -149,4 +153,25 @@ public class ContextFinderTest extends AbstractXtextTests {
 		assertEquals("ValueExclusionTest2", findContextsByContents(model.getValueExclusion()));
 	}
 
+	@Test public void testConcurrentAnalysis() throws Exception {
+		final Model model = parseHelper.parse("#4 kw2 foo foo foo");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = Lists.newArrayList();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(new Callable<String>() {
+					public String call() throws Exception {
+						ParentRefTestChild child2 = ((ParentRefTest2) model.getParentRef()).getChild2().getChild()
+								.getChild();
+						return findContextsByContentsAndContainer(child2);
+					}
+				}));
+			}
+			for (Future<String> result : results)
+				assertEquals("ParentRefTestChild2", result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
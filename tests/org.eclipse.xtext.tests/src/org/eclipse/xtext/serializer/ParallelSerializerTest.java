@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.junit4.util.ParseHelper;
+import org.eclipse.xtext.resource.SaveOptions;
+import org.eclipse.xtext.serializer.contextFinderTest.Model;
+import org.eclipse.xtext.serializer.impl.ParallelSerializer;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ParallelSerializerTest extends AbstractXtextTests {
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(ContextFinderTestLanguageStandaloneSetup.class);
+		getInjector().injectMembers(this);
+	}
+
+	@Inject
+	private ParseHelper<Model> parseHelper;
+
+	@Inject
+	private ParallelSerializer parallelSerializer;
+
+	private final Map<EObject, StringWriter> writers = Maps.newConcurrentMap();
+
+	private final ParallelSerializer.IWriterProvider writerProvider = new ParallelSerializer.IWriterProvider() {
+		public Writer getWriter(EObject model) throws IOException {
+			StringWriter result = new StringWriter();
+			writers.put(model, result);
+			return result;
+		}
+	};
+
+	private List<Model> parseModels() throws Exception {
+		List<Model> result = Lists.newArrayList();
+		String[] models = { "#0 model", "#1 kw1 bar", "#1 kw2 bar", "#2 kw2 bar", "#4 kw1 foo", "#4 kw2 foo foo foo",
+				"#6 lit1" };
+		for (int i = 0; i < 5; i++)
+			for (String model : models)
+				result.add(parseHelper.parse(model));
+		return result;
+	}
+
+	@Test public void testSerialize() throws Exception {
+		List<Model> models = parseModels();
+		Map<EObject, Exception> failures = parallelSerializer.serialize(models, writerProvider,
+				SaveOptions.defaultOptions(), 4);
+		assertTrue(failures.toString(), failures.isEmpty());
+		assertEquals(models.size(), writers.size());
+		for (Model model : models)
+			assertEquals(getSerializer().serialize(model), writers.get(model).toString());
+	}
+
+	@Test public void testFailures() throws Exception {
+		final List<Model> models = parseModels();
+		Map<EObject, Exception> failures = parallelSerializer.serialize(models, new ParallelSerializer.IWriterProvider() {
+			public Writer getWriter(EObject model) throws IOException {
+				if (model == models.get(3))
+					throw new IOException("expected");
+				return writerProvider.getWriter(model);
+			}
+		}, SaveOptions.defaultOptions(), 4);
+		assertEquals(1, failures.size());
+		assertEquals("expected", failures.get(models.get(3)).getMessage());
+		assertEquals(models.size() - 1, writers.size());
+	}
+
+}
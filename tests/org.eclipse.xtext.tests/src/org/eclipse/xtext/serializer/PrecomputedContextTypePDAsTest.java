@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.grammaranalysis.impl.GrammarElementTitleSwitch;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.serializer.analysis.Context2NameFunction;
+import org.eclipse.xtext.serializer.analysis.IContextProvider;
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider;
+import org.eclipse.xtext.serializer.analysis.ISerState;
+import org.eclipse.xtext.serializer.analysis.PrecomputedContextTypePDAs;
+import org.eclipse.xtext.util.Pair;
+import org.eclipse.xtext.util.formallang.Pda;
+import org.eclipse.xtext.util.formallang.PdaListFormatter;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+/**
+ * @author Moritz Eysholdt - Initial contribution and API
+ */
+public class PrecomputedContextTypePDAsTest extends AbstractXtextTests {
+
+	private static class ToStr implements Function<ISerState, String> {
+		private Function<AbstractElement, String> ts = new GrammarElementTitleSwitch().showAssignments()
+				.hideCardinality().showQualified();
+
+		public String apply(ISerState from) {
+			switch (from.getType()) {
+				case START:
+					return "start";
+				case STOP:
+					return "stop";
+				default:
+					return ts.apply(from.getGrammarElement());
+			}
+		}
+	}
+
+	final static String GRAMMAR = "grammar org.eclipse.xtext.serializer.PrecomputedContextTypePDAsTestLanguage"
+			+ " with org.eclipse.xtext.common.Terminals "
+			+ "generate precomputedContextTypePDAsTest "
+			+ "\"http://www.eclipse.org/2013/tmf/xtext/PrecomputedContextTypePDAs\" "
+			+ "Model: rules+=Rule*; "
+			+ "Rule: Delegate ({Binary.left=current} op=('+' | '-') right=Delegate)*; "
+			+ "Delegate returns Rule: {Literal} val=ID | '(' Rule ')';";
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(XtextStandaloneSetup.class);
+	}
+
+	@Test public void testReadWrittenPDAs() throws Exception {
+		Grammar written = (Grammar) getModel(GRAMMAR);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		get(PrecomputedContextTypePDAs.class).write(written, get(IContextProvider.class),
+				get(IContextTypePDAProvider.class), out);
+		Grammar read = (Grammar) getModel(GRAMMAR);
+		Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> pdas = get(PrecomputedContextTypePDAs.class).read(read,
+				new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(format(written, get(IContextTypePDAProvider.class)), format(read, pdas));
+	}
+
+	@Test(expected = IOException.class) public void testUnknownGrammar() throws Exception {
+		Grammar written = (Grammar) getModel(GRAMMAR);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		get(PrecomputedContextTypePDAs.class).write(written, get(IContextProvider.class),
+				get(IContextTypePDAProvider.class), out);
+		Grammar other = (Grammar) getModel(GRAMMAR.replace("PrecomputedContextTypePDAsTestLanguage", "Other"));
+		get(PrecomputedContextTypePDAs.class).read(other, new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	private String format(Grammar grammar, IContextTypePDAProvider provider) {
+		List<String> result = Lists.newArrayList();
+		for (EObject context : get(IContextProvider.class).getAllContexts(grammar))
+			for (EClass type : get(IContextProvider.class).getTypesForContext(context))
+				result.add(format(context, type, provider.getContextTypePDA(context, type)));
+		Collections.sort(result);
+		return Joiner.on("\n").join(result);
+	}
+
+	private String format(Grammar grammar, Map<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> pdas) {
+		List<String> result = Lists.newArrayList();
+		for (Map.Entry<Pair<EObject, EClass>, Pda<ISerState, RuleCall>> e : pdas.entrySet()) {
+			assertSame(grammar, e.getKey().getFirst().eResource().getContents().get(0));
+			result.add(format(e.getKey().getFirst(), e.getKey().getSecond(), e.getValue()));
+		}
+		Collections.sort(result);
+		return Joiner.on("\n").join(result);
+	}
+
+	private String format(EObject context, EClass type, Pda<ISerState, RuleCall> pda) {
+		PdaListFormatter<ISerState, RuleCall> formatter = new PdaListFormatter<ISerState, RuleCall>();
+		formatter.setStateFormatter(new ToStr());
+		formatter.setStackitemFormatter(new GrammarElementTitleSwitch().showAssignments().hideCardinality());
+		formatter.sortFollowers();
+		String name = get(Context2NameFunction.class).getContextName(context);
+		String formatted = formatter.format(pda).replace("\n", "\n  ");
+		return (type == null ? "null" : type.getName()) + "_" + name + ":\n  " + formatted;
+	}
+
+}
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.xtext.util.ConcurrentOnChangeEvictingCache.KeyStatistics;
+import org.eclipse.xtext.util.ConcurrentOnChangeEvictingCache.SelectivelyEvicted;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Provider;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ConcurrentOnChangeEvictingCacheTest extends Assert {
+
+	private Resource resource;
+
+	private EClass eClass;
+
+	@Before
+	public void setUp() {
+		resource = new ResourceImpl();
+		eClass = EcoreFactory.eINSTANCE.createEClass();
+		resource.getContents().add(eClass);
+	}
+
+	@Test public void testSingleComputationPerKey() throws Exception {
+		final ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		final int callers = 4;
+		final AtomicInteger computations = new AtomicInteger();
+		final List<Thread> callerThreads = new CopyOnWriteArrayList<Thread>();
+		final CountDownLatch entered = new CountDownLatch(callers);
+		// holds the computation until all other callers wait for its result
+		final Provider<Object> provider = new Provider<Object>() {
+			public Object get() {
+				computations.incrementAndGet();
+				try {
+					assertTrue(entered.await(10, TimeUnit.SECONDS));
+					long deadline = System.currentTimeMillis() + 10000;
+					for (Thread thread : callerThreads) {
+						if (thread != Thread.currentThread())
+							awaitWaiting(thread, deadline);
+					}
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				return new Object();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<Object>> results = Lists.newArrayList();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						callerThreads.add(Thread.currentThread());
+						entered.countDown();
+						return cache.get("key", resource, provider);
+					}
+				}));
+			}
+			Object first = results.get(0).get();
+			assertNotNull(first);
+			for (Future<Object> result : results) {
+				assertSame(first, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, computations.get());
+	}
+
+	@Test public void testNestedComputationWaitsForOtherThread() throws Exception {
+		final ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		final AtomicInteger innerComputations = new AtomicInteger();
+		final CountDownLatch innerStarted = new CountDownLatch(1);
+		final CountDownLatch releaseInner = new CountDownLatch(1);
+		final Provider<Object> innerProvider = new Provider<Object>() {
+			public Object get() {
+				innerComputations.incrementAndGet();
+				innerStarted.countDown();
+				try {
+					releaseInner.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				return new Object();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> inner = executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					return cache.get("inner", resource, innerProvider);
+				}
+			});
+			assertTrue(innerStarted.await(10, TimeUnit.SECONDS));
+			final Thread[] outerThread = new Thread[1];
+			final CountDownLatch outerStarted = new CountDownLatch(1);
+			Future<Object> outer = executor.submit(new Callable<Object>() {
+				public Object call() throws Exception {
+					return cache.get("outer", resource, new Provider<Object>() {
+						public Object get() {
+							outerThread[0] = Thread.currentThread();
+							outerStarted.countDown();
+							return cache.get("inner", resource, innerProvider);
+						}
+					});
+				}
+			});
+			assertTrue(outerStarted.await(10, TimeUnit.SECONDS));
+			awaitWaiting(outerThread[0], System.currentTimeMillis() + 10000);
+			releaseInner.countDown();
+			assertSame(inner.get(), outer.get());
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, innerComputations.get());
+	}
+
+	@Test public void testCycleBetweenThreads() throws Exception {
+		final ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		final CountDownLatch bothStarted = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> a = executor.submit(new Callable<String>() {
+				public String call() throws Exception {
+					return cache.get("a", resource, new CyclicProvider(cache, bothStarted, "a", "b"));
+				}
+			});
+			Future<String> b = executor.submit(new Callable<String>() {
+				public String call() throws Exception {
+					return cache.get("b", resource, new CyclicProvider(cache, bothStarted, "b", "a"));
+				}
+			});
+			assertTrue(a.get(10, TimeUnit.SECONDS).startsWith("a "));
+			assertTrue(b.get(10, TimeUnit.SECONDS).startsWith("b "));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test public void testValueComputedDuringChangeIsNotStored() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		String result = cache.get("key", resource, new Provider<String>() {
+			public String get() {
+				eClass.setName("Changed");
+				return "stale";
+			}
+		});
+		assertEquals("stale", result);
+		assertNull(cache.getOrCreate(resource).get("key"));
+		CountingProvider provider = new CountingProvider("value");
+		assertEquals("value", cache.get("key", resource, provider));
+		assertEquals("value", cache.get("key", resource, provider));
+		assertEquals(1, provider.count);
+	}
+
+	@Test public void testReentrantComputation() throws Exception {
+		final ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		String result = cache.get("key", resource, new Provider<String>() {
+			public String get() {
+				return "outer " + cache.get("key", resource, new Provider<String>() {
+					public String get() {
+						return "inner";
+					}
+				});
+			}
+		});
+		assertEquals("outer inner", result);
+		assertEquals("outer inner", cache.getOrCreate(resource).get("key"));
+	}
+
+	@Test public void testNullValue() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache(0, true);
+		CountingProvider provider = new CountingProvider(null);
+		assertNull(cache.get("key", resource, provider));
+		assertNull(cache.get("key", resource, provider));
+		assertEquals(1, provider.count);
+	}
+
+	@Test public void testEvictedOnChange() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache(0, true);
+		CountingProvider provider = new CountingProvider("value");
+		cache.get("key", resource, provider);
+		cache.get("key", resource, provider);
+		eClass.setName("Changed");
+		cache.get("key", resource, provider);
+		assertEquals(2, provider.count);
+		KeyStatistics statistics = cache.getStatistics(resource).get("key");
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(2, statistics.getMissCount());
+		assertEquals(1, statistics.getEvictionCount());
+	}
+
+	@Test public void testSelectiveEviction() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		NameKey nameKey = new NameKey();
+		CountingProvider provider = new CountingProvider("value");
+		cache.get(nameKey, resource, provider);
+		eClass.setAbstract(true);
+		cache.get(nameKey, resource, provider);
+		assertEquals(1, provider.count);
+		eClass.setName("Changed");
+		cache.get(nameKey, resource, provider);
+		assertEquals(2, provider.count);
+	}
+
+	@Test public void testMaximumSize() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache(10, true);
+		CountingProvider provider = new CountingProvider("value");
+		for (int i = 0; i < 10; i++) {
+			cache.get(i, resource, provider);
+		}
+		// make 0 the most recently used key
+		cache.get(0, resource, provider);
+		cache.get(10, resource, provider);
+		OnChangeEvictingCache.CacheAdapter adapter = cache.getOrCreate(resource);
+		int size = 0;
+		for (int i = 0; i <= 10; i++) {
+			if (adapter.get(i) != null)
+				size++;
+		}
+		assertTrue(size <= 10);
+		assertNotNull(adapter.get(0));
+		assertNotNull(adapter.get(10));
+		assertNull(adapter.get(1));
+		assertEquals(1, cache.getStatistics(resource).get(1).getEvictionCount());
+		assertEquals(0, cache.getStatistics(resource).get(0).getEvictionCount());
+	}
+
+	@Test public void testSharedWithDefaultCache() throws Exception {
+		ConcurrentOnChangeEvictingCache cache = new ConcurrentOnChangeEvictingCache();
+		cache.get("key", resource, new CountingProvider("value"));
+		assertEquals("value", new OnChangeEvictingCache().get("key", resource, new CountingProvider("other")));
+	}
+
+	/**
+	 * Waits until the given thread is blocked, e.g. because it waits for a computation.
+	 */
+	private void awaitWaiting(Thread thread, long deadline) throws InterruptedException {
+		while (thread.getState() != Thread.State.WAITING) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * Needs the value of another key as soon as both computations are running.
+	 */
+	private class CyclicProvider implements Provider<String> {
+		private final ConcurrentOnChangeEvictingCache cache;
+		private final CountDownLatch bothStarted;
+		private final String key;
+		private final String otherKey;
+
+		private CyclicProvider(ConcurrentOnChangeEvictingCache cache, CountDownLatch bothStarted, String key,
+				String otherKey) {
+			this.cache = cache;
+			this.bothStarted = bothStarted;
+			this.key = key;
+			this.otherKey = otherKey;
+		}
+
+		public String get() {
+			bothStarted.countDown();
+			try {
+				assertTrue(bothStarted.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			return key + " " + cache.get(otherKey, resource, new CountingProvider(otherKey));
+		}
+	}
+
+	private static class CountingProvider implements Provider<String> {
+		private final String value;
+		private int count;
+
+		private CountingProvider(String value) {
+			this.value = value;
+		}
+
+		public String get() {
+			count++;
+			return value;
+		}
+	}
+
+	private static class NameKey implements SelectivelyEvicted {
+		public boolean isEvictedBy(Notification notification) {
+			return notification.getFeature() == EcorePackage.Literals.ENAMED_ELEMENT__NAME;
+		}
+	}
+
+}
@@ -263,4 +263,34 @@ public class PolymorphicDispatcherTest extends Assert {
 		assertEquals("Number_42", dispatcher.invoke(BigInteger.valueOf(42)));
 	}
 
+	@Test public void testManyArgumentTypes() {
+		Object o1 = new Object() {
+			private String label(Object o) {
+				return "Object";
+			}
+
+			private String label(Number n) {
+				return "Number";
+			}
+
+			private String label(Integer i) {
+				return "Integer";
+			}
+
+			private String label(CharSequence c) {
+				return "CharSequence";
+			}
+		};
+		PolymorphicDispatcher<String> dispatcher = new PolymorphicDispatcher<String>("label", Lists.newArrayList(o1));
+		Object[] arguments = { 1, 2L, 3.0, 4f, (short) 5, (byte) 6, BigInteger.ONE, "s", new StringBuilder(),
+				new Object(), Boolean.TRUE, 'c' };
+		String[] expected = { "Integer", "Number", "Number", "Number", "Number", "Number", "Number", "CharSequence",
+				"CharSequence", "Object", "Object", "Object" };
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < arguments.length; j++) {
+				assertEquals(String.valueOf(arguments[j]), expected[j], dispatcher.invoke(arguments[j]));
+			}
+		}
+	}
+
 }
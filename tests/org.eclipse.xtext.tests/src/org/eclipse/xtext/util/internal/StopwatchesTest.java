@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util.internal;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.xtext.util.internal.Stopwatches.Snapshot;
+import org.eclipse.xtext.util.internal.Stopwatches.SpanSnapshot;
+import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class StopwatchesTest extends Assert {
+
+	@Before
+	public void setUp() {
+		Stopwatches.setEnabled(true);
+		Stopwatches.resetAll();
+	}
+
+	@After
+	public void tearDown() {
+		Stopwatches.resetAll();
+		Stopwatches.setEnabled(false);
+	}
+
+	@Test public void testDisabled() {
+		Stopwatches.setEnabled(false);
+		StoppedTask task = Stopwatches.forTask("task");
+		task.start();
+		task.stop();
+		Stopwatches.count("counter");
+		assertTrue(Stopwatches.allNumbers().isEmpty());
+		assertTrue(Stopwatches.snapshot().getCounters().isEmpty());
+		assertSame(task, Stopwatches.forTask("other"));
+	}
+
+	@Test public void testStopOutOfOrder() {
+		StoppedTask first = Stopwatches.forTask("first");
+		StoppedTask second = Stopwatches.forTask("second");
+		StoppedTask third = Stopwatches.forTask("third");
+		first.start();
+		second.start();
+		first.stop();
+		third.start();
+		third.stop();
+		second.stop();
+		third.start();
+		third.stop();
+		Snapshot snapshot = Stopwatches.snapshot();
+		SpanSnapshot firstSpan = null;
+		SpanSnapshot thirdSpan = null;
+		for (SpanSnapshot span : snapshot.getSpans()) {
+			if (span.getName().equals("first"))
+				firstSpan = span;
+			else if (span.getName().equals("third"))
+				thirdSpan = span;
+		}
+		assertEquals(2, snapshot.getSpans().size());
+		assertEquals("second", firstSpan.getChildren().get(0).getName());
+		assertEquals("third", firstSpan.getChildren().get(0).getChildren().get(0).getName());
+		assertEquals(1, thirdSpan.getNumberOfMeasurements());
+	}
+
+	@Test public void testOrderOfFirstStart() {
+		Stopwatches.forTask("b");
+		Stopwatches.forTask("a");
+		Stopwatches.forTask("c");
+		Stopwatches.forTask("a");
+		assertEquals("[b, a, c]", Stopwatches.allNumbers().keySet().toString());
+	}
+
+	@Test public void testReentrant() {
+		StoppedTask first = Stopwatches.forTask("task");
+		StoppedTask second = Stopwatches.forTask("task");
+		first.start();
+		second.start();
+		first.start();
+		first.stop();
+		second.stop();
+		first.stop();
+		Snapshot snapshot = Stopwatches.snapshot();
+		assertEquals(1, snapshot.getTasks().get("task").getNumberOfMeasurements());
+		assertEquals(1, snapshot.getSpans().size());
+		assertTrue(snapshot.getSpans().get(0).getChildren().isEmpty());
+	}
+
+	@Test public void testNestedSpans() {
+		StoppedTask outer = Stopwatches.forTask("outer");
+		StoppedTask inner = Stopwatches.forTask("inner");
+		outer.start();
+		for (int i = 0; i < 3; i++) {
+			inner.start();
+			inner.stop();
+		}
+		outer.stop();
+		inner.start();
+		inner.stop();
+		Snapshot snapshot = Stopwatches.snapshot();
+		assertEquals(4, snapshot.getTasks().get("inner").getNumberOfMeasurements());
+		List<SpanSnapshot> spans = snapshot.getSpans();
+		assertEquals(2, spans.size());
+		SpanSnapshot outerSpan = spans.get(0).getName().equals("outer") ? spans.get(0) : spans.get(1);
+		SpanSnapshot innerSpan = spans.get(0).getName().equals("inner") ? spans.get(0) : spans.get(1);
+		assertEquals(1, outerSpan.getNumberOfMeasurements());
+		assertEquals(1, innerSpan.getNumberOfMeasurements());
+		assertEquals(1, outerSpan.getChildren().size());
+		assertEquals("inner", outerSpan.getChildren().get(0).getName());
+		assertEquals(3, outerSpan.getChildren().get(0).getNumberOfMeasurements());
+		assertTrue(outerSpan.getNanoseconds() >= outerSpan.getChildren().get(0).getNanoseconds());
+	}
+
+	@Test public void testConcurrentStarts() throws Exception {
+		final StoppedTask task = Stopwatches.forTask("task");
+		final CountDownLatch started = new CountDownLatch(4);
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					task.start();
+					started.countDown();
+					try {
+						started.await();
+					} catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					Stopwatches.count("counter");
+					task.stop();
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Snapshot snapshot = Stopwatches.snapshot();
+		assertEquals(4, snapshot.getTasks().get("task").getNumberOfMeasurements());
+		assertEquals(Long.valueOf(4), snapshot.getCounters().get("counter"));
+		assertEquals(4, snapshot.getSpans().get(0).getNumberOfMeasurements());
+	}
+
+	@Test public void testJson() {
+		StoppedTask outer = Stopwatches.forTask("outer \"task\"");
+		StoppedTask inner = Stopwatches.forTask("inner");
+		outer.start();
+		inner.start();
+		inner.stop();
+		outer.stop();
+		Stopwatches.count("counter", 5);
+		String json = Stopwatches.snapshot().toJson();
+		assertTrue(json, json.contains("\"name\" : \"outer \\\"task\\\"\""));
+		assertTrue(json, json.contains("\"children\" : [{\"name\" : \"inner\""));
+		assertTrue(json, json.contains("\"counter\" : 5"));
+	}
+
+}
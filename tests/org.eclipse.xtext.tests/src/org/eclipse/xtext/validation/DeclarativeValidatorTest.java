@@ -9,13 +9,19 @@ package org.eclipse.xtext.validation;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.ENamedElement;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
 import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -343,4 +349,117 @@ public class DeclarativeValidatorTest extends Assert {
 		
 	}
 
+	public static class RecordingValidator extends AbstractDeclarativeValidator {
+		protected final Set<String> executed = new HashSet<String>();
+
+		@Check(CheckType.FAST)
+		public void fastObject(EObject x) {
+			executed.add("fastObject");
+		}
+
+		@Check(CheckType.NORMAL)
+		public void normalNamedElement(ENamedElement x) {
+			executed.add("normalNamedElement");
+		}
+
+		@Check(CheckType.EXPENSIVE)
+		public void expensiveClassifier(EClassifier x) {
+			executed.add("expensiveClassifier");
+		}
+
+		@Check(CheckType.NORMAL)
+		public void normalClass(EClass x) {
+			executed.add("normalClass");
+		}
+
+		@Check(CheckType.FAST)
+		public void fastDataType(EDataType x) {
+			executed.add("fastDataType");
+		}
+	}
+
+	public static class OverridingValidator extends RecordingValidator {
+		@Override
+		@Check(CheckType.EXPENSIVE)
+		public void normalClass(EClass x) {
+			executed.add("expensiveClass");
+		}
+
+		@Check(CheckType.FAST)
+		public void fastPackage(EPackage x) {
+			executed.add("fastPackage");
+		}
+	}
+
+	@Test public void testChecksPerCheckModeAndType() throws Exception {
+		RecordingValidator validator = new RecordingValidator();
+		for (int i = 0; i < 2; i++) {
+			for (CheckMode checkMode : getCheckModes()) {
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEClass(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL, 
+						"expensiveClassifier", CheckType.EXPENSIVE, 
+						"normalClass", CheckType.NORMAL);
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEEnum(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL, 
+						"expensiveClassifier", CheckType.EXPENSIVE, 
+						"fastDataType", CheckType.FAST);
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEAttribute(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL);
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEAnnotation(), checkMode, 
+						"fastObject", CheckType.FAST);
+			}
+		}
+	}
+
+	@Test public void testChecksPerCheckModeAndTypeWithOverriddenCheck() throws Exception {
+		RecordingValidator validator = new OverridingValidator();
+		for (int i = 0; i < 2; i++) {
+			for (CheckMode checkMode : getCheckModes()) {
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEClass(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL, 
+						"expensiveClassifier", CheckType.EXPENSIVE, 
+						"expensiveClass", CheckType.EXPENSIVE);
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEDataType(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL, 
+						"expensiveClassifier", CheckType.EXPENSIVE, 
+						"fastDataType", CheckType.FAST);
+				assertExecuted(validator, EcoreFactory.eINSTANCE.createEPackage(), checkMode, 
+						"fastObject", CheckType.FAST, 
+						"normalNamedElement", CheckType.NORMAL, 
+						"fastPackage", CheckType.FAST);
+			}
+		}
+	}
+
+	private CheckMode[] getCheckModes() {
+		CheckMode normalAndExpensive = new CheckMode() {
+			@Override
+			public boolean shouldCheck(CheckType type) {
+				return type == CheckType.NORMAL || type == CheckType.EXPENSIVE;
+			}
+		};
+		return new CheckMode[] { CheckMode.ALL, CheckMode.NORMAL_AND_FAST, CheckMode.FAST_ONLY, CheckMode.NORMAL_ONLY,
+				CheckMode.EXPENSIVE_ONLY, normalAndExpensive };
+	}
+
+	/**
+	 * @param checks
+	 *            pairs of the names of the checks that match the given object and their check types.
+	 */
+	private void assertExecuted(RecordingValidator validator, EObject object, CheckMode checkMode, Object... checks) {
+		Set<String> expected = new HashSet<String>();
+		for (int i = 0; i < checks.length; i += 2) {
+			if (checkMode.shouldCheck((CheckType) checks[i + 1]))
+				expected.add((String) checks[i]);
+		}
+		validator.executed.clear();
+		validator.validate(object, helper.chain(), Collections.<Object, Object> singletonMap(CheckMode.KEY, checkMode));
+		assertEquals(object.eClass().getName() + " " + checkMode, expected, validator.executed);
+	}
+
 }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.validation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.DiagnosticChain;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EValidator;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.impl.EValidatorRegistryImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class ParallelResourceValidatorImplTest extends Assert {
+
+	private Resource resource;
+
+	@Before
+	public void setUp() {
+		resource = new ResourceImpl();
+		EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+		ePackage.setName("p");
+		for (int i = 0; i < 50; i++) {
+			EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+			eClass.setName("C" + i);
+			for (int j = 0; j < 3; j++) {
+				EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+				attribute.setName("a" + j);
+				eClass.getEStructuralFeatures().add(attribute);
+			}
+			ePackage.getEClassifiers().add(eClass);
+		}
+		resource.getContents().add(ePackage);
+	}
+
+	@Test public void testSameIssuesAsSequentialValidation() throws Exception {
+		ThreadSafeNameValidator validator = new ThreadSafeNameValidator();
+		List<String> expected = getMessages(validate(new ResourceValidatorImpl(), validator, CheckMode.NORMAL_AND_FAST));
+		List<String> actual = getMessages(validate(createParallelValidator(), validator, CheckMode.NORMAL_AND_FAST));
+		assertEquals(1 + 50 * 4, expected.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test public void testSequentialValidationWithoutSplit() throws Exception {
+		ThreadSafeNameValidator validator = new ThreadSafeNameValidator();
+		ParallelResourceValidatorImpl parallelValidator = createParallelValidator();
+		parallelValidator.setMaximumSplitDepth(0);
+		List<Issue> issues = validate(parallelValidator, validator, CheckMode.NORMAL_AND_FAST);
+		assertEquals(1 + 50 * 4, issues.size());
+		assertEquals(Sets.newHashSet(Thread.currentThread()), validator.threads);
+	}
+
+	@Test public void testSequentialValidationOfUnsafeValidators() throws Exception {
+		NameValidator validator = new NameValidator();
+		List<Issue> issues = validate(createParallelValidator(), validator, CheckMode.NORMAL_AND_FAST);
+		assertEquals(1 + 50 * 4, issues.size());
+		assertEquals(Sets.newHashSet(Thread.currentThread()), validator.threads);
+	}
+
+	@Test public void testSequentialValidationOfExpensiveChecks() throws Exception {
+		ThreadSafeNameValidator validator = new ThreadSafeNameValidator();
+		List<Issue> issues = validate(createParallelValidator(), validator, CheckMode.ALL);
+		assertEquals(1 + 50 * 4, issues.size());
+		assertEquals(Sets.newHashSet(Thread.currentThread()), validator.threads);
+	}
+
+	private ParallelResourceValidatorImpl createParallelValidator() {
+		return new ParallelResourceValidatorImpl() {
+			@Override
+			protected int getThreadCount() {
+				return 4;
+			}
+		};
+	}
+
+	private List<Issue> validate(ResourceValidatorImpl resourceValidator, EValidator validator, CheckMode mode) {
+		EValidator.Registry registry = new EValidatorRegistryImpl();
+		registry.put(EcorePackage.eINSTANCE, validator);
+		resourceValidator.setDiagnostician(new CancelableDiagnostician(registry));
+		resourceValidator.setDiagnosticConverter(new DiagnosticConverterImpl());
+		if (resourceValidator instanceof ParallelResourceValidatorImpl) {
+			((ParallelResourceValidatorImpl) resourceValidator).setValidatorRegistry(registry);
+		}
+		return resourceValidator.validate(resource, mode, CancelIndicator.NullImpl);
+	}
+
+	private List<String> getMessages(List<Issue> issues) {
+		List<String> result = Lists.newArrayList();
+		for (Issue issue : issues) {
+			result.add(issue.getMessage());
+		}
+		return result;
+	}
+
+	public static class NameValidator implements EValidator {
+
+		protected final Set<Thread> threads = Sets.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+		public boolean validate(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+			return validate(eObject.eClass(), eObject, diagnostics, context);
+		}
+
+		public boolean validate(EClass eClass, EObject eObject, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			threads.add(Thread.currentThread());
+			if (eObject instanceof ENamedElement) {
+				diagnostics.add(new BasicDiagnostic(Diagnostic.WARNING, "", 0, ((ENamedElement) eObject).getName(),
+						new Object[] { eObject }));
+			}
+			return true;
+		}
+
+		public boolean validate(EDataType eDataType, Object value, DiagnosticChain diagnostics,
+				Map<Object, Object> context) {
+			return true;
+		}
+	}
+
+	@ThreadSafeValidator
+	public static class ThreadSafeNameValidator extends NameValidator {
+	}
+
+}
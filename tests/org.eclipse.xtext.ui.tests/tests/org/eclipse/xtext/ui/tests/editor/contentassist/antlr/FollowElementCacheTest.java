@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.contentassist.antlr;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.AbstractRule;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.FollowElement;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.FollowElementCache;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.IContentAssistParser;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.IPartialContentAssistParser;
+import org.eclipse.xtext.ui.editor.contentassist.antlr.internal.AbstractInternalContentAssistParser;
+import org.eclipse.xtext.ui.tests.ui.contentassist.antlr.XtextGrammarUiTestLanguageParser;
+import org.eclipse.xtext.util.PolymorphicDispatcher;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class FollowElementCacheTest extends AbstractParserTest {
+
+	public static class CountingParser implements IContentAssistParser {
+
+		private final IContentAssistParser delegate;
+
+		private int inputs;
+
+		private int elements;
+
+		public CountingParser(IContentAssistParser delegate) {
+			this.delegate = delegate;
+		}
+
+		public Collection<FollowElement> getFollowElements(String input, boolean strict) {
+			inputs++;
+			return delegate.getFollowElements(input, strict);
+		}
+
+		public Collection<FollowElement> getFollowElements(FollowElement element) {
+			elements++;
+			return Collections.emptyList();
+		}
+
+	}
+
+	public static class PartialParser extends XtextGrammarUiTestLanguageParser implements IPartialContentAssistParser {
+
+		private AbstractRule rule;
+
+		public void initializeFor(AbstractRule rule) {
+			this.rule = rule;
+		}
+
+		@Override
+		protected Collection<FollowElement> getFollowElements(AbstractInternalContentAssistParser parser) {
+			PolymorphicDispatcher<Collection<FollowElement>> dispatcher = 
+				new PolymorphicDispatcher<Collection<FollowElement>>("entryRule" + rule.getName(), 0, 0,
+						Collections.singletonList(parser));
+			dispatcher.invoke();
+			return parser.getFollowElements();
+		}
+
+	}
+
+	private FollowElementCache cache;
+
+	private CountingParser parser;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		cache = new FollowElementCache();
+		parser = new CountingParser(get(XtextGrammarUiTestLanguageParser.class));
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		cache = null;
+		parser = null;
+		super.tearDown();
+	}
+
+	@Override
+	protected Collection<FollowElement> getFollowSet(String input) {
+		try {
+			Document document = new Document(input);
+			Collection<FollowElement> result = cache.getFollowElements(parser, document, input.length(), false);
+			assertEquals(result, cache.getFollowElements(parser, document, input.length(), false));
+			assertEquals(1, parser.inputs);
+			parser.inputs = 0;
+			return result;
+		} catch (BadLocationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test public void testPrefixes() throws BadLocationException {
+		Document document = new Document("grammar org.foo with org");
+		Collection<FollowElement> first = cache.getFollowElements(parser, document, 15, false);
+		assertEquals(Lists.newArrayList(first), Lists.newArrayList(cache.getFollowElements(parser, document, 15, false)));
+		cache.getFollowElements(parser, document, 15, true);
+		cache.getFollowElements(parser, document, 20, false);
+		assertEquals(3, parser.inputs);
+		cache.getFollowElements(parser, document, 20, false);
+		assertEquals(3, parser.inputs);
+	}
+
+	@Test public void testInvalidatedByModification() throws BadLocationException {
+		Document document = new Document("grammar org.foo ");
+		cache.getFollowElements(parser, document, 8, false);
+		FollowElement element = new FollowElement();
+		cache.getFollowElements(parser, document, element);
+		document.replace(8, 3, "com");
+		cache.getFollowElements(parser, document, 8, false);
+		cache.getFollowElements(parser, document, element);
+		assertEquals(2, parser.inputs);
+		assertEquals(2, parser.elements);
+		cache.invalidate(document);
+		cache.getFollowElements(parser, document, 8, false);
+		assertEquals(3, parser.inputs);
+	}
+
+	@Test public void testExpansions() {
+		Document document = new Document("");
+		FollowElement element = new FollowElement();
+		element.setLookAhead(2);
+		cache.getFollowElements(parser, document, element);
+		FollowElement equalElement = new FollowElement();
+		equalElement.setLookAhead(2);
+		cache.getFollowElements(parser, document, equalElement);
+		assertEquals(1, parser.elements);
+		FollowElement otherElement = new FollowElement();
+		otherElement.setLookAhead(3);
+		cache.getFollowElements(parser, document, otherElement);
+		assertEquals(2, parser.elements);
+	}
+
+	@Test public void testEntryNode() throws Exception {
+		String model = "grammar org.foo\ngenerate foo 'http://foo'\nRule: 'a' 'b';";
+		ICompositeNode rootNode = getParseResult(model).getRootNode();
+		int offset = model.indexOf("'b'");
+		ICompositeNode entryNode = cache.getEntryNode(rootNode, offset);
+		assertNotNull(entryNode);
+		assertEquals(model.indexOf("Rule"), entryNode.getOffset());
+		assertSame(grammarAccess.getParserRuleRule(), ((RuleCall) entryNode.getGrammarElement()).getRule());
+		assertNull(cache.getEntryNode(rootNode, model.indexOf("generate")));
+		assertNull(cache.getEntryNode(rootNode, model.length()));
+	}
+
+	@Test public void testPartialParser() throws Exception {
+		String model = "grammar org.foo\ngenerate foo 'http://foo'\nRule: 'a' 'b';";
+		ICompositeNode rootNode = getParseResult(model).getRootNode();
+		Document document = new Document(model);
+		int offset = model.indexOf("'b'");
+		ICompositeNode entryNode = cache.getEntryNode(rootNode, offset);
+		Collection<FollowElement> partial = cache.getFollowElements(get(PartialParser.class), entryNode, document,
+				offset, false);
+		assertFalse(partial.isEmpty());
+		assertEquals(getGrammarElements(cache.getFollowElements(parser, document, offset, false)),
+				getGrammarElements(partial));
+	}
+
+	protected Set<AbstractElement> getGrammarElements(Collection<FollowElement> followElements) {
+		Set<AbstractElement> result = Sets.newHashSet();
+		for (FollowElement followElement : followElements) {
+			result.add(followElement.getGrammarElement());
+		}
+		return result;
+	}
+
+}
@@ -9,6 +9,9 @@ package org.eclipse.xtext.ui.tests.editor.model;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+
+import org.antlr.runtime.CommonToken;
 
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.DocumentEvent;
@@ -35,7 +38,11 @@ public class DocumentTokenSourceTest extends Assert {
 	
 	@Before
 	public void setUp() throws Exception {
-		tokenSource = new DocumentTokenSource();
+		setUp(new DocumentTokenSource());
+	}
+	
+	protected void setUp(DocumentTokenSource tokenSource) {
+		this.tokenSource = tokenSource;
 		tokenSource.setLexer(new Provider<Lexer>() {
 			public Lexer get() {
 				return new org.eclipse.xtext.parser.antlr.internal.InternalXtextLexer();
@@ -45,7 +52,7 @@ public class DocumentTokenSourceTest extends Assert {
 		document.addDocumentListener(new IDocumentListener() {
 			
 			public void documentChanged(DocumentEvent event) {
-				tokenSource.updateStructure(event);
+				DocumentTokenSourceTest.this.tokenSource.updateStructure(event);
 			}
 			
 			public void documentAboutToBeChanged(DocumentEvent event) {
@@ -75,4 +82,44 @@ public class DocumentTokenSourceTest extends Assert {
 		assertEquals(3,region.getLength());
 	}
 	
+	@SuppressWarnings("deprecation")
+	@Test public void testOverriddenTokenInfoCreation() throws Exception {
+		setUp(new DocumentTokenSource() {
+			@Override
+			protected TokenInfo createTokenInfo(CommonToken token) {
+				return new TokenInfo(token) {
+					@Override
+					public int getAntlrTokenType() {
+						return 0;
+					}
+				};
+			}
+		});
+		document.set("foo bar");
+		document.replace(4, 0, "baz ");
+		for (ILexerTokenRegion region : tokenSource.getTokenInfos()) {
+			assertEquals(0, region.getLexerTokenType());
+		}
+		assertEquals(5, tokenSource.getTokenSnapshot().size());
+	}
+
+	@SuppressWarnings("deprecation")
+	@Test public void testModifyableTokenInfos() throws Exception {
+		final List<List<DocumentTokenSource.TokenInfo>> infos = Lists.newArrayList();
+		setUp(new DocumentTokenSource() {
+			{
+				infos.add(getInternalModifyableTokenInfos());
+			}
+		});
+		document.set("foo bar");
+		List<DocumentTokenSource.TokenInfo> list = infos.get(0);
+		assertEquals(3, list.size());
+		list.remove(1);
+		assertEquals(2, tokenSource.getTokenSnapshot().size());
+		assertEquals(6, tokenSource.getTokenSnapshot().getLength());
+		list.add(list.get(0));
+		assertEquals(3, tokenSource.getTokenSnapshot().size());
+		assertEquals(9, tokenSource.getTokenSnapshot().getLength());
+	}
+
 }
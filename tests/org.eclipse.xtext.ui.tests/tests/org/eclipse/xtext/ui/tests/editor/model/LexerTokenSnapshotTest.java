@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.xtext.ui.editor.model.ILexerTokenRegion;
+import org.eclipse.xtext.ui.editor.model.LexerTokenSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class LexerTokenSnapshotTest extends Assert {
+
+	@Test public void testEmpty() {
+		LexerTokenSnapshot empty = LexerTokenSnapshot.EMPTY;
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getLength());
+		assertEquals(0, empty.findTokenIndex(0));
+		assertFalse(empty.iterator().hasNext());
+	}
+
+	@Test public void testCreate() {
+		LexerTokenSnapshot tokens = LexerTokenSnapshot.create(new int[] { 4, 5, 6, 0 }, new int[] { 2, 1, 3, 0 }, 3);
+		assertEquals(3, tokens.size());
+		assertEquals(6, tokens.getLength());
+		assertEquals(3, tokens.getTokenOffset(2));
+		assertEquals(6, tokens.getTokenType(2));
+		assertEquals(0, tokens.findTokenIndex(1));
+		assertEquals(1, tokens.findTokenIndex(2));
+		assertEquals(2, tokens.findTokenIndex(5));
+		assertEquals(3, tokens.findTokenIndex(6));
+		Iterator<ILexerTokenRegion> iterator = tokens.iterator(1);
+		ILexerTokenRegion token = iterator.next();
+		assertEquals(2, token.getOffset());
+		assertEquals(1, token.getLength());
+		assertEquals(5, token.getLexerTokenType());
+	}
+
+	@Test public void testReplaceKeepsSnapshot() {
+		LexerTokenSnapshot tokens = LexerTokenSnapshot.create(new int[] { 1, 2, 3 }, new int[] { 1, 2, 3 }, 3);
+		LexerTokenSnapshot replaced = tokens.replace(1, 2, new int[] { 7, 8 }, new int[] { 4, 4 }, 2);
+		assertEquals(3, tokens.size());
+		assertEquals(6, tokens.getLength());
+		assertEquals(4, replaced.size());
+		assertEquals(12, replaced.getLength());
+		assertEquals(9, replaced.getTokenOffset(3));
+		assertEquals(8, replaced.getTokenType(2));
+	}
+
+	@Test public void testIteratorAtOffset() {
+		LexerTokenSnapshot tokens = LexerTokenSnapshot.create(new int[] { 1, 2, 3 }, new int[] { 2, 2, 2 }, 3);
+		assertEquals(2, LexerTokenSnapshot.iterator(tokens, 4).next().getOffset());
+		assertEquals(0, LexerTokenSnapshot.iterator(tokens, 1).next().getOffset());
+		assertEquals(4, LexerTokenSnapshot.iterator(tokens, 10).next().getOffset());
+	}
+
+	@Test public void testRandomReplacements() {
+		Random random = new Random(4711);
+		List<int[]> expected = Lists.newArrayList();
+		LexerTokenSnapshot tokens = LexerTokenSnapshot.EMPTY;
+		for (int i = 0; i < 500; i++) {
+			int from = random.nextInt(expected.size() + 1);
+			int to = from + random.nextInt(Math.min(expected.size() - from, 50) + 1);
+			int count = random.nextInt(i % 50 == 0 ? 3000 : 40);
+			int[] types = new int[count];
+			int[] lengths = new int[count];
+			for (int j = 0; j < count; j++) {
+				types[j] = random.nextInt(100);
+				lengths[j] = random.nextInt(5);
+			}
+			expected.subList(from, to).clear();
+			for (int j = 0; j < count; j++) {
+				expected.add(from + j, new int[] { types[j], lengths[j] });
+			}
+			tokens = tokens.replace(from, to, types, lengths, count);
+			assertTokens(expected, tokens);
+		}
+	}
+
+	protected void assertTokens(List<int[]> expected, LexerTokenSnapshot tokens) {
+		assertEquals(expected.size(), tokens.size());
+		Iterator<ILexerTokenRegion> iterator = tokens.iterator();
+		int offset = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			int[] token = expected.get(i);
+			ILexerTokenRegion region = iterator.next();
+			assertEquals(token[0], region.getLexerTokenType());
+			assertEquals(token[1], region.getLength());
+			assertEquals(offset, region.getOffset());
+			assertEquals(offset, tokens.getTokenOffset(i));
+			if (token[1] > 0)
+				assertEquals(i, tokens.findTokenIndex(offset));
+			offset += token[1];
+		}
+		assertFalse(iterator.hasNext());
+		assertEquals(offset, tokens.getLength());
+	}
+
+}
@@ -8,16 +8,27 @@
 package org.eclipse.xtext.ui.tests.editor.syntaxcoloring;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.IHighlightedPositionAcceptor;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.IIncrementalSemanticHighlightingCalculator;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.ISemanticHighlightingCalculator;
 import org.eclipse.xtext.ui.editor.syntaxcoloring.LightweightPosition;
 import org.eclipse.xtext.ui.editor.syntaxcoloring.MergingHighlightedPositionAcceptor;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.Strings;
+import org.eclipse.xtext.util.TextRegion;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
  */
@@ -412,6 +423,62 @@ public class MergingHighlightedPositionAcceptorTest extends Assert {
 		checkPosition(positions.get(7), 129, 12, 3, "1");
 	}
 	
+	@Test public void testIncremental_01() {
+		acceptor = new MergingHighlightedPositionAcceptor(new IncrementalCalculator(new TextRegion(2, 4)));
+		final List<LightweightPosition> accepted = Lists.newArrayList();
+		ITextRegion result = acceptor.provideHighlightingFor(null, new ReplaceRegion(3, 1, "a"), null, new IHighlightedPositionAcceptor() {
+			public void addPosition(int offset, int length, String... id) {
+				accepted.add(new LightweightPosition(offset, length, 0, id));
+			}
+		});
+		assertEquals(new TextRegion(2, 4), result);
+		assertEquals("accepted.size", 2, accepted.size());
+		checkPosition(accepted.get(0), 2, 1, 0, "1");
+		checkPosition(accepted.get(1), 3, 2, 0, "1", "2");
+	}
+	
+	@Test public void testIncremental_02() {
+		acceptor = new MergingHighlightedPositionAcceptor(new IncrementalCalculator(null));
+		ITextRegion result = acceptor.provideHighlightingFor(null, new ReplaceRegion(3, 1, "a"), null, new IHighlightedPositionAcceptor() {
+			public void addPosition(int offset, int length, String... id) {
+				fail();
+			}
+		});
+		assertNull(result);
+		assertTrue(acceptor.getPositions().isEmpty());
+	}
+	
+	@Test public void testIncremental_03() {
+		acceptor = new MergingHighlightedPositionAcceptor(new ISemanticHighlightingCalculator() {
+			public void provideHighlightingFor(XtextResource resource, IHighlightedPositionAcceptor acceptor) {
+				fail();
+			}
+		});
+		assertNull(acceptor.provideHighlightingFor(null, new ReplaceRegion(3, 1, "a"), null, null));
+	}
+	
+	private static class IncrementalCalculator implements IIncrementalSemanticHighlightingCalculator {
+		
+		private final ITextRegion result;
+		
+		private IncrementalCalculator(ITextRegion result) {
+			this.result = result;
+		}
+		
+		public void provideHighlightingFor(XtextResource resource, IHighlightedPositionAcceptor acceptor) {
+			fail();
+		}
+		
+		public ITextRegion provideHighlightingFor(XtextResource resource, ReplaceRegion region,
+				Collection<EObject> reparsedElements, IHighlightedPositionAcceptor acceptor) {
+			acceptor.addPosition(0, 1, "0");
+			acceptor.addPosition(2, 3, "1");
+			acceptor.addPosition(3, 2, "2");
+			acceptor.addPosition(5, 2, "3");
+			return result;
+		}
+	}
+	
 	private void checkPosition(LightweightPosition position, int offset, int length, int timestamp, String... ids) {
 		assertNotNull(position);
 		if (timestamp >= 0)
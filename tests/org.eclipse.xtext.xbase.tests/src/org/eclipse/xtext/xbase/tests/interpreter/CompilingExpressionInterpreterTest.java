@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.tests.interpreter;
+
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.XBlockExpression;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.compiler.OnTheFlyJavaCompiler.EclipseRuntimeDependentJavaCompiler;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
+import org.eclipse.xtext.xbase.interpreter.IJavaClassCompiler;
+import org.eclipse.xtext.xbase.interpreter.impl.CompilingExpressionInterpreter;
+import org.eclipse.xtext.xbase.interpreter.impl.DefaultEvaluationContext;
+import org.eclipse.xtext.xbase.junit.evaluation.AbstractXbaseEvaluationTest;
+import org.eclipse.xtext.xbase.lib.Functions;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+
+/**
+ * Evaluates the expressions of the {@link XbaseInterpreterTest} with the {@link CompilingExpressionInterpreter}.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class CompilingExpressionInterpreterTest extends XbaseInterpreterTest {
+
+	@Inject
+	private Injector injector;
+
+	@Inject
+	private EclipseRuntimeDependentJavaCompiler javaCompiler;
+
+	private TestingInterpreter compilingInterpreter;
+
+	private boolean failOnFallback;
+
+	private class TestingInterpreter extends CompilingExpressionInterpreter {
+		@Override
+		protected void compilationFailed(XExpression expression, String javaCode, Exception exception) {
+			if (failOnFallback)
+				throw new AssertionError("Java compilation failed. Java code was : \n" + javaCode);
+		}
+
+		@Override
+		public CompiledExpression getCompiledExpression(XExpression expression) {
+			return super.getCompiledExpression(expression);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		javaCompiler.clearClassPath();
+		javaCompiler.addClassPathOfClass(getClass());
+		javaCompiler.addClassPathOfClass(AbstractXbaseEvaluationTest.class);
+		javaCompiler.addClassPathOfClass(Functions.class);
+		javaCompiler.addClassPathOfClass(Provider.class);
+		javaCompiler.addClassPathOfClass(javax.inject.Provider.class);
+		javaCompiler.addClassPathOfClass(Supplier.class);
+		failOnFallback = true;
+		compilingInterpreter = new TestingInterpreter();
+		injector.injectMembers(compilingInterpreter);
+		compilingInterpreter.setJavaCompiler(new IJavaClassCompiler() {
+			public Class<?> compileToClass(String className, String javaCode) {
+				return javaCompiler.compileToClass(className, javaCode);
+			}
+		});
+	}
+
+	@Override
+	protected IEvaluationResult evaluate(XExpression expression) {
+		return compilingInterpreter.evaluate(expression);
+	}
+
+	@Override
+	@Test
+	public void testInvokeProtectedMethod() throws Exception {
+		// the generated class may not access protected members, so the expression is interpreted
+		failOnFallback = false;
+		super.testInvokeProtectedMethod();
+	}
+
+	@Test public void testCompiledExpressionIsReused() throws Exception {
+		XExpression expression = expression("{ val x = newArrayList('a', 'b') x.size }", true);
+		IEvaluationResult first = compilingInterpreter.evaluate(expression);
+		assertEquals(Integer.valueOf(2), first.getResult());
+		IEvaluationResult second = compilingInterpreter.evaluate(expression);
+		assertEquals(Integer.valueOf(2), second.getResult());
+		Object compiledExpression = compilingInterpreter.getCompiledExpression(expression);
+		assertNotNull(compiledExpression);
+		assertSame(compiledExpression, compilingInterpreter.getCompiledExpression(expression));
+	}
+
+	@Test public void testCanceled() throws Exception {
+		XExpression expression = expression("'foo'", true);
+		IEvaluationResult result = compilingInterpreter.evaluate(expression, new DefaultEvaluationContext(),
+				new CancelIndicator() {
+					public boolean isCanceled() {
+						return true;
+					}
+				});
+		assertNull(result);
+	}
+
+	@Test public void testCancelIndicatorIsChecked() throws Exception {
+		XExpression expression = expression("{ val x = 1 x + 1 }", true);
+		final int[] checks = new int[1];
+		IEvaluationResult result = compilingInterpreter.evaluate(expression, new DefaultEvaluationContext(),
+				new CancelIndicator() {
+					public boolean isCanceled() {
+						checks[0]++;
+						return false;
+					}
+				});
+		assertEquals(Integer.valueOf(2), result.getResult());
+		assertTrue(checks[0] > 0);
+	}
+
+	@Test public void testContextValuesArePassedAsParameters() throws Exception {
+		XBlockExpression block = (XBlockExpression) expression("{ val x = 1 x + 1 }", true);
+		XExpression expression = block.getExpressions().get(1);
+		DefaultEvaluationContext context = new DefaultEvaluationContext();
+		context.newValue(QualifiedName.create("x"), 41);
+		IEvaluationResult result = compilingInterpreter.evaluate(expression, context, CancelIndicator.NullImpl);
+		assertEquals(Integer.valueOf(42), result.getResult());
+		assertNotNull(compilingInterpreter.getCompiledExpression(expression));
+		context = new DefaultEvaluationContext();
+		context.newValue(QualifiedName.create("x"), 2);
+		result = compilingInterpreter.evaluate(expression, context, CancelIndicator.NullImpl);
+		assertEquals(Integer.valueOf(3), result.getResult());
+	}
+
+	@Test public void testCancelIndicatorIsCheckedInLoop() throws Exception {
+		XExpression expression = expression("{ var i = 0 while (true) { i = i + 1 } }", true);
+		final int[] checks = new int[1];
+		IEvaluationResult result = compilingInterpreter.evaluate(expression, new DefaultEvaluationContext(),
+				new CancelIndicator() {
+					public boolean isCanceled() {
+						return checks[0]++ > 10;
+					}
+				});
+		assertNull(result);
+		assertNotNull(compilingInterpreter.getCompiledExpression(expression));
+	}
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.tests.interpreter;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
+import org.eclipse.xtext.xbase.interpreter.impl.DefaultEvaluationContext;
+import org.eclipse.xtext.xbase.interpreter.impl.PreparedExpression;
+import org.eclipse.xtext.xbase.interpreter.impl.XbaseInterpreter;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * Evaluates the expressions of the {@link XbaseInterpreterTest} as {@link PreparedExpression prepared expressions}.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class PreparedXbaseInterpreterTest extends XbaseInterpreterTest {
+
+	@Inject
+	private XbaseInterpreter preparingInterpreter;
+
+	@Override
+	protected IEvaluationResult evaluate(XExpression expression) {
+		return preparingInterpreter.prepare(expression).evaluate();
+	}
+
+	@Test public void testConcurrentEvaluation() throws Exception {
+		XExpression expression = expression(
+				"{ val list = <String>newArrayList for (i : 1..100) list += i.toString list.map[ length ].reduce[ a, b | a + b ] }", true);
+		final PreparedExpression preparedExpression = preparingInterpreter.prepare(expression);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Object>> results = Lists.newArrayList();
+			for (int i = 0; i < 40; i++) {
+				results.add(executor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						IEvaluationResult result = preparedExpression.evaluate(new DefaultEvaluationContext(),
+								CancelIndicator.NullImpl);
+						if (result.getException() != null)
+							throw new RuntimeException(result.getException());
+						return result.getResult();
+					}
+				}));
+			}
+			for (Future<Object> result : results) {
+				assertEquals(192, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
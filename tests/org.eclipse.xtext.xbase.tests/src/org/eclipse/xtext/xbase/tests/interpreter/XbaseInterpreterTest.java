@@ -67,7 +67,7 @@ public class XbaseInterpreterTest extends AbstractXbaseEvaluationTest {
 		XExpression expression = null;
 		try {
 			expression = expression(model, validate);
-			IEvaluationResult result = interpreter.evaluate(expression);
+			IEvaluationResult result = evaluate(expression);
 			assertNull("Expected no exception. Model was: " + model + ", Exception was: " + result.getException(),
 					result.getException());
 			if(expectation != null && expectation.getClass().isArray())
@@ -90,7 +90,7 @@ public class XbaseInterpreterTest extends AbstractXbaseEvaluationTest {
 		XExpression expression = null;
 		try {
 			expression = expression(model,true);
-			IEvaluationResult result = interpreter.evaluate(expression);
+			IEvaluationResult result = evaluate(expression);
 			assertTrue("Expected " + expectatedException.getSimpleName() + " but got: " + result.getException(),
 					expectatedException.isInstance(result.getException()));
 		} catch (Exception e) {
@@ -104,6 +104,10 @@ public class XbaseInterpreterTest extends AbstractXbaseEvaluationTest {
 		}
 	}
 	
+	protected IEvaluationResult evaluate(XExpression expression) {
+		return interpreter.evaluate(expression);
+	}
+
 	protected XExpression expression(String string, boolean resolve) throws Exception {
 		XExpression result = parseHelper.parse(string);
 		if (resolve) {
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2013 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.xbase.ui.tests.highlighting;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.HighlightingReconciler;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.IHighlightedPositionAcceptor;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.MergingHighlightedPositionAcceptor;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
+import org.eclipse.xtext.util.StringInputStream;
+import org.eclipse.xtext.xbase.ui.highlighting.XbaseHighlightingCalculator;
+import org.eclipse.xtext.xbase.ui.tests.AbstractXbaseUITestCase;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+
+/**
+ * Tests that the incremental highlighting of the {@link XbaseHighlightingCalculator} equals the highlighting of the
+ * whole resource within the returned region.
+ * 
+ * @author Sebastian Zarnekow - Initial contribution and API
+ */
+public class XbaseIncrementalHighlightingTest extends AbstractXbaseUITestCase {
+
+	private static class TestedHighlightingReconciler extends HighlightingReconciler {
+		@Override
+		public Collection<EObject> getReparsedElements(XtextResource resource, ReplaceRegion region) {
+			return super.getReparsedElements(resource, region);
+		}
+	}
+
+	public static class CustomHighlightingCalculator extends XbaseHighlightingCalculator {
+		@Override
+		protected void doProvideHighlightingFor(XtextResource resource, IHighlightedPositionAcceptor acceptor) {
+			super.doProvideHighlightingFor(resource, acceptor);
+			acceptor.addPosition(0, 1, "custom");
+		}
+	}
+
+	@Inject
+	private XbaseHighlightingCalculator calculator;
+
+	@Inject
+	private CustomHighlightingCalculator customCalculator;
+
+	@Override
+	protected boolean doCleanWorkspace() {
+		return false;
+	}
+
+	@Test public void testEditLiteral() throws Exception {
+		assertIncrementalEqualsFull("{ val x = newArrayList('a') x.size }", "'a'", "'b', 'c'");
+	}
+
+	@Test public void testEditFeatureCall() throws Exception {
+		assertIncrementalEqualsFull("{ val x = 1 val y = x + 1 y.toString }", "y.toString", "x.toString");
+	}
+
+	@Test public void testInsertVariable() throws Exception {
+		assertIncrementalEqualsFull("{ val x = 1 x.toString }", "x.toString", "val it = x toString");
+	}
+
+	@Test public void testSyntaxError() throws Exception {
+		String model = "{ val x = 1 x.toString }";
+		XtextResource resource = update(model, "x.toString", "x.");
+		ReplaceRegion region = new ReplaceRegion(model.indexOf("x.toString"), "x.toString".length(), "x.");
+		assertNull(new TestedHighlightingReconciler().getReparsedElements(resource, region));
+	}
+
+	@Test public void testValidationDisabled() throws Exception {
+		String model = "{ val x = 1 x.toString }";
+		XtextResource resource = update(model, "1", "2");
+		resource.setValidationDisabled(true);
+		ReplaceRegion region = new ReplaceRegion(model.indexOf("1"), 1, "2");
+		Collection<EObject> reparsedElements = new TestedHighlightingReconciler().getReparsedElements(resource, region);
+		assertNotNull(reparsedElements);
+		assertNull(calculator.provideHighlightingFor(resource, region, reparsedElements, null));
+	}
+
+	@Test public void testCustomHighlightingIsNotIncremental() throws Exception {
+		String model = "{ val x = 1 x.toString }";
+		XtextResource resource = update(model, "1", "2");
+		ReplaceRegion region = new ReplaceRegion(model.indexOf("1"), 1, "2");
+		Collection<EObject> reparsedElements = new TestedHighlightingReconciler().getReparsedElements(resource, region);
+		assertNotNull(reparsedElements);
+		assertNotNull(calculator.provideHighlightingFor(resource, region, reparsedElements, collect(
+				Lists.<String>newArrayList(), null)));
+		assertNull(customCalculator.provideHighlightingFor(resource, region, reparsedElements, null));
+	}
+
+	protected void assertIncrementalEqualsFull(String model, String replaced, String replacement) throws Exception {
+		XtextResource resource = update(model, replaced, replacement);
+		ReplaceRegion region = new ReplaceRegion(model.indexOf(replaced), replaced.length(), replacement);
+		Collection<EObject> reparsedElements = new TestedHighlightingReconciler().getReparsedElements(resource, region);
+		assertNotNull(reparsedElements);
+		List<String> incremental = Lists.newArrayList();
+		ITextRegion highlightedRegion = new MergingHighlightedPositionAcceptor(calculator).provideHighlightingFor(
+				resource, region, reparsedElements, collect(incremental, null));
+		assertNotNull(highlightedRegion);
+		assertTrue(highlightedRegion.getOffset() <= region.getOffset());
+		assertTrue(highlightedRegion.getOffset() + highlightedRegion.getLength() >= region.getOffset()
+				+ replacement.length());
+		List<String> full = Lists.newArrayList();
+		new MergingHighlightedPositionAcceptor(calculator).provideHighlightingFor(resource,
+				collect(full, highlightedRegion));
+		assertFalse(full.isEmpty());
+		assertEquals(full, incremental);
+	}
+
+	protected XtextResource update(String model, String replaced, String replacement) throws Exception {
+		XtextResource resource = getResourceFor(new StringInputStream(model));
+		assertTrue(resource.getErrors().toString(), resource.getErrors().isEmpty());
+		resource.update(model.indexOf(replaced), replaced.length(), replacement);
+		return resource;
+	}
+
+	/**
+	 * Collects the positions within the given region or all positions if the region is <code>null</code>.
+	 */
+	protected IHighlightedPositionAcceptor collect(final List<String> result, final ITextRegion region) {
+		return new IHighlightedPositionAcceptor() {
+			public void addPosition(int offset, int length, String... ids) {
+				if (region == null
+						|| (offset >= region.getOffset() && offset + length <= region.getOffset() + region.getLength()))
+					result.add(offset + ":" + length + ":" + Lists.newArrayList(ids));
+			}
+		};
+	}
+
+}